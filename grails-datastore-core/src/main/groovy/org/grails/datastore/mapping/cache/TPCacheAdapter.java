@@ -49,4 +49,28 @@ public interface TPCacheAdapter<T> {
      * @throws CacheException runtime exception indicating any cache-related problems
      */
     T getCachedEntry(Serializable key) throws CacheException;
+
+    /**
+     * Removes the entry for the specified key, if any. Called when the entity is updated or deleted.
+     * @param key the entry key
+     * @throws CacheException runtime exception indicating any cache-related problems
+     */
+    default void evictEntry(Serializable key) throws CacheException {
+        // no-op by default
+    }
+
+    /**
+     * Removes all of the entries of this cache.
+     * @throws CacheException runtime exception indicating any cache-related problems
+     */
+    default void evictAll() throws CacheException {
+        // no-op by default
+    }
+
+    /**
+     * @return The statistics of this cache or {@link TPCacheStatistics#EMPTY} if statistics are not recorded
+     */
+    default TPCacheStatistics getStatistics() {
+        return TPCacheStatistics.EMPTY;
+    }
 }
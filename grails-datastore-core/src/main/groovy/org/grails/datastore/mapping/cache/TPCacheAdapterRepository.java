@@ -2,6 +2,9 @@ package org.grails.datastore.mapping.cache;
 
 import org.grails.datastore.mapping.model.PersistentEntity;
 
+import java.io.Serializable;
+import java.util.List;
+
 /**
  * A repository of {@link TPCacheAdapter}s.
  *
@@ -15,6 +18,16 @@ public interface TPCacheAdapterRepository<T> {
      */
     TPCacheAdapter<T> getTPCacheAdapter(PersistentEntity entity);
 
+    /**
+     * Returns the query results region for the specified {@link PersistentEntity}. The region stores the identifiers
+     * of the results of a query and is evicted whenever an instance of the entity is inserted, updated or deleted.
+     * @param entity the entity
+     * @return null if query results of the specified entity are not cached
+     */
+    default TPCacheAdapter<List<Serializable>> getQueryResultsTPCacheAdapter(PersistentEntity entity) {
+        return null;
+    }
+
     /**
      * Sets {@link TPCacheAdapter} for the specified {@link PersistentEntity}.
      * If the specified entity had another cache adapter before, the old one is ignored after this call.
@@ -0,0 +1,128 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache.impl;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.grails.datastore.mapping.cache.TPCacheAdapter;
+import org.grails.datastore.mapping.cache.TPCacheStatistics;
+import org.grails.datastore.mapping.cache.exception.CacheException;
+import org.grails.datastore.mapping.config.SecondLevelCache;
+
+/**
+ * A {@link TPCacheAdapter} backed by a local Caffeine cache with optional size or weight limits and expiry.
+ *
+ * @param <T> The native entry type
+ * @since 9.0
+ */
+public class CaffeineTPCacheAdapter<T> implements TPCacheAdapter<T> {
+
+    private final Cache<Serializable, T> cache;
+
+    /**
+     * Creates an adapter for the given settings
+     *
+     * @param settings The second-level cache settings of the entity
+     */
+    public CaffeineTPCacheAdapter(SecondLevelCache settings) {
+        this.cache = newBuilder(settings).recordStats().build();
+    }
+
+    /**
+     * Creates an adapter from a pre-configured builder. Statistics are always recorded.
+     *
+     * @param builder The builder
+     */
+    public CaffeineTPCacheAdapter(Caffeine<Object, Object> builder) {
+        this.cache = builder.recordStats().build();
+    }
+
+    @Override
+    public void cacheEntry(Serializable key, T entry) throws CacheException {
+        if (key == null || entry == null) {
+            return;
+        }
+        cache.put(key, entry);
+    }
+
+    @Override
+    public T getCachedEntry(Serializable key) throws CacheException {
+        if (key == null) {
+            return null;
+        }
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void evictEntry(Serializable key) throws CacheException {
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    @Override
+    public void evictAll() throws CacheException {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public TPCacheStatistics getStatistics() {
+        CacheStats stats = cache.stats();
+        return new TPCacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+
+    /**
+     * Creates a Caffeine builder for the given settings
+     *
+     * @param settings The settings
+     * @return The builder
+     */
+    protected static Caffeine<Object, Object> newBuilder(SecondLevelCache settings) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (settings == null) {
+            return builder;
+        }
+        if (settings.getMaximumWeight() != null) {
+            builder.maximumWeight(settings.getMaximumWeight())
+                   .weigher((key, value) -> weigh(value));
+        }
+        else if (settings.getMaximumSize() != null) {
+            builder.maximumSize(settings.getMaximumSize());
+        }
+        if (settings.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(Duration.ofSeconds(settings.getExpireAfterWrite()));
+        }
+        if (settings.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(Duration.ofSeconds(settings.getExpireAfterAccess()));
+        }
+        return builder;
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof Map) {
+            return Math.max(1, ((Map) value).size());
+        }
+        else if (value instanceof Collection) {
+            return Math.max(1, ((Collection) value).size());
+        }
+        return 1;
+    }
+}
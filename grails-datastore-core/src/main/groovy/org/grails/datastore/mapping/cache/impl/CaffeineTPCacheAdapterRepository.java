@@ -0,0 +1,114 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache.impl;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.grails.datastore.mapping.cache.TPCacheAdapter;
+import org.grails.datastore.mapping.cache.TPCacheStatistics;
+import org.grails.datastore.mapping.config.Entity;
+import org.grails.datastore.mapping.config.SecondLevelCache;
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+/**
+ * A {@link org.grails.datastore.mapping.cache.TPCacheAdapterRepository} that creates a {@link CaffeineTPCacheAdapter}
+ * for every entity with a <code>secondLevelCache</code> setting in its mapping block, and a query results region for the
+ * entities that enable <code>queries</code>. Adapters registered explicitly take precedence over the mapping.
+ *
+ * @param <T> The native entry type
+ * @since 9.0
+ */
+public class CaffeineTPCacheAdapterRepository<T> extends TPCacheAdapterRepositoryImpl<T> {
+
+    private static final TPCacheAdapter NO_CACHE = new TPCacheAdapter() {
+        @Override
+        public void cacheEntry(Serializable key, Object entry) {
+        }
+
+        @Override
+        public Object getCachedEntry(Serializable key) {
+            return null;
+        }
+    };
+
+    private final Map<String, TPCacheAdapter<T>> mappedAdapters = new ConcurrentHashMap<>();
+    private final Map<String, TPCacheAdapter<List<Serializable>>> queryAdapters = new ConcurrentHashMap<>();
+
+    @Override
+    public TPCacheAdapter<T> getTPCacheAdapter(PersistentEntity entity) {
+        TPCacheAdapter<T> adapter = super.getTPCacheAdapter(entity);
+        if (adapter != null || entity == null) {
+            return adapter;
+        }
+        adapter = mappedAdapters.computeIfAbsent(entity.getJavaClass().getName(), name -> {
+            SecondLevelCache settings = getSecondLevelCache(entity);
+            return settings != null && settings.isEnabled() ? new CaffeineTPCacheAdapter<T>(settings) : NO_CACHE;
+        });
+        return adapter == NO_CACHE ? null : adapter;
+    }
+
+    @Override
+    public TPCacheAdapter<List<Serializable>> getQueryResultsTPCacheAdapter(PersistentEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        TPCacheAdapter<List<Serializable>> adapter = queryAdapters.computeIfAbsent(entity.getJavaClass().getName(), name -> {
+            SecondLevelCache settings = getSecondLevelCache(entity);
+            return settings != null && settings.isEnabled() && settings.isQueries() ? new CaffeineTPCacheAdapter<List<Serializable>>(settings) : NO_CACHE;
+        });
+        return adapter == NO_CACHE ? null : adapter;
+    }
+
+    /**
+     * Evicts every entry of the entity and query results regions created from the mapping
+     */
+    public void evictAll() {
+        for (TPCacheAdapter<T> adapter : mappedAdapters.values()) {
+            adapter.evictAll();
+        }
+        for (TPCacheAdapter<List<Serializable>> adapter : queryAdapters.values()) {
+            adapter.evictAll();
+        }
+    }
+
+    /**
+     * @param entity The entity
+     * @return The statistics of the entity region, or {@link TPCacheStatistics#EMPTY} if the entity is not cached
+     */
+    public TPCacheStatistics getStatistics(PersistentEntity entity) {
+        TPCacheAdapter<T> adapter = getTPCacheAdapter(entity);
+        return adapter != null ? adapter.getStatistics() : TPCacheStatistics.EMPTY;
+    }
+
+    /**
+     * @param entity The entity
+     * @return The statistics of the query results region, or {@link TPCacheStatistics#EMPTY} if queries are not cached
+     */
+    public TPCacheStatistics getQueryResultsStatistics(PersistentEntity entity) {
+        TPCacheAdapter<List<Serializable>> adapter = getQueryResultsTPCacheAdapter(entity);
+        return adapter != null ? adapter.getStatistics() : TPCacheStatistics.EMPTY;
+    }
+
+    protected SecondLevelCache getSecondLevelCache(PersistentEntity entity) {
+        Object mappedForm = entity.getMapping() != null ? entity.getMapping().getMappedForm() : null;
+        if (mappedForm instanceof Entity) {
+            return ((Entity) mappedForm).getSecondLevelCache();
+        }
+        return null;
+    }
+}
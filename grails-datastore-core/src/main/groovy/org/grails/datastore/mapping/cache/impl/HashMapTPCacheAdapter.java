@@ -1,13 +1,16 @@
 package org.grails.datastore.mapping.cache.impl;
 
 import org.grails.datastore.mapping.cache.TPCacheAdapter;
+import org.grails.datastore.mapping.cache.TPCacheStatistics;
 import org.grails.datastore.mapping.cache.exception.CacheException;
 
 import java.io.Serializable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Simple implementation of {@link org.grails.datastore.mapping.cache.TPCacheAdapter} backed by a local hash map.
+ * The map is unbounded, use {@link CaffeineTPCacheAdapter} for size limits and expiry.
  *
  * @author Roman Stepanenko
  */
@@ -17,8 +20,32 @@ public class HashMapTPCacheAdapter<T> implements TPCacheAdapter<T> {
     }
 
     public T getCachedEntry(Serializable key) throws CacheException {
-        return cache.get(key);
+        T entry = cache.get(key);
+        if (entry == null) {
+            missCount.increment();
+        }
+        else {
+            hitCount.increment();
+        }
+        return entry;
+    }
+
+    @Override
+    public void evictEntry(Serializable key) throws CacheException {
+        cache.remove(key);
+    }
+
+    @Override
+    public void evictAll() throws CacheException {
+        cache.clear();
+    }
+
+    @Override
+    public TPCacheStatistics getStatistics() {
+        return new TPCacheStatistics(hitCount.sum(), missCount.sum(), 0, cache.size());
     }
 
     private ConcurrentHashMap<Object, T> cache = new ConcurrentHashMap<Object, T>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
 }
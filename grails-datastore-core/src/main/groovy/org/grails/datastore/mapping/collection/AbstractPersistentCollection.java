@@ -14,17 +14,27 @@
  */
 package org.grails.datastore.mapping.collection;
 
+import org.grails.datastore.mapping.config.Property;
+import org.grails.datastore.mapping.core.BatchFetchQueue;
 import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.core.SessionImplementor;
 import org.grails.datastore.mapping.engine.AssociationIndexer;
 import org.grails.datastore.mapping.engine.AssociationQueryExecutor;
+import org.grails.datastore.mapping.metrics.DatastoreInstrumentation;
 import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.PropertyMapping;
 import org.grails.datastore.mapping.model.types.Association;
+import org.grails.datastore.mapping.proxy.ProxyHandler;
 import org.grails.datastore.mapping.query.Query;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Abstract base class for persistent collections.
@@ -46,6 +56,8 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
     protected final Collection collection;
     protected int originalSize;
     protected boolean proxyEntities = false;
+    protected transient Association batchFetchAssociation;
+    protected transient int batchSize;
 
     protected AbstractPersistentCollection(Class childType, Session session, Collection collection) {
         this.childType = childType;
@@ -79,11 +91,59 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
                 return query.list();
             }
 
+            @Override
+            public Map queryAll(Collection primaryKeys) {
+                if (!association.isBidirectional()) {
+                    // without an inverse side there is nothing to query the owners by in one go
+                    return AssociationQueryExecutor.super.queryAll(primaryKeys);
+                }
+                Association inverseSide = association.getInverseSide();
+                PersistentEntity associatedEntity = association.getAssociatedEntity();
+                Query query = session.createQuery(associatedEntity.getJavaClass());
+                query.in(inverseSide.getName(), new ArrayList(primaryKeys));
+                // only the identifiers and the owners are needed, the elements themselves are retrieved when iterated
+                query.projections().id().property(inverseSide.getName());
+
+                Map results = new LinkedHashMap();
+                for (Object primaryKey : primaryKeys) {
+                    results.put(primaryKey, new ArrayList());
+                }
+                ProxyHandler proxyHandler = session.getMappingContext().getProxyHandler();
+                for (Object row : query.list()) {
+                    Object key;
+                    Object owner;
+                    if (row instanceof Object[]) {
+                        key = ((Object[]) row)[0];
+                        owner = ((Object[]) row)[1];
+                    }
+                    else {
+                        key = ((List) row).get(0);
+                        owner = ((List) row).get(1);
+                    }
+                    if (owner == null) {
+                        continue;
+                    }
+                    Object ownerKey = owner;
+                    if (proxyHandler.isProxy(owner)) {
+                        ownerKey = proxyHandler.getIdentifier(owner);
+                    }
+                    else if (inverseSide.getAssociatedEntity().isInstance(owner)) {
+                        ownerKey = session.getObjectIdentifier(owner);
+                    }
+                    List keys = (List) results.get(ownerKey);
+                    if (keys != null) {
+                        keys.add(key);
+                    }
+                }
+                return results;
+            }
+
             @Override
             public PersistentEntity getIndexedEntity() {
                 return association.getAssociatedEntity();
             }
         };
+        enableBatchFetch(association);
     }
 
     protected AbstractPersistentCollection(Collection keys, Class childType,
@@ -104,6 +164,30 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
         this.childType = indexer.getIndexedEntity().getJavaClass();
     }
 
+    /**
+     * Enables batch fetching if the association is mapped with a batch size greater than one. The collection is then initialized
+     * together with up to batch size - 1 other uninitialized collections of the same association in the session, using a single
+     * {@link AssociationQueryExecutor#queryAll(Collection)} call.
+     *
+     * @param association The association this collection belongs to
+     */
+    public void enableBatchFetch(Association association) {
+        if (initialized || associationKey == null || indexer == null || !(session instanceof SessionImplementor)) {
+            return;
+        }
+        PropertyMapping<Property> mapping = association.getMapping();
+        Integer batchSize = mapping != null && mapping.getMappedForm() != null ? mapping.getMappedForm().getBatchSize() : null;
+        if (batchSize == null || batchSize < 2) {
+            return;
+        }
+        BatchFetchQueue batchFetchQueue = ((SessionImplementor) session).getBatchFetchQueue();
+        if (batchFetchQueue != null) {
+            this.batchFetchAssociation = association;
+            this.batchSize = batchSize;
+            batchFetchQueue.addCollection(association, associationKey, this);
+        }
+    }
+
     /**
      * Whether to proxy entities by their keys
      *
@@ -287,6 +371,11 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
 
             initialized = true;
 
+            DatastoreInstrumentation instrumentation = DatastoreInstrumentation.of(session);
+            if (instrumentation != null && childType != null) {
+                instrumentation.collectionInitialized(session, childType);
+            }
+
             final Class childType = this.childType;
             if (associationKey == null) {
                 final Collection keys = this.keys;
@@ -296,31 +385,102 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
                 }
             }
             else {
-                List results = indexer.query(associationKey);
-                if(indexer.doesReturnKeys()) {
-
-                    PersistentEntity entity = indexer.getIndexedEntity();
+                List results = batchFetchAssociation != null ? queryBatch(session) : indexer.query(associationKey);
+                loadQueryResults(session, results);
+            }
+            this.originalSize = size();
+        } finally {
+            setInitializing(Boolean.FALSE);
+        }
+    }
 
-                    // This should really only happen for unit testing since entities are
-                    // mocked selectively and may not always be registered in the indexer. In this
-                    // case, there can't be any results to be added to the collection.
-                    if( entity != null ) {
-                        loadInverseChildKeys(session, entity.getJavaClass(), results);
-                    }
-                    else if(childType != null ){
-                        loadInverseChildKeys(session, childType, results);
-                    }
+    /**
+     * Queries the elements of this collection together with those of other uninitialized collections of the same association
+     * registered with the {@link BatchFetchQueue} of the session and initializes the other collections.
+     *
+     * @param session The session
+     * @return The query results for this collection
+     */
+    protected List queryBatch(Session session) {
+        BatchFetchQueue batchFetchQueue = ((SessionImplementor) session).getBatchFetchQueue();
+        List<PersistentCollection> others = batchFetchQueue.pollCollections(batchFetchAssociation, associationKey, batchSize);
+        List<AbstractPersistentCollection> batch = new ArrayList<>();
+        List<Serializable> keys = new ArrayList<>();
+        keys.add(associationKey);
+        for (PersistentCollection other : others) {
+            if (other instanceof AbstractPersistentCollection) {
+                AbstractPersistentCollection collection = (AbstractPersistentCollection) other;
+                if (collection.initializing == null && collection.session == session && collection.associationKey != null) {
+                    batch.add(collection);
+                    keys.add(collection.associationKey);
                 }
-                else {
-                    addAll(results);
+            }
+        }
+        if (batch.isEmpty()) {
+            return indexer.query(associationKey);
+        }
+
+        Map<Serializable, List> results = indexer.queryAll(keys);
+        if (indexer.doesReturnKeys() && !proxyEntities) {
+            // retrieve the elements of all the collections at once, the collections are then populated from the session cache
+            PersistentEntity entity = indexer.getIndexedEntity();
+            Class type = entity != null ? entity.getJavaClass() : childType;
+            List elementKeys = new ArrayList();
+            for (List keysOfCollection : results.values()) {
+                if (keysOfCollection != null) {
+                    elementKeys.addAll(keysOfCollection);
                 }
             }
+            if (type != null && !elementKeys.isEmpty()) {
+                session.retrieveAll(type, elementKeys);
+            }
+        }
+        for (AbstractPersistentCollection collection : batch) {
+            collection.initializeFromQueryResults(results.get(collection.associationKey));
+        }
+        List own = results.get(associationKey);
+        return own != null ? own : Collections.emptyList();
+    }
+
+    /**
+     * Initializes this collection from results queried on its behalf as part of a batch
+     *
+     * @param results The query results, can be null if there are none
+     */
+    protected void initializeFromQueryResults(List results) {
+        if (initializing != null) {
+            return;
+        }
+        setInitializing(Boolean.TRUE);
+        try {
+            initialized = true;
+            loadQueryResults(session, results != null ? results : Collections.emptyList());
             this.originalSize = size();
         } finally {
             setInitializing(Boolean.FALSE);
         }
     }
 
+    protected void loadQueryResults(Session session, List results) {
+        if(indexer.doesReturnKeys()) {
+
+            PersistentEntity entity = indexer.getIndexedEntity();
+
+            // This should really only happen for unit testing since entities are
+            // mocked selectively and may not always be registered in the indexer. In this
+            // case, there can't be any results to be added to the collection.
+            if( entity != null ) {
+                loadInverseChildKeys(session, entity.getJavaClass(), results);
+            }
+            else if(childType != null ){
+                loadInverseChildKeys(session, childType, results);
+            }
+        }
+        else {
+            addAll(results);
+        }
+    }
+
     protected void loadInverseChildKeys(Session session, Class childType, Collection keys) {
         if(!keys.isEmpty()) {
             if(proxyEntities) {
@@ -20,6 +20,8 @@ import groovy.transform.builder.Builder
 import groovy.transform.builder.SimpleStrategy
 import org.grails.datastore.mapping.core.connections.ConnectionSource
 import org.grails.datastore.mapping.model.config.GormProperties
+import org.springframework.beans.MutablePropertyValues
+import org.springframework.validation.DataBinder
 
 /**
  * Base class for classes returned from {@link org.grails.datastore.mapping.model.ClassMapping#getMappedForm()}
@@ -61,6 +63,11 @@ class Entity<P extends Property> {
      */
     boolean autowire = false
 
+    /**
+     * @return The second-level cache settings or null if instances are only cached in the session
+     */
+    SecondLevelCache secondLevelCache
+
     /**
      * @return The default sort order definition, could be a string or a map
      */
@@ -141,6 +148,45 @@ class Entity<P extends Property> {
         return this
     }
 
+    /**
+     * Enables or disables the second-level cache for this entity
+     *
+     * @param enabled Whether the cache is enabled
+     * @return This mapping
+     */
+    Entity<P> secondLevelCache(boolean enabled) {
+        this.secondLevelCache = new SecondLevelCache(enabled: enabled)
+        return this
+    }
+
+    /**
+     * Configures the second-level cache for this entity
+     *
+     * @param cacheConfig The cache settings
+     * @return This mapping
+     */
+    Entity<P> secondLevelCache(Map cacheConfig) {
+        SecondLevelCache cache = new SecondLevelCache()
+        new DataBinder(cache).bind(new MutablePropertyValues(cacheConfig))
+        this.secondLevelCache = cache
+        return this
+    }
+
+    /**
+     * Configures the second-level cache for this entity
+     *
+     * @param cacheConfig The cache settings
+     * @return This mapping
+     */
+    Entity<P> secondLevelCache(@DelegatesTo(SecondLevelCache) Closure cacheConfig) {
+        SecondLevelCache cache = new SecondLevelCache()
+        cacheConfig.setDelegate(cache)
+        cacheConfig.setResolveStrategy(Closure.DELEGATE_ONLY)
+        cacheConfig.call()
+        this.secondLevelCache = cache
+        return this
+    }
+
     /**
      * @return Whether this entity is versioned
      */
@@ -63,6 +63,13 @@ class Property implements Cloneable {
      * @return Whether to use lazy proxies for collection elements
      */
     Boolean lazy = null
+    /**
+     * The number of uninitialized collections or proxies of this association that are fetched together in one batch when one of them
+     * is initialized. Only makes sense if the property is an association, a value lower than 2 disables batch fetching
+     *
+     * @return The batch size
+     */
+    Integer batchSize = null
     /**
      * The target to map to, could be a database column, document attribute, or hash key
      *
@@ -0,0 +1,67 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.config
+
+import groovy.transform.AutoClone
+import groovy.transform.CompileStatic
+import groovy.transform.builder.Builder
+import groovy.transform.builder.SimpleStrategy
+
+/**
+ * The second-level cache settings of an entity, configured in the mapping block:
+ *
+ * <pre><code>
+ * static mapping = {
+ *     secondLevelCache maximumSize: 1000, expireAfterWrite: 600, queries: true
+ * }
+ * </code></pre>
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@AutoClone
+@Builder(builderStrategy = SimpleStrategy, prefix = '')
+class SecondLevelCache {
+
+    /**
+     * Whether instances of the entity are cached
+     */
+    boolean enabled = true
+
+    /**
+     * The maximum number of cached entries, if any
+     */
+    Long maximumSize
+
+    /**
+     * The maximum total weight of the cached entries, if any. The weight of an entry is the number of values it holds
+     */
+    Long maximumWeight
+
+    /**
+     * The number of seconds after which an entry expires once it is written, if any
+     */
+    Long expireAfterWrite
+
+    /**
+     * The number of seconds after which an entry expires once it was last read, if any
+     */
+    Long expireAfterAccess
+
+    /**
+     * Whether the results of queries against the entity are cached in a query results region
+     */
+    boolean queries = false
+}
@@ -19,10 +19,42 @@ public interface Settings {
      * The default flush mode
      */
     String SETTING_FLUSH_MODE = PREFIX + '.' + "flushMode";
+    /**
+     * The maximum number of pending operations of a single entity that are executed as one batch on flush
+     */
+    String SETTING_FLUSH_BATCH_SIZE = PREFIX + '.' + "flushBatchSize";
+    /**
+     * The maximum number of pending operations buffered by a session before it is flushed automatically. Sessions in COMMIT flush mode are not flushed automatically
+     */
+    String SETTING_MAX_PENDING_OPERATIONS = PREFIX + '.' + "maxPendingOperations";
+    /**
+     * The maximum estimated size in bytes of the pending operations buffered by a session before it is flushed automatically
+     */
+    String SETTING_MAX_PENDING_OPERATIONS_SIZE = PREFIX + '.' + "maxPendingOperationsSize";
+    /**
+     * The maximum number of cached query results of a single entity, for datastores that cache the results of queries executed with cache: true
+     */
+    String SETTING_QUERY_CACHE_MAXIMUM_SIZE = PREFIX + '.' + "queryCacheMaximumSize";
+    /**
+     * The number of seconds after which cached query results expire
+     */
+    String SETTING_QUERY_CACHE_EXPIRE_AFTER_WRITE = PREFIX + '.' + "queryCacheExpireAfterWrite";
+    /**
+     * Whether to record metrics of sessions, flushes and queries
+     */
+    String SETTING_METRICS_ENABLED = PREFIX + '.' + "metricsEnabled";
     /**
      * Whether to throw an exception on a validation error
      */
     String SETTING_FAIL_ON_ERROR = PREFIX + '.' + "failOnError";
+    /**
+     * The minimum size of a to-many association for validation to cascade to its elements in parallel
+     */
+    String SETTING_PARALLEL_CASCADE_VALIDATION_THRESHOLD = PREFIX + '.' + "parallelCascadeValidationThreshold";
+    /**
+     * The minimum number of entities for the mapping context to read their mapping metadata in parallel
+     */
+    String SETTING_PARALLEL_INITIALIZATION_THRESHOLD = PREFIX + '.' + "parallelInitializationThreshold";
     /**
      * Whether to mark the instance as dirty on an explicit save()
      */
@@ -54,6 +86,11 @@ public interface Settings {
      * The multi tenancy resolver class
      */
     String SETTING_MULTI_TENANT_RESOLVER = PREFIX + '.' + "multiTenancy.tenantResolver";
+
+    /**
+     * Whether the tenant id is resolved once for each unit of work wrapped by the persistence context interceptor
+     */
+    String SETTING_MULTI_TENANCY_CACHE_TENANT_RESOLUTION = PREFIX + '.' + "multiTenancy.cacheTenantResolution";
     /**
      * The data sources setting
      */
@@ -20,11 +20,16 @@ import groovy.lang.MetaClassRegistry;
 import groovy.util.ConfigObject;
 import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
 import org.grails.datastore.mapping.config.Property;
+import org.grails.datastore.mapping.metrics.DatastoreInstrumentation;
+import org.grails.datastore.mapping.metrics.InstrumentationProvider;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.model.PropertyMapping;
 import org.grails.datastore.mapping.model.types.BasicTypeConverterRegistrar;
+import org.grails.datastore.mapping.query.cache.QueryResultCache;
+import org.grails.datastore.mapping.query.cache.QueryResultCacheProvider;
+import org.grails.datastore.mapping.query.cache.TPCacheQueryResultCache;
 import org.grails.datastore.mapping.reflect.ClassPropertyFetcher;
 import org.grails.datastore.mapping.reflect.FieldEntityAccess;
 import org.grails.datastore.mapping.services.DefaultServiceRegistry;
@@ -53,7 +58,7 @@ import java.util.Map;
  * @since 1.0
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
-public abstract class AbstractDatastore implements Datastore, StatelessDatastore, ServiceRegistry {
+public abstract class AbstractDatastore implements Datastore, StatelessDatastore, ServiceRegistry, QueryResultCacheProvider, InstrumentationProvider {
     protected static final Logger LOG = LoggerFactory.getLogger(AbstractDatastore.class);
     private ApplicationContext applicationContext;
 
@@ -61,7 +66,8 @@ public abstract class AbstractDatastore implements Datastore, StatelessDatastore
     protected final ServiceRegistry serviceRegistry;
     protected final PropertyResolver connectionDetails;
     protected final TPCacheAdapterRepository cacheAdapterRepository;
-
+    protected QueryResultCache queryResultCache;
+    protected DatastoreInstrumentation instrumentation;
 
     public AbstractDatastore(MappingContext mappingContext) {
         this(mappingContext,(PropertyResolver) null, null);
@@ -83,6 +89,9 @@ public abstract class AbstractDatastore implements Datastore, StatelessDatastore
         this.connectionDetails = connectionDetails;
         setApplicationContext(ctx);
         this.cacheAdapterRepository = cacheAdapterRepository;
+        if (cacheAdapterRepository != null) {
+            this.queryResultCache = new TPCacheQueryResultCache(cacheAdapterRepository);
+        }
         DefaultServiceRegistry defaultServiceRegistry = new DefaultServiceRegistry(this);
         this.serviceRegistry = defaultServiceRegistry;
         defaultServiceRegistry.initialize();
@@ -97,6 +106,39 @@ public abstract class AbstractDatastore implements Datastore, StatelessDatastore
         return DatastoreUtils.createPropertyResolver(connectionDetails);
     }
 
+    /**
+     * @return The cache of the results of queries executed with {@code cache: true}. By default the query results regions
+     * of the {@link TPCacheAdapterRepository} are used, if there is one.
+     */
+    @Override
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    /**
+     * @param queryResultCache The cache of the results of queries executed with {@code cache: true}, or null to disable it
+     */
+    public void setQueryResultCache(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    /**
+     * @return The instrumentation the sessions of this datastore report to, or null if they aren't instrumented
+     */
+    @Override
+    public DatastoreInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * Sets the instrumentation the sessions of this datastore report to. Sessions that are already open are not affected.
+     *
+     * @param instrumentation The instrumentation or null to disable it
+     */
+    public void setInstrumentation(DatastoreInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
     @Override
     public <T> T getService(Class<T> interfaceType) throws ServiceNotFoundException {
         return serviceRegistry.getService(interfaceType);
@@ -217,6 +259,13 @@ public abstract class AbstractDatastore implements Datastore, StatelessDatastore
         return mappingContext;
     }
 
+    /**
+     * @return The repository of the third party cache adapters of this datastore, or null if it doesn't have one
+     */
+    public TPCacheAdapterRepository getCacheAdapterRepository() {
+        return cacheAdapterRepository;
+    }
+
     /**
      * @deprecated  Deprecated, will be removed in a future version of GORM
      */
@@ -14,26 +14,27 @@
  */
 package org.grails.datastore.mapping.core;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.RemovalListener;
 import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
 import org.grails.datastore.mapping.config.Entity;
 import org.grails.datastore.mapping.core.impl.*;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckingSupport;
 import org.grails.datastore.mapping.engine.*;
+import org.grails.datastore.mapping.metrics.DatastoreInstrumentation;
+import org.grails.datastore.mapping.metrics.InstrumentationProvider;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.query.Query;
 import org.grails.datastore.mapping.query.api.QueryableCriteria;
+import org.grails.datastore.mapping.query.cache.QueryResultCache;
+import org.grails.datastore.mapping.query.cache.QueryResultCacheProvider;
 import org.grails.datastore.mapping.transactions.Transaction;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConversionService;
-import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.TransactionDefinition;
@@ -61,26 +62,21 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
     public static final String ENTITY_ACCESS = "org.grails.gorm.ENTITY_ACCESS";
 
-    private static final RemovalListener<PersistentEntity, Collection<PendingInsert>> EXCEPTION_THROWING_INSERT_LISTENER =
-            (key, value, cause) -> {
-                if (cause.wasEvicted()) {
-                    throw new DataAccessResourceFailureException("Maximum number (5000) of insert operations to flush() exceeded. Flush the session periodically to avoid this error for batch operations.");
-                }
-            };
+    /**
+     * The default maximum number of pending operations of a single entity that are handed to a {@link BatchOperationPersister} at once
+     */
+    public static final int DEFAULT_FLUSH_BATCH_SIZE = 500;
 
-    private static final RemovalListener<PersistentEntity, Collection<PendingUpdate>> EXCEPTION_THROWING_UPDATE_LISTENER =
-            (key, value, cause) -> {
-                if (cause.wasEvicted()) {
-                    throw new DataAccessResourceFailureException("Maximum number (5000) of update operations to flush() exceeded. Flush the session periodically to avoid this error for batch operations.");
-                }
-            };
+    /**
+     * The default maximum number of pending operations buffered before the session is flushed automatically
+     */
+    public static final int DEFAULT_MAX_PENDING_OPERATIONS = 5000;
+
+    /**
+     * The size in bytes assumed for a pending operation whose size can't be estimated more accurately
+     */
+    protected static final long DEFAULT_PENDING_OPERATION_SIZE = 256L;
 
-    private static final RemovalListener<PersistentEntity, Collection<PendingDelete>> EXCEPTION_THROWING_DELETE_LISTENER =
-            (key, value, cause) -> {
-                if (cause.wasEvicted()) {
-                    throw new DataAccessResourceFailureException("Maximum number (5000) of delete operations to flush() exceeded. Flush the session periodically to avoid this error for batch operations.");
-                }
-            };
     private static final String NULL = "null";
 
     protected Map<Class, Persister> persisters = new ConcurrentHashMap<>();
@@ -94,34 +90,35 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     protected Map<Class, Map<Serializable, Object>> firstLevelEntryCache = new ConcurrentHashMap<>();
     protected Map<Class, Map<Serializable, Object>> firstLevelEntryCacheDirtyCheck = new ConcurrentHashMap<>();
     protected Map<CollectionKey, Collection> firstLevelCollectionCache = new ConcurrentHashMap<>();
+    protected BatchFetchQueue batchFetchQueue = new BatchFetchQueue();
 
     protected TPCacheAdapterRepository cacheAdapterRepository;
 
-    private Collection<Serializable> objectsPendingOperations = new ConcurrentLinkedQueue<>();
-    private Map<PersistentEntity, Collection<PendingInsert>> pendingInserts =
-            Caffeine.newBuilder()
-                    .removalListener(EXCEPTION_THROWING_INSERT_LISTENER)
-                    .executor(Runnable::run)
-                    .maximumSize(5000).build().asMap();
-
-    private Map<PersistentEntity, Collection<PendingUpdate>> pendingUpdates =
-            Caffeine.newBuilder()
-                    .removalListener(EXCEPTION_THROWING_UPDATE_LISTENER)
-                    .executor(Runnable::run)
-                    .maximumSize(5000).build().asMap();
-
-    private Map<PersistentEntity, Collection<PendingDelete>> pendingDeletes =
-            Caffeine.newBuilder()
-                    .removalListener(EXCEPTION_THROWING_DELETE_LISTENER)
-                    .executor(Runnable::run)
-                    .maximumSize(5000).build().asMap();
+    private Set<Object> objectsPendingOperations = ConcurrentHashMap.newKeySet();
+    private Map<PersistentEntity, Collection<PendingInsert>> pendingInserts = new ConcurrentHashMap<>();
+    private Map<PersistentEntity, Collection<PendingUpdate>> pendingUpdates = new ConcurrentHashMap<>();
+    private Map<PersistentEntity, Collection<PendingDelete>> pendingDeletes = new ConcurrentHashMap<>();
+
+    protected int maxPendingOperations = DEFAULT_MAX_PENDING_OPERATIONS;
+    protected long maxPendingOperationsSize = -1L;
+    private int pendingOperationCount;
+    private long pendingOperationsSize;
+    private int pendingOperationsHighWaterMark;
+    private int autoFlushCount;
+    private int operationDepth;
 
     protected Collection<Runnable> postFlushOperations = new ConcurrentLinkedQueue<>();
+    private Set<Runnable> registeredPostFlushOperations = ConcurrentHashMap.newKeySet();
     private boolean exceptionOccurred;
     protected ApplicationEventPublisher publisher;
 
     protected boolean stateless = false;
     protected boolean flushActive = false;
+    protected int flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
+    protected final DatastoreInstrumentation instrumentation;
+    private final long openedAt;
+    private boolean closeReported;
+    private Set<Object> attachedRecorder;
 
 
     public AbstractSession(Datastore datastore, MappingContext mappingContext,
@@ -135,6 +132,14 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         this.datastore = datastore;
         this.publisher = publisher;
         this.stateless = stateless;
+        this.instrumentation = datastore instanceof InstrumentationProvider ? ((InstrumentationProvider) datastore).getInstrumentation() : null;
+        if (instrumentation != null) {
+            this.openedAt = System.nanoTime();
+            instrumentation.sessionOpened(this);
+        }
+        else {
+            this.openedAt = 0L;
+        }
     }
 
     public AbstractSession(Datastore datastore, MappingContext mappingContext,
@@ -159,8 +164,80 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         return this.stateless;
     }
 
+    /**
+     * @return The maximum number of pending operations of a single entity that are handed to a {@link BatchOperationPersister} at once
+     */
+    public int getFlushBatchSize() {
+        return flushBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of pending operations of a single entity that are handed to a {@link BatchOperationPersister} at once
+     *
+     * @param flushBatchSize The batch size. Values lower than 1 restore the default
+     */
+    public void setFlushBatchSize(int flushBatchSize) {
+        this.flushBatchSize = flushBatchSize > 0 ? flushBatchSize : DEFAULT_FLUSH_BATCH_SIZE;
+    }
+
+    /**
+     * @return The maximum number of buffered pending operations before the session is flushed automatically. A value lower than 1 means no limit
+     */
+    public int getMaxPendingOperations() {
+        return maxPendingOperations;
+    }
+
+    /**
+     * Sets the maximum number of buffered pending operations before the session is flushed automatically. Sessions in
+     * {@link FlushModeType#COMMIT} flush mode are never flushed automatically, their buffer grows past the limit until the
+     * session is flushed explicitly or the transaction commits.
+     *
+     * @param maxPendingOperations The maximum number of operations. A value lower than 1 means no limit
+     */
+    public void setMaxPendingOperations(int maxPendingOperations) {
+        this.maxPendingOperations = maxPendingOperations;
+    }
+
+    /**
+     * @return The maximum estimated size in bytes of the buffered pending operations before the session is flushed automatically. A value lower than 1 means no limit
+     */
+    public long getMaxPendingOperationsSize() {
+        return maxPendingOperationsSize;
+    }
+
+    /**
+     * Sets the maximum estimated size in bytes of the buffered pending operations before the session is flushed automatically
+     *
+     * @param maxPendingOperationsSize The maximum size in bytes. A value lower than 1 means no limit
+     * @see #estimatePendingOperationSize(PendingOperation)
+     */
+    public void setMaxPendingOperationsSize(long maxPendingOperationsSize) {
+        this.maxPendingOperationsSize = maxPendingOperationsSize;
+    }
+
+    /**
+     * @return The number of pending operations currently buffered
+     */
+    public int getPendingOperationCount() {
+        return pendingOperationCount;
+    }
+
+    /**
+     * @return The highest number of pending operations buffered at once during the lifetime of this session
+     */
+    public int getPendingOperationsHighWaterMark() {
+        return pendingOperationsHighWaterMark;
+    }
+
+    /**
+     * @return The number of times the session was flushed automatically because the pending operation buffer was full
+     */
+    public int getAutoFlushCount() {
+        return autoFlushCount;
+    }
+
     public void addPostFlushOperation(Runnable runnable) {
-        if (runnable != null && !postFlushOperations.contains(runnable)) {
+        if (runnable != null && registeredPostFlushOperations.add(runnable)) {
             postFlushOperations.add(runnable);
         }
     }
@@ -177,32 +254,30 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         }
 
         inserts.add(insert);
+        bufferPendingOperation(insert);
     }
 
     @Override
     public boolean isPendingAlready(Object obj) {
-        Serializable id = getPersister(obj).getObjectIdentifier(obj);
-        if (id != null) {
-            return objectsPendingOperations.contains(id);
-        } else {
-            return objectsPendingOperations.contains(System.identityHashCode(obj));
+        if (obj == null) {
+            return false;
         }
+        if (objectsPendingOperations.contains(new IdentityKey(obj))) {
+            return true;
+        }
+        EntityPersister persister = (EntityPersister) getPersister(obj);
+        Serializable id = persister.getObjectIdentifier(obj);
+        return id != null && objectsPendingOperations.contains(new EntityKey(persister.getPersistentEntity(), id));
     }
 
     @Override
     public void registerPending(Object obj) {
         if (obj != null) {
-            Serializable id = getPersister(obj).getObjectIdentifier(obj);
+            objectsPendingOperations.add(new IdentityKey(obj));
+            EntityPersister persister = (EntityPersister) getPersister(obj);
+            Serializable id = persister.getObjectIdentifier(obj);
             if (id != null) {
-                if (!objectsPendingOperations.contains(id)) {
-                    objectsPendingOperations.add(id);
-                }
-            } else {
-
-                final int identityHashCode = System.identityHashCode(obj);
-                if (!objectsPendingOperations.contains(identityHashCode)) {
-                    objectsPendingOperations.add(identityHashCode);
-                }
+                objectsPendingOperations.add(new EntityKey(persister.getPersistentEntity(), id));
             }
         }
     }
@@ -220,6 +295,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         }
 
         inserts.add(update);
+        bufferPendingOperation(update);
     }
 
     public void addPendingDelete(PendingDelete delete) {
@@ -235,6 +311,68 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         }
 
         deletes.add(delete);
+        bufferPendingOperation(delete);
+    }
+
+    /**
+     * Accounts for a newly buffered pending operation. The limits of the buffer are only checked once the top level
+     * operation that buffered it returns, see {@link #autoFlushIfNecessary()}, so that a cascade is never written halfway.
+     *
+     * @param pendingOperation The pending operation
+     */
+    protected void bufferPendingOperation(PendingOperation pendingOperation) {
+        pendingOperationCount++;
+        if (maxPendingOperationsSize > 0) {
+            pendingOperationsSize += estimatePendingOperationSize(pendingOperation);
+        }
+        if (pendingOperationCount > pendingOperationsHighWaterMark) {
+            pendingOperationsHighWaterMark = pendingOperationCount;
+        }
+    }
+
+    /**
+     * Flushes the pending operations automatically if the configured limits are exceeded and no persist, insert or delete
+     * of this session is in progress. In {@link FlushModeType#COMMIT} flush mode nothing is written ahead of the commit, so
+     * the session is not flushed automatically.
+     */
+    protected void autoFlushIfNecessary() {
+        if (operationDepth == 0 && !flushActive && flushMode != FlushModeType.COMMIT && isPendingOperationBufferFull()) {
+            autoFlushCount++;
+            autoFlush();
+        }
+    }
+
+    /**
+     * @return Whether the buffered pending operations exceed the configured limits
+     */
+    protected boolean isPendingOperationBufferFull() {
+        return (maxPendingOperations > 0 && pendingOperationCount >= maxPendingOperations) ||
+                (maxPendingOperationsSize > 0 && pendingOperationsSize >= maxPendingOperationsSize);
+    }
+
+    /**
+     * Estimates the size in bytes that a pending operation occupies in the buffer. Subclasses should override to provide
+     * a more accurate estimate for the native entries of the underlying datastore.
+     *
+     * @param pendingOperation The pending operation
+     * @return The estimated size in bytes
+     */
+    protected long estimatePendingOperationSize(PendingOperation pendingOperation) {
+        Object nativeEntry = pendingOperation.getNativeEntry();
+        if (nativeEntry instanceof Map) {
+            return DEFAULT_PENDING_OPERATION_SIZE + ((Map) nativeEntry).size() * 64L;
+        }
+        return DEFAULT_PENDING_OPERATION_SIZE;
+    }
+
+    /**
+     * Called when the pending operation buffer is full. The default implementation writes the pending operations without
+     * the rest of a {@link #flush()}, subclasses can override to only flush part of the buffered operations.
+     */
+    protected void autoFlush() {
+        if (!flushActive) {
+            writePendingOperations();
+        }
     }
 
     public Object getCachedEntry(PersistentEntity entity, Serializable key) {
@@ -320,9 +458,69 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         return mappingContext;
     }
 
+    @Override
+    public DatastoreInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    @Override
+    public void disconnect() {
+        try {
+            super.disconnect();
+        } finally {
+            if (instrumentation != null && !closeReported) {
+                closeReported = true;
+                instrumentation.sessionClosed(this, System.nanoTime() - openedAt);
+            }
+        }
+    }
+
+    /**
+     * @return Whether the session is flushing its pending operations
+     * @since 9.0
+     */
+    public boolean isFlushActive() {
+        return flushActive;
+    }
+
     public void flush() {
         if (flushActive) return;
 
+        final DatastoreInstrumentation instrumentation = this.instrumentation;
+        if (instrumentation == null || !hasUpdates()) {
+            flushPending();
+            return;
+        }
+
+        final int inserts = countOperations(pendingInserts);
+        final int updates = countOperations(pendingUpdates);
+        final int deletes = countOperations(pendingDeletes);
+        final long start = System.nanoTime();
+        try {
+            flushPending();
+        } finally {
+            instrumentation.flushed(this, System.nanoTime() - start, inserts, updates, deletes);
+        }
+    }
+
+    private static int countOperations(Map<PersistentEntity, ? extends Collection> operations) {
+        int count = 0;
+        for (Collection operationsOfEntity : operations.values()) {
+            count += operationsOfEntity.size();
+        }
+        return count;
+    }
+
+    private void flushPending() {
+        postFlush(writePendingOperations());
+    }
+
+    /**
+     * Writes the pending inserts, updates and deletes and runs the post flush operations
+     *
+     * @return Whether there were any pending operations
+     */
+    private boolean writePendingOperations() {
         boolean hasInserts;
         try {
             if (exceptionOccurred) {
@@ -347,13 +545,12 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             clearPendingOperations();
             flushActive = false;
         }
-        postFlush(hasInserts);
+        return hasInserts;
     }
 
     protected void flushPendingDeletes(Map<PersistentEntity, Collection<PendingDelete>> pendingDeletes) {
-        final Collection<Collection<PendingDelete>> deletes = pendingDeletes.values();
-        for (Collection<PendingDelete> delete : deletes) {
-            flushPendingOperations(delete);
+        for (Map.Entry<PersistentEntity, Collection<PendingDelete>> entry : pendingDeletes.entrySet()) {
+            flushPendingOperations(entry.getKey(), entry.getValue());
         }
     }
 
@@ -399,28 +596,82 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
 
     /**
-     * The default implementation of flushPendingUpdates is to iterate over each update operation
-     * and execute them one by one. This may be suboptimal for stores that support batch update
-     * operations. Subclasses can override this method to implement batch update more efficiently.
+     * The default implementation of flushPendingUpdates groups the update operations per entity and hands them
+     * to the persister in batches of {@link #getFlushBatchSize()} if it is a {@link BatchOperationPersister}, otherwise
+     * the operations are executed one by one.
      *
      * @param updates
      */
     protected void flushPendingUpdates(Map<PersistentEntity, Collection<PendingUpdate>> updates) {
-        for (Collection<PendingUpdate> pending : updates.values()) {
-            flushPendingOperations(pending);
+        for (Map.Entry<PersistentEntity, Collection<PendingUpdate>> entry : updates.entrySet()) {
+            flushPendingOperations(entry.getKey(), entry.getValue());
         }
     }
 
     /**
-     * The default implementation of flushPendingInserts is to iterate over each insert operations
-     * and execute them one by one. This may be suboptimal for stores that support batch insert
-     * operations. Subclasses can override this method to implement batch insert more efficiently.
+     * The default implementation of flushPendingInserts groups the insert operations per entity and hands them
+     * to the persister in batches of {@link #getFlushBatchSize()} if it is a {@link BatchOperationPersister}, otherwise
+     * the operations are executed one by one.
      *
      * @param inserts The insert operations
      */
     protected void flushPendingInserts(Map<PersistentEntity, Collection<PendingInsert>> inserts) {
-        for (Collection<PendingInsert> pending : inserts.values()) {
-            flushPendingOperations(pending);
+        for (Map.Entry<PersistentEntity, Collection<PendingInsert>> entry : inserts.entrySet()) {
+            flushPendingOperations(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void flushPendingOperations(PersistentEntity entity, Collection operations) {
+        try {
+            flushPendingOperationsOfEntity(entity, operations);
+        } finally {
+            evictQueryResults(entity);
+        }
+    }
+
+    /**
+     * Evicts the cached query results of an entity that has been written by a flush, including those of the query results
+     * region of the third party cache of its persister
+     *
+     * @param entity The entity
+     */
+    protected void evictQueryResults(PersistentEntity entity) {
+        if (datastore instanceof QueryResultCacheProvider) {
+            QueryResultCache queryResultCache = ((QueryResultCacheProvider) datastore).getQueryResultCache();
+            if (queryResultCache != null) {
+                queryResultCache.evict(entity);
+            }
+        }
+        final Persister persister = getPersister(entity);
+        if (persister instanceof ThirdPartyCacheEntityPersister) {
+            ((ThirdPartyCacheEntityPersister) persister).evictQueryResultsRegion(entity);
+        }
+    }
+
+    private void flushPendingOperationsOfEntity(PersistentEntity entity, Collection operations) {
+        final Persister persister = getPersister(entity);
+        if (!(persister instanceof BatchOperationPersister)) {
+            flushPendingOperations(operations);
+            return;
+        }
+
+        final BatchOperationPersister batchPersister = (BatchOperationPersister) persister;
+        final List<PendingOperation> batch = new ArrayList<>();
+        try {
+            for (Object o : operations) {
+                batch.add((PendingOperation) o);
+                if (batch.size() >= flushBatchSize) {
+                    PendingOperationExecution.executePendingOperations(batchPersister, entity, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                PendingOperationExecution.executePendingOperations(batchPersister, entity, batch);
+            }
+        } catch (RuntimeException e) {
+            setFlushMode(FlushModeType.COMMIT);
+            exceptionOccurred = true;
+            throw e;
         }
     }
 
@@ -462,13 +713,17 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         clearMaps(firstLevelEntryCache);
         clearMaps(firstLevelEntryCacheDirtyCheck);
         firstLevelCollectionCache.clear();
+        batchFetchQueue.clear();
         clearPendingOperations();
         attributes.clear();
         exceptionOccurred = false;
     }
 
     protected void clearPendingOperations() {
+        pendingOperationCount = 0;
+        pendingOperationsSize = 0L;
         objectsPendingOperations.clear();
+        registeredPostFlushOperations.clear();
         pendingInserts.clear();
         pendingUpdates.clear();
         pendingDeletes.clear();
@@ -519,6 +774,18 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         }
     }
 
+    /**
+     * @return A snapshot of the instances held in the first level cache, compared by identity
+     * @since 9.0
+     */
+    public Set<Object> getCachedInstances() {
+        Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map<Serializable, Object> cache : firstLevelCache.values()) {
+            instances.addAll(cache.values());
+        }
+        return instances;
+    }
+
     public boolean isCached(Class type, Serializable key) {
         PersistentEntity entity = getMappingContext().getPersistentEntity(type.getName());
         if (type == null || key == null || isStateless(entity)) {
@@ -533,7 +800,24 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             return;
         }
         if (isStateless(getMappingContext().getPersistentEntity(type.getName()))) return;
-        getInstanceCache(type).put(key, instance);
+        Object previous = getInstanceCache(type).put(key, instance);
+        if (previous != instance && attachedRecorder != null) {
+            attachedRecorder.add(instance);
+        }
+    }
+
+    /**
+     * Records the instances that are attached to the first level cache from now on into the given set, which lets a caller that
+     * loads instances tell them apart from the instances that were attached already
+     *
+     * @param attached The set to record into, compared by identity, or null to stop recording
+     * @return The set recorded into before, to be restored once done
+     * @since 9.0
+     */
+    public Set<Object> recordAttachedInstances(Set<Object> attached) {
+        Set<Object> previous = attachedRecorder;
+        attachedRecorder = attached;
+        return previous;
     }
 
     public Object getCachedInstance(Class type, Serializable key) {
@@ -556,6 +840,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             Serializable key = persister.getObjectIdentifier(o);
             if (key != null) {
                 cache.remove(key);
+                batchFetchQueue.remove(o.getClass(), key);
             }
         }
         removeAttributesForEntity(o);
@@ -592,8 +877,15 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
                     "] cannot be persisted. It is not a known persistent type.");
         }
 
-        final Serializable key = persister.persist(o);
+        final Serializable key;
+        operationDepth++;
+        try {
+            key = persister.persist(o);
+        } finally {
+            operationDepth--;
+        }
         cacheObject(key, o);
+        autoFlushIfNecessary();
         return key;
     }
 
@@ -606,8 +898,15 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
                     "] cannot be persisted. It is not a known persistent type.");
         }
 
-        final Serializable key = persister.insert(o);
+        final Serializable key;
+        operationDepth++;
+        try {
+            key = persister.insert(o);
+        } finally {
+            operationDepth--;
+        }
         cacheObject(key, o);
+        autoFlushIfNecessary();
         return key;
     }
 
@@ -646,13 +945,33 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             return null;
         }
 
-        Object o = getInstanceCache(type).get(key);
+        final Map<Serializable, Object> cache = getInstanceCache(type);
+        Object o = cache.get(key);
+        final DatastoreInstrumentation instrumentation = entity != null ? this.instrumentation : null;
+        if (o != null) {
+            if (instrumentation != null) {
+                instrumentation.entityRetrieved(this, entity, true, 0L);
+            }
+            return o;
+        }
+        final long start = instrumentation != null ? System.nanoTime() : 0L;
+        if (batchFetchQueue.hasProxies(type)) {
+            // the key belongs to a proxy that is batch fetched, retrieve it together with the other uninitialized proxies of the type
+            List<Serializable> keys = batchFetchQueue.pollProxyKeys(type, key, cache::containsKey);
+            if (keys.size() > 1) {
+                retrieveAll(type, keys);
+                o = cache.get(key);
+            }
+        }
         if (o == null) {
             o = persister.retrieve(key);
             if (o != null) {
                 cacheObject(key, o);
             }
         }
+        if (instrumentation != null) {
+            instrumentation.entityRetrieved(this, entity, false, System.nanoTime() - start);
+        }
         return o;
     }
 
@@ -668,6 +987,11 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         return key;
     }
 
+    @Override
+    public BatchFetchQueue getBatchFetchQueue() {
+        return batchFetchQueue;
+    }
+
     public Object proxy(Class type, Serializable key) {
         if (key == null || type == null) {
             return null;
@@ -745,9 +1069,14 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             return;
         }
 
-
-        p.delete(obj);
+        operationDepth++;
+        try {
+            p.delete(obj);
+        } finally {
+            operationDepth--;
+        }
         clear(obj);
+        autoFlushIfNecessary();
     }
 
     public void delete(final Iterable objects) {
@@ -772,10 +1101,16 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             listForPersister.add(object);
         }
         // for each type (usually only 1 type), set up a pendingDelete of that type
-        for (Map.Entry<Persister, List> entry : toDelete.entrySet()) {
-            final EntityPersister p = (EntityPersister) entry.getKey();
-            p.delete(entry.getValue());
+        operationDepth++;
+        try {
+            for (Map.Entry<Persister, List> entry : toDelete.entrySet()) {
+                final EntityPersister p = (EntityPersister) entry.getKey();
+                p.delete(entry.getValue());
+            }
+        } finally {
+            operationDepth--;
         }
+        autoFlushIfNecessary();
     }
 
     public List<Serializable> persist(Iterable objects) {
@@ -796,7 +1131,15 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
                     obj.getClass().getName() + "] is not a known persistent type.");
         }
 
-        return p.persist(objects);
+        final List<Serializable> keys;
+        operationDepth++;
+        try {
+            keys = p.persist(objects);
+        } finally {
+            operationDepth--;
+        }
+        autoFlushIfNecessary();
+        return keys;
     }
 
     public List retrieveAll(Class type, Iterable keys) {
@@ -807,20 +1150,29 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         }
 
         List list = new ArrayList();
-        List<Serializable> toRetrieve = new ArrayList<Serializable>();
+        List<Serializable> keyList = new ArrayList<Serializable>();
+        // each missing key is only retrieved once, no matter how often it is requested
+        Set<Serializable> toRetrieve = new LinkedHashSet<Serializable>();
         final Map<Serializable, Object> cache = getInstanceCache(type);
         for (Object key : keys) {
             Serializable serializable = (Serializable) key;
             Object cached = cache.get(serializable);
+            keyList.add(serializable);
             list.add(cached);
             if (cached == null) {
                 toRetrieve.add(serializable);
             }
         }
-        List<Object> retrieved = p.retrieveAll(toRetrieve);
-        Iterator<Serializable> keyIterator = toRetrieve.iterator();
+        if (toRetrieve.isEmpty()) {
+            return list;
+        }
+
+        List<Object> retrieved = p.retrieveAll(new ArrayList<Serializable>(toRetrieve));
         Map<Serializable, Object> retrievedMap = new HashMap<Serializable, Object>();
         for (Object o : retrieved) {
+            if (o == null) {
+                continue;
+            }
             final Serializable identifier = p.getObjectIdentifier(o);
             if (identifier != null) {
                 retrievedMap.put(identifier, o);
@@ -830,13 +1182,11 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         for (int i = 0; i < list.size(); i++) {
             Object o = list.get(i);
             if (o == null) {
-                if (keyIterator.hasNext()) {
-                    Serializable key = keyIterator.next();
-                    key = (Serializable) mappingContext.getConversionService().convert(key, p.getPersistentEntity().getIdentity().getType());
-                    final Object next = retrievedMap.get(key);
-                    list.set(i, next);
-                    cacheInstance(type, key, next);
-                }
+                Serializable key = keyList.get(i);
+                key = (Serializable) mappingContext.getConversionService().convert(key, p.getPersistentEntity().getIdentity().getType());
+                final Object next = retrievedMap.get(key);
+                list.set(i, next);
+                cacheInstance(type, key, next);
             }
         }
         return list;
@@ -918,6 +1268,54 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         this.isSynchronizedWithTransaction = isSynchronizedWithTransaction;
     }
 
+    /**
+     * Identifies a pending object by its root entity and identifier
+     */
+    private static final class EntityKey {
+        final Class rootClass;
+        final Serializable id;
+
+        private EntityKey(PersistentEntity entity, Serializable id) {
+            this.rootClass = entity.getRootEntity().getJavaClass();
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rootClass.hashCode() + id.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EntityKey)) {
+                return false;
+            }
+            EntityKey other = (EntityKey) obj;
+            return other.rootClass == rootClass && other.id.equals(id);
+        }
+    }
+
+    /**
+     * Identifies a pending object by its identity, for objects that don't have an identifier yet
+     */
+    private static final class IdentityKey {
+        final Object object;
+
+        private IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey && ((IdentityKey) obj).object == object;
+        }
+    }
+
     private static class CollectionKey {
         final Class clazz;
         final Serializable key;
@@ -0,0 +1,172 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.grails.datastore.mapping.collection.PersistentCollection;
+import org.grails.datastore.mapping.model.types.Association;
+
+/**
+ * Keeps track of the uninitialized collections and proxies of a session that can be initialized in one batch when one of them is accessed.
+ *
+ * <p>Collections are registered per association and keyed by the identifier of the entity that owns them. Proxies are registered
+ * per type together with the batch size of the association they were created for. Both are handed out in the order they were
+ * registered in, which is usually the order in which their owners were loaded.</p>
+ *
+ * @since 9.0
+ */
+@SuppressWarnings("rawtypes")
+public class BatchFetchQueue {
+
+    private final Map<Association, Map<Serializable, PersistentCollection>> collections = new ConcurrentHashMap<>();
+    private final Map<Class, Map<Serializable, Integer>> proxyKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Registers an uninitialized collection
+     *
+     * @param association The association of the collection
+     * @param ownerKey The identifier of the owner of the collection
+     * @param collection The collection
+     */
+    public void addCollection(Association association, Serializable ownerKey, PersistentCollection collection) {
+        Map<Serializable, PersistentCollection> registered = collections.computeIfAbsent(association, a -> new LinkedHashMap<>());
+        synchronized (registered) {
+            registered.put(ownerKey, collection);
+        }
+    }
+
+    /**
+     * Removes the collection of the given owner and up to batch size - 1 other uninitialized collections of the same association from the queue
+     *
+     * @param association The association
+     * @param ownerKey The identifier of the owner of the collection that is being initialized
+     * @param batchSize The maximum number of collections to initialize in one batch
+     * @return The other collections to initialize together with the collection of the given owner
+     */
+    public List<PersistentCollection> pollCollections(Association association, Serializable ownerKey, int batchSize) {
+        Map<Serializable, PersistentCollection> registered = collections.get(association);
+        if (registered == null) {
+            return Collections.emptyList();
+        }
+        List<PersistentCollection> batch = new ArrayList<>();
+        synchronized (registered) {
+            registered.remove(ownerKey);
+            Iterator<PersistentCollection> i = registered.values().iterator();
+            while (i.hasNext() && batch.size() < batchSize - 1) {
+                PersistentCollection collection = i.next();
+                i.remove();
+                if (!collection.isInitialized()) {
+                    batch.add(collection);
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Registers the key of an uninitialized proxy
+     *
+     * @param type The proxied type
+     * @param key The key of the proxy
+     * @param batchSize The maximum number of proxies of the type to initialize in one batch when this proxy is initialized
+     */
+    public void addProxy(Class type, Serializable key, int batchSize) {
+        Map<Serializable, Integer> registered = proxyKeys.computeIfAbsent(type, t -> new LinkedHashMap<>());
+        synchronized (registered) {
+            registered.put(key, batchSize);
+        }
+    }
+
+    /**
+     * @param type The type
+     * @return Whether any proxy keys are registered for the given type
+     */
+    public boolean hasProxies(Class type) {
+        Map<Serializable, Integer> registered = proxyKeys.get(type);
+        return registered != null && !registered.isEmpty();
+    }
+
+    /**
+     * Removes the given key and up to batch size - 1 other keys of proxies of the same type from the queue
+     *
+     * @param type The proxied type
+     * @param key The key of the proxy that is being initialized
+     * @param loaded Tests whether the instance for a key has already been loaded, in which case the key is dropped
+     * @return The keys to retrieve in one batch, starting with the given key, or an empty list if the key isn't registered
+     */
+    public List<Serializable> pollProxyKeys(Class type, Serializable key, Predicate<Serializable> loaded) {
+        Map<Serializable, Integer> registered = proxyKeys.get(type);
+        if (registered == null) {
+            return Collections.emptyList();
+        }
+        synchronized (registered) {
+            Integer batchSize = registered.remove(key);
+            if (batchSize == null) {
+                return Collections.emptyList();
+            }
+            List<Serializable> keys = new ArrayList<>();
+            keys.add(key);
+            Iterator<Serializable> i = registered.keySet().iterator();
+            while (i.hasNext() && keys.size() < batchSize) {
+                Serializable other = i.next();
+                i.remove();
+                if (!loaded.test(other)) {
+                    keys.add(other);
+                }
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Removes the collections owned by and the proxy key of an instance that is evicted from the session
+     *
+     * @param type The type of the instance
+     * @param key The identifier of the instance
+     */
+    public void remove(Class type, Serializable key) {
+        for (Map.Entry<Association, Map<Serializable, PersistentCollection>> entry : collections.entrySet()) {
+            if (entry.getKey().getOwner().getJavaClass().isAssignableFrom(type)) {
+                Map<Serializable, PersistentCollection> registered = entry.getValue();
+                synchronized (registered) {
+                    registered.remove(key);
+                }
+            }
+        }
+        Map<Serializable, Integer> registered = proxyKeys.get(type);
+        if (registered != null) {
+            synchronized (registered) {
+                registered.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Removes all registered collections and proxies
+     */
+    public void clear() {
+        collections.clear();
+        proxyKeys.clear();
+    }
+}
@@ -22,6 +22,7 @@ import org.grails.datastore.mapping.core.impl.PendingDelete;
 import org.grails.datastore.mapping.core.impl.PendingInsert;
 import org.grails.datastore.mapping.core.impl.PendingUpdate;
 import org.grails.datastore.mapping.engine.EntityAccess;
+import org.grails.datastore.mapping.metrics.DatastoreInstrumentation;
 import org.grails.datastore.mapping.model.PersistentEntity;
 
 /**
@@ -158,4 +159,18 @@ public interface SessionImplementor<T> {
     void registerPending(T obj);
 
     EntityAccess createEntityAccess(PersistentEntity entity, Object instance);
+
+    /**
+     * @return The queue of uninitialized collections and proxies that can be initialized in batches, or null if the session doesn't support batch fetching
+     */
+    default BatchFetchQueue getBatchFetchQueue() {
+        return null;
+    }
+
+    /**
+     * @return The instrumentation the session reports to, or null if it isn't instrumented
+     */
+    default DatastoreInstrumentation getInstrumentation() {
+        return null;
+    }
 }
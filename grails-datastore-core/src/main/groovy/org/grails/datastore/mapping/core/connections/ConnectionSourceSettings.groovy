@@ -5,7 +5,9 @@ import groovy.transform.CompileStatic
 import groovy.transform.builder.Builder
 import groovy.transform.builder.SimpleStrategy
 import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.AbstractSession
 import org.grails.datastore.mapping.engine.types.CustomTypeMarshaller
+import org.grails.datastore.mapping.model.AbstractMappingContext
 import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
 
 import jakarta.persistence.FlushModeType
@@ -31,6 +33,37 @@ class ConnectionSourceSettings implements Settings {
      */
     FlushModeType flushMode = FlushModeType.AUTO
 
+    /**
+     * The maximum number of pending operations of a single entity that are executed as one batch on flush
+     */
+    int flushBatchSize = AbstractSession.DEFAULT_FLUSH_BATCH_SIZE
+
+    /**
+     * The maximum number of pending operations buffered by a session before it is flushed automatically. A value lower than 1 means no limit. Sessions in COMMIT flush mode are not flushed automatically
+     */
+    int maxPendingOperations = AbstractSession.DEFAULT_MAX_PENDING_OPERATIONS
+
+    /**
+     * The maximum estimated size in bytes of the pending operations buffered by a session before it is flushed automatically. A value lower than 1 means no limit
+     */
+    long maxPendingOperationsSize = -1L
+
+    /**
+     * The maximum number of cached query results of a single entity, for datastores that cache the results of queries executed with cache: true.
+     * A value lower than 1 disables the query result cache
+     */
+    long queryCacheMaximumSize = 1000L
+
+    /**
+     * The number of seconds after which cached query results expire. A value lower than 1 means they don't expire
+     */
+    long queryCacheExpireAfterWrite = -1L
+
+    /**
+     * Whether to record metrics of sessions, flushes and queries, for datastores that support instrumentation
+     */
+    boolean metricsEnabled = false
+
     /**
      * Whether to auto flush
      *
@@ -49,6 +82,16 @@ class ConnectionSourceSettings implements Settings {
      */
     boolean failOnError = false
 
+    /**
+     * The minimum size of a to-many association for validation to cascade to its elements in parallel. A value lower than 1 disables parallel cascading
+     */
+    int parallelCascadeValidationThreshold = -1
+
+    /**
+     * The minimum number of entities for the mapping context to read their mapping metadata in parallel. A value lower than 1 disables parallel initialization
+     */
+    int parallelInitializationThreshold = AbstractMappingContext.DEFAULT_PARALLEL_INITIALIZATION_THRESHOLD
+
     /**
      * Whether to mark instances dirty on explicit save()
      */
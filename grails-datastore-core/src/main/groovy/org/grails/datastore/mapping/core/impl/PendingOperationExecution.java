@@ -17,6 +17,9 @@ package org.grails.datastore.mapping.core.impl;
 
 import java.util.List;
 
+import org.grails.datastore.mapping.engine.BatchOperationPersister;
+import org.grails.datastore.mapping.model.PersistentEntity;
+
 /**
  * Provides a default implementation to execute a pending operation.
  *
@@ -38,4 +41,30 @@ public class PendingOperationExecution {
             }
         }
     }
+
+    /**
+     * Executes a batch of pending operations of the same entity. The pre-operations of all the operations are executed first,
+     * then the batch is handed to the persister and finally the cascade operations of each operation that wasn't vetoed are executed.
+     *
+     * @param persister The persister
+     * @param entity The entity
+     * @param pendingOperations The operations
+     */
+    public static void executePendingOperations(BatchOperationPersister persister, PersistentEntity entity, List<PendingOperation> pendingOperations) {
+        for (PendingOperation pendingOperation : pendingOperations) {
+            List<PendingOperation> preOperations = pendingOperation.getPreOperations();
+            for (PendingOperation preOperation : preOperations) {
+                preOperation.run();
+            }
+        }
+        persister.executePendingOperations(entity, pendingOperations);
+        for (PendingOperation pendingOperation : pendingOperations) {
+            if(!pendingOperation.isVetoed()) {
+                List<PendingOperation> cascadeOperations = pendingOperation.getCascadeOperations();
+                for (PendingOperation cascadeOperation : cascadeOperations) {
+                    cascadeOperation.run();
+                }
+            }
+        }
+    }
 }
@@ -8,6 +8,10 @@ import jakarta.persistence.Transient
 /**
  * Interface to classes that are able to track changes to their internal state.
  *
+ * <p>The map of changes is only created once a property actually changes, so instances that are loaded and never modified
+ * don't carry any. Setters generated by the {@code DirtyCheckingTransformer} pass the ordinal of
+ * the property, which is recorded in a bit mask so that repeated changes to the same property don't need to hash the name. The
+ * first 64 ordinals are held in a long, the words for higher ordinals are only allocated once one of them changes.</p>
  *
  * @author Graeme Rocher
  * @since 2.0
@@ -18,12 +22,24 @@ trait DirtyCheckable {
     @Transient
     private transient Map<String, Object> $changedProperties
 
+    @Transient
+    private transient long $dirtyPropertyMask
+
+    @Transient
+    private transient long[] $dirtyPropertyMaskOverflow
+
+    @Transient
+    private transient boolean $trackingChanges
+
     /**
      * Indicates that the instance should start tacking changes. Note that if the instance is dirty this will clear any previously tracked
      * changes
      */
     void trackChanges() {
-        $changedProperties = new LinkedHashMap<String, Object>()
+        $trackingChanges = true
+        $changedProperties = null
+        $dirtyPropertyMask = 0L
+        $dirtyPropertyMaskOverflow = null
     }
 
     /**
@@ -33,6 +49,10 @@ trait DirtyCheckable {
      */
     void syncChangedProperties(Object o) {
         if (o instanceof DirtyCheckable) {
+            if ($trackingChanges && $changedProperties == null) {
+                // share the changes with the given instance
+                $changedProperties = new LinkedHashMap<String, Object>()
+            }
             o.trackChanges($changedProperties)
         }
     }
@@ -43,7 +63,10 @@ trait DirtyCheckable {
      * @param changedProperties The changes.
      */
      void trackChanges(Map<String, Object> changedProperties) {
+        $trackingChanges = changedProperties != null
         $changedProperties = changedProperties
+        $dirtyPropertyMask = 0L
+        $dirtyPropertyMaskOverflow = null
     }
 
     /**
@@ -54,7 +77,7 @@ trait DirtyCheckable {
             return false
         }
         else {
-            return $changedProperties == null || DirtyCheckingSupport.DIRTY_CLASS_MARKER.is($changedProperties) || !$changedProperties.isEmpty()
+            return !$trackingChanges || ($changedProperties != null && (DirtyCheckingSupport.DIRTY_CLASS_MARKER.is($changedProperties) || !$changedProperties.isEmpty()))
         }
     }
 
@@ -67,7 +90,7 @@ trait DirtyCheckable {
             return false
         }
         else {
-            return $changedProperties == null || DirtyCheckingSupport.DIRTY_CLASS_MARKER.is($changedProperties) || $changedProperties?.containsKey(propertyName)
+            return !$trackingChanges || ($changedProperties != null && (DirtyCheckingSupport.DIRTY_CLASS_MARKER.is($changedProperties) || $changedProperties.containsKey(propertyName)))
         }
     }
 
@@ -75,7 +98,7 @@ trait DirtyCheckable {
      * Marks the whole class and all its properties as dirty. When called any future call to any of the hasChanged methods will return true.
      */
     void markDirty() {
-        if( $changedProperties != null && $changedProperties.isEmpty()) {
+        if( $trackingChanges && ($changedProperties == null || $changedProperties.isEmpty())) {
             $changedProperties = DirtyCheckingSupport.DIRTY_CLASS_MARKER
         }
     }
@@ -85,11 +108,9 @@ trait DirtyCheckable {
      * @param propertyName The property name
      */
     void markDirty(String propertyName) {
-        if( $changedProperties != null && !$changedProperties.containsKey(propertyName))  {
-            if (DirtyCheckingSupport.DIRTY_CLASS_MARKER.is($changedProperties)) {
-                trackChanges()
-            }
-            $changedProperties.put propertyName, ((GroovyObject)this).getProperty(propertyName)
+        if( $trackingChanges && !isChangeTracked(-1, propertyName))  {
+            def oldValue = ((GroovyObject)this).getProperty(propertyName)
+            changedPropertiesForUpdate().put propertyName, oldValue
         }
     }
 
@@ -99,7 +120,7 @@ trait DirtyCheckable {
      * @param newValue The new value
      */
     void markDirty(String propertyName, newValue) {
-        if( $changedProperties != null && !$changedProperties.containsKey(propertyName))  {
+        if( $trackingChanges && !isChangeTracked(-1, propertyName))  {
             def oldValue = ((GroovyObject) this).getProperty(propertyName)
             markDirty(propertyName, newValue, oldValue)
         }
@@ -111,15 +132,28 @@ trait DirtyCheckable {
      * @param newValue The new value
      */
     void markDirty(String propertyName, newValue, oldValue) {
-        if( $changedProperties != null && !$changedProperties.containsKey(propertyName))  {
+        markDirty(-1, propertyName, newValue, oldValue)
+    }
+
+    /**
+     * Marks the given property as dirty if the value changed. Used by the setters generated by the {@code DirtyCheckingTransformer}
+     *
+     * @param ordinal The ordinal of the property in the dirty property mask or -1 if it has none
+     * @param propertyName The property name
+     * @param newValue The new value
+     * @param oldValue The old value
+     */
+    void markDirty(int ordinal, String propertyName, newValue, oldValue) {
+        if( $trackingChanges ) {
+            if (isChangeTracked(ordinal, propertyName)) {
+                return
+            }
             boolean isNull = newValue == null
             if ((isNull && oldValue != null) ||
                     (!isNull && oldValue == null) ||
                     (!isNull && !newValue.equals(oldValue))) {
-                if (DirtyCheckingSupport.DIRTY_CLASS_MARKER.is($changedProperties)) {
-                    trackChanges()
-                }
-                $changedProperties.put propertyName, oldValue
+                changedPropertiesForUpdate().put propertyName, oldValue
+                markOrdinalDirty(ordinal)
             }
         }
     }
@@ -153,4 +187,53 @@ trait DirtyCheckable {
             return null
         }
     }
+
+    private boolean isChangeTracked(int ordinal, String propertyName) {
+        if (isOrdinalDirty(ordinal)) {
+            return true
+        }
+        if ($changedProperties != null && $changedProperties.containsKey(propertyName)) {
+            markOrdinalDirty(ordinal)
+            return true
+        }
+        return false
+    }
+
+    private boolean isOrdinalDirty(int ordinal) {
+        if (ordinal < 0) {
+            return false
+        }
+        if (ordinal < Long.SIZE) {
+            return ($dirtyPropertyMask & (1L << ordinal)) != 0L
+        }
+        long[] overflow = $dirtyPropertyMaskOverflow
+        int word = (ordinal >> 6) - 1
+        return overflow != null && word < overflow.length && (overflow[word] & (1L << (ordinal & 63))) != 0L
+    }
+
+    private void markOrdinalDirty(int ordinal) {
+        if (ordinal < 0) {
+            return
+        }
+        if (ordinal < Long.SIZE) {
+            $dirtyPropertyMask |= 1L << ordinal
+            return
+        }
+        int word = (ordinal >> 6) - 1
+        long[] overflow = $dirtyPropertyMaskOverflow
+        if (overflow == null || word >= overflow.length) {
+            overflow = overflow == null ? new long[word + 1] : Arrays.copyOf(overflow, word + 1)
+            $dirtyPropertyMaskOverflow = overflow
+        }
+        overflow[word] |= 1L << (ordinal & 63)
+    }
+
+    private Map<String, Object> changedPropertiesForUpdate() {
+        Map<String, Object> changes = $changedProperties
+        if (changes == null || DirtyCheckingSupport.DIRTY_CLASS_MARKER.is(changes)) {
+            changes = new LinkedHashMap<String, Object>()
+            $changedProperties = changes
+        }
+        return changes
+    }
 }
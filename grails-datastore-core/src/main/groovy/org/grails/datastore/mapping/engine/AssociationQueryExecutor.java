@@ -17,7 +17,10 @@ package org.grails.datastore.mapping.engine;
 
 import org.grails.datastore.mapping.model.PersistentEntity;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An interface for classes that know how to query an association
@@ -35,6 +38,22 @@ public interface AssociationQueryExecutor<K, T> {
      */
     List<T> query(K primaryKey);
 
+    /**
+     * Queries several primary keys at once, used to initialize several collections of the same association in one batch.
+     * The default implementation queries each key separately, implementations should override it to use a single query where possible.
+     *
+     * @param primaryKeys The primary keys
+     * @return The foreign keys (or entities) for each of the given primary keys
+     * @since 9.0
+     */
+    default Map<K, List<T>> queryAll(Collection<K> primaryKeys) {
+        Map<K, List<T>> results = new LinkedHashMap<>();
+        for (K primaryKey : primaryKeys) {
+            results.put(primaryKey, query(primaryKey));
+        }
+        return results;
+    }
+
     /**
      * @return The entity to be queried
      */
@@ -0,0 +1,47 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.engine;
+
+import java.util.List;
+
+import org.grails.datastore.mapping.core.impl.PendingOperation;
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+/**
+ * A {@link Persister} that is able to execute several pending operations of the same entity in one go,
+ * for example by using the batch write API of the underlying datastore.
+ *
+ * <p>When a session is flushed the pending operations are grouped per entity and handed to the persister in
+ * batches of at most {@link org.grails.datastore.mapping.core.AbstractSession#getFlushBatchSize()} operations.
+ * Operations for persisters that don't implement this interface are executed one by one.</p>
+ *
+ * @since 9.0
+ */
+@SuppressWarnings("rawtypes")
+public interface BatchOperationPersister extends Persister {
+
+    /**
+     * Executes a batch of pending operations. All of the operations are of the same kind (inserts, updates or deletes)
+     * and belong to the given entity.
+     *
+     * <p>The pre-operations of every operation in the batch have already been executed when this method is called and the
+     * cascade operations are executed by the caller afterwards for each operation that was not vetoed.
+     * Operations that the persister doesn't know how to batch should simply be {@link Runnable#run() run}.</p>
+     *
+     * @param entity The entity
+     * @param operations The operations to execute
+     */
+    void executePendingOperations(PersistentEntity entity, List<PendingOperation> operations);
+}
@@ -39,6 +39,7 @@ import org.grails.datastore.mapping.collection.PersistentList;
 import org.grails.datastore.mapping.collection.PersistentSet;
 import org.grails.datastore.mapping.collection.PersistentSortedSet;
 import org.grails.datastore.mapping.config.Property;
+import org.grails.datastore.mapping.core.BatchFetchQueue;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.core.SessionImplementor;
 import org.grails.datastore.mapping.core.impl.PendingInsert;
@@ -59,6 +60,7 @@ import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.model.PropertyMapping;
 import org.grails.datastore.mapping.model.types.*;
 import org.grails.datastore.mapping.proxy.ProxyFactory;
+import org.grails.datastore.mapping.reflect.EntityReflector;
 import org.grails.datastore.mapping.query.Query;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
@@ -72,7 +74,7 @@ import org.springframework.dao.CannotAcquireLockException;
  * @since  1.0
  */
 @SuppressWarnings({"unused", "rawtypes", "unchecked"})
-public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEntityPersister<T> {
+public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEntityPersister<T> implements BatchOperationPersister {
     public static final String EMBEDDED_PREFIX = "embedded:";
     protected ClassMapping classMapping;
 
@@ -122,6 +124,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
             session.setFlushMode(FlushModeType.COMMIT);
             cascadeBeforeDelete(persistentEntity, entityAccess, key, obj);
             deleteEntry(getEntityFamily(), key, obj);
+            evictFromTPCache(persistentEntity, (Serializable) key);
             cascadeAfterDelete(persistentEntity, entityAccess, key, obj);
         }
         finally {
@@ -248,6 +251,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
 
             if (!keys.isEmpty()) {
                 deleteEntries(getEntityFamily(), new ArrayList<K>(keys));
+                evictFromTPCache(persistentEntity, (Collection<? extends Serializable>) keys);
                 for (Object object : deleteList) {
                     firePostDeleteEvent(persistentEntity, createEntityAccess(persistentEntity, object));
                 }
@@ -319,12 +323,13 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
     protected final Object retrieveEntity(PersistentEntity persistentEntity, Serializable nativeKey) {
 
         final Serializable key = convertToNativeKey(nativeKey);
-        T nativeEntry = getFromTPCache(persistentEntity, nativeKey);
+        T nativeEntry = getFromTPCache(persistentEntity, key);
         if (nativeEntry == null) {
             nativeEntry = retrieveEntry(persistentEntity, getEntityFamily(), key);
             if (nativeEntry == null) {
                 return null;
             }
+            cacheInTPCache(persistentEntity, nativeEntry, key);
         }
 
         return createObjectFromNativeEntry(persistentEntity, key, nativeEntry);
@@ -495,6 +500,9 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
                                 Object value = isLazy ?
                                         session.proxy(propType, associationKey) :
                                         session.retrieve(propType, associationKey);
+                                if (isLazy) {
+                                    registerBatchFetchProxy(association, propType, associationKey, value);
+                                }
                                 ea.setProperty(prop.getName(), value);
                             }
                         }
@@ -542,17 +550,19 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
                     if(indexer != null) {
                         nativeKey = convertIdIfNecessary(getPersistentEntity(), nativeKey );
                         if (isLazy) {
+                            AbstractPersistentCollection collection = null;
                             if (List.class.isAssignableFrom(association.getType())) {
-                                ea.setPropertyNoConversion(association.getName(),
-                                        new PersistentList(nativeKey, session, indexer));
+                                collection = new PersistentList(nativeKey, session, indexer);
                             }
                             else if (SortedSet.class.isAssignableFrom(association.getType())) {
-                                ea.setPropertyNoConversion(association.getName(),
-                                        new PersistentSortedSet(nativeKey, session, indexer));
+                                collection = new PersistentSortedSet(nativeKey, session, indexer);
                             }
                             else if (Set.class.isAssignableFrom(association.getType())) {
-                                ea.setPropertyNoConversion(association.getName(),
-                                        new PersistentSet(nativeKey, session, indexer));
+                                collection = new PersistentSet(nativeKey, session, indexer);
+                            }
+                            if (collection != null) {
+                                collection.enableBatchFetch(association);
+                                ea.setPropertyNoConversion(association.getName(), collection);
                             }
                         }
                         else {
@@ -780,6 +790,26 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
         return persistentEntity;
     }
 
+    /**
+     * Registers an uninitialized proxy with the {@link BatchFetchQueue} of the session if the association is mapped with a batch size,
+     * so that it is retrieved together with other proxies of the same type when it is initialized
+     */
+    private void registerBatchFetchProxy(Association association, Class type, Serializable key, Object proxy) {
+        PropertyMapping<Property> mapping = association.getMapping();
+        Integer batchSize = mapping != null && mapping.getMappedForm() != null ? mapping.getMappedForm().getBatchSize() : null;
+        if (batchSize == null || batchSize < 2 || !(session instanceof SessionImplementor)) {
+            return;
+        }
+        SessionImplementor sessionImplementor = (SessionImplementor) session;
+        ProxyFactory proxyFactory = getProxyFactory();
+        if (!sessionImplementor.isStateless(association.getAssociatedEntity()) && proxyFactory.isProxy(proxy) && !proxyFactory.isInitialized(proxy)) {
+            BatchFetchQueue batchFetchQueue = sessionImplementor.getBatchFetchQueue();
+            if (batchFetchQueue != null) {
+                batchFetchQueue.addProxy(type, key, batchSize);
+            }
+        }
+    }
+
     private boolean isLazyAssociation(PropertyMapping<Property> associationPropertyMapping) {
         if (associationPropertyMapping == null) {
             return true;
@@ -830,14 +860,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
 
             cacheNativeEntry(persistentEntity, (Serializable) k, tmp);
 
-            pendingOperation = new PendingInsertAdapter<T, K>(persistentEntity, k, tmp, entityAccess) {
-                public void run() {
-                    K insertResult = executeInsert(persistentEntity, entityAccess, getNativeKey(), getNativeEntry());
-                    if(insertResult == null) {
-                        setVetoed(true);
-                    }
-                }
-            };
+            pendingOperation = new NativeEntryPendingInsert(persistentEntity, k, tmp, entityAccess);
 
             entityAccess.setProperty(entityAccess.getIdentifierName(), k);
         }
@@ -853,19 +876,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
                 tmp = createNewEntry(family);
             }
 
-            final T finalTmp = tmp;
-            final K finalK = k;
-            pendingOperation = new PendingUpdateAdapter<T, K>(persistentEntity, finalK, finalTmp, entityAccess) {
-                public void run() {
-                    if (cancelUpdate(persistentEntity, entityAccess)) {
-                        setVetoed(true);
-                        return;
-                    }
-                    updateEntry(persistentEntity, entityAccess, getNativeKey(), getNativeEntry());
-                    updateTPCache(persistentEntity, finalTmp, (Serializable) finalK);
-                    firePostUpdateEvent(persistentEntity, entityAccess);
-                }
-            };
+            pendingOperation = new NativeEntryPendingUpdate(persistentEntity, k, tmp, entityAccess);
         }
 
         final T e = tmp;
@@ -877,7 +888,10 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
         final Map<PersistentProperty, Object> toIndex = new HashMap<PersistentProperty, Object>();
         final Map<PersistentProperty, Object> toUnindex = new HashMap<PersistentProperty, Object>();
         entityAccess.setToIndex(toIndex);
-        for (PersistentProperty prop : props) {
+        // read the simple values through the index based accessors of the reflector rather than by name
+        final EntityReflector entityReflector = getMappingContext().getEntityReflector(persistentEntity);
+        for (int i = 0; i < props.size(); i++) {
+            final PersistentProperty prop = props.get(i);
             PropertyMapping<Property> pm = prop.getMapping();
             final Property mappedProperty = pm.getMappedForm();
             String key = null;
@@ -888,7 +902,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
             final boolean indexed = isPropertyIndexed(mappedProperty);
             if ((prop instanceof Simple) ) {
 
-                Object propValue = entityAccess.getProperty(prop.getName());
+                Object propValue = entityReflector.getBeanProperty(obj, i);
                 if(propValue == null && !isUpdate) {
                     continue;
                 }
@@ -901,12 +915,12 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
                 Basic basic = (Basic) prop;
                 CustomTypeMarshaller customTypeMarshaller = basic.getCustomTypeMarshaller();
                 if (customTypeMarshaller != null && customTypeMarshaller.supports(getMappingContext())) {
-                    Object propValue = entityAccess.getProperty(prop.getName());
+                    Object propValue = entityReflector.getBeanProperty(obj, i);
                     Object customValue = customTypeMarshaller.write(prop, propValue, e);
                     handleIndexing(isUpdate, e, toIndex, toUnindex, prop, key, indexed, customValue);
                 }
                 else {
-                    Object propValue = entityAccess.getProperty(prop.getName());
+                    Object propValue = entityReflector.getBeanProperty(obj, i);
                     if(propValue == null && !isUpdate) {
                         continue;
                     }
@@ -919,7 +933,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
             else if ((prop instanceof Custom)) {
                 CustomTypeMarshaller customTypeMarshaller = ((Custom) prop).getCustomTypeMarshaller();
                 if (customTypeMarshaller.supports(getMappingContext())) {
-                    Object propValue = entityAccess.getProperty(prop.getName());
+                    Object propValue = entityReflector.getBeanProperty(obj, i);
                     if(propValue == null && !isUpdate) {
                         continue;
                     }
@@ -1494,37 +1508,72 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
     }
 
     /**
-     * Simplistic default implementation of retrieveAllEntities that iterates over each key and retrieves the entities
-     * one-by-one. Data stores that support batch retrieval can optimize this to retrieve all entities in one go.
+     * Retrieves all of the entities for the given keys. Entries found in the third party cache are reused and the remaining
+     * entries are read from the datastore with a single call to {@link #retrieveEntries(PersistentEntity, String, List)}.
      *
      * @param persistentEntity The persist entity
      * @param keys The keys
-     * @return A list of entities
+     * @return A list of entities in the order of the keys, with null for keys that don't exist
      */
     @Override
     protected List<Object> retrieveAllEntities(PersistentEntity persistentEntity, Iterable<Serializable> keys) {
-        List<Object> results = new ArrayList<Object>();
+        List<Serializable> nativeKeys = new ArrayList<Serializable>();
+        Set<Serializable> toRetrieve = new LinkedHashSet<Serializable>();
+        Map<Serializable, T> entries = new HashMap<Serializable, T>();
         for (Serializable key : keys) {
-            results.add(retrieveEntity(persistentEntity, key));
+            Serializable nativeKey = key != null ? convertToNativeKey(key) : null;
+            nativeKeys.add(nativeKey);
+            if (nativeKey == null || entries.containsKey(nativeKey) || toRetrieve.contains(nativeKey)) {
+                continue;
+            }
+            T cached = getFromTPCache(persistentEntity, nativeKey);
+            if (cached != null) {
+                entries.put(nativeKey, cached);
+            }
+            else {
+                toRetrieve.add(nativeKey);
+            }
+        }
+
+        if (!toRetrieve.isEmpty()) {
+            Map<Serializable, T> retrieved = retrieveEntries(persistentEntity, getEntityFamily(), new ArrayList<Serializable>(toRetrieve));
+            if (retrieved != null) {
+                for (Map.Entry<Serializable, T> entry : retrieved.entrySet()) {
+                    cacheInTPCache(persistentEntity, entry.getValue(), entry.getKey());
+                }
+                entries.putAll(retrieved);
+            }
+        }
+
+        List<Object> results = new ArrayList<Object>(nativeKeys.size());
+        Map<Serializable, Object> created = new HashMap<Serializable, Object>();
+        for (Serializable nativeKey : nativeKeys) {
+            T nativeEntry = nativeKey != null ? entries.get(nativeKey) : null;
+            if (nativeEntry == null) {
+                results.add(null);
+                continue;
+            }
+            Object obj = created.get(nativeKey);
+            if (obj == null) {
+                obj = createObjectFromNativeEntry(persistentEntity, nativeKey, nativeEntry);
+                created.put(nativeKey, obj);
+            }
+            results.add(obj);
         }
         return results;
     }
 
     /**
-     * Simplistic default implementation of retrieveAllEntities that iterates over each key and retrieves the entities
-     * one-by-one. Data stores that support batch retrieval can optimize this to retrieve all entities in one go.
+     * Retrieves all of the entities for the given keys
      *
      * @param persistentEntity The persist entity
      * @param keys The keys
-     * @return A list of entities
+     * @return A list of entities in the order of the keys, with null for keys that don't exist
+     * @see #retrieveAllEntities(PersistentEntity, Iterable)
      */
     @Override
     protected List<Object> retrieveAllEntities(PersistentEntity persistentEntity, Serializable[] keys) {
-        List<Object> results = new ArrayList<Object>();
-        for (Serializable key : keys) {
-            results.add(retrieveEntity(persistentEntity, key));
-        }
-        return results;
+        return retrieveAllEntities(persistentEntity, Arrays.asList(keys));
     }
 
     /**
@@ -1583,6 +1632,28 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
      */
     protected abstract T retrieveEntry(PersistentEntity persistentEntity, String family, Serializable key);
 
+    /**
+     * Reads the native form of several Key/value datastore entries in one go. This simplistic default implementation
+     * calls {@link #retrieveEntry(PersistentEntity, String, Serializable)} for each key. Data stores that support a
+     * multi-get should override it to fetch all of the entries in a single round trip.
+     *
+     * @param persistentEntity The persistent entity
+     * @param family The family
+     * @param keys The native keys, without duplicates
+     * @return The native entries keyed by the given keys. Keys that don't exist are absent from the map
+     * @since 9.0
+     */
+    protected Map<Serializable, T> retrieveEntries(PersistentEntity persistentEntity, String family, List<Serializable> keys) {
+        Map<Serializable, T> entries = new LinkedHashMap<Serializable, T>();
+        for (Serializable key : keys) {
+            T entry = retrieveEntry(persistentEntity, family, key);
+            if (entry != null) {
+                entries.put(key, entry);
+            }
+        }
+        return entries;
+    }
+
     /**
      * Stores the native form of a Key/value datastore to the actual data store
      *
@@ -1616,7 +1687,9 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
 
     /**
      * Executes an insert for the given entity, entity access, identifier and native entry.
-     * Any before interceptors will be triggered
+     * Any before interceptors will be triggered. Inserts that are flushed in a batch of more than one are written with
+     * {@link #storeEntries(PersistentEntity, List)} instead, so subclasses that override this method to customize how an
+     * entry is stored should override that method as well
      *
      * @param persistentEntity
      * @param entityAccess
@@ -1636,6 +1709,151 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
         return newId;
     }
 
+    /**
+     * Executes a batch of pending inserts or updates created by this persister. The before events are fired for every
+     * operation first and the entries that were not vetoed are then written with {@link #storeEntries(PersistentEntity, List)}
+     * or {@link #updateEntries(PersistentEntity, List)}. A single insert is executed with
+     * {@link #executeInsert(PersistentEntity, NativeEntryModifyingEntityAccess, Object, Object)} and any other operation
+     * is executed as is.
+     *
+     * @param persistentEntity The entity
+     * @param operations The operations to execute
+     */
+    @Override
+    public void executePendingOperations(PersistentEntity persistentEntity, List<PendingOperation> operations) {
+        int insertCount = 0;
+        for (PendingOperation operation : operations) {
+            if (isOwnPendingInsert(operation)) {
+                insertCount++;
+            }
+        }
+
+        List<PendingInsert<T, K>> inserts = new ArrayList<>(insertCount);
+        List<PendingUpdate<T, K>> updates = new ArrayList<>(operations.size() - insertCount);
+        for (PendingOperation operation : operations) {
+            if (insertCount > 1 && isOwnPendingInsert(operation)) {
+                NativeEntryPendingInsert insert = (NativeEntryPendingInsert) operation;
+                if (cancelInsert(insert.getEntity(), insert.getEntityAccess())) {
+                    insert.setVetoed(true);
+                }
+                else {
+                    inserts.add(insert);
+                }
+            }
+            else if (operation instanceof NativeEntryPendingUpdate && ((NativeEntryPendingUpdate) operation).getPersister() == this) {
+                NativeEntryPendingUpdate update = (NativeEntryPendingUpdate) operation;
+                if (cancelUpdate(update.getEntity(), update.getEntityAccess())) {
+                    update.setVetoed(true);
+                }
+                else {
+                    updates.add(update);
+                }
+            }
+            else {
+                operation.run();
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            List<K> newIds = storeEntries(persistentEntity, inserts);
+            for (int i = 0; i < inserts.size(); i++) {
+                PendingInsert<T, K> insert = inserts.get(i);
+                K newId = newIds.get(i);
+                EntityAccess entityAccess = insert.getEntityAccess();
+                entityAccess.setIdentifier(newId);
+                updateTPCache(insert.getEntity(), insert.getNativeEntry(), (Serializable) newId);
+                firePostInsertEvent(insert.getEntity(), entityAccess);
+            }
+        }
+        if (!updates.isEmpty()) {
+            updateEntries(persistentEntity, updates);
+            for (PendingUpdate<T, K> update : updates) {
+                updateTPCache(update.getEntity(), update.getNativeEntry(), (Serializable) update.getNativeKey());
+                firePostUpdateEvent(update.getEntity(), update.getEntityAccess());
+            }
+        }
+    }
+
+    private boolean isOwnPendingInsert(PendingOperation operation) {
+        return operation instanceof NativeEntryPendingInsert && ((NativeEntryPendingInsert) operation).getPersister() == this;
+    }
+
+    /**
+     * Stores several native entries in one go. The default implementation calls {@link #storeEntry(PersistentEntity, EntityAccess, Object, Object)}
+     * for each insert, datastores that support batch writes should override this to store all of the entries in a single round trip.
+     *
+     * @param persistentEntity The persistent entity
+     * @param inserts The inserts whose native entries should be stored
+     * @return The native keys in the same order as the inserts
+     */
+    protected List<K> storeEntries(PersistentEntity persistentEntity, List<PendingInsert<T, K>> inserts) {
+        List<K> keys = new ArrayList<>(inserts.size());
+        for (PendingInsert<T, K> insert : inserts) {
+            keys.add(storeEntry(insert.getEntity(), insert.getEntityAccess(), insert.getNativeKey(), insert.getNativeEntry()));
+        }
+        return keys;
+    }
+
+    /**
+     * Updates several existing entries in one go. The default implementation calls {@link #updateEntry(PersistentEntity, EntityAccess, Object, Object)}
+     * for each update, datastores that support batch writes should override this to update all of the entries in a single round trip.
+     *
+     * @param persistentEntity The persistent entity
+     * @param updates The updates whose native entries should be written
+     */
+    protected void updateEntries(PersistentEntity persistentEntity, List<PendingUpdate<T, K>> updates) {
+        for (PendingUpdate<T, K> update : updates) {
+            updateEntry(update.getEntity(), update.getEntityAccess(), update.getNativeKey(), update.getNativeEntry());
+        }
+    }
+
+    /**
+     * A pending insert of a native entry that can be batched by {@link #executePendingOperations(PersistentEntity, List)}
+     */
+    protected class NativeEntryPendingInsert extends PendingInsertAdapter<T, K> {
+
+        public NativeEntryPendingInsert(PersistentEntity entity, K nativeKey, T nativeEntry, NativeEntryModifyingEntityAccess ea) {
+            super(entity, nativeKey, nativeEntry, ea);
+        }
+
+        public NativeEntryEntityPersister<T, K> getPersister() {
+            return NativeEntryEntityPersister.this;
+        }
+
+        @Override
+        public void run() {
+            K insertResult = executeInsert(getEntity(), (NativeEntryModifyingEntityAccess) getEntityAccess(), getNativeKey(), getNativeEntry());
+            if(insertResult == null) {
+                setVetoed(true);
+            }
+        }
+    }
+
+    /**
+     * A pending update of a native entry that can be batched by {@link #executePendingOperations(PersistentEntity, List)}
+     */
+    protected class NativeEntryPendingUpdate extends PendingUpdateAdapter<T, K> {
+
+        public NativeEntryPendingUpdate(PersistentEntity entity, K nativeKey, T nativeEntry, NativeEntryModifyingEntityAccess ea) {
+            super(entity, nativeKey, nativeEntry, ea);
+        }
+
+        public NativeEntryEntityPersister<T, K> getPersister() {
+            return NativeEntryEntityPersister.this;
+        }
+
+        @Override
+        public void run() {
+            if (cancelUpdate(getEntity(), getEntityAccess())) {
+                setVetoed(true);
+                return;
+            }
+            updateEntry(getEntity(), getEntityAccess(), getNativeKey(), getNativeEntry());
+            updateTPCache(getEntity(), getNativeEntry(), (Serializable) getNativeKey());
+            firePostUpdateEvent(getEntity(), getEntityAccess());
+        }
+    }
+
     protected class NativeEntryModifyingEntityAccess extends BeanEntityAccess {
 
         T nativeEntry;
@@ -1713,13 +1931,13 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
             return false;
         }
 
-        EntityAccess entityAccess = createEntityAccess(getPersistentEntity(), instance, nativeEntry);
-
+        Object target = getProxyFactory().unwrap(instance);
         List<PersistentProperty> props = getPersistentEntity().getPersistentProperties();
-        for (PersistentProperty prop : props) {
+        for (int i = 0; i < props.size(); i++) {
+            PersistentProperty prop = props.get(i);
             String key = getPropertyKey(prop);
 
-            Object currentValue = entityAccess.getProperty(prop.getName());
+            Object currentValue = reflector.getBeanProperty(target, i);
             Object oldValue = getEntryValue(nativeEntry, key);
             if (prop instanceof Simple || prop instanceof Basic || prop instanceof ToOne) {
                 if (!areEqual(oldValue, currentValue, key)) {
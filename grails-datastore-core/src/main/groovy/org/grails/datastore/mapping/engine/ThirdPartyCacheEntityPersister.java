@@ -16,12 +16,25 @@ package org.grails.datastore.mapping.engine;
 
 import org.grails.datastore.mapping.cache.TPCacheAdapter;
 import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
+import org.grails.datastore.mapping.core.AbstractSession;
+import org.grails.datastore.mapping.core.Datastore;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.query.cache.QueryResultCache;
+import org.grails.datastore.mapping.query.cache.QueryResultCacheProvider;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -42,14 +55,129 @@ public abstract class ThirdPartyCacheEntityPersister<T> extends LockableEntityPe
         this.cacheAdapterRepository = cacheAdapterRepository;
     }
 
+    /**
+     * Called after an entry has been written to the datastore. The cached entry is evicted rather than replaced, so that
+     * changes which are flushed but not yet committed are never served to other sessions.
+     *
+     * @param persistentEntity The entity
+     * @param e The native entry that was written
+     * @param id The id of the entry
+     * @see #evictFromTPCache(PersistentEntity, Serializable)
+     */
     protected void updateTPCache(PersistentEntity persistentEntity, T e, Serializable id) {
+        evictFromTPCache(persistentEntity, id);
+    }
+
+    /**
+     * Stores a copy of an entry that was read from the datastore in the third party cache
+     *
+     * @param persistentEntity The entity
+     * @param e The native entry
+     * @param id The id of the entry
+     * @since 9.0
+     */
+    protected void cacheInTPCache(PersistentEntity persistentEntity, T e, Serializable id) {
+        if (cacheAdapterRepository == null || e == null || id == null) {
+            return;
+        }
+
+        TPCacheAdapter<T> cacheAdapter = cacheAdapterRepository.getTPCacheAdapter(persistentEntity);
+        if (cacheAdapter != null) {
+            cacheAdapter.cacheEntry(id, copyNativeEntry(e));
+        }
+    }
+
+    /**
+     * Evicts the entry with the given id, and any cached query results of the entity, from the third party cache.
+     *
+     * @param persistentEntity The entity
+     * @param id The id of the entry
+     * @see #evictFromTPCache(PersistentEntity, Collection)
+     * @since 9.0
+     */
+    protected void evictFromTPCache(PersistentEntity persistentEntity, Serializable id) {
+        evictFromTPCache(persistentEntity, Collections.singletonList(id));
+    }
+
+    /**
+     * Evicts the entries with the given ids, and any cached query results of the entity, from the third party cache. Entries
+     * are evicted when the write happens. Query results are evicted once per call, or once per flush by the session if a
+     * flush is active. If a transaction is active both are evicted again once it completes, since another session may have
+     * cached the entries or query results as they were before the commit in the meantime. The evictions of a session are
+     * collected and performed by a single synchronization per transaction.
+     *
+     * @param persistentEntity The entity
+     * @param ids The ids of the entries
+     * @since 9.0
+     */
+    protected void evictFromTPCache(PersistentEntity persistentEntity, Collection<? extends Serializable> ids) {
+        if (!isCached(persistentEntity)) {
+            return;
+        }
+
+        evictEntriesFromTPCache(persistentEntity, ids);
+        if (!(session instanceof AbstractSession) || !((AbstractSession) session).isFlushActive()) {
+            evictQueryResultsFromTPCache(persistentEntity);
+        }
+        if (session != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            ThirdPartyCacheEvictions.of(session).record(this, persistentEntity, ids);
+        }
+    }
+
+    void evictEntriesFromTPCache(PersistentEntity persistentEntity, Collection<? extends Serializable> ids) {
         if (cacheAdapterRepository == null) {
             return;
         }
 
         TPCacheAdapter<T> cacheAdapter = cacheAdapterRepository.getTPCacheAdapter(persistentEntity);
         if (cacheAdapter != null) {
-            cacheAdapter.cacheEntry(id, e);
+            for (Serializable id : ids) {
+                cacheAdapter.evictEntry(id);
+            }
+        }
+    }
+
+    private boolean isCached(PersistentEntity persistentEntity) {
+        if (cacheAdapterRepository != null && (cacheAdapterRepository.getTPCacheAdapter(persistentEntity) != null ||
+                cacheAdapterRepository.getQueryResultsTPCacheAdapter(persistentEntity) != null)) {
+            return true;
+        }
+        Datastore datastore = session != null ? session.getDatastore() : null;
+        return datastore instanceof QueryResultCacheProvider && ((QueryResultCacheProvider) datastore).getQueryResultCache() != null;
+    }
+
+    /**
+     * Evicts the cached query results of the given entity, including those of the query result cache of the datastore.
+     *
+     * @param persistentEntity The entity
+     * @since 9.0
+     */
+    protected void evictQueryResultsFromTPCache(PersistentEntity persistentEntity) {
+        Datastore datastore = session != null ? session.getDatastore() : null;
+        if (datastore instanceof QueryResultCacheProvider) {
+            QueryResultCache queryResultCache = ((QueryResultCacheProvider) datastore).getQueryResultCache();
+            if (queryResultCache != null) {
+                queryResultCache.evict(persistentEntity);
+            }
+        }
+        evictQueryResultsRegion(persistentEntity);
+    }
+
+    /**
+     * Evicts the cached query results of the given entity from the query results region of the third party cache only.
+     * Called by the session once for each entity written by a flush.
+     *
+     * @param persistentEntity The entity
+     * @since 9.0
+     */
+    public void evictQueryResultsRegion(PersistentEntity persistentEntity) {
+        if (cacheAdapterRepository == null) {
+            return;
+        }
+
+        TPCacheAdapter<List<Serializable>> queryCacheAdapter = cacheAdapterRepository.getQueryResultsTPCacheAdapter(persistentEntity);
+        if (queryCacheAdapter != null) {
+            queryCacheAdapter.evictAll();
         }
     }
 
@@ -60,8 +188,49 @@ public abstract class ThirdPartyCacheEntityPersister<T> extends LockableEntityPe
 
         TPCacheAdapter<T> cacheAdapter = cacheAdapterRepository.getTPCacheAdapter(persistentEntity);
         if (cacheAdapter != null) {
-            return cacheAdapter.getCachedEntry(id);
+            T entry = cacheAdapter.getCachedEntry(id);
+            return entry != null ? copyNativeEntry(entry) : null;
         }
         return null;
     }
+
+    /**
+     * Copies a native entry on its way in to and out of the third party cache, so that the instances of one session never
+     * share, and mutate, the entry of another. Maps and the collections they contain are copied, any other type is returned
+     * as is, so subclasses whose native entries are mutable should override this method.
+     *
+     * @param entry The native entry
+     * @return The copy
+     * @since 9.0
+     */
+    @SuppressWarnings("unchecked")
+    protected T copyNativeEntry(T entry) {
+        return (T) copyValue(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<Object, Object> e : ((Map<Object, Object>) value).entrySet()) {
+                copy.put(e.getKey(), copyValue(e.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof Set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            for (Object o : (Set<Object>) value) {
+                copy.add(copyValue(o));
+            }
+            return copy;
+        }
+        if (value instanceof Collection) {
+            List<Object> copy = new ArrayList<>();
+            for (Object o : (Collection<Object>) value) {
+                copy.add(copyValue(o));
+            }
+            return copy;
+        }
+        return value;
+    }
 }
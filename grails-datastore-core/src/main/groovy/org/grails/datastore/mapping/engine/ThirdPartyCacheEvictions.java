@@ -0,0 +1,87 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.engine;
+
+import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the third party cache evictions of a session during a transaction and evicts them again, once per entry and once
+ * per entity for query results, when the transaction completes
+ *
+ * @since 9.0
+ */
+class ThirdPartyCacheEvictions implements TransactionSynchronization {
+
+    private static final String SESSION_PROPERTY = ThirdPartyCacheEvictions.class.getName();
+
+    private final Map<ThirdPartyCacheEntityPersister<?>, Map<PersistentEntity, Set<Serializable>>> evictions = new LinkedHashMap<>();
+    private boolean registered;
+
+    /**
+     * @param session The session
+     * @return The evictions of the given session
+     */
+    static ThirdPartyCacheEvictions of(Session session) {
+        ThirdPartyCacheEvictions evictions = (ThirdPartyCacheEvictions) session.getSessionProperty(SESSION_PROPERTY);
+        if (evictions == null) {
+            evictions = new ThirdPartyCacheEvictions();
+            session.setSessionProperty(SESSION_PROPERTY, evictions);
+        }
+        return evictions;
+    }
+
+    /**
+     * Records entries to evict again when the current transaction completes
+     *
+     * @param persister The persister that wrote the entries
+     * @param entity The entity
+     * @param ids The ids of the entries
+     */
+    void record(ThirdPartyCacheEntityPersister<?> persister, PersistentEntity entity, Collection<? extends Serializable> ids) {
+        evictions.computeIfAbsent(persister, p -> new LinkedHashMap<>())
+                .computeIfAbsent(entity, e -> new LinkedHashSet<>())
+                .addAll(ids);
+        if (!registered) {
+            TransactionSynchronizationManager.registerSynchronization(this);
+            registered = true;
+        }
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        try {
+            for (Map.Entry<ThirdPartyCacheEntityPersister<?>, Map<PersistentEntity, Set<Serializable>>> entry : evictions.entrySet()) {
+                ThirdPartyCacheEntityPersister<?> persister = entry.getKey();
+                for (Map.Entry<PersistentEntity, Set<Serializable>> ofEntity : entry.getValue().entrySet()) {
+                    persister.evictEntriesFromTPCache(ofEntity.getKey(), ofEntity.getValue());
+                    persister.evictQueryResultsFromTPCache(ofEntity.getKey());
+                }
+            }
+        } finally {
+            evictions.clear();
+            registered = false;
+        }
+    }
+}
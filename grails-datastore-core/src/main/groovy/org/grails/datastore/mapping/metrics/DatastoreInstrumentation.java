@@ -0,0 +1,110 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.metrics;
+
+import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.core.SessionImplementor;
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.query.Query;
+
+/**
+ * A service provider interface for recording metrics of the operations of sessions, such as query latency, flush durations,
+ * first level cache hits and lazy loading.
+ *
+ * <p>The instrumentation of a datastore is obtained from its {@link InstrumentationProvider}. Sessions look it up once when they
+ * are created and skip all timing when there is none, so instrumentation costs nothing when it is disabled. Implementations are
+ * called by many threads at once and must be thread safe. All of the methods do nothing by default.</p>
+ *
+ * @since 9.0
+ * @see DatastoreMetrics
+ */
+public interface DatastoreInstrumentation {
+
+    /**
+     * Called when a session is created
+     *
+     * @param session The session
+     */
+    default void sessionOpened(Session session) {
+    }
+
+    /**
+     * Called when a session is disconnected
+     *
+     * @param session The session
+     * @param lifetimeNanos The time since the session was created in nanoseconds
+     */
+    default void sessionClosed(Session session, long lifetimeNanos) {
+    }
+
+    /**
+     * Called after a query was executed against the datastore. Queries answered from the query result cache are not reported.
+     *
+     * @param query The query
+     * @param durationNanos The execution time in nanoseconds
+     * @param rows The number of results or -1 if the results are loaded lazily and their number isn't known yet
+     */
+    default void queryExecuted(Query query, long durationNanos, int rows) {
+    }
+
+    /**
+     * Called after a session was flushed
+     *
+     * @param session The session
+     * @param durationNanos The duration of the flush in nanoseconds
+     * @param inserts The number of pending inserts that were flushed
+     * @param updates The number of pending updates that were flushed
+     * @param deletes The number of pending deletes that were flushed
+     */
+    default void flushed(Session session, long durationNanos, int inserts, int updates, int deletes) {
+    }
+
+    /**
+     * Called when a session retrieves an entity by its identifier
+     *
+     * @param session The session
+     * @param entity The entity
+     * @param firstLevelCacheHit Whether the instance was found in the first level cache of the session
+     * @param durationNanos The time spent by the persister to retrieve the instance in nanoseconds, 0 for a first level cache hit
+     */
+    default void entityRetrieved(Session session, PersistentEntity entity, boolean firstLevelCacheHit, long durationNanos) {
+    }
+
+    /**
+     * Called when a lazy collection is initialized
+     *
+     * @param session The session
+     * @param elementType The type of the elements of the collection
+     */
+    default void collectionInitialized(Session session, Class elementType) {
+    }
+
+    /**
+     * Called when a proxy is initialized
+     *
+     * @param session The session
+     * @param type The type of the proxied instance
+     */
+    default void proxyInitialized(Session session, Class type) {
+    }
+
+    /**
+     * @param session The session
+     * @return The instrumentation of the session or null if it isn't instrumented
+     */
+    static DatastoreInstrumentation of(Session session) {
+        return session instanceof SessionImplementor ? ((SessionImplementor) session).getInstrumentation() : null;
+    }
+}
@@ -0,0 +1,421 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.types.Association;
+import org.grails.datastore.mapping.query.CriteriaWalker;
+import org.grails.datastore.mapping.query.Query;
+
+/**
+ * A {@link DatastoreInstrumentation} that records timers and counters in memory, in the style of a Micrometer meter registry.
+ * Meters are identified by a name and tags and can be exported by iterating {@link #getMeters()}.
+ *
+ * <p>The following meters are recorded:</p>
+ * <ul>
+ *     <li>{@code gorm.session} - a timer of the lifetime of sessions</li>
+ *     <li>{@code gorm.query} - a timer of query executions, tagged by entity and criteria shape</li>
+ *     <li>{@code gorm.query.rows} - a counter of the rows returned by queries, tagged by entity and criteria shape</li>
+ *     <li>{@code gorm.flush} - a timer of session flushes</li>
+ *     <li>{@code gorm.flush.operations} - a counter of flushed operations, tagged by type (insert, update or delete)</li>
+ *     <li>{@code gorm.retrieve} - a timer of instances retrieved by the persisters, tagged by entity</li>
+ *     <li>{@code gorm.cache.first-level} - a counter of first level cache lookups, tagged by entity and result (hit or miss)</li>
+ *     <li>{@code gorm.lazy.collection} and {@code gorm.lazy.proxy} - counters of lazy loads, tagged by type</li>
+ *     <li>{@code gorm.lazy.n-plus-one} - a counter of sessions that lazily loaded the same type more often than the
+ *     {@link #setNPlusOneThreshold(int) threshold}, tagged by type</li>
+ * </ul>
+ *
+ * <p>The criteria shape is the structure of the criteria without values, for example {@code and(Equals(title),GreaterThan(pages))},
+ * so that the number of distinct shapes is bounded by the queries of the application.</p>
+ *
+ * @since 9.0
+ */
+public class DatastoreMetrics implements DatastoreInstrumentation {
+
+    public static final String SESSION = "gorm.session";
+    public static final String QUERY = "gorm.query";
+    public static final String QUERY_ROWS = "gorm.query.rows";
+    public static final String FLUSH = "gorm.flush";
+    public static final String FLUSH_OPERATIONS = "gorm.flush.operations";
+    public static final String RETRIEVE = "gorm.retrieve";
+    public static final String FIRST_LEVEL_CACHE = "gorm.cache.first-level";
+    public static final String LAZY_COLLECTION = "gorm.lazy.collection";
+    public static final String LAZY_PROXY = "gorm.lazy.proxy";
+    public static final String N_PLUS_ONE = "gorm.lazy.n-plus-one";
+
+    /**
+     * The default number of lazy loads of the same type within a session from which an N+1 select problem is suspected
+     */
+    public static final int DEFAULT_N_PLUS_ONE_THRESHOLD = 10;
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatastoreMetrics.class);
+
+    private final Map<MeterId, Meter> meters = new ConcurrentHashMap<>();
+    private final Map<Session, Map<Class, AtomicInteger>> lazyLoadsBySession = Collections.synchronizedMap(new WeakHashMap<>());
+    private final LongAdder firstLevelCacheHits = new LongAdder();
+    private final LongAdder firstLevelCacheMisses = new LongAdder();
+    private int nPlusOneThreshold = DEFAULT_N_PLUS_ONE_THRESHOLD;
+
+    /**
+     * @return The number of lazy loads of the same type within a session from which an N+1 select problem is suspected
+     */
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    /**
+     * @param nPlusOneThreshold The number of lazy loads of the same type within a session from which an N+1 select problem is
+     * suspected. Values lower than 1 disable the detection
+     */
+    public void setNPlusOneThreshold(int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public void sessionClosed(Session session, long lifetimeNanos) {
+        timer(SESSION).record(lifetimeNanos);
+        lazyLoadsBySession.remove(session);
+    }
+
+    @Override
+    public void queryExecuted(Query query, long durationNanos, int rows) {
+        String entityName = query.getEntity().getName();
+        String shape = criteriaShape(query.getCriteria());
+        timer(QUERY, "entity", entityName, "criteria", shape).record(durationNanos);
+        if (rows > -1) {
+            counter(QUERY_ROWS, "entity", entityName, "criteria", shape).increment(rows);
+        }
+    }
+
+    @Override
+    public void flushed(Session session, long durationNanos, int inserts, int updates, int deletes) {
+        timer(FLUSH).record(durationNanos);
+        if (inserts > 0) {
+            counter(FLUSH_OPERATIONS, "type", "insert").increment(inserts);
+        }
+        if (updates > 0) {
+            counter(FLUSH_OPERATIONS, "type", "update").increment(updates);
+        }
+        if (deletes > 0) {
+            counter(FLUSH_OPERATIONS, "type", "delete").increment(deletes);
+        }
+    }
+
+    @Override
+    public void entityRetrieved(Session session, PersistentEntity entity, boolean firstLevelCacheHit, long durationNanos) {
+        String entityName = entity.getName();
+        if (firstLevelCacheHit) {
+            firstLevelCacheHits.increment();
+            counter(FIRST_LEVEL_CACHE, "entity", entityName, "result", "hit").increment(1);
+        }
+        else {
+            firstLevelCacheMisses.increment();
+            counter(FIRST_LEVEL_CACHE, "entity", entityName, "result", "miss").increment(1);
+            timer(RETRIEVE, "entity", entityName).record(durationNanos);
+        }
+    }
+
+    @Override
+    public void collectionInitialized(Session session, Class elementType) {
+        counter(LAZY_COLLECTION, "type", elementType.getName()).increment(1);
+        detectNPlusOne(session, elementType);
+    }
+
+    @Override
+    public void proxyInitialized(Session session, Class type) {
+        counter(LAZY_PROXY, "type", type.getName()).increment(1);
+        detectNPlusOne(session, type);
+    }
+
+    /**
+     * @return The ratio of first level cache hits to all lookups, or 0 if there were no lookups
+     */
+    public double getFirstLevelCacheHitRatio() {
+        long hits = firstLevelCacheHits.sum();
+        long lookups = hits + firstLevelCacheMisses.sum();
+        return lookups == 0 ? 0d : (double) hits / lookups;
+    }
+
+    /**
+     * @return All of the meters recorded so far
+     */
+    public Map<MeterId, Meter> getMeters() {
+        return Collections.unmodifiableMap(meters);
+    }
+
+    /**
+     * Obtains or creates a timer
+     *
+     * @param name The name of the timer
+     * @param tags The tags as alternating keys and values
+     * @return The timer
+     */
+    public Timer timer(String name, String... tags) {
+        return (Timer) meters.computeIfAbsent(new MeterId(name, tags), id -> new Timer());
+    }
+
+    /**
+     * Obtains or creates a counter
+     *
+     * @param name The name of the counter
+     * @param tags The tags as alternating keys and values
+     * @return The counter
+     */
+    public Counter counter(String name, String... tags) {
+        return (Counter) meters.computeIfAbsent(new MeterId(name, tags), id -> new Counter());
+    }
+
+    /**
+     * Removes all meters
+     */
+    public void clear() {
+        meters.clear();
+        lazyLoadsBySession.clear();
+        firstLevelCacheHits.reset();
+        firstLevelCacheMisses.reset();
+    }
+
+    /**
+     * Describes the structure of criteria without their values
+     *
+     * @param criteria The criteria
+     * @return The shape of the criteria
+     */
+    public static String criteriaShape(Query.Junction criteria) {
+        StringBuilder shape = new StringBuilder();
+        new CriteriaWalker() {
+            @Override
+            protected boolean enterJunction(PersistentEntity entity, Query.Junction junction) {
+                appendSeparator(shape).append(junction instanceof Query.Disjunction ? "or" : junction instanceof Query.Negation ? "not" : "and").append('(');
+                return true;
+            }
+
+            @Override
+            protected boolean leaveJunction(PersistentEntity entity, Query.Junction junction) {
+                shape.append(')');
+                return true;
+            }
+
+            @Override
+            protected boolean enterAssociation(PersistentEntity entity, Query.Criterion criterion, Association association) {
+                appendSeparator(shape).append(association.getName()).append('(');
+                return true;
+            }
+
+            @Override
+            protected boolean leaveAssociation(PersistentEntity entity, Query.Criterion criterion, Association association) {
+                shape.append(')');
+                return true;
+            }
+
+            @Override
+            protected boolean visitCriterion(PersistentEntity entity, Query.Criterion criterion) {
+                if (criterion != null) {
+                    appendSeparator(shape).append(criterion.getClass().getSimpleName());
+                    if (criterion instanceof Query.PropertyNameCriterion) {
+                        shape.append('(').append(((Query.PropertyNameCriterion) criterion).getProperty()).append(')');
+                    }
+                }
+                return true;
+            }
+        }.walk(null, criteria);
+        return shape.toString();
+    }
+
+    private static StringBuilder appendSeparator(StringBuilder shape) {
+        if (shape.length() > 0 && shape.charAt(shape.length() - 1) != '(') {
+            shape.append(',');
+        }
+        return shape;
+    }
+
+    private void detectNPlusOne(Session session, Class type) {
+        int threshold = nPlusOneThreshold;
+        if (threshold < 1 || session == null) {
+            return;
+        }
+        Map<Class, AtomicInteger> lazyLoads;
+        synchronized (lazyLoadsBySession) {
+            lazyLoads = lazyLoadsBySession.computeIfAbsent(session, s -> new ConcurrentHashMap<>());
+        }
+        int count = lazyLoads.computeIfAbsent(type, t -> new AtomicInteger()).incrementAndGet();
+        if (count == threshold) {
+            counter(N_PLUS_ONE, "type", type.getName()).increment(1);
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Instances of {} were lazy loaded {} times by the same session, consider fetching them eagerly or in batches", type.getName(), count);
+            }
+        }
+    }
+
+    /**
+     * The identifier of a meter, made of a name and tags
+     */
+    public static final class MeterId {
+        private final String name;
+        private final List<String> tags;
+
+        MeterId(String name, String... tags) {
+            if (tags.length % 2 != 0) {
+                throw new IllegalArgumentException("Tags must be given as pairs of keys and values");
+            }
+            this.name = name;
+            this.tags = tags.length == 0 ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(Arrays.asList(tags)));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @param key The key of the tag
+         * @return The value of the tag or null if there is none
+         */
+        public String getTag(String key) {
+            for (int i = 0; i < tags.size(); i += 2) {
+                if (tags.get(i).equals(key)) {
+                    return tags.get(i + 1);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return The tags as alternating keys and values
+         */
+        public List<String> getTags() {
+            return tags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MeterId)) return false;
+            MeterId other = (MeterId) o;
+            return name.equals(other.name) && tags.equals(other.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + tags.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(name);
+            if (!tags.isEmpty()) {
+                builder.append('{');
+                for (int i = 0; i < tags.size(); i += 2) {
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    builder.append(tags.get(i)).append('=').append(tags.get(i + 1));
+                }
+                builder.append('}');
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * A meter
+     */
+    public interface Meter {
+        /**
+         * @return The number of recorded events
+         */
+        long count();
+    }
+
+    /**
+     * A timer of the number, total and maximum duration of events
+     */
+    public static final class Timer implements Meter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+
+        /**
+         * @param nanos The duration of an event in nanoseconds
+         */
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        @Override
+        public long count() {
+            return count.sum();
+        }
+
+        public double totalTime(TimeUnit unit) {
+            return (double) totalNanos.sum() / unit.toNanos(1);
+        }
+
+        public double max(TimeUnit unit) {
+            return (double) maxNanos.get() / unit.toNanos(1);
+        }
+
+        public double mean(TimeUnit unit) {
+            long count = count();
+            return count == 0 ? 0d : totalTime(unit) / count;
+        }
+
+        @Override
+        public String toString() {
+            return "Timer{count=" + count() + ", total=" + totalTime(TimeUnit.MILLISECONDS) + "ms, max=" + max(TimeUnit.MILLISECONDS) + "ms}";
+        }
+    }
+
+    /**
+     * A monotonically increasing counter
+     */
+    public static final class Counter implements Meter {
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * @param amount The amount to increment the counter by
+         */
+        public void increment(long amount) {
+            count.add(amount);
+        }
+
+        @Override
+        public long count() {
+            return count.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "Counter{count=" + count() + "}";
+        }
+    }
+}
@@ -20,6 +20,12 @@ import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.grails.datastore.mapping.config.AbstractGormMappingFactory;
 import org.grails.datastore.mapping.config.ConfigurationUtils;
@@ -27,6 +33,7 @@ import org.grails.datastore.mapping.core.connections.ConnectionSourceSettings;
 import org.grails.datastore.mapping.engine.BeanEntityAccess;
 import org.grails.datastore.mapping.engine.EntityAccess;
 import org.grails.datastore.mapping.engine.types.CustomTypeMarshaller;
+import org.grails.datastore.mapping.model.config.GormMappingMetadata;
 import org.grails.datastore.mapping.model.config.GormProperties;
 import org.grails.datastore.mapping.model.lifecycle.Initializable;
 import org.grails.datastore.mapping.model.types.conversion.DefaultConversionService;
@@ -38,6 +45,8 @@ import org.grails.datastore.mapping.reflect.ClassPropertyFetcher;
 import org.grails.datastore.mapping.reflect.EntityReflector;
 import org.grails.datastore.mapping.reflect.FieldEntityAccess;
 import org.grails.datastore.mapping.validation.ValidatorRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.converter.Converter;
@@ -60,6 +69,8 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
     public static final String GROOVY_PROXY_FACTORY_NAME = "org.grails.datastore.gorm.proxy.GroovyProxyFactory";
     public static final String JAVASIST_PROXY_FACTORY = "javassist.util.proxy.ProxyFactory";
     public static final String CONFIGURATION_PREFIX = "grails.gorm.";
+    public static final int DEFAULT_PARALLEL_INITIALIZATION_THRESHOLD = 32;
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractMappingContext.class);
     protected Collection<PersistentEntity> persistentEntities = new ConcurrentLinkedQueue<>();
     protected Map<String,PersistentEntity>  persistentEntitiesByName = new ConcurrentHashMap<>();
     protected Map<PersistentEntity,Map<String,PersistentEntity>>  persistentEntitiesByDiscriminator = new ConcurrentHashMap<>();
@@ -70,6 +81,7 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
     protected ProxyFactory proxyFactory;
     protected ValidatorRegistry validatorRegistry;
     private boolean canInitializeEntities = true;
+    private int parallelInitializationThreshold = DEFAULT_PARALLEL_INITIALIZATION_THRESHOLD;
     private boolean initialized;
     private MultiTenancySettings.MultiTenancyMode multiTenancyMode;
 
@@ -89,6 +101,7 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
     protected void initialize(ConnectionSourceSettings settings) {
         FieldEntityAccess.clearReflectors();
         this.multiTenancyMode = settings.getMultiTenancy().getMode();
+        this.parallelInitializationThreshold = settings.getParallelInitializationThreshold();
 
         // initialize custom type marshallers
         MappingFactory mappingFactory = getMappingFactory();
@@ -119,6 +132,20 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
         this.canInitializeEntities = canInitializeEntities;
     }
 
+    /**
+     * Sets the minimum number of entities for their mapping metadata to be read, and their reflectors to be created, in parallel
+     * when the entities are added and initialized. A value lower than 1 disables parallel initialization.
+     *
+     * @param parallelInitializationThreshold The threshold
+     */
+    public void setParallelInitializationThreshold(int parallelInitializationThreshold) {
+        this.parallelInitializationThreshold = parallelInitializationThreshold;
+    }
+
+    public int getParallelInitializationThreshold() {
+        return parallelInitializationThreshold;
+    }
+
     public abstract MappingFactory getMappingFactory();
 
     public void configure(PropertyResolver configuration) {
@@ -270,6 +297,7 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
     public Collection<PersistentEntity> addPersistentEntities(Class... javaClasses) {
         Collection<PersistentEntity> entities = new ArrayList<>();
 
+        preloadMappingMetadata(Arrays.asList(javaClasses));
         for (Class javaClass : javaClasses) {
             PersistentEntity entity = createPersistentEntity(javaClass);
             if(entity == null) continue;
@@ -336,13 +364,107 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
     }
 
     public void initialize() {
+        List<Class> javaClasses = new ArrayList<>(persistentEntities.size());
+        for (PersistentEntity entity : persistentEntities) {
+            javaClasses.add(entity.getJavaClass());
+        }
+        preloadMappingMetadata(javaClasses);
+
+        // associations are wired up across entities, so the entities themselves are initialized one at a time
         for(PersistentEntity entity : persistentEntities) {
             initializePersistentEntity(entity);
-            FieldEntityAccess.getOrIntializeReflector(entity);
         }
+        forEachEntity(new ArrayList<>(persistentEntities), FieldEntityAccess::getOrIntializeReflector);
         this.initialized = true;
     }
 
+    /**
+     * Reads the metadata that mapping the given classes requires ahead of their initialization. The metadata of each class is
+     * independent of the other classes, so it is read in parallel when there are enough classes. The classes are initialized
+     * serially on the calling thread first, since static initializers that refer to each other can deadlock when they run
+     * concurrently. Most failures are only logged here and reported by the initialization of the entity. A failing static
+     * initializer is rethrown, since the class can't be initialized again and later attempts would fail without the original cause.
+     *
+     * @param javaClasses The entity classes
+     */
+    protected void preloadMappingMetadata(Collection<Class> javaClasses) {
+        if (!isParallelInitialization(javaClasses.size())) {
+            return;
+        }
+        for (Class javaClass : javaClasses) {
+            try {
+                Class.forName(javaClass.getName(), true, javaClass.getClassLoader());
+            } catch (ExceptionInInitializerError e) {
+                throw e;
+            } catch (ClassNotFoundException | LinkageError e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Unable to initialize class [" + javaClass.getName() + "]: " + e.getMessage(), e);
+                }
+            }
+        }
+        forEachEntity(javaClasses, javaClass -> {
+            try {
+                ClassPropertyFetcher.forClass(javaClass);
+                GormMappingMetadata.forClass(javaClass);
+            } catch (ExceptionInInitializerError e) {
+                throw e;
+            } catch (RuntimeException | LinkageError e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Unable to preload the mapping metadata of class [" + javaClass.getName() + "]: " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    private boolean isParallelInitialization(int size) {
+        return parallelInitializationThreshold > 0 && size >= parallelInitializationThreshold;
+    }
+
+    private <T> void forEachEntity(Collection<T> items, Consumer<T> action) {
+        if (!isParallelInitialization(items.size())) {
+            for (T item : items) {
+                action.accept(item);
+            }
+            return;
+        }
+        // class loading on the pool threads has to see the same classes as the caller
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executor = createInitializationExecutor(Math.min(items.size(), Runtime.getRuntime().availableProcessors()), contextClassLoader);
+        try {
+            List<Future<?>> tasks = new ArrayList<>(items.size());
+            for (T item : items) {
+                tasks.add(executor.submit(() -> action.accept(item)));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Error initializing the mapping context: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while initializing the mapping context", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutorService createInitializationExecutor(int threads, ClassLoader contextClassLoader) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "gorm-mapping-init-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        });
+    }
+
     public boolean isInitialized() {
         return initialized;
     }
@@ -233,15 +233,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
     }
 
     private List getCollectionStaticProperty(ClassPropertyFetcher cpf, String property) {
-        List<Collection> colls = cpf.getStaticPropertyValuesFromInheritanceHierarchy(property, Collection.class);
-        if (colls == null) {
-            return Collections.emptyList();
-        }
-        List values = new ArrayList();
-        for (Collection coll : colls) {
-            values.addAll(coll);
-        }
-        return values;
+        return GormMappingMetadata.forClass(cpf.getJavaClass()).getCollection(property);
     }
 
     public List<PersistentProperty> getPersistentProperties(PersistentEntity entity, MappingContext context, ClassMapping classMapping) {
@@ -249,16 +241,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
     }
 
     private Map getMapStaticProperty(ClassPropertyFetcher cpf, String property) {
-        List<Map> maps = cpf.getStaticPropertyValuesFromInheritanceHierarchy(property, Map.class);
-        if (maps == null) {
-            return Collections.emptyMap();
-        }
-        Map values = new HashMap();
-        for (int i = 0; i < maps.size(); i++) {
-            Map map = maps.get(i);
-            values.putAll(map);
-        }
-        return values;
+        return GormMappingMetadata.forClass(cpf.getJavaClass()).getMap(property);
     }
 
     protected void configureOwningSide(Association association) {
@@ -292,11 +275,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
      * Evaluates the belongsTo property to find out who owns who
      */
     private Set establishRelationshipOwners(ClassPropertyFetcher cpf) {
-        Set owners = new HashSet();
-        owners.addAll(cpf.getStaticPropertyValuesFromInheritanceHierarchy(BELONGS_TO, Class.class));
-        owners.addAll(getCollectionStaticProperty(cpf, BELONGS_TO));
-        owners.addAll(getMapStaticProperty(cpf, BELONGS_TO).values());
-        return owners;
+        return new HashSet(GormMappingMetadata.forClass(cpf.getJavaClass()).getOwners());
     }
 
     protected Association establishRelationshipForCollection(PropertyDescriptor property, PersistentEntity entity, MappingContext context, Map<String, Class> hasManyMap, Map mappedByMap, boolean embedded) {
@@ -827,7 +806,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
      * @return The association map
      */
     public Map getAssociationMap(ClassPropertyFetcher cpf) {
-        return getAssociationMap(cpf, HAS_MANY);
+        return new HashMap(getAssociationMap(cpf, HAS_MANY));
     }
 
     /**
@@ -837,7 +816,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
      */
     protected Map getAllAssociationMap(ClassPropertyFetcher cpf) {
 
-        Map associationMap = getAssociationMap(cpf, HAS_MANY);
+        Map associationMap = new HashMap(getAssociationMap(cpf, HAS_MANY));
         associationMap.putAll(getAssociationMap(cpf, HAS_ONE));
         associationMap.putAll(getAssociationMap(cpf, BELONGS_TO));
         return associationMap;
@@ -0,0 +1,205 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.model.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.grails.datastore.mapping.reflect.ClassPropertyFetcher;
+
+/**
+ * A snapshot of the static mapping declarations of a GORM entity class ({@code hasMany}, {@code hasOne}, {@code belongsTo},
+ * {@code mappedBy}, {@code embedded} and {@code transients}) merged across the inheritance hierarchy.
+ *
+ * <p>The declarations are read once per class and shared by every {@link GormMappingConfigurationStrategy}, instead of being read
+ * reflectively each time an entity or one of the entities associated with it is mapped. Snapshots are held in a {@link ClassValue},
+ * so they don't prevent the entity classes from being unloaded. They can be computed ahead of time, and concurrently, with
+ * {@link #forClass(Class)}.</p>
+ *
+ * @since 9.0
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class GormMappingMetadata {
+
+    private static final ClassValue<GormMappingMetadata> METADATA = new ClassValue<GormMappingMetadata>() {
+        @Override
+        protected GormMappingMetadata computeValue(Class<?> type) {
+            return new GormMappingMetadata(ClassPropertyFetcher.forClass(type));
+        }
+    };
+
+    private final Class javaClass;
+    private final List embedded;
+    private final List transients;
+    private final Map hasMany;
+    private final Map hasOne;
+    private final Map belongsTo;
+    private final Map mappedBy;
+    private final Set owners;
+
+    private GormMappingMetadata(ClassPropertyFetcher cpf) {
+        this.javaClass = cpf.getJavaClass();
+        this.embedded = readCollection(cpf, GormProperties.EMBEDDED);
+        this.transients = readCollection(cpf, GormProperties.TRANSIENT);
+        this.hasMany = readMap(cpf, GormProperties.HAS_MANY);
+        this.hasOne = readMap(cpf, GormProperties.HAS_ONE);
+        this.belongsTo = readMap(cpf, GormProperties.BELONGS_TO);
+        this.mappedBy = readMap(cpf, GormProperties.MAPPED_BY);
+
+        Set owners = new HashSet();
+        List<Class> belongsToClasses = cpf.getStaticPropertyValuesFromInheritanceHierarchy(GormProperties.BELONGS_TO, Class.class);
+        if (belongsToClasses != null) {
+            owners.addAll(belongsToClasses);
+        }
+        owners.addAll(readCollection(cpf, GormProperties.BELONGS_TO));
+        owners.addAll(belongsTo.values());
+        this.owners = Collections.unmodifiableSet(owners);
+    }
+
+    /**
+     * Obtains the mapping metadata of the given class, reading it if this is the first request for the class
+     *
+     * @param javaClass The entity class
+     * @return The mapping metadata
+     */
+    public static GormMappingMetadata forClass(Class javaClass) {
+        return METADATA.get(javaClass);
+    }
+
+    /**
+     * Discards the mapping metadata of the given class so that it is read again on the next request
+     *
+     * @param javaClass The entity class
+     */
+    public static void clear(Class javaClass) {
+        METADATA.remove(javaClass);
+    }
+
+    /**
+     * @return The entity class
+     */
+    public Class getJavaClass() {
+        return javaClass;
+    }
+
+    /**
+     * @return The names of the embedded properties
+     */
+    public List getEmbedded() {
+        return embedded;
+    }
+
+    /**
+     * @return The names of the transient properties
+     */
+    public List getTransients() {
+        return transients;
+    }
+
+    /**
+     * @return The {@code hasMany} associations, keyed by property name
+     */
+    public Map getHasMany() {
+        return hasMany;
+    }
+
+    /**
+     * @return The {@code hasOne} associations, keyed by property name
+     */
+    public Map getHasOne() {
+        return hasOne;
+    }
+
+    /**
+     * @return The {@code belongsTo} associations declared with a map, keyed by property name
+     */
+    public Map getBelongsTo() {
+        return belongsTo;
+    }
+
+    /**
+     * @return The {@code mappedBy} declarations, keyed by property name
+     */
+    public Map getMappedBy() {
+        return mappedBy;
+    }
+
+    /**
+     * @return The classes that own this class
+     */
+    public Set getOwners() {
+        return owners;
+    }
+
+    /**
+     * Looks up one of the map declarations by name
+     *
+     * @param property The name of the static property
+     * @return The merged map, never null
+     */
+    public Map getMap(String property) {
+        switch (property) {
+            case GormProperties.HAS_MANY: return hasMany;
+            case GormProperties.HAS_ONE: return hasOne;
+            case GormProperties.BELONGS_TO: return belongsTo;
+            case GormProperties.MAPPED_BY: return mappedBy;
+            default: return readMap(ClassPropertyFetcher.forClass(javaClass), property);
+        }
+    }
+
+    /**
+     * Looks up one of the collection declarations by name
+     *
+     * @param property The name of the static property
+     * @return The merged values, never null
+     */
+    public List getCollection(String property) {
+        switch (property) {
+            case GormProperties.EMBEDDED: return embedded;
+            case GormProperties.TRANSIENT: return transients;
+            default: return readCollection(ClassPropertyFetcher.forClass(javaClass), property);
+        }
+    }
+
+    private static List readCollection(ClassPropertyFetcher cpf, String property) {
+        List<Collection> colls = cpf.getStaticPropertyValuesFromInheritanceHierarchy(property, Collection.class);
+        if (colls == null || colls.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List values = new ArrayList();
+        for (Collection coll : colls) {
+            values.addAll(coll);
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static Map readMap(ClassPropertyFetcher cpf, String property) {
+        List<Map> maps = cpf.getStaticPropertyValuesFromInheritanceHierarchy(property, Map.class);
+        if (maps == null || maps.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map values = new HashMap();
+        for (Map map : maps) {
+            values.putAll(map);
+        }
+        return Collections.unmodifiableMap(values);
+    }
+}
@@ -25,6 +25,13 @@ class MultiTenancySettings {
 
     Class<? extends TenantResolver> tenantResolverClass
 
+    /**
+     * Whether the tenant id is resolved once for each unit of work wrapped by the persistence context interceptor, such as a
+     * web request, instead of for every lookup. Only enable this if the tenant resolver returns the same id for the whole unit
+     * of work, or call {@code TenantResolutionCache.clear()} when the tenant changes.
+     */
+    boolean cacheTenantResolution = false
+
     /**
      * @return The tenant resolver
      */
@@ -0,0 +1,34 @@
+package org.grails.datastore.mapping.multitenancy.exceptions
+
+import groovy.transform.CompileStatic
+
+/**
+ * Exception thrown when executing logic for several tenants failed for one or more of them. The failure of each tenant is
+ * available from {@link #getFailures()}, the first failure is the cause and the others are added as suppressed exceptions.
+ *
+ * @since 9.0
+ */
+@CompileStatic
+class TenantExecutionException extends TenantException {
+
+    private final Map<Serializable, Throwable> failures
+
+    TenantExecutionException(String s, Map<Serializable, Throwable> failures) {
+        super(s, failures.isEmpty() ? null : failures.values().iterator().next())
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<Serializable, Throwable>(failures))
+        boolean first = true
+        for (Throwable failure in failures.values()) {
+            if (!first) {
+                addSuppressed(failure)
+            }
+            first = false
+        }
+    }
+
+    /**
+     * @return The failures keyed by tenant id, in the order the tenants were resolved
+     */
+    Map<Serializable, Throwable> getFailures() {
+        return failures
+    }
+}
@@ -18,6 +18,7 @@ package org.grails.datastore.mapping.proxy;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable;
 import org.grails.datastore.mapping.engine.AssociationQueryExecutor;
+import org.grails.datastore.mapping.metrics.DatastoreInstrumentation;
 import org.grails.datastore.mapping.reflect.FieldEntityAccess;
 import org.springframework.cglib.reflect.FastClass;
 import org.springframework.cglib.reflect.FastMethod;
@@ -84,6 +85,10 @@ public class AssociationQueryProxyHandler  extends EntityProxyMethodHandler {
             if (target instanceof DirtyCheckable) {
                 ((DirtyCheckable) target).syncChangedProperties(self);
             }
+            DatastoreInstrumentation instrumentation = DatastoreInstrumentation.of(session);
+            if (instrumentation != null) {
+                instrumentation.proxyInitialized(session, executor.getIndexedEntity().getJavaClass());
+            }
         }
         return target;
     }
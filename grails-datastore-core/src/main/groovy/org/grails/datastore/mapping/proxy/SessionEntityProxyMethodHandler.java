@@ -17,6 +17,7 @@ package org.grails.datastore.mapping.proxy;
 
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable;
+import org.grails.datastore.mapping.metrics.DatastoreInstrumentation;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.reflect.FieldEntityAccess;
 import org.slf4j.Logger;
@@ -71,6 +72,10 @@ public class SessionEntityProxyMethodHandler extends EntityProxyMethodHandler {
             LOG.debug("Lazy loading proxy for class {} with id {}", cls.getName(), id);
         }
         target = session.retrieve(cls, id);
+        DatastoreInstrumentation instrumentation = DatastoreInstrumentation.of(session);
+        if (instrumentation != null && target != null) {
+            instrumentation.proxyInitialized(session, cls);
+        }
     }
 
     protected void initializeTarget(Object self) {
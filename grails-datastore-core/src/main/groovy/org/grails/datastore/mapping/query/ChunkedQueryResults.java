@@ -0,0 +1,136 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.query;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import org.grails.datastore.mapping.core.AbstractSession;
+import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.model.MappingContext;
+
+/**
+ * {@link ScrollableQueryResults} that fetch the results a page (chunk) at a time, which is the fallback for
+ * datastores that can't stream the results of a query natively.
+ *
+ * <p>Only the current chunk is held in memory. Before the next chunk is fetched the instances the previous chunk loaded
+ * into the session, and that haven't been modified, are evicted from it, so that the first level cache doesn't grow with
+ * the number of results. Instances that have been modified stay in the session so that their changes are flushed, and
+ * instances that were already attached before their chunk was fetched are never evicted. Only the sessions that extend
+ * {@link AbstractSession} can tell which instances were attached, so with other sessions every unmodified instance of
+ * the chunk is evicted.</p>
+ *
+ * @param <T> The type of the results
+ * @since 9.0
+ */
+@SuppressWarnings("unchecked")
+public class ChunkedQueryResults<T> implements ScrollableQueryResults<T> {
+
+    private final Session session;
+    private final int fetchSize;
+    private final BiFunction<Integer, Integer, List> chunkFetcher;
+    private int nextOffset;
+    private int remaining;
+    private List<T> chunk = Collections.emptyList();
+    private Iterator<T> chunkIterator = Collections.emptyIterator();
+    private Set<Object> attachedBeforeChunk = Collections.emptySet();
+    private boolean exhausted;
+
+    /**
+     * @param session The session the results are loaded into, or null if instances shouldn't be evicted
+     * @param fetchSize The number of results to fetch at a time
+     * @param offset The offset of the first result
+     * @param max The maximum number of results, or -1 for all results
+     * @param chunkFetcher Fetches a chunk given the offset and maximum size of the chunk
+     */
+    public ChunkedQueryResults(Session session, int fetchSize, int offset, int max, BiFunction<Integer, Integer, List> chunkFetcher) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Argument [fetchSize] must be greater than zero");
+        }
+        this.session = session;
+        this.fetchSize = fetchSize;
+        this.chunkFetcher = chunkFetcher;
+        this.nextOffset = Math.max(offset, 0);
+        this.remaining = max;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!chunkIterator.hasNext()) {
+            if (exhausted) {
+                return false;
+            }
+            fetchNextChunk();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunkIterator.next();
+    }
+
+    @Override
+    public void close() {
+        exhausted = true;
+        releaseChunk();
+    }
+
+    private void fetchNextChunk() {
+        releaseChunk();
+        int size = remaining > -1 ? Math.min(fetchSize, remaining) : fetchSize;
+        if (size == 0) {
+            exhausted = true;
+            return;
+        }
+
+        attachedBeforeChunk = session instanceof AbstractSession ? ((AbstractSession) session).getCachedInstances() : Collections.emptySet();
+        List<T> results = chunkFetcher.apply(nextOffset, size);
+        if (results == null) {
+            results = Collections.emptyList();
+        }
+        if (results.size() < size) {
+            exhausted = true;
+        }
+        nextOffset += size;
+        if (remaining > -1) {
+            remaining -= Math.min(results.size(), remaining);
+        }
+        chunk = results;
+        chunkIterator = results.iterator();
+    }
+
+    private void releaseChunk() {
+        if (session != null && !chunk.isEmpty()) {
+            MappingContext mappingContext = session.getMappingContext();
+            for (T result : chunk) {
+                if (mappingContext.isPersistentEntity(result) && !attachedBeforeChunk.contains(result) &&
+                        session.contains(result) && !session.isDirty(result)) {
+                    session.clear(result);
+                }
+            }
+        }
+        attachedBeforeChunk = Collections.emptySet();
+        chunk = Collections.emptyList();
+        chunkIterator = Collections.emptyIterator();
+    }
+}
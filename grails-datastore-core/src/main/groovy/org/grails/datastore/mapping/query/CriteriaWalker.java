@@ -0,0 +1,133 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.query;
+
+import java.util.List;
+
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.types.Association;
+import org.grails.datastore.mapping.query.api.AssociationCriteria;
+
+/**
+ * Walks a tree of criteria depth first, for example to compute a key or shape that identifies a query. Junctions and the
+ * criteria of associations are entered and left, every other criterion is visited. Each callback can stop the walk by
+ * returning false.
+ *
+ * @since 9.0
+ */
+public abstract class CriteriaWalker {
+
+    /**
+     * Walks the given criterion and the criteria it contains
+     *
+     * @param entity The entity the criterion applies to
+     * @param criterion The criterion
+     * @return False if the walk was stopped
+     */
+    public boolean walk(PersistentEntity entity, Query.Criterion criterion) {
+        if (criterion instanceof Query.Junction) {
+            Query.Junction junction = (Query.Junction) criterion;
+            return enterJunction(entity, junction) &&
+                    walkAll(entity, junction.getCriteria()) &&
+                    leaveJunction(entity, junction);
+        }
+        if (criterion instanceof AssociationQuery) {
+            AssociationQuery associationQuery = (AssociationQuery) criterion;
+            return walkAssociation(entity, criterion, associationQuery.getAssociation(), associationQuery.getCriteria().getCriteria());
+        }
+        if (criterion instanceof AssociationCriteria && ((AssociationCriteria) criterion).getAssociation() != null) {
+            AssociationCriteria associationCriteria = (AssociationCriteria) criterion;
+            return walkAssociation(entity, criterion, associationCriteria.getAssociation(), associationCriteria.getCriteria());
+        }
+        return visitCriterion(entity, criterion);
+    }
+
+    /**
+     * Walks each of the given criteria
+     *
+     * @param entity The entity the criteria apply to
+     * @param criteria The criteria
+     * @return False if the walk was stopped
+     */
+    public boolean walkAll(PersistentEntity entity, List<Query.Criterion> criteria) {
+        for (Query.Criterion criterion : criteria) {
+            if (!walk(entity, criterion)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean walkAssociation(PersistentEntity entity, Query.Criterion criterion, Association association, List<Query.Criterion> criteria) {
+        return enterAssociation(entity, criterion, association) &&
+                walkAll(association.getAssociatedEntity(), criteria) &&
+                leaveAssociation(entity, criterion, association);
+    }
+
+    /**
+     * Called before the criteria of a junction are walked
+     *
+     * @param entity The entity the junction applies to
+     * @param junction The junction
+     * @return False to stop the walk
+     */
+    protected boolean enterJunction(PersistentEntity entity, Query.Junction junction) {
+        return true;
+    }
+
+    /**
+     * Called after the criteria of a junction were walked
+     *
+     * @param entity The entity the junction applies to
+     * @param junction The junction
+     * @return False to stop the walk
+     */
+    protected boolean leaveJunction(PersistentEntity entity, Query.Junction junction) {
+        return true;
+    }
+
+    /**
+     * Called before the criteria of an association are walked, which apply to the associated entity
+     *
+     * @param entity The entity that owns the association
+     * @param criterion The {@link AssociationQuery} or {@link AssociationCriteria}
+     * @param association The association
+     * @return False to stop the walk
+     */
+    protected boolean enterAssociation(PersistentEntity entity, Query.Criterion criterion, Association association) {
+        return true;
+    }
+
+    /**
+     * Called after the criteria of an association were walked
+     *
+     * @param entity The entity that owns the association
+     * @param criterion The {@link AssociationQuery} or {@link AssociationCriteria}
+     * @param association The association
+     * @return False to stop the walk
+     */
+    protected boolean leaveAssociation(PersistentEntity entity, Query.Criterion criterion, Association association) {
+        return true;
+    }
+
+    /**
+     * Visits a criterion that is neither a junction nor the criteria of an association
+     *
+     * @param entity The entity the criterion applies to
+     * @param criterion The criterion
+     * @return False to stop the walk
+     */
+    protected abstract boolean visitCriterion(PersistentEntity entity, Query.Criterion criterion);
+}
@@ -14,7 +14,9 @@
  */
 package org.grails.datastore.mapping.query;
 
+import org.grails.datastore.mapping.core.Datastore;
 import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.metrics.DatastoreInstrumentation;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
@@ -22,6 +24,10 @@ import org.grails.datastore.mapping.model.types.Association;
 import org.grails.datastore.mapping.model.types.Embedded;
 import org.grails.datastore.mapping.query.api.AssociationCriteria;
 import org.grails.datastore.mapping.query.api.QueryableCriteria;
+import org.grails.datastore.mapping.query.cache.QueryResultCache;
+import org.grails.datastore.mapping.query.cache.QueryResultCacheKey;
+import org.grails.datastore.mapping.query.cache.QueryResultCacheProvider;
+import org.grails.datastore.mapping.query.criteria.FunctionCallingCriterion;
 import org.grails.datastore.mapping.query.event.PostQueryEvent;
 import org.grails.datastore.mapping.query.event.PreQueryEvent;
 import org.springframework.context.ApplicationEventPublisher;
@@ -36,6 +42,7 @@ import jakarta.persistence.criteria.JoinType;
 import java.io.Serializable;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Models a query that can be executed against a data store.
@@ -46,6 +53,11 @@ import java.util.regex.Pattern;
 @SuppressWarnings({"rawtypes", "unchecked"})
 public abstract class Query implements Cloneable{
 
+    /**
+     * The number of results fetched at a time by {@link #stream()} and {@link #scroll(int)} when no fetch size is given
+     */
+    public static final int DEFAULT_FETCH_SIZE = 100;
+
     protected final PersistentEntity entity;
     protected final Session session;
 
@@ -59,6 +71,7 @@ public abstract class Query implements Cloneable{
     protected Map<String, JoinType> joinTypes = new HashMap<>();
     protected Boolean queryCache;
     protected LockModeType lockResult;
+    protected Object[] afterValues;
 
     protected Query(Session session, PersistentEntity entity) {
         this.entity = entity;
@@ -271,6 +284,113 @@ public abstract class Query implements Cloneable{
         return this;
     }
 
+    /**
+     * Restricts the results to those that come after the given values of the properties this query is ordered by, also known as keyset
+     * or seek pagination. The values are usually those of the last result of the previous page, one for each {@link Order} of this query
+     * in the same sequence. Unlike with an {@link #offset(int)} the datastore doesn't have to skip the results of the previous pages, so
+     * the cost of fetching a page doesn't grow with its number. For the pages to be stable the orders should end with a unique property
+     * such as the identifier. Text values of orders that ignore case are compared in lower case, like the results are sorted.
+     *
+     * @param lastSortValues The values of the ordered properties to continue after
+     * @return This query instance
+     * @throws UnsupportedOperationException If the datastore doesn't support keyset pagination
+     */
+    public Query after(Object... lastSortValues) {
+        Object[] values = lastSortValues != null && lastSortValues.length > 0 ? lastSortValues : null;
+        if (values != null && !supportsKeysetPagination()) {
+            throw new UnsupportedOperationException("Keyset pagination is not supported by query implementation [" + getClass().getName() + "]");
+        }
+        this.afterValues = values;
+        return this;
+    }
+
+    /**
+     * Whether this query supports {@link #after(Object...)}. The seek criterion is only applied by {@link #getExecutableCriteria()},
+     * so implementations that execute those criteria, and support the {@code lower} function for orders that ignore case, override
+     * this method to return true.
+     *
+     * @return True if keyset pagination is supported, false by default
+     * @since 9.0
+     */
+    protected boolean supportsKeysetPagination() {
+        return false;
+    }
+
+    /**
+     * Creates the criterion that restricts results to those that come after the given values of the given orders. For orders o1 to on
+     * and values v1 to vn this is {@code (o1 > v1) or (o1 = v1 and o2 > v2) or ... or (o1 = v1 and ... and on > vn)}, where descending
+     * orders are compared with less than instead. Text values of orders that ignore case are compared with the {@code lower} function
+     * of the property.
+     *
+     * @param orders The orders
+     * @param values The values, at most one for each order
+     * @return The criterion
+     */
+    public static Criterion createSeekCriterion(List<Order> orders, Object[] values) {
+        if (values.length > orders.size()) {
+            throw new IllegalArgumentException("Keyset pagination requires an order for each of the values " + Arrays.toString(values) +
+                    ", but the query is ordered by " + orders.size() + " properties");
+        }
+        Disjunction disjunction = new Disjunction();
+        for (int i = 0; i < values.length; i++) {
+            Order order = orders.get(i);
+            if (values[i] == null) {
+                throw new IllegalArgumentException("Keyset pagination doesn't support null values, the value for property [" + order.getProperty() + "] is null");
+            }
+            Conjunction conjunction = new Conjunction();
+            for (int j = 0; j < i; j++) {
+                conjunction.add(createSeekComparison(orders.get(j), values[j], true));
+            }
+            conjunction.add(createSeekComparison(order, values[i], false));
+            disjunction.add(conjunction.getCriteria().size() == 1 ? conjunction.getCriteria().get(0) : conjunction);
+        }
+        return disjunction.getCriteria().size() == 1 ? disjunction.getCriteria().get(0) : disjunction;
+    }
+
+    private static Criterion createSeekComparison(Order order, Object value, boolean equal) {
+        String property = order.getProperty();
+        boolean lower = order.isIgnoreCase() && value instanceof CharSequence;
+        Object compared = lower ? value.toString().toLowerCase() : value;
+        PropertyCriterion comparison;
+        if (equal) {
+            comparison = Restrictions.eq(property, compared);
+        }
+        else if (order.getDirection() == Order.Direction.DESC) {
+            comparison = Restrictions.lt(property, compared);
+        }
+        else {
+            comparison = Restrictions.gt(property, compared);
+        }
+        return lower ? new FunctionCallingCriterion("lower", comparison) : comparison;
+    }
+
+    /**
+     * @return The criteria that are executed, which are the criteria of this query plus the seek criterion if {@link #after(Object...)} was used
+     */
+    protected Junction getExecutableCriteria() {
+        if (afterValues == null) {
+            return criteria;
+        }
+        Junction executable = new Conjunction();
+        if (criteria instanceof Conjunction) {
+            for (Criterion criterion : criteria.getCriteria()) {
+                executable.add(criterion);
+            }
+        }
+        else if (!criteria.isEmpty()) {
+            executable.add(criteria);
+        }
+        executable.add(createSeekCriterion(orderBy, afterValues));
+        return executable;
+    }
+
+    /**
+     * @return Whether the results of this query are cached
+     */
+    public boolean isQueryCacheEnabled() {
+        return Boolean.TRUE.equals(queryCache);
+    }
+
     /**
      * Gets the Order entries for this query
      * @return The order entries
@@ -586,15 +706,205 @@ public abstract class Query implements Cloneable{
             publisher.publishEvent(new PreQueryEvent(this));
         }
 
-        List results = executeQuery(entity, criteria);
+        List results = null;
+        QueryResultCache queryResultCache = Boolean.TRUE.equals(queryCache) ? getQueryResultCache() : null;
+        QueryResultCacheKey cacheKey = queryResultCache != null ? createQueryResultCacheKey() : null;
+        if (cacheKey != null) {
+            List<Serializable> cachedResults = queryResultCache.get(entity, cacheKey);
+            if (cachedResults != null) {
+                results = fromCachedResults(cacheKey, cachedResults);
+            }
+        }
+
+        if (results == null) {
+            DatastoreInstrumentation instrumentation = DatastoreInstrumentation.of(session);
+            if (instrumentation != null) {
+                long start = System.nanoTime();
+                results = executeQuery(entity, getExecutableCriteria());
+                // lazily loaded results such as cursors aren't random access, counting them would read them all
+                instrumentation.queryExecuted(this, System.nanoTime() - start, results instanceof RandomAccess ? results.size() : -1);
+            }
+            else {
+                results = executeQuery(entity, getExecutableCriteria());
+            }
+            if (cacheKey != null) {
+                List<Serializable> cachedResults = toCachedResults(cacheKey, results);
+                if (cachedResults != null) {
+                    queryResultCache.put(entity, cacheKey, cachedResults);
+                }
+            }
+        }
+
+        return firePostQueryEvent(results);
+    }
+
+    /**
+     * @return The query result cache of the datastore, if any
+     */
+    protected QueryResultCache getQueryResultCache() {
+        Datastore datastore = session.getDatastore();
+        return datastore instanceof QueryResultCacheProvider ? ((QueryResultCacheProvider) datastore).getQueryResultCache() : null;
+    }
+
+    /**
+     * Creates the key used to cache the results of this query. Subclasses holding additional state that affects
+     * the results should override this method, returning null if the results can't be cached.
+     *
+     * @return The key or null if the results of this query can't be cached
+     */
+    protected QueryResultCacheKey createQueryResultCacheKey() {
+        if (lockResult != null) {
+            return null;
+        }
+        return QueryResultCacheKey.create(entity, getExecutableCriteria(), projections, orderBy, max, offset, uniqueResult);
+    }
+
+    private List<Serializable> toCachedResults(QueryResultCacheKey cacheKey, List results) {
+        MappingContext mappingContext = entity.getMappingContext();
+        List<Serializable> cachedResults = new ArrayList<>(results.size());
+        for (Object result : results) {
+            if (cacheKey.isEntityResults()) {
+                Serializable id = result != null ? session.getObjectIdentifier(result) : null;
+                if (id == null) {
+                    return null;
+                }
+                cachedResults.add(id);
+            }
+            else if (isCacheableValue(mappingContext, result)) {
+                cachedResults.add((Serializable) result);
+            }
+            else {
+                return null;
+            }
+        }
+        return cachedResults;
+    }
+
+    private List fromCachedResults(QueryResultCacheKey cacheKey, List<Serializable> cachedResults) {
+        if (!cacheKey.isEntityResults()) {
+            return new ArrayList<>(cachedResults);
+        }
+
+        List results = session.retrieveAll(entity.getJavaClass(), cachedResults);
+        for (Object result : results) {
+            if (result == null) {
+                // an instance was removed by other means than a session flush, execute the query again
+                return null;
+            }
+        }
+        return results;
+    }
+
+    private static boolean isCacheableValue(MappingContext mappingContext, Object value) {
+        if (value == null) {
+            return true;
+        }
+        if (!(value instanceof Serializable) || mappingContext.isPersistentEntity(value) || mappingContext.getProxyFactory().isProxy(value)) {
+            return false;
+        }
+        if (value instanceof Collection) {
+            for (Object o : (Collection) value) {
+                if (!isCacheableValue(mappingContext, o)) {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof Object[]) {
+            for (Object o : (Object[]) value) {
+                if (!isCacheableValue(mappingContext, o)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes the query returning the results as a stream that pulls them from the datastore lazily, {@link #DEFAULT_FETCH_SIZE}
+     * results at a time. The stream should be closed and consumed within the current session.
+     *
+     * @return The results
+     * @see #scroll(int)
+     */
+    public Stream stream() {
+        return stream(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Executes the query returning the results as a stream that pulls them from the datastore lazily. The stream should be
+     * closed and consumed within the current session.
+     *
+     * @param fetchSize The number of results to fetch at a time
+     * @return The results
+     * @see #scroll(int)
+     */
+    public Stream stream(int fetchSize) {
+        return scroll(fetchSize).stream();
+    }
+
+    /**
+     * Executes the query returning results that are pulled from the datastore while they are iterated over, instead of
+     * materializing all of them in a list. Instances that have been iterated over and weren't modified are evicted from
+     * the session, so that neither the results nor the first level cache have to hold all of them at once.
+     *
+     * <p>The results should be closed and consumed within the current session. The {@link PreQueryEvent} is published once,
+     * whereas the {@link PostQueryEvent} is published for each chunk of results that is fetched.</p>
+     *
+     * @param fetchSize The number of results to fetch at a time, or zero for the default fetch size
+     * @return The results
+     */
+    public ScrollableQueryResults scroll(int fetchSize) {
+        uniqueResult = false;
+        flushBeforeQuery();
+
+        ApplicationEventPublisher publisher = session.getDatastore().getApplicationEventPublisher();
+        if(publisher != null) {
+            publisher.publishEvent(new PreQueryEvent(this));
+        }
+
+        return executeScroll(entity, getExecutableCriteria(), fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+    }
 
+    /**
+     * Executes the query returning results that are fetched lazily. Subclasses whose datastore supports cursors should override
+     * this method to stream the results natively. The default implementation pages through the results, executing the query
+     * for each chunk with the offset and max adjusted. Without an order, the datastore should return the results in a stable
+     * order for the chunks not to overlap.
+     *
+     * @param entity The entity
+     * @param criteria The criteria
+     * @param fetchSize The number of results to fetch at a time
+     * @return The results
+     */
+    protected ScrollableQueryResults executeScroll(PersistentEntity entity, Junction criteria, int fetchSize) {
+        return new ChunkedQueryResults(session, fetchSize, offset, max, (chunkOffset, chunkMax) -> {
+            int previousOffset = offset;
+            int previousMax = max;
+            offset = chunkOffset;
+            max = chunkMax;
+            try {
+                return firePostQueryEvent(executeQuery(entity, criteria));
+            }
+            finally {
+                offset = previousOffset;
+                max = previousMax;
+            }
+        });
+    }
+
+    /**
+     * Publishes the {@link PostQueryEvent} for the given results
+     *
+     * @param results The results
+     * @return The results, which may have been replaced by a listener
+     */
+    protected List firePostQueryEvent(List results) {
+        ApplicationEventPublisher publisher = session.getDatastore().getApplicationEventPublisher();
         if(publisher != null) {
             PostQueryEvent postQueryEvent = new PostQueryEvent(this, results);
             publisher.publishEvent(postQueryEvent);
             results = postQueryEvent.getResults();
         }
-
-
         return results;
     }
 
@@ -0,0 +1,49 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.query;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The results of a query that are pulled from the datastore while they are iterated over instead of being
+ * materialized into a list up front. See {@link Query#scroll(int)}.
+ *
+ * <p>The results hold on to the resources of the query until they are exhausted or closed, hence they should
+ * be closed, ideally with a try-with-resources block, and consumed within the session that created them.</p>
+ *
+ * @param <T> The type of the results
+ * @since 9.0
+ */
+public interface ScrollableQueryResults<T> extends Iterator<T>, Closeable {
+
+    /**
+     * Releases the resources held by the results. Calling this method more than once has no effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * @return A sequential stream of the remaining results that closes these results when it is closed
+     */
+    default Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+}
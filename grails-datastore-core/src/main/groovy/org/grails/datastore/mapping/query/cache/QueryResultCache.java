@@ -0,0 +1,72 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.query.cache;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.grails.datastore.mapping.cache.TPCacheStatistics;
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+/**
+ * A cache of the results of queries that are executed with {@link org.grails.datastore.mapping.query.Query#cache(boolean)} enabled.
+ *
+ * <p>Queries returning instances are cached as the identifiers of the instances, which are then retrieved through the session
+ * (and its first and second level caches), whereas queries with projections are cached as the projected values. The cached results
+ * of an entity are evicted whenever an instance of the entity, or of one of its subclasses, is inserted, updated or deleted by
+ * a session flush. Since the flush happens before the commit, the results are evicted again once the transaction that flushed
+ * completes, so that results cached by other sessions in the meantime don't outlive the commit.</p>
+ *
+ * @since 9.0
+ */
+public interface QueryResultCache {
+
+    /**
+     * @param entity The entity queried
+     * @param key The key of the query
+     * @return The cached results or null if there are none
+     */
+    List<Serializable> get(PersistentEntity entity, QueryResultCacheKey key);
+
+    /**
+     * Caches the results of a query
+     *
+     * @param entity The entity queried
+     * @param key The key of the query
+     * @param results The identifiers of the instances or the projected values
+     */
+    void put(PersistentEntity entity, QueryResultCacheKey key, List<Serializable> results);
+
+    /**
+     * Evicts the cached results of queries of the given entity and of its parent entities, whose results may include
+     * instances of the entity
+     *
+     * @param entity The entity that was written
+     */
+    void evict(PersistentEntity entity);
+
+    /**
+     * Evicts all cached results
+     */
+    void evictAll();
+
+    /**
+     * @param entity The entity
+     * @return The statistics of the cached results of the entity
+     */
+    default TPCacheStatistics getStatistics(PersistentEntity entity) {
+        return TPCacheStatistics.EMPTY;
+    }
+}
@@ -0,0 +1,288 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.query.cache;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.types.Association;
+import org.grails.datastore.mapping.query.CriteriaWalker;
+import org.grails.datastore.mapping.query.Query;
+import org.grails.datastore.mapping.query.criteria.FunctionCallingCriterion;
+
+/**
+ * The key of a cached query. The key is a canonical form of the entity, criteria, projections, order and pagination of the
+ * query, hence two queries built independently with the same restrictions have equal keys. Criteria added by
+ * {@link org.grails.datastore.mapping.query.event.PreQueryEvent} listeners, such as the tenant id of multi-tenant entities,
+ * are part of the key.
+ *
+ * <p>Queries using sub-queries, functions or values whose equality can't be relied upon (anything but strings, numbers,
+ * booleans, characters, enums, UUIDs, dates and collections of those) have no key and are never cached. Neither have queries
+ * with criteria on associations, since their results would only be evicted when the queried entity is written.</p>
+ *
+ * @since 9.0
+ */
+public final class QueryResultCacheKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+    private final List<Object> parts;
+    private final boolean entityResults;
+    private final int hashCode;
+
+    private QueryResultCacheKey(String entityName, List<Object> parts, boolean entityResults) {
+        this.entityName = entityName;
+        this.parts = parts;
+        this.entityResults = entityResults;
+        this.hashCode = 31 * entityName.hashCode() + parts.hashCode();
+    }
+
+    /**
+     * Creates the key of a query
+     *
+     * @param entity The entity queried
+     * @param criteria The criteria
+     * @param projections The projections
+     * @param orderBy The orders
+     * @param max The maximum number of results
+     * @param offset The offset
+     * @param uniqueResult Whether a single result is requested
+     * @return The key or null if the query can't be cached
+     */
+    public static QueryResultCacheKey create(PersistentEntity entity, Query.Junction criteria, Query.ProjectionList projections,
+                                             List<Query.Order> orderBy, int max, int offset, boolean uniqueResult) {
+        List<Object> parts = new ArrayList<>();
+        if (!new CriteriaKeyWalker(parts).walk(entity, criteria)) {
+            return null;
+        }
+
+        boolean entityResults = true;
+        List<Object> projectionParts = new ArrayList<>();
+        for (Query.Projection projection : projections.getProjectionList()) {
+            if (!(projection instanceof Query.DistinctProjection)) {
+                entityResults = false;
+            }
+            projectionParts.add(projection instanceof Query.PropertyProjection ?
+                    projection.getClass().getName() + ':' + ((Query.PropertyProjection) projection).getPropertyName() :
+                    projection.getClass().getName());
+        }
+        parts.add(projectionParts);
+
+        List<Object> orderParts = new ArrayList<>();
+        for (Query.Order order : orderBy) {
+            orderParts.add(order.getProperty() + ':' + order.getDirection() + (order.isIgnoreCase() ? ":ignoreCase" : ""));
+        }
+        parts.add(orderParts);
+        parts.add(max);
+        parts.add(offset);
+        parts.add(uniqueResult);
+        return new QueryResultCacheKey(entity.getName(), parts, entityResults);
+    }
+
+    /**
+     * @return The name of the entity queried
+     */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * @return Whether the query returns instances of the entity, which are cached as their identifiers, rather than projected values
+     */
+    public boolean isEntityResults() {
+        return entityResults;
+    }
+
+    /**
+     * Appends the parts of the criteria to the key, junctions become nested lists of parts
+     */
+    private static class CriteriaKeyWalker extends CriteriaWalker {
+        private final Deque<List<Object>> parts = new ArrayDeque<>();
+
+        CriteriaKeyWalker(List<Object> parts) {
+            this.parts.push(parts);
+        }
+
+        @Override
+        protected boolean enterJunction(PersistentEntity entity, Query.Junction junction) {
+            List<Object> junctionParts = new ArrayList<>();
+            junctionParts.add(junction.getClass().getName());
+            parts.push(junctionParts);
+            return true;
+        }
+
+        @Override
+        protected boolean leaveJunction(PersistentEntity entity, Query.Junction junction) {
+            List<Object> junctionParts = parts.pop();
+            parts.peek().add(junctionParts);
+            return true;
+        }
+
+        @Override
+        protected boolean enterAssociation(PersistentEntity entity, Query.Criterion criterion, Association association) {
+            // the results depend on the associated entity, whose writes don't evict the cached results of this entity
+            return false;
+        }
+
+        @Override
+        protected boolean visitCriterion(PersistentEntity entity, Query.Criterion criterion) {
+            if (criterion instanceof Query.SubqueryCriterion) {
+                return false;
+            }
+            if (criterion instanceof Query.PropertyNameCriterion && isAssociationPath(entity, ((Query.PropertyNameCriterion) criterion).getProperty())) {
+                // as do criteria on an association or on the properties of one
+                return false;
+            }
+
+            List<Object> criterionParts = new ArrayList<>();
+            criterionParts.add(criterion.getClass().getName());
+            if (criterion instanceof Query.Between) {
+                Query.Between between = (Query.Between) criterion;
+                criterionParts.add(between.getProperty());
+                if (!appendValue(criterionParts, between.getFrom()) || !appendValue(criterionParts, between.getTo())) {
+                    return false;
+                }
+            }
+            else if (criterion instanceof Query.In) {
+                Query.In in = (Query.In) criterion;
+                if (in.getSubquery() != null) {
+                    return false;
+                }
+                criterionParts.add(in.getProperty());
+                if (!appendValue(criterionParts, in.getValues())) {
+                    return false;
+                }
+            }
+            else if (criterion instanceof Query.PropertyCriterion) {
+                Query.PropertyCriterion propertyCriterion = (Query.PropertyCriterion) criterion;
+                criterionParts.add(propertyCriterion.getProperty());
+                if (!appendValue(criterionParts, propertyCriterion.getValue())) {
+                    return false;
+                }
+            }
+            else if (criterion instanceof Query.PropertyComparisonCriterion) {
+                Query.PropertyComparisonCriterion comparison = (Query.PropertyComparisonCriterion) criterion;
+                criterionParts.add(comparison.getProperty());
+                criterionParts.add(comparison.getOtherProperty());
+            }
+            else if (criterion.getClass().getEnclosingClass() == Query.class && criterion instanceof Query.PropertyNameCriterion) {
+                criterionParts.add(((Query.PropertyNameCriterion) criterion).getProperty());
+            }
+            else if (criterion instanceof FunctionCallingCriterion && isSimpleComparison(((FunctionCallingCriterion) criterion).getPropertyCriterion())) {
+                // such as the comparisons in lower case of the seek criterion of keyset pagination
+                FunctionCallingCriterion function = (FunctionCallingCriterion) criterion;
+                Query.PropertyCriterion comparison = function.getPropertyCriterion();
+                criterionParts.add(function.getFunctionName());
+                criterionParts.add(function.isOnValue());
+                criterionParts.add(comparison.getClass().getName());
+                criterionParts.add(comparison.getProperty());
+                if (!appendValue(criterionParts, comparison.getValue())) {
+                    return false;
+                }
+            }
+            else {
+                // other functions, exists, association criteria and datastore specific criteria
+                return false;
+            }
+            parts.peek().add(criterionParts);
+            return true;
+        }
+    }
+
+    private static boolean isSimpleComparison(Query.PropertyCriterion criterion) {
+        return criterion.getClass().getEnclosingClass() == Query.class && !(criterion instanceof Query.SubqueryCriterion) &&
+                !(criterion instanceof Query.Between) && !(criterion instanceof Query.In);
+    }
+
+    private static boolean isAssociationPath(PersistentEntity entity, String property) {
+        if (property == null) {
+            return false;
+        }
+        if (property.indexOf('.') > -1) {
+            return true;
+        }
+        return entity.getPropertyByName(property) instanceof Association;
+    }
+
+    private static boolean appendValue(List<Object> parts, Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean || value instanceof Character ||
+                value instanceof Enum || value instanceof UUID || value instanceof TemporalAccessor) {
+            parts.add(value);
+            return true;
+        }
+        if (value instanceof CharSequence) {
+            parts.add(value.toString());
+            return true;
+        }
+        if (value instanceof Date) {
+            // dates are mutable, hence copied by value
+            parts.add(value.getClass().getName() + ':' + ((Date) value).getTime());
+            return true;
+        }
+        if (value instanceof Collection || value.getClass().isArray()) {
+            Collection<?> values = value instanceof Collection ? (Collection<?>) value : arrayToList(value);
+            List<Object> valueParts = new ArrayList<>(values.size());
+            for (Object v : values) {
+                if (!appendValue(valueParts, v)) {
+                    return false;
+                }
+            }
+            parts.add(valueParts);
+            return true;
+        }
+        return false;
+    }
+
+    private static List<Object> arrayToList(Object array) {
+        int length = Array.getLength(array);
+        List<Object> values = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            values.add(Array.get(array, i));
+        }
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QueryResultCacheKey)) {
+            return false;
+        }
+        QueryResultCacheKey other = (QueryResultCacheKey) o;
+        return hashCode == other.hashCode && entityName.equals(other.entityName) && parts.equals(other.parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryResultCacheKey{" + entityName + ", " + parts + '}';
+    }
+}
@@ -0,0 +1,117 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.query.cache;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.grails.datastore.mapping.cache.TPCacheAdapter;
+import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
+import org.grails.datastore.mapping.cache.TPCacheStatistics;
+import org.grails.datastore.mapping.cache.impl.CaffeineTPCacheAdapter;
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+/**
+ * A {@link QueryResultCache} that stores the results of each entity in a {@link TPCacheAdapter} region.
+ *
+ * <p>The regions are either the query results regions of a {@link TPCacheAdapterRepository}, in which case only the results of
+ * entities mapped with {@code secondLevelCache queries: true} are cached, or Caffeine caches created for every entity.</p>
+ *
+ * @since 9.0
+ */
+public class TPCacheQueryResultCache implements QueryResultCache {
+
+    private final Function<PersistentEntity, TPCacheAdapter<List<Serializable>>> regionFactory;
+    private final Map<String, Optional<TPCacheAdapter<List<Serializable>>>> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a cache that uses the query results regions of the given repository
+     *
+     * @param cacheAdapterRepository The repository
+     */
+    public TPCacheQueryResultCache(TPCacheAdapterRepository<?> cacheAdapterRepository) {
+        this.regionFactory = cacheAdapterRepository::getQueryResultsTPCacheAdapter;
+    }
+
+    /**
+     * Creates a cache that keeps at most the given number of queries of each entity in Caffeine caches
+     *
+     * @param maximumSize The maximum number of cached queries of each entity
+     * @param expireAfterWrite The number of seconds after which cached results expire, or a value lower than 1 for no expiry
+     */
+    public TPCacheQueryResultCache(long maximumSize, long expireAfterWrite) {
+        this.regionFactory = entity -> {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumSize);
+            if (expireAfterWrite > 0) {
+                builder.expireAfterWrite(Duration.ofSeconds(expireAfterWrite));
+            }
+            return new CaffeineTPCacheAdapter<>(builder);
+        };
+    }
+
+    /**
+     * @param regionFactory Creates the region of an entity, returning null if the results of the entity shouldn't be cached
+     */
+    public TPCacheQueryResultCache(Function<PersistentEntity, TPCacheAdapter<List<Serializable>>> regionFactory) {
+        this.regionFactory = regionFactory;
+    }
+
+    @Override
+    public List<Serializable> get(PersistentEntity entity, QueryResultCacheKey key) {
+        TPCacheAdapter<List<Serializable>> region = getRegion(entity);
+        return region != null ? region.getCachedEntry(key) : null;
+    }
+
+    @Override
+    public void put(PersistentEntity entity, QueryResultCacheKey key, List<Serializable> results) {
+        TPCacheAdapter<List<Serializable>> region = getRegion(entity);
+        if (region != null) {
+            region.cacheEntry(key, results);
+        }
+    }
+
+    @Override
+    public void evict(PersistentEntity entity) {
+        for (PersistentEntity e = entity; e != null; e = e.getParentEntity()) {
+            Optional<TPCacheAdapter<List<Serializable>>> region = regions.get(e.getName());
+            if (region != null && region.isPresent()) {
+                region.get().evictAll();
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        for (Optional<TPCacheAdapter<List<Serializable>>> region : regions.values()) {
+            region.ifPresent(TPCacheAdapter::evictAll);
+        }
+    }
+
+    @Override
+    public TPCacheStatistics getStatistics(PersistentEntity entity) {
+        TPCacheAdapter<List<Serializable>> region = getRegion(entity);
+        return region != null ? region.getStatistics() : TPCacheStatistics.EMPTY;
+    }
+
+    protected TPCacheAdapter<List<Serializable>> getRegion(PersistentEntity entity) {
+        return regions.computeIfAbsent(entity.getName(), name -> Optional.ofNullable(regionFactory.apply(entity))).orElse(null);
+    }
+}
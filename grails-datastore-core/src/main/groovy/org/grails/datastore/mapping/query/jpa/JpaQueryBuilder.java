@@ -29,6 +29,7 @@ import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.model.types.Association;
 import org.grails.datastore.mapping.model.types.ToOne;
 import org.grails.datastore.mapping.query.AssociationQuery;
+import org.grails.datastore.mapping.query.CriteriaWalker;
 import org.grails.datastore.mapping.query.Query;
 import org.grails.datastore.mapping.query.api.AssociationCriteria;
 import org.grails.datastore.mapping.query.api.QueryableCriteria;
@@ -72,6 +73,7 @@ public class JpaQueryBuilder {
     private String logicalName;
     private ConversionService conversionService = new GenericConversionService();
     private boolean hibernateCompatible;
+    private JpaQueryCache queryCache;
 
     public JpaQueryBuilder(QueryableCriteria criteria) {
         this(criteria.getPersistentEntity(), criteria.getCriteria());
@@ -113,6 +115,17 @@ public class JpaQueryBuilder {
         this.conversionService = conversionService;
     }
 
+    /**
+     * Sets the cache to look up and store the built JPQL in. Queries whose shape is already cached only have their
+     * parameters extracted. Queries with subqueries are never cached.
+     *
+     * @param queryCache The query cache, shared between builders
+     * @since 9.0
+     */
+    public void setQueryCache(JpaQueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
     /**
      * Builds an UPDATE statement.
      *
@@ -123,13 +136,23 @@ public class JpaQueryBuilder {
         if (propertiesToUpdate.isEmpty()) {
             throw new InvalidDataAccessResourceUsageException("No properties specified to update");
         }
+        String shape = queryShape(UPDATE_CLAUSE, new TreeSet<String>(propertiesToUpdate.keySet()));
+        String cachedQuery = shape != null ? queryCache.get(shape) : null;
+        if (cachedQuery != null) {
+            List parameters = new ArrayList();
+            for (String propertyName : new TreeSet<String>(propertiesToUpdate.keySet())) {
+                parameters.add(propertiesToUpdate.get(propertyName));
+            }
+            collectParameters(entity, criteria.getCriteria(), parameters, conversionService);
+            return new JpaQueryInfo(cachedQuery, parameters);
+        }
         StringBuilder queryString = new StringBuilder(UPDATE_CLAUSE).append(entity.getName()).append(SPACE).append(logicalName);
 
         List parameters = new ArrayList();
         buildUpdateStatement(queryString, propertiesToUpdate, parameters, hibernateCompatible);
         StringBuilder whereClause = new StringBuilder();
         buildWhereClause(entity, criteria, queryString, whereClause, logicalName, false, parameters);
-        return new JpaQueryInfo(queryString.toString(), parameters);
+        return cache(shape, new JpaQueryInfo(queryString.toString(), parameters));
     }
 
     /**
@@ -138,10 +161,17 @@ public class JpaQueryBuilder {
      * @return The JpaQueryInfo
      */
     public JpaQueryInfo buildDelete() {
+        String shape = queryShape(DELETE_CLAUSE, null);
+        String cachedQuery = shape != null ? queryCache.get(shape) : null;
+        if (cachedQuery != null) {
+            List parameters = new ArrayList();
+            collectParameters(entity, criteria.getCriteria(), parameters, conversionService);
+            return new JpaQueryInfo(cachedQuery, parameters);
+        }
         StringBuilder queryString = new StringBuilder(DELETE_CLAUSE).append(entity.getName()).append(SPACE).append(logicalName);
         StringBuilder whereClause = new StringBuilder();
         List parameters = buildWhereClause(entity, criteria, queryString, whereClause, logicalName, false);
-        return new JpaQueryInfo(queryString.toString(), parameters);
+        return cache(shape, new JpaQueryInfo(queryString.toString(), parameters));
     }
 
     /**
@@ -150,6 +180,16 @@ public class JpaQueryBuilder {
      * @return The JpaQueryInfo
      */
     public JpaQueryInfo buildSelect() {
+        String shape = queryShape(SELECT_CLAUSE, null);
+        String cachedQuery = shape != null ? queryCache.get(shape) : null;
+        if (cachedQuery != null) {
+            List parameters = null;
+            if (!criteria.isEmpty()) {
+                parameters = new ArrayList();
+                collectParameters(entity, criteria.getCriteria(), parameters, conversionService);
+            }
+            return new JpaQueryInfo(cachedQuery, parameters);
+        }
         StringBuilder queryString = new StringBuilder(SELECT_CLAUSE);
 
         buildSelectClause(queryString);
@@ -161,7 +201,151 @@ public class JpaQueryBuilder {
         }
 
         appendOrder(queryString, logicalName);
-        return new JpaQueryInfo(queryString.toString(), parameters);
+        return cache(shape, new JpaQueryInfo(queryString.toString(), parameters));
+    }
+
+    private JpaQueryInfo cache(String shape, JpaQueryInfo queryInfo) {
+        if (shape != null) {
+            queryCache.put(shape, queryInfo.getQuery());
+        }
+        return queryInfo;
+    }
+
+    /**
+     * Computes the shape of the query, which identifies the JPQL regardless of the values of the criteria
+     *
+     * @return The shape or null if the query isn't cached
+     */
+    private String queryShape(String statement, Set<String> propertiesToUpdate) {
+        if (queryCache == null) {
+            return null;
+        }
+        StringBuilder shape = new StringBuilder(statement)
+                .append(entity.getName())
+                .append(SPACE)
+                .append(logicalName)
+                .append(hibernateCompatible ? " H" : "");
+        if (propertiesToUpdate != null) {
+            shape.append(" SET ").append(propertiesToUpdate);
+        }
+        shape.append(WHERE_CLAUSE);
+        if (!new CriteriaShapeWalker(shape).walk(entity, criteria)) {
+            return null;
+        }
+        if (statement.equals(SELECT_CLAUSE)) {
+            shape.append(SPACE).append(SELECT_CLAUSE);
+            for (Query.Projection projection : projectionList.getProjectionList()) {
+                shape.append(projection.getClass().getSimpleName());
+                if (projection instanceof Query.PropertyProjection) {
+                    shape.append(OPEN_BRACKET).append(((Query.PropertyProjection) projection).getPropertyName()).append(CLOSE_BRACKET);
+                }
+                shape.append(COMMA);
+            }
+            shape.append(ORDER_BY_CLAUSE);
+            for (Query.Order order : orders) {
+                shape.append(order.getProperty()).append(SPACE).append(order.getDirection()).append(COMMA);
+            }
+        }
+        return shape.toString();
+    }
+
+    /**
+     * Appends the shape of the criteria, stopping at criteria that the builder can't handle or that are never cached
+     */
+    private static class CriteriaShapeWalker extends CriteriaWalker {
+        private final StringBuilder shape;
+
+        CriteriaShapeWalker(StringBuilder shape) {
+            this.shape = shape;
+        }
+
+        @Override
+        protected boolean enterJunction(PersistentEntity entity, Query.Junction junction) {
+            if (!queryHandlers.containsKey(junction.getClass())) {
+                return false;
+            }
+            shape.append(junction.getClass().getSimpleName()).append(OPEN_BRACKET);
+            return true;
+        }
+
+        @Override
+        protected boolean leaveJunction(PersistentEntity entity, Query.Junction junction) {
+            shape.append(CLOSE_BRACKET).append(COMMA);
+            return true;
+        }
+
+        @Override
+        protected boolean enterAssociation(PersistentEntity entity, Query.Criterion criterion, Association association) {
+            shape.append(criterion.getClass().getSimpleName()).append(SPACE).append(association.getName()).append(OPEN_BRACKET);
+            return true;
+        }
+
+        @Override
+        protected boolean leaveAssociation(PersistentEntity entity, Query.Criterion criterion, Association association) {
+            shape.append(CLOSE_BRACKET).append(COMMA);
+            return true;
+        }
+
+        @Override
+        protected boolean visitCriterion(PersistentEntity entity, Query.Criterion criterion) {
+            Class<? extends Query.Criterion> type = criterion.getClass();
+            if (criterion instanceof Query.SubqueryCriterion || (criterion instanceof Query.In && ((Query.In) criterion).getSubquery() != null)) {
+                return false;
+            }
+            // association criteria without an association are walked here and have no handler of their own
+            if (!(criterion instanceof AssociationCriteria) && !queryHandlers.containsKey(type)) {
+                return false;
+            }
+            shape.append(type.getSimpleName());
+            if (criterion instanceof Query.IdEquals) {
+                shape.append(SPACE).append(entity.getIdentity().getName());
+            }
+            else if (criterion instanceof Query.In) {
+                shape.append(SPACE).append(((Query.In) criterion).getProperty()).append(OPEN_BRACKET).append(((Query.In) criterion).getValues().size()).append(CLOSE_BRACKET);
+            }
+            else if (criterion instanceof Query.PropertyComparisonCriterion) {
+                Query.PropertyComparisonCriterion comparison = (Query.PropertyComparisonCriterion) criterion;
+                shape.append(SPACE).append(comparison.getProperty()).append(SPACE).append(comparison.getOtherProperty());
+            }
+            else if (criterion instanceof Query.PropertyNameCriterion) {
+                shape.append(SPACE).append(((Query.PropertyNameCriterion) criterion).getProperty());
+            }
+            shape.append(COMMA);
+            return true;
+        }
+    }
+
+    /**
+     * Collects the parameters of the criteria in the order the query handlers add them, used when the query itself is cached
+     */
+    private static void collectParameters(PersistentEntity entity, List<Query.Criterion> criteria, List parameters, ConversionService conversionService) {
+        new CriteriaWalker() {
+            @Override
+            protected boolean visitCriterion(PersistentEntity entity, Query.Criterion criterion) {
+                if (criterion instanceof Query.IdEquals) {
+                    parameters.add(conversionService.convert(((Query.IdEquals) criterion).getValue(), entity.getIdentity().getType()));
+                }
+                else if (criterion instanceof Query.Between) {
+                    Query.Between between = (Query.Between) criterion;
+                    Class propType = validateProperty(entity, between.getProperty(), Query.Between.class).getType();
+                    parameters.add(conversionService.convert(between.getFrom(), propType));
+                    parameters.add(conversionService.convert(between.getTo(), propType));
+                }
+                else if (criterion instanceof Query.In) {
+                    Query.In in = (Query.In) criterion;
+                    Class propType = validateProperty(entity, in.getProperty(), Query.In.class).getType();
+                    for (Object value : in.getValues()) {
+                        parameters.add(conversionService.convert(value, propType));
+                    }
+                }
+                else if (criterion instanceof Query.PropertyCriterion) {
+                    Query.PropertyCriterion propertyCriterion = (Query.PropertyCriterion) criterion;
+                    Class propType = validateProperty(entity, propertyCriterion.getProperty(), criterion.getClass()).getType();
+                    parameters.add(conversionService.convert(propertyCriterion.getValue(), propType));
+                }
+                return true;
+            }
+        }.walkAll(entity, criteria);
     }
 
     private void buildSelectClause(StringBuilder queryString) {
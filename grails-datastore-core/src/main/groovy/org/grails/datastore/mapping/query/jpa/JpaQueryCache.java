@@ -0,0 +1,148 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.query.jpa;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least recently used cache of the JPQL built by {@link JpaQueryBuilder}, keyed by the shape of the query.
+ *
+ * <p>The shape of a query consists of the entity, the structure of the criteria and their properties, the projections and
+ * the orders, but not the values of the criteria. Queries that only differ in their values therefore share the JPQL and
+ * only their parameters are extracted on each build. A cache can be shared by any number of builders and threads.</p>
+ *
+ * @since 9.0
+ */
+public class JpaQueryCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 512;
+
+    private final int maximumSize;
+    private final Map<String, String> queries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public JpaQueryCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize The maximum number of queries to cache
+     */
+    public JpaQueryCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1");
+        }
+        this.maximumSize = maximumSize;
+        this.queries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() > JpaQueryCache.this.maximumSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param shape The shape of the query
+     * @return The cached JPQL or null
+     */
+    public String get(String shape) {
+        String query;
+        synchronized (queries) {
+            query = queries.get(shape);
+        }
+        if (query != null) {
+            hits.incrementAndGet();
+        }
+        else {
+            misses.incrementAndGet();
+        }
+        return query;
+    }
+
+    /**
+     * @param shape The shape of the query
+     * @param query The JPQL
+     */
+    public void put(String shape, String query) {
+        synchronized (queries) {
+            queries.put(shape, query);
+        }
+    }
+
+    /**
+     * Removes all cached queries. The statistics are kept.
+     */
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+    }
+
+    /**
+     * @return The number of cached queries
+     */
+    public int size() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return The number of builds that used a cached query
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of builds that had to build the query
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of queries evicted to respect the maximum size
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return The ratio of hits to builds, or 0 if nothing was built yet
+     */
+    public double getHitRatio() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "JpaQueryCache{size=" + size() + ", maximumSize=" + maximumSize + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+}
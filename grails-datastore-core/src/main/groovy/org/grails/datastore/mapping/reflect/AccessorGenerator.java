@@ -0,0 +1,277 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.reflect;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Generates the accessors used by the {@link EntityReflector} of an entity in place of reflective {@link Field} and
+ * {@link Method} calls.
+ *
+ * <p>Getters and setters are bound to a class spun by the {@link LambdaMetafactory} for each property, which the JIT sees
+ * as a monomorphic call it can inline. Fields are read and written by a hidden class defined for each field, or through
+ * {@link MethodHandle method handles} if it can't be defined. Every method returns null if the accessor can't be generated,
+ * for example because the entity class is not accessible from this module, in which case the caller falls back to
+ * reflection.</p>
+ *
+ * @since 9.0
+ */
+final class AccessorGenerator {
+
+    private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType WRITE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType READER_FACTORY_TYPE = MethodType.methodType(Function.class);
+    private static final MethodType WRITER_FACTORY_TYPE = MethodType.methodType(BiConsumer.class);
+    private static final String OBJECT_TYPE = Type.getInternalName(Object.class);
+
+    private AccessorGenerator() {
+    }
+
+    /**
+     * @param getter The getter
+     * @return A function that invokes the getter or null if it can't be generated
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> generateReader(Method getter) {
+        if (getter == null || Modifier.isStatic(getter.getModifiers()) || getter.getParameterCount() != 0) {
+            return null;
+        }
+        try {
+            Class<?> declaringClass = getter.getDeclaringClass();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(getter);
+            MethodType instantiatedType = MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(getter.getReturnType()), declaringClass);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", READER_FACTORY_TYPE, READ_TYPE, handle, instantiatedType);
+            return (Function<Object, Object>) callSite.getTarget().invoke();
+        }
+        catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param setter The setter
+     * @return A consumer that invokes the setter or null if it can't be generated
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> generateWriter(Method setter) {
+        if (setter == null || Modifier.isStatic(setter.getModifiers()) || setter.getParameterCount() != 1) {
+            return null;
+        }
+        try {
+            Class<?> declaringClass = setter.getDeclaringClass();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(setter);
+            Class<?> parameterType = ClassUtils.resolvePrimitiveIfNecessary(setter.getParameterTypes()[0]);
+            MethodType instantiatedType = MethodType.methodType(void.class, declaringClass, parameterType);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept", WRITER_FACTORY_TYPE, WRITE_TYPE, handle, instantiatedType);
+            return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+        }
+        catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param field The field, which must have been made accessible
+     * @return A function that reads the field or null if it can't be generated
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> generateFieldReader(Field field) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        Function<Object, Object> reader = (Function<Object, Object>) spinFieldAccessor(field, false);
+        if (reader != null) {
+            return reader;
+        }
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflectGetter(field).asType(READ_TYPE);
+            return object -> {
+                try {
+                    return (Object) handle.invokeExact(object);
+                }
+                catch (RuntimeException | Error e) {
+                    throw e;
+                }
+                catch (Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            };
+        }
+        catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param field The field, which must have been made accessible
+     * @return A consumer that writes the field or null if it can't be generated
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> generateFieldWriter(Field field) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        BiConsumer<Object, Object> writer = (BiConsumer<Object, Object>) spinFieldAccessor(field, true);
+        if (writer != null) {
+            return writer;
+        }
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflectSetter(field).asType(WRITE_TYPE);
+            return (object, value) -> {
+                try {
+                    handle.invokeExact(object, value);
+                }
+                catch (RuntimeException | Error e) {
+                    throw e;
+                }
+                catch (Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            };
+        }
+        catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Defines a hidden class, as a nest mate of the class that declares the field, that implements {@link Function} with a
+     * {@code getfield} or {@link BiConsumer} with a {@code putfield} instruction, so that the field is accessed by
+     * bytecode the JIT can inline rather than by a method handle held in an instance field, which it can't
+     *
+     * @param field The field
+     * @param write Whether to generate a writer rather than a reader
+     * @return The accessor or null if it can't be generated, for example because the field is final or the class that
+     * declares it is not accessible from this module
+     */
+    private static Object spinFieldAccessor(Field field, boolean write) {
+        if (write && Modifier.isFinal(field.getModifiers())) {
+            return null;
+        }
+        try {
+            Class<?> declaringClass = field.getDeclaringClass();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            lookup.accessClass(field.getType());
+
+            String owner = Type.getInternalName(declaringClass);
+            String descriptor = Type.getDescriptor(field.getType());
+            Class<?> functionalInterface = write ? BiConsumer.class : Function.class;
+            ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+            cw.visit(Opcodes.V11, Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+                    owner + (write ? "$$FieldWriter$" : "$$FieldReader$") + field.getName(),
+                    null, OBJECT_TYPE, new String[] { Type.getInternalName(functionalInterface) });
+
+            MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT_TYPE, "<init>", "()V", false);
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+
+            if (write) {
+                mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "accept", WRITE_TYPE.toMethodDescriptorString(), null, null);
+                mv.visitCode();
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                unbox(mv, field.getType());
+                mv.visitFieldInsn(Opcodes.PUTFIELD, owner, field.getName(), descriptor);
+                mv.visitInsn(Opcodes.RETURN);
+            }
+            else {
+                mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "apply", READ_TYPE.toMethodDescriptorString(), null, null);
+                mv.visitCode();
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+                mv.visitFieldInsn(Opcodes.GETFIELD, owner, field.getName(), descriptor);
+                box(mv, field.getType());
+                mv.visitInsn(Opcodes.ARETURN);
+            }
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+            cw.visitEnd();
+
+            MethodHandles.Lookup accessorLookup = lookup.defineHiddenClass(cw.toByteArray(), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            return accessorLookup.findConstructor(accessorLookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+        }
+        catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static void box(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            Type wrapper = Type.getType(wrapperType(type));
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapper.getInternalName(), "valueOf",
+                    Type.getMethodDescriptor(wrapper, Type.getType(type)), false);
+        }
+    }
+
+    private static void unbox(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            Type wrapper = Type.getType(wrapperType(type));
+            mv.visitTypeInsn(Opcodes.CHECKCAST, wrapper.getInternalName());
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapper.getInternalName(), type.getName() + "Value",
+                    Type.getMethodDescriptor(Type.getType(type)), false);
+        }
+        else {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+        }
+    }
+
+    /**
+     * @param type The type of a property
+     * @return The wrapper type for primitives, otherwise the type itself
+     */
+    static Class<?> wrapperType(Class<?> type) {
+        return ClassUtils.resolvePrimitiveIfNecessary(type);
+    }
+
+    /**
+     * Whether the value can be handed to a generated writer of the given type without a conversion. Values that
+     * can't, such as nulls for primitives or values that need a widening conversion, are left to reflection
+     * so that they are handled, or rejected, the same way as before.
+     *
+     * @param wrapperType The type of the property, with primitives resolved to their wrappers
+     * @param primitive Whether the property is primitive
+     * @param value The value
+     * @return True if it is safe to use the generated writer
+     */
+    static boolean isAssignable(Class<?> wrapperType, boolean primitive, Object value) {
+        if (value == null) {
+            return !primitive;
+        }
+        return wrapperType.isInstance(value);
+    }
+}
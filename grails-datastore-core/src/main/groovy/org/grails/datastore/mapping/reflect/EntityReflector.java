@@ -24,9 +24,21 @@ public interface EntityReflector {
     PersistentEntity getPersitentEntity();
 
     /**
-     * @return Obtains the dirty checking state for the given entity
+     * @return Obtains the dirty checking state for the given entity. Null if the entity has no changes or isn't tracking them
      */
     Map<String, Object> getDirtyCheckingState(Object entity);
+
+    /**
+     * Obtains the properties that changed, as a bit mask of the ordinals assigned to the properties when the entity was compiled.
+     * Bit {@code n % 64} of word {@code n / 64} is set if the property with the ordinal {@code n} changed
+     *
+     * @param entity The entity
+     * @return The words of the bit mask or null if the entity isn't tracking changes or the changes can't be expressed as a mask
+     * @since 9.0
+     */
+    default long[] getDirtyPropertyMask(Object entity) {
+        return null;
+    }
     /**
      * @return The fast class
      * @deprecated Do not use
@@ -77,6 +89,20 @@ public interface EntityReflector {
      */
     void setProperty(Object object, int index, Object value);
 
+    /**
+     * Get a property for the specified index the way bean based access would, through the getter of a property that is
+     * otherwise read from its field if the getter was written by hand rather than generated by the Groovy compiler, so that
+     * its logic applies
+     *
+     * @param object The object
+     * @param index The index
+     * @return The value
+     * @since 9.0
+     */
+    default Object getBeanProperty(Object object, int index) {
+        return getProperty(object, index);
+    }
+
     /**
      * Get a property for the specified index
      *
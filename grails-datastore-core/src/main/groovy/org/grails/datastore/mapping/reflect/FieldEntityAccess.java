@@ -1,7 +1,9 @@
 package org.grails.datastore.mapping.reflect;
 
+import groovy.transform.Generated;
 import org.codehaus.groovy.transform.trait.Traits;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable;
+import org.grails.datastore.mapping.dirty.checking.DirtyCheckingSupport;
 import org.grails.datastore.mapping.engine.EntityAccess;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
@@ -19,9 +21,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
- * Uses field reflection or CGlib to improve performance
+ * Uses field reflection or CGlib to improve performance. Where possible the readers and writers of the properties are
+ * generated classes and lambdas instead of reflective calls, see {@link AccessorGenerator}
  *
  * @author Graeme Rocher
  * @since 5.0
@@ -158,6 +163,7 @@ public class FieldEntityAccess implements EntityAccess {
     static class FieldEntityReflector implements EntityReflector {
         final PersistentEntity entity;
         final PropertyReader[] readers;
+        final PropertyReader[] beanReaders;
         final PropertyWriter[] writers;
         final PropertyReader identifierReader;
         final PropertyWriter identifierWriter;
@@ -166,6 +172,9 @@ public class FieldEntityAccess implements EntityAccess {
         final Map<String, PropertyReader> readerMap = new HashMap<>();
         final Map<String, PropertyWriter> writerMap = new HashMap<>();
         final Field dirtyCheckingStateField;
+        final Field dirtyPropertyMaskField;
+        final Field dirtyPropertyMaskOverflowField;
+        final Field trackingChangesField;
         FastClass fastClass;
 
         public FieldEntityReflector(PersistentEntity entity) {
@@ -175,6 +184,9 @@ public class FieldEntityAccess implements EntityAccess {
             if(dirtyCheckingStateField != null) {
                 ReflectionUtils.makeAccessible(dirtyCheckingStateField);
             }
+            dirtyPropertyMaskField = findTraitField(entity.getJavaClass(), "$dirtyPropertyMask");
+            dirtyPropertyMaskOverflowField = findTraitField(entity.getJavaClass(), "$dirtyPropertyMaskOverflow");
+            trackingChangesField = findTraitField(entity.getJavaClass(), "$trackingChanges");
             ClassPropertyFetcher cpf = ClassPropertyFetcher.forClass(entity.getJavaClass());
             if(identity != null) {
                 String identityName = identity.getName();
@@ -208,6 +220,7 @@ public class FieldEntityAccess implements EntityAccess {
             }
             List<PersistentProperty> properties = entity.getPersistentProperties();
             readers = new PropertyReader[properties.size()];
+            beanReaders = new PropertyReader[properties.size()];
             writers = new PropertyWriter[properties.size()];
             for (int i = 0; i < properties.size(); i++) {
                 PersistentProperty property = properties.get(i);
@@ -218,12 +231,22 @@ public class FieldEntityAccess implements EntityAccess {
                 PropertyWriter writer = readerAndWriterMaker.getPropertyWriter();
 
                 readers[i] = reader;
+                beanReaders[i] = getBeanReader(reader);
                 readerMap.put(propertyName, reader);
                 writers[i] = writer;
                 writerMap.put(propertyName, writer);
             }
         }
 
+        private PropertyReader getBeanReader(PropertyReader reader) {
+            Method getter = reader != null && reader.field() != null ? reader.getter() : null;
+            if(getter != null && !getter.isAnnotationPresent(Generated.class)) {
+                // the getter was written by hand, so read through it rather than the field
+                return new ReflectMethodReader(getter);
+            }
+            return reader;
+        }
+
         protected String getTraitFieldName(Traits.TraitBridge traitBridge, String fieldName) {
             Class traitClass = traitBridge.traitClass();
             return getTraitFieldName(traitClass, fieldName);
@@ -233,6 +256,14 @@ public class FieldEntityAccess implements EntityAccess {
             return traitClass.getName().replace('.','_') + "__" + fieldName;
         }
 
+        private Field findTraitField(Class type, String fieldName) {
+            Field field = ReflectionUtils.findField(type, getTraitFieldName(DirtyCheckable.class, fieldName));
+            if(field != null) {
+                ReflectionUtils.makeAccessible(field);
+            }
+            return field;
+        }
+
 
         @Override
         public PersistentEntity getPersitentEntity() {
@@ -251,6 +282,38 @@ public class FieldEntityAccess implements EntityAccess {
             return null;
         }
 
+        @Override
+        public long[] getDirtyPropertyMask(Object entity) {
+            if(dirtyCheckingStateField == null || dirtyPropertyMaskField == null || trackingChangesField == null) {
+                return null;
+            }
+            try {
+                if(!trackingChangesField.getBoolean(entity)) {
+                    return null;
+                }
+                Map changes = (Map) dirtyCheckingStateField.get(entity);
+                if(changes == null) {
+                    return new long[1];
+                }
+                if(changes == DirtyCheckingSupport.DIRTY_CLASS_MARKER) {
+                    // the whole instance is marked dirty
+                    return null;
+                }
+                long[] overflow = dirtyPropertyMaskOverflowField != null ? (long[]) dirtyPropertyMaskOverflowField.get(entity) : null;
+                long[] mask = new long[overflow != null ? overflow.length + 1 : 1];
+                mask[0] = dirtyPropertyMaskField.getLong(entity);
+                int dirtyCount = Long.bitCount(mask[0]);
+                for(int i = 1; i < mask.length; i++) {
+                    mask[i] = overflow[i - 1];
+                    dirtyCount += Long.bitCount(mask[i]);
+                }
+                // properties that were marked dirty by name only aren't part of the mask
+                return changes.size() == dirtyCount ? mask : null;
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+
         @Override
         public FastClass fastClass() {
             if(fastClass == null) {
@@ -326,6 +389,11 @@ public class FieldEntityAccess implements EntityAccess {
             return readers[index].read(object);
         }
 
+        @Override
+        public Object getBeanProperty(Object object, int index) {
+            return beanReaders[index].read(object);
+        }
+
         @Override
         public void setProperty(Object object, int index, Object value) {
             writers[index].write(object,value);
@@ -335,10 +403,12 @@ public class FieldEntityAccess implements EntityAccess {
 
         static class ReflectMethodReader implements PropertyReader {
             final Method method;
+            final Function<Object, Object> generatedReader;
 
             public ReflectMethodReader(Method method) {
                 this.method = method;
                 ReflectionUtils.makeAccessible(method);
+                this.generatedReader = AccessorGenerator.generateReader(method);
             }
 
             @Override
@@ -358,6 +428,9 @@ public class FieldEntityAccess implements EntityAccess {
 
             @Override
             public Object read(Object object) {
+                if(generatedReader != null && method.getDeclaringClass().isInstance(object)) {
+                    return generatedReader.apply(object);
+                }
                 return ReflectionUtils.invokeMethod(method, object);
             }
         }
@@ -365,11 +438,18 @@ public class FieldEntityAccess implements EntityAccess {
         static class ReflectionMethodWriter implements PropertyWriter {
             final Method method;
             final Class propertyType;
+            final BiConsumer<Object, Object> generatedWriter;
+            final Class<?> parameterType;
+            final boolean primitive;
 
             public ReflectionMethodWriter(Method method, Class propertyType) {
                 this.method = method;
                 ReflectionUtils.makeAccessible(method);
                 this.propertyType = propertyType;
+                this.generatedWriter = AccessorGenerator.generateWriter(method);
+                Class<?> type = method.getParameterTypes()[0];
+                this.primitive = type.isPrimitive();
+                this.parameterType = AccessorGenerator.wrapperType(type);
             }
 
             @Override
@@ -389,18 +469,25 @@ public class FieldEntityAccess implements EntityAccess {
 
             @Override
             public void write(Object object, Object value) {
-                ReflectionUtils.invokeMethod(method, object, value);
+                if(generatedWriter != null && method.getDeclaringClass().isInstance(object) && AccessorGenerator.isAssignable(parameterType, primitive, value)) {
+                    generatedWriter.accept(object, value);
+                }
+                else {
+                    ReflectionUtils.invokeMethod(method, object, value);
+                }
             }
         }
 
         static class FieldReader implements PropertyReader {
             final Field field;
             final Method getter;
+            final Function<Object, Object> generatedReader;
 
             public FieldReader(Field field, Method getter) {
                 this.field = field;
                 this.getter = getter;
                 ReflectionUtils.makeAccessible(field);
+                this.generatedReader = AccessorGenerator.generateFieldReader(field);
             }
 
             @Override
@@ -422,6 +509,9 @@ public class FieldEntityAccess implements EntityAccess {
             public Object read(Object object) {
                 try {
                     object = unwrapIfProxy(null, object);
+                    if(generatedReader != null) {
+                        return generatedReader.apply(object);
+                    }
                     return field.get(object);
                 } catch (Throwable e) {
                     throw new IllegalArgumentException("Cannot read field ["+field+"] from object ["+object+"] of type ["+object.getClass()+"]", e);
@@ -432,11 +522,17 @@ public class FieldEntityAccess implements EntityAccess {
         static class FieldWriter implements PropertyWriter {
             final Field field;
             final Method setter;
+            final BiConsumer<Object, Object> generatedWriter;
+            final Class<?> wrapperType;
+            final boolean primitive;
 
             public FieldWriter(Field field, Method setter) {
                 this.field = field;
                 this.setter = setter;
                 ReflectionUtils.makeAccessible(field);
+                this.generatedWriter = AccessorGenerator.generateFieldWriter(field);
+                this.primitive = field.getType().isPrimitive();
+                this.wrapperType = AccessorGenerator.wrapperType(field.getType());
             }
 
             @Override
@@ -457,7 +553,12 @@ public class FieldEntityAccess implements EntityAccess {
             @Override
             public void write(Object object, Object value) {
                 try {
-                    field.set(object, value);
+                    if(generatedWriter != null && AccessorGenerator.isAssignable(wrapperType, primitive, value)) {
+                        generatedWriter.accept(object, value);
+                    }
+                    else {
+                        field.set(object, value);
+                    }
                 } catch (Throwable e) {
                     throw new IllegalArgumentException("Cannot set field ["+field.getName()+"] of object ["+object+"] for value ["+value+"] of type ["+value.getClass().getName()+"]", e);
                 }
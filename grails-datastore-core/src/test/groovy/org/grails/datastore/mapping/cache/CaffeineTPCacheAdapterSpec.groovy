@@ -0,0 +1,51 @@
+package org.grails.datastore.mapping.cache
+
+import com.github.benmanes.caffeine.cache.Caffeine
+import org.grails.datastore.mapping.cache.impl.CaffeineTPCacheAdapter
+import org.grails.datastore.mapping.config.SecondLevelCache
+import spock.lang.Specification
+
+class CaffeineTPCacheAdapterSpec extends Specification {
+
+    void "test entries are cached, evicted and counted"() {
+        given:
+        CaffeineTPCacheAdapter<Map> adapter = new CaffeineTPCacheAdapter<>(new SecondLevelCache())
+
+        when:
+        adapter.cacheEntry(1L, [title: 'one'])
+
+        then:
+        adapter.getCachedEntry(1L) == [title: 'one']
+        adapter.getCachedEntry(2L) == null
+        adapter.statistics.hitCount == 1
+        adapter.statistics.missCount == 1
+        adapter.statistics.hitRate == 0.5d
+
+        when:
+        adapter.evictEntry(1L)
+
+        then:
+        adapter.getCachedEntry(1L) == null
+
+        when:
+        adapter.cacheEntry(1L, [title: 'one'])
+        adapter.cacheEntry(2L, [title: 'two'])
+        adapter.evictAll()
+
+        then:
+        adapter.statistics.size == 0
+    }
+
+    void "test the maximum size of a region is honoured"() {
+        given:
+        CaffeineTPCacheAdapter<Map> adapter = new CaffeineTPCacheAdapter<>(
+                Caffeine.newBuilder().maximumSize(10).executor({ Runnable r -> r.run() }))
+
+        when:
+        100.times { int i -> adapter.cacheEntry(i as Long, [id: i]) }
+
+        then:
+        adapter.statistics.size <= 10
+        adapter.statistics.evictionCount >= 90
+    }
+}
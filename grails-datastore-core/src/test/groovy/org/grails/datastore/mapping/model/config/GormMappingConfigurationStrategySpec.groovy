@@ -1,6 +1,11 @@
 package org.grails.datastore.mapping.model.config
 
+import grails.gorm.annotation.Entity
 import org.grails.datastore.mapping.keyvalue.mapping.config.GormKeyValueMappingFactory
+import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.model.types.ManyToOne
+import org.grails.datastore.mapping.model.types.OneToMany
 import org.grails.datastore.mapping.reflect.ClassPropertyFetcher
 import spock.lang.Specification
 
@@ -18,6 +23,84 @@ class GormMappingConfigurationStrategySpec extends Specification {
         associations.get("foo") == Integer
     }
 
+    void "test the mapping metadata of a class is read once and merged across the hierarchy"() {
+        when:
+        GormMappingMetadata metadata = GormMappingMetadata.forClass(MappedBook)
+
+        then:
+        metadata.is(GormMappingMetadata.forClass(MappedBook))
+        metadata.hasMany == [reviews: String]
+        metadata.transients == ['displayTitle']
+        metadata.owners == [MappedAuthor] as Set
+        metadata.getMap(GormProperties.BELONGS_TO) == [author: MappedAuthor]
+        GormMappingMetadata.forClass(B).hasMany == [foo: Integer]
+    }
+
+    void "test the maps returned by the strategy can be modified without changing the mapping metadata"() {
+        given:
+        def strategy = new GormMappingConfigurationStrategy(new GormKeyValueMappingFactory("test"))
+
+        when:
+        Map associations = strategy.getAssociationMap(ClassPropertyFetcher.forClass(B))
+        associations.put("bar", Long)
+        Set owners = strategy.getOwningEntities(MappedBook, null)
+        owners.add(B)
+
+        then:
+        GormMappingMetadata.forClass(B).hasMany == [foo: Integer]
+        GormMappingMetadata.forClass(MappedBook).owners == [MappedAuthor] as Set
+    }
+
+    void "test entities initialized in parallel are mapped like entities initialized one at a time"() {
+        given:
+        def serial = new KeyValueMappingContext("test")
+        serial.parallelInitializationThreshold = -1
+        def parallel = new KeyValueMappingContext("test")
+        parallel.parallelInitializationThreshold = 1
+
+        when:
+        serial.addPersistentEntities(MappedAuthor, MappedBook)
+        parallel.addPersistentEntities(MappedAuthor, MappedBook)
+        parallel.initialize()
+
+        then:
+        describe(parallel.getPersistentEntity(MappedAuthor.name)) == describe(serial.getPersistentEntity(MappedAuthor.name))
+        describe(parallel.getPersistentEntity(MappedBook.name)) == describe(serial.getPersistentEntity(MappedBook.name))
+        parallel.getPersistentEntity(MappedAuthor.name).getPropertyByName('books') instanceof OneToMany
+        parallel.getPersistentEntity(MappedBook.name).getPropertyByName('author') instanceof ManyToOne
+        parallel.getPersistentEntity(MappedBook.name).reflector != null
+    }
+
+    void "test a failing static initializer of an entity initialized in parallel is reported with its cause"() {
+        given:
+        def context = new KeyValueMappingContext("test")
+        context.parallelInitializationThreshold = 1
+
+        when:
+        context.addPersistentEntities(MappedAuthor, BrokenMappedEntity)
+
+        then:
+        ExceptionInInitializerError e = thrown()
+        e.cause instanceof IllegalStateException
+        e.cause.message == "Broken static initializer"
+    }
+
+    void "test entities initialized in parallel run their static initializers on the calling thread"() {
+        given:
+        def context = new KeyValueMappingContext("test")
+        context.parallelInitializationThreshold = 1
+
+        when:
+        context.addPersistentEntities(MappedAuthor, StaticallyInitializedEntity)
+
+        then:
+        StaticInitializerThreads.names == [Thread.currentThread().name]
+    }
+
+    private static List<String> describe(PersistentEntity entity) {
+        entity.persistentProperties.collect { "${it.name}:${it.getClass().simpleName}:${it.type.simpleName}".toString() }.sort()
+    }
+
     class A {
         static hasMany = [foo: String]
     }
@@ -25,3 +108,46 @@ class GormMappingConfigurationStrategySpec extends Specification {
         static hasMany = [foo: Integer]
     }
 }
+
+@Entity
+class MappedAuthor {
+    Long id
+    String name
+    Set<MappedBook> books
+    static hasMany = [books: MappedBook]
+}
+
+@Entity
+class MappedBook {
+    Long id
+    String title
+    MappedAuthor author
+    Set<String> reviews
+    static belongsTo = [author: MappedAuthor]
+    static hasMany = [reviews: String]
+    static transients = ['displayTitle']
+
+    String getDisplayTitle() { title }
+}
+
+class BrokenMappedEntity {
+    static final String NAME = fail()
+
+    Long id
+
+    private static String fail() {
+        throw new IllegalStateException("Broken static initializer")
+    }
+}
+
+class StaticInitializerThreads {
+    static final List<String> names = [].asSynchronized()
+}
+
+class StaticallyInitializedEntity {
+    static {
+        StaticInitializerThreads.names << Thread.currentThread().name
+    }
+
+    Long id
+}
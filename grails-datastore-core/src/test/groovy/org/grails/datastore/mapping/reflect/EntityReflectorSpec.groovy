@@ -18,6 +18,86 @@ class EntityReflectorSpec extends Specification {
         then:"the property from the trait can be reflected"
         entity.reflector.getPropertyReader('bar').read(new Bar(bar: "test")) == 'test'
     }
+
+    void "test properties are read and written through generated accessors"() {
+        given:
+        MappingContext mappingContext = new KeyValueMappingContext("test")
+        PersistentEntity entity = mappingContext.addPersistentEntity(Baz)
+        EntityReflector reflector = entity.reflector
+        Baz baz = new Baz(name: "test", age: 10, title: "Dr")
+
+        expect:"fields are accessed with generated hidden classes and getters and setters with generated lambdas"
+        ((FieldEntityAccess.FieldEntityReflector.FieldReader) reflector.getPropertyReader('name')).generatedReader.getClass().isHidden()
+        ((FieldEntityAccess.FieldEntityReflector.FieldWriter) reflector.getPropertyWriter('age')).generatedWriter.getClass().isHidden()
+        ((FieldEntityAccess.FieldEntityReflector.ReflectMethodReader) reflector.getPropertyReader('title')).generatedReader != null
+        ((FieldEntityAccess.FieldEntityReflector.ReflectionMethodWriter) reflector.getPropertyWriter('title')).generatedWriter != null
+
+        and:"the values can be read by name and by index"
+        reflector.getProperty(baz, 'name') == 'test'
+        reflector.getProperty(baz, 'title') == 'Dr'
+        entity.persistentProperties.withIndex().every { property, int i ->
+            reflector.getProperty(baz, i) == baz."$property.name"
+        }
+
+        when:"the values are written"
+        reflector.setProperty(baz, 'age', 20)
+        reflector.setProperty(baz, 'title', 'Prof')
+        reflector.setProperty(baz, 'name', null)
+
+        then:
+        baz.age == 20
+        baz.title == 'Prof'
+        baz.name == null
+
+        when:"a value that needs a widening conversion is written"
+        reflector.setProperty(baz, 'age', (short) 30)
+
+        then:"it falls back to reflection"
+        baz.age == 30
+
+        when:"a null is written to a primitive"
+        reflector.setProperty(baz, 'age', null)
+
+        then:"it is rejected as before"
+        thrown(IllegalArgumentException)
+    }
+
+    void "test properties with a hand written getter are read through it by bean based access"() {
+        given:
+        MappingContext mappingContext = new KeyValueMappingContext("test")
+        PersistentEntity entity = mappingContext.addPersistentEntity(Qux)
+        EntityReflector reflector = entity.reflector
+        int index = entity.persistentProperties.findIndexOf { it.name == 'code' }
+        Qux qux = new Qux(code: "abc", name: "test")
+
+        expect:
+        reflector.getProperty(qux, index) == 'abc'
+        reflector.getBeanProperty(qux, index) == 'ABC'
+        reflector.getBeanProperty(qux, entity.persistentProperties.findIndexOf { it.name == 'name' }) == 'test'
+    }
+}
+
+class Baz {
+    String name
+    int age
+    private String honorific
+
+    String getTitle() {
+        return honorific
+    }
+
+    void setTitle(String title) {
+        this.honorific = title
+    }
+}
+
+class Qux {
+    String name
+    String code
+
+    String getCode() {
+        code?.toUpperCase()
+    }
 }
 
 trait Foo {
@@ -0,0 +1,37 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.benchmarks
+
+import grails.gorm.annotation.Entity
+
+/**
+ * The entity the benchmarks operate on
+ *
+ * @since 9.0
+ */
+@Entity
+class BenchmarkBook {
+    String title
+    String author
+    Integer pages
+    Date published
+
+    static constraints = {
+        title blank: false, maxSize: 255
+        author blank: false
+        pages min: 1
+        published nullable: true
+    }
+}
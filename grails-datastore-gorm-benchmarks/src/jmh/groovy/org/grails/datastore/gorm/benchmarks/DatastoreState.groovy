@@ -0,0 +1,79 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.gorm.validation.constraints.registry.DefaultValidatorRegistry
+import org.grails.datastore.gorm.validation.listener.ValidationEventListener
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+
+/**
+ * A {@link SimpleMapDatastore} with validation enabled that is populated with a number of books
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@State(Scope.Benchmark)
+class DatastoreState {
+
+    static final List<String> AUTHORS = ['Stephen King', 'Ursula K. Le Guin', 'Terry Pratchett', 'Iain M. Banks', 'Octavia E. Butler']
+
+    @Param(['1000'])
+    public int books
+
+    SimpleMapDatastore datastore
+    PersistentEntity entity
+    List<Serializable> ids
+
+    @Setup(Level.Trial)
+    void setup() {
+        datastore = new SimpleMapDatastore(BenchmarkBook)
+        datastore.mappingContext.setValidatorRegistry(
+                new DefaultValidatorRegistry(datastore.mappingContext, datastore.connectionSources.defaultConnectionSource.settings)
+        )
+        datastore.applicationEventPublisher.addApplicationListener(new ValidationEventListener(datastore))
+        entity = datastore.mappingContext.getPersistentEntity(BenchmarkBook.name)
+        populate()
+    }
+
+    /**
+     * Replaces the data of the datastore with the configured number of books
+     */
+    void populate() {
+        datastore.clearData()
+        ids = (List<Serializable>) BenchmarkBook.withNewSession { Session session ->
+            List<Serializable> saved = BenchmarkBook.saveAll((0..<books).collect { int i -> newBook(i) })
+            session.flush()
+            return saved
+        }
+    }
+
+    @TearDown(Level.Trial)
+    void tearDown() {
+        datastore.close()
+    }
+
+    static BenchmarkBook newBook(int i) {
+        new BenchmarkBook(title: "Book $i".toString(), author: AUTHORS[i % AUTHORS.size()], pages: 100 + i % 900)
+    }
+}
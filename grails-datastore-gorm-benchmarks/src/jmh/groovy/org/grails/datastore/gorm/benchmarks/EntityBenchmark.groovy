@@ -0,0 +1,78 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.reflect.FieldEntityAccess
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * Benchmarks of entity property access, dirty checking and validation
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@State(Scope.Thread)
+class EntityBenchmark {
+
+    int counter
+    BenchmarkBook book
+    BenchmarkBook invalidBook
+    FieldEntityAccess entityAccess
+
+    @Setup(Level.Iteration)
+    void setup(DatastoreState state) {
+        book = DatastoreState.newBook(1)
+        invalidBook = new BenchmarkBook(title: '', pages: 0)
+        entityAccess = new FieldEntityAccess(state.entity, book, state.datastore.mappingContext.conversionService)
+    }
+
+    @Benchmark
+    void fieldEntityAccessReadProperties(Blackhole blackhole) {
+        blackhole.consume(entityAccess.getProperty('title'))
+        blackhole.consume(entityAccess.getProperty('author'))
+        blackhole.consume(entityAccess.getProperty('pages'))
+        blackhole.consume(entityAccess.getIdentifier())
+    }
+
+    @Benchmark
+    void fieldEntityAccessWriteProperties() {
+        entityAccess.setProperty('title', 'Title')
+        entityAccess.setProperty('pages', counter++ % 1000 + 1)
+    }
+
+    @Benchmark
+    Object dirtyChecking() {
+        book.trackChanges()
+        book.title = "Title ${counter++}".toString()
+        book.pages = counter % 1000 + 1
+        return book.hasChanged() ? book.listDirtyPropertyNames() : null
+    }
+
+    @Benchmark
+    boolean validateValid(SessionState sessionState) {
+        book.validate()
+    }
+
+    @Benchmark
+    boolean validateInvalid(SessionState sessionState) {
+        invalidBook.validate()
+    }
+}
@@ -0,0 +1,80 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * Benchmarks of saving new instances and flushing changes to existing ones
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@State(Scope.Thread)
+class PersistenceBenchmark {
+
+    static final int BATCH_SIZE = 100
+
+    int counter
+    List<BenchmarkBook> attached
+
+    @Setup(Level.Iteration)
+    void attach(DatastoreState state, SessionState sessionState) {
+        attached = BenchmarkBook.getAll(state.ids.take(BATCH_SIZE))
+    }
+
+    @TearDown(Level.Iteration)
+    void reset(DatastoreState state) {
+        state.populate()
+    }
+
+    @Benchmark
+    Object save(SessionState sessionState) {
+        BenchmarkBook book = DatastoreState.newBook(counter++)
+        book.save(flush: true)
+        sessionState.session.clear(book)
+        return book.id
+    }
+
+    @Benchmark
+    void saveAll(SessionState sessionState, Blackhole blackhole) {
+        List<BenchmarkBook> books = new ArrayList<>(BATCH_SIZE)
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            books.add(DatastoreState.newBook(counter++))
+        }
+        blackhole.consume(BenchmarkBook.saveAll(books))
+        sessionState.session.flush()
+        for (BenchmarkBook book in books) {
+            sessionState.session.clear(book)
+        }
+    }
+
+    @Benchmark
+    void flushUpdates(SessionState sessionState) {
+        String title = "Revised ${counter++}".toString()
+        for (BenchmarkBook book in attached) {
+            book.title = title
+            book.save()
+        }
+        sessionState.session.flush()
+    }
+}
@@ -0,0 +1,71 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.benchmarks
+
+import grails.gorm.DetachedCriteria
+import groovy.transform.CompileDynamic
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.query.jpa.JpaQueryBuilder
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Benchmarks of dynamic finders, criteria queries and the generation of JPQL
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@State(Scope.Thread)
+class QueryBenchmark {
+
+    int counter
+
+    /**
+     * Dispatched through {@link org.grails.datastore.gorm.GormStaticApi#methodMissing(java.lang.String, java.lang.Object)}
+     */
+    @Benchmark
+    @CompileDynamic
+    Object dynamicFinder(DatastoreState state, SessionState sessionState) {
+        BenchmarkBook.findByTitle("Book ${counter++ % state.books}".toString())
+    }
+
+    @Benchmark
+    @CompileDynamic
+    Object dynamicFinderWithSeveralExpressions(DatastoreState state, SessionState sessionState) {
+        BenchmarkBook.findAllByAuthorAndPagesGreaterThan(nextAuthor(), 500, [max: 10])
+    }
+
+    @Benchmark
+    Object detachedCriteriaList(DatastoreState state, SessionState sessionState) {
+        String author = nextAuthor()
+        new DetachedCriteria<BenchmarkBook>(BenchmarkBook).build {
+            eq 'author', author
+            gt 'pages', 500
+        }.sort('title').list(max: 10)
+    }
+
+    @Benchmark
+    Object jpaQueryBuilderSelect(DatastoreState state) {
+        DetachedCriteria<BenchmarkBook> criteria = new DetachedCriteria<BenchmarkBook>(BenchmarkBook)
+                .eq('author', nextAuthor())
+                .gt('pages', 500)
+        new JpaQueryBuilder(state.entity, criteria.criteria).buildSelect()
+    }
+
+    private String nextAuthor() {
+        DatastoreState.AUTHORS[counter++ % DatastoreState.AUTHORS.size()]
+    }
+}
@@ -0,0 +1,47 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Benchmarks of retrieving instances by identifier. The session is cleared first so that the instances are read from the datastore.
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@State(Scope.Thread)
+class RetrievalBenchmark {
+
+    static final int BATCH_SIZE = 100
+
+    int counter
+
+    @Benchmark
+    Object get(DatastoreState state, SessionState sessionState) {
+        sessionState.session.clear()
+        return BenchmarkBook.get(state.ids[counter++ % state.ids.size()])
+    }
+
+    @Benchmark
+    Object getAll(DatastoreState state, SessionState sessionState) {
+        sessionState.session.clear()
+        int from = (counter++ * BATCH_SIZE) % Math.max(1, state.ids.size() - BATCH_SIZE)
+        return BenchmarkBook.getAll(state.ids.subList(from, Math.min(from + BATCH_SIZE, state.ids.size())))
+    }
+}
@@ -0,0 +1,48 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+
+/**
+ * A session bound to the benchmark thread for the duration of an iteration
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@State(Scope.Thread)
+class SessionState {
+
+    Session session
+
+    @Setup(Level.Iteration)
+    void open(DatastoreState state) {
+        session = state.datastore.connect()
+        DatastoreUtils.bindSession(session)
+    }
+
+    @TearDown(Level.Iteration)
+    void close() {
+        DatastoreUtils.unbindSession(session)
+        session.disconnect()
+    }
+}
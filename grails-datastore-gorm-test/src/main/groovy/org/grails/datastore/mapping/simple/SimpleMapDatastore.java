@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import groovy.lang.Closure;
 import org.grails.datastore.gorm.GormEnhancer;
@@ -30,6 +31,7 @@ import org.grails.datastore.gorm.GormValidationApi;
 import org.grails.datastore.gorm.events.*;
 import org.grails.datastore.gorm.multitenancy.MultiTenantEventListener;
 import org.grails.datastore.gorm.utils.ClasspathEntityScanner;
+import org.grails.datastore.mapping.cache.impl.CaffeineTPCacheAdapterRepository;
 import org.grails.datastore.mapping.config.Settings;
 import org.grails.datastore.mapping.core.AbstractDatastore;
 import org.grails.datastore.mapping.core.Datastore;
@@ -38,12 +40,15 @@ import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.core.connections.*;
 import org.grails.datastore.mapping.core.exceptions.ConfigurationException;
 import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext;
+import org.grails.datastore.mapping.metrics.DatastoreMetrics;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.multitenancy.MultiTenancySettings;
 import org.grails.datastore.mapping.multitenancy.SchemaMultiTenantCapableDatastore;
 import org.grails.datastore.mapping.multitenancy.TenantResolver;
+import org.grails.datastore.mapping.query.cache.TPCacheQueryResultCache;
 import org.grails.datastore.mapping.simple.connections.SimpleMapConnectionSourceFactory;
+import org.grails.datastore.mapping.simple.engine.SimpleMapPropertyIndex;
 import org.grails.datastore.mapping.transactions.DatastoreTransactionManager;
 import org.grails.datastore.mapping.transactions.TransactionCapableDatastore;
 import org.springframework.context.ApplicationEventPublisher;
@@ -65,14 +70,19 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
     protected final GormEnhancer gormEnhancer;
     private final ConfigurableApplicationEventPublisher eventPublisher;
     private Map indices = new ConcurrentHashMap();
+    private final Map<String, SimpleMapPropertyIndex> propertyIndices = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> identifierCounters = new ConcurrentHashMap<>();
     private final PlatformTransactionManager transactionManager;
     private final ConnectionSources<Map<String,Map>, ConnectionSourceSettings> connectionSources;
     private final MultiTenancySettings.MultiTenancyMode multiTenancyMode;
     protected final Map<String, SimpleMapDatastore> datastoresByConnectionSource = new LinkedHashMap<>();
     protected final boolean failOnError;
+    protected final int flushBatchSize;
+    protected final int maxPendingOperations;
+    protected final long maxPendingOperationsSize;
 
     public SimpleMapDatastore(ConnectionSources<Map<String,Map>, ConnectionSourceSettings> connectionSources, MappingContext mappingContext, ConfigurableApplicationEventPublisher eventPublisher) {
-        super(mappingContext);
+        super(mappingContext, (PropertyResolver) null, null, new CaffeineTPCacheAdapterRepository<Map>());
         this.connectionSources = connectionSources;
         ConnectionSource<Map<String, Map>, ConnectionSourceSettings> defaultConnectionSource = connectionSources.getDefaultConnectionSource();
         this.inmemoryData = defaultConnectionSource.getSource();
@@ -84,6 +94,16 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
         this.tenantResolver = multiTenancy.getTenantResolver();
         PropertyResolver config = connectionSources.getBaseConfiguration();
         this.failOnError = config.getProperty(Settings.SETTING_FAIL_ON_ERROR, Boolean.class, false);
+        ConnectionSourceSettings settings = defaultConnectionSource.getSettings();
+        this.flushBatchSize = settings.getFlushBatchSize();
+        this.maxPendingOperations = settings.getMaxPendingOperations();
+        this.maxPendingOperationsSize = settings.getMaxPendingOperationsSize();
+        if (settings.getQueryCacheMaximumSize() > 0) {
+            this.queryResultCache = new TPCacheQueryResultCache(settings.getQueryCacheMaximumSize(), settings.getQueryCacheExpireAfterWrite());
+        }
+        if (settings.isMetricsEnabled()) {
+            this.instrumentation = new DatastoreMetrics();
+        }
         if(!(connectionSources instanceof SingletonConnectionSources)) {
 
             Iterable<ConnectionSource<Map<String,Map>, ConnectionSourceSettings>> allConnectionSources = connectionSources.getAllConnectionSources();
@@ -273,9 +293,34 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
         return indices;
     }
 
+    /**
+     * @return The secondary indices of entity properties, keyed by the root entity and property name
+     */
+    public Map<String, SimpleMapPropertyIndex> getPropertyIndices() {
+        return propertyIndices;
+    }
+
+    /**
+     * Generates the next numeric identifier for the given family. Identifiers are shared by every session of the datastore
+     * and never go below the number of entries in the family.
+     *
+     * @param family The family of the root entity
+     * @return The next identifier
+     */
+    public long nextIdentifier(String family) {
+        Map familyEntries = inmemoryData.get(family);
+        long size = familyEntries != null ? familyEntries.size() : 0;
+        AtomicLong counter = identifierCounters.computeIfAbsent(family, f -> new AtomicLong());
+        return counter.updateAndGet(current -> Math.max(current, size) + 1);
+    }
+
     @Override
     protected Session createSession(PropertyResolver connectionDetails) {
-        return new SimpleMapSession(this, getMappingContext(), eventPublisher);
+        SimpleMapSession session = new SimpleMapSession(this, getMappingContext(), eventPublisher);
+        session.setFlushBatchSize(flushBatchSize);
+        session.setMaxPendingOperations(maxPendingOperations);
+        session.setMaxPendingOperationsSize(maxPendingOperationsSize);
+        return session;
     }
 
     @Override
@@ -290,6 +335,14 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
     public void clearData() {
         inmemoryData.clear();
         indices.clear();
+        propertyIndices.clear();
+        identifierCounters.clear();
+        if (queryResultCache != null) {
+            queryResultCache.evictAll();
+        }
+        if (cacheAdapterRepository instanceof CaffeineTPCacheAdapterRepository) {
+            ((CaffeineTPCacheAdapterRepository) cacheAdapterRepository).evictAll();
+        }
     }
 
     @Override
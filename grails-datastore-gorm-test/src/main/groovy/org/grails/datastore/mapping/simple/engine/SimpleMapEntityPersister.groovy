@@ -14,6 +14,7 @@
  */
 package org.grails.datastore.mapping.simple.engine
 
+import org.grails.datastore.mapping.cache.TPCacheAdapterRepository
 import org.grails.datastore.mapping.config.Property
 import org.grails.datastore.mapping.core.IdentityGenerationException
 import org.grails.datastore.mapping.core.OptimisticLockingException
@@ -44,25 +45,25 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
 
     Map<String, Map> datastore
     Map indices
-    def lastKey
+    Map<String, SimpleMapPropertyIndex> propertyIndices
     String family
+    private SimpleMapDatastore simpleMapDatastore
 
     SimpleMapEntityPersister(MappingContext context, PersistentEntity entity, Session session,
                              SimpleMapDatastore datastore, ApplicationEventPublisher publisher) {
-        super(context, entity, session, publisher)
+        this(context, entity, session, datastore, publisher, null)
+    }
+
+    SimpleMapEntityPersister(MappingContext context, PersistentEntity entity, Session session,
+                             SimpleMapDatastore datastore, ApplicationEventPublisher publisher,
+                             TPCacheAdapterRepository<Map> cacheAdapterRepository) {
+        super(context, entity, session, publisher, cacheAdapterRepository)
+        this.simpleMapDatastore = datastore
         this.datastore = datastore.backingMap
         this.indices = datastore.indices
+        this.propertyIndices = datastore.propertyIndices
         family = getFamily(entity, entity.getMapping())
-        final identity = entity.getIdentity()
-        def idType = identity?.type
-        if (this.datastore[family] == null) this.datastore[family] = [:]
-
-        if (idType == Integer) {
-            lastKey = this.datastore[family].size()
-        }
-        else {
-            lastKey = this.datastore[family].size().longValue()
-        }
+        this.datastore.computeIfAbsent(family, { String f -> [:] })
     }
 
     protected PersistentEntity discriminatePersistentEntity(PersistentEntity persistentEntity, Map nativeEntry) {
@@ -79,6 +80,7 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
     }
 
     protected void deleteEntry(String family, key, entry) {
+        deindexEntry(persistentEntity, key, datastore[family].get(key))
         datastore[family].remove(key)
         def parent = persistentEntity.parentEntity
         while (parent != null) {
@@ -93,7 +95,19 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         return true // index all
     }
 
+    /**
+     * Obtains the index of the given property. Properties of entities in the same hierarchy share an index.
+     *
+     * @param property The property
+     * @return The index
+     */
+    SimpleMapPropertyIndex getPropertyIndex(PersistentProperty property) {
+        String indexRoot = "~${property.owner.rootEntity.name}:${property.name}"
+        propertyIndices.computeIfAbsent(indexRoot, { String root -> new SimpleMapPropertyIndex() })
+    }
+
     PropertyValueIndexer getPropertyIndexer(PersistentProperty property) {
+        final SimpleMapPropertyIndex propertyIndex = getPropertyIndex(property)
         return new PropertyValueIndexer() {
 
             String getIndexRoot() {
@@ -101,38 +115,24 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
             }
 
             void deindex(value, primaryKey) {
-                def index = getIndexName(value)
-                List indexed = indices[index]
-                if (indexed) {
-                    indexed.removeElement(primaryKey)
-                }
+                propertyIndex.deindex(value, primaryKey)
             }
 
             void index(value, primaryKey) {
-
-                def index = getIndexName(value)
-                def indexed = indices[index]
-                if (indexed == null) {
-                    indexed = []
-                    indices[index] = indexed
-                }
-                if (!indexed.contains(primaryKey)) {
-                    indexed << primaryKey
-                }
+                propertyIndex.index(value, primaryKey)
             }
 
             List query(value) {
-                query(value, 0, -1)
+                propertyIndex.query(value)
             }
 
             List query(value, int offset, int max) {
-                def index = getIndexName(value)
-
-                def indexed = indices[index]
-                if (!indexed) {
+                List indexed = propertyIndex.query(value)
+                int to = max < 0 ? indexed.size() : Math.min(max + 1, indexed.size())
+                if (offset >= to) {
                     return Collections.emptyList()
                 }
-                return indexed[offset..max]
+                return indexed.subList(offset, to)
             }
 
             String getIndexName(value) {
@@ -141,6 +141,26 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         }
     }
 
+    /**
+     * Removes the values of a stored entry from the property indices
+     *
+     * @param persistentEntity The entity
+     * @param key The key of the entry
+     * @param entry The stored entry
+     */
+    protected void deindexEntry(PersistentEntity persistentEntity, key, Map entry) {
+        if (entry == null) {
+            return
+        }
+        for (PersistentProperty property in persistentEntity.persistentProperties) {
+            String name = property.mapping?.mappedForm?.targetName ?: property.name
+            if (entry.containsKey(name)) {
+                getPropertyIndex(property).deindex(entry.get(name), key)
+            }
+        }
+        getPropertyIndex(persistentEntity.identity).deindex(key, key)
+    }
+
     AssociationIndexer getAssociationIndexer(Map nativeEntry, Association association) {
         if(association?.associatedEntity == null) {
             return null
@@ -258,20 +278,30 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         return null
     }
 
+    @Override
+    protected Map<Serializable, Map> retrieveEntries(PersistentEntity persistentEntity, String family, List<Serializable> keys) {
+        Map familyMap = datastore[family]
+        Map<Serializable, Map> entries = new LinkedHashMap<>()
+        for (Serializable key in keys) {
+            Map entry = familyMap.get(key)
+            if (entry != null) {
+                entries.put(key, new LinkedHashMap<>(entry))
+            }
+        }
+        return entries
+    }
+
     protected generateIdentifier(PersistentEntity persistentEntity, Map id) {
         final isRoot = persistentEntity.root
         final type = isRoot ? persistentEntity.identity.type : persistentEntity.rootEntity.identity.type
         if ((String.isAssignableFrom(type)) || (Number.isAssignableFrom(type))) {
-            def key
-            if (isRoot) {
-                key = ++lastKey
-            }
-            else {
-                def root = persistentEntity.rootEntity
-                session.getPersister(root).lastKey++
-                key = session.getPersister(root).lastKey
+            PersistentEntity root = persistentEntity.rootEntity
+            String rootFamily = getFamily(root, root.mapping)
+            long next = simpleMapDatastore.nextIdentifier(rootFamily)
+            if (type == String) {
+                return String.valueOf(next)
             }
-            return type == String ? key.toString() : key
+            return type == Integer ? Integer.valueOf((int) next) : Long.valueOf(next)
         }
         else if (UUID.isAssignableFrom(type)) {
           return UUID.randomUUID()
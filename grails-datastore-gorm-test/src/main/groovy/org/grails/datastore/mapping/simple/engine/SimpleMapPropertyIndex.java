@@ -0,0 +1,209 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.simple.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+
+/**
+ * A secondary index of the values of a single property used by the {@link org.grails.datastore.mapping.simple.SimpleMapDatastore}.
+ *
+ * <p>Every value is held in a hash index, keyed by the string form of the value as the previous string based indices were,
+ * so that equality lookups are type lenient. Comparable values are additionally held in a sorted (skip-list) index that
+ * answers range queries. If the property holds values that can't be compared with each other the sorted index is dropped
+ * and range queries fall back to scanning the entries.</p>
+ *
+ * <p>The index is safe for concurrent use. The keys of a value are kept in insertion order.</p>
+ *
+ * @since 9.0
+ */
+public class SimpleMapPropertyIndex {
+
+    private final Map<String, Set<Object>> hashIndex = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Object, Set<Object>> sortedIndex = new ConcurrentSkipListMap<>(SimpleMapPropertyIndex::compareValues);
+    private volatile boolean sortable = true;
+
+    /**
+     * Adds the key to the index for the given value
+     *
+     * @param value The property value
+     * @param key The key of the entry
+     */
+    public void index(Object value, Object key) {
+        hashIndex.computeIfAbsent(String.valueOf(value), v -> newKeySet()).add(key);
+        if (value != null && sortable) {
+            try {
+                sortedIndex.computeIfAbsent(value, v -> newKeySet()).add(key);
+            }
+            catch (RuntimeException e) {
+                disableSortedIndex();
+            }
+        }
+    }
+
+    /**
+     * Removes the key from the index for the given value
+     *
+     * @param value The property value
+     * @param key The key of the entry
+     */
+    public void deindex(Object value, Object key) {
+        removeKey(hashIndex, String.valueOf(value), key);
+        if (value != null && sortable) {
+            try {
+                removeKey(sortedIndex, value, key);
+            }
+            catch (RuntimeException e) {
+                disableSortedIndex();
+            }
+        }
+    }
+
+    /**
+     * @param value The value
+     * @return The keys of the entries with the given value
+     */
+    public List<Object> query(Object value) {
+        Set<Object> keys = hashIndex.get(String.valueOf(value));
+        return keys != null ? copyOf(keys) : Collections.emptyList();
+    }
+
+    /**
+     * @param values The values
+     * @return The keys of the entries with any of the given values, without duplicates
+     */
+    public List<Object> queryIn(Collection<?> values) {
+        Set<Object> result = new LinkedHashSet<>();
+        for (Object value : values) {
+            Set<Object> keys = hashIndex.get(String.valueOf(value));
+            if (keys != null) {
+                synchronized (keys) {
+                    result.addAll(keys);
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Queries the sorted index for a range of values. A null bound leaves that end of the range open. Null values sort
+     * before any other value, as they do in Groovy, so a range without a lower bound also includes the entries with a
+     * null value.
+     *
+     * @return The keys of the entries within the range, or null if the index can't answer the query
+     */
+    public List<Object> queryRange(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        if (!sortable) {
+            return null;
+        }
+        try {
+            NavigableMap<Object, Set<Object>> range;
+            if (from != null && to != null) {
+                if (compareValues(from, to) > 0) {
+                    return Collections.emptyList();
+                }
+                range = sortedIndex.subMap(from, fromInclusive, to, toInclusive);
+            }
+            else if (from != null) {
+                range = sortedIndex.tailMap(from, fromInclusive);
+            }
+            else if (to != null) {
+                range = sortedIndex.headMap(to, toInclusive);
+            }
+            else {
+                range = sortedIndex;
+            }
+            Set<Object> result = new LinkedHashSet<>();
+            if (from == null) {
+                Set<Object> nullKeys = hashIndex.get(String.valueOf((Object) null));
+                if (nullKeys != null) {
+                    synchronized (nullKeys) {
+                        result.addAll(nullKeys);
+                    }
+                }
+            }
+            for (Set<Object> keys : range.values()) {
+                synchronized (keys) {
+                    result.addAll(keys);
+                }
+            }
+            return sortable ? new ArrayList<>(result) : null;
+        }
+        catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param pattern The pattern to match the string form of the values with
+     * @return The keys of the entries whose value matches the pattern
+     */
+    public List<Object> queryMatching(Pattern pattern) {
+        Set<Object> result = new LinkedHashSet<>();
+        for (Map.Entry<String, Set<Object>> entry : hashIndex.entrySet()) {
+            if (pattern.matcher(entry.getKey()).matches()) {
+                Set<Object> keys = entry.getValue();
+                synchronized (keys) {
+                    result.addAll(keys);
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * @return Whether range queries can be answered by this index
+     */
+    public boolean isSortable() {
+        return sortable;
+    }
+
+    private void disableSortedIndex() {
+        sortable = false;
+        sortedIndex.clear();
+    }
+
+    private static Set<Object> newKeySet() {
+        return Collections.synchronizedSet(new LinkedHashSet<>());
+    }
+
+    private static <V> void removeKey(Map<V, Set<Object>> index, V value, Object key) {
+        Set<Object> keys = index.get(value);
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    private static List<Object> copyOf(Set<Object> keys) {
+        synchronized (keys) {
+            return new ArrayList<>(keys);
+        }
+    }
+
+    private static int compareValues(Object left, Object right) {
+        return DefaultTypeTransformation.compareTo(left, right);
+    }
+}
@@ -14,8 +14,13 @@
  */
 package org.grails.datastore.mapping.simple.query
 
+import java.util.function.BiFunction
 import java.util.regex.Pattern
 
+import groovy.transform.CompileStatic
+import org.codehaus.groovy.runtime.InvokerHelper
+import org.codehaus.groovy.runtime.ScriptBytecodeAdapter
+
 import org.grails.datastore.mapping.engine.types.CustomTypeMarshaller
 import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValue
 import org.grails.datastore.mapping.model.PersistentEntity
@@ -24,8 +29,10 @@ import org.grails.datastore.mapping.model.types.Association
 import org.grails.datastore.mapping.model.types.Custom
 import org.grails.datastore.mapping.model.types.ToOne
 import org.grails.datastore.mapping.query.AssociationQuery
+import org.grails.datastore.mapping.query.ChunkedQueryResults
 import org.grails.datastore.mapping.query.Query
 import org.grails.datastore.mapping.query.Restrictions
+import org.grails.datastore.mapping.query.ScrollableQueryResults
 import org.grails.datastore.mapping.query.api.QueryableCriteria
 import org.grails.datastore.mapping.query.criteria.FunctionCallingCriterion
 import org.grails.datastore.mapping.simple.SimpleMapSession
@@ -44,6 +51,7 @@ class SimpleMapQuery extends Query {
     Map<String, Map> datastore
     private String family
     private SimpleMapEntityPersister entityPersister
+    private Map scope
 
     SimpleMapQuery(SimpleMapSession session, PersistentEntity entity, SimpleMapEntityPersister entityPersister) {
         super(session, entity)
@@ -52,32 +60,22 @@ class SimpleMapQuery extends Query {
         this.entityPersister = entityPersister
     }
 
+    @Override
+    protected boolean supportsKeysetPagination() {
+        // the query is executed with the executable criteria, which include the seek criterion
+        return true
+    }
+
     protected List executeQuery(PersistentEntity entity, Query.Junction criteria) {
         def results = []
-        def entityMap = [:]
-        if (criteria.isEmpty()) {
-            populateQueryResult(datastore[family].keySet().toList(), entityMap)
-        }
-        else {
-            def criteriaList = criteria.getCriteria()
-            entityMap = executeSubQuery(criteria, criteriaList)
-            if (!entity.isRoot()) {
-                def childKeys = datastore[family].keySet()
-                entityMap = entityMap.subMap(childKeys)
-            }
-        }
+        Collection identifiers = resolveIdentifiers(entity, criteria)
 
-        def nullEntries = entityMap.entrySet().findAll { it.value == null }
-        entityMap.keySet().removeAll(nullEntries.collect { it.key })
+        // without ordering or projections only the requested page of instances has to be loaded
+        int limit = max > 0 && projections.isEmpty() ? offset + max : -1
+        Map entityMap = populateQueryResult(identifiers, new LinkedHashMap(), orderBy ? -1 : limit)
 
         if (orderBy) {
-            orderBy.reverseEach { Query.Order order ->
-                boolean desc = order.direction == Query.Order.Direction.DESC
-                entityMap = entityMap.sort { a, b ->
-                    int cmp = (a.value."${order.property}" <=> b.value."${order.property}")
-                    return desc ? -cmp : cmp
-                }
-            }
+            entityMap = sortQueryResult(entityMap, limit)
         }
         if (projections.isEmpty()) {
             results = entityMap.values() as List
@@ -160,6 +158,46 @@ class SimpleMapQuery extends Query {
         return Collections.emptyList()
     }
 
+    /**
+     * Without ordering or projections the matching identifiers are resolved once and only the instances of the current
+     * chunk are loaded, otherwise the query is paged through
+     */
+    @Override
+    protected ScrollableQueryResults executeScroll(PersistentEntity entity, Query.Junction criteria, int fetchSize) {
+        if (orderBy || !projections.isEmpty()) {
+            return super.executeScroll(entity, criteria, fetchSize)
+        }
+
+        Iterator identifiers = new LinkedHashSet(resolveIdentifiers(entity, criteria)).iterator()
+        int toSkip = offset
+        return new ChunkedQueryResults(session, fetchSize, offset, max, { Integer chunkOffset, Integer chunkMax ->
+            for (; toSkip > 0 && identifiers.hasNext(); toSkip--) {
+                identifiers.next()
+            }
+            List chunk = []
+            while (chunk.size() < chunkMax && identifiers.hasNext()) {
+                def instance = session.retrieve(entity.javaClass, (Serializable) identifiers.next())
+                if (instance != null) {
+                    chunk.add(instance)
+                }
+            }
+            return firePostQueryEvent(chunk)
+        } as BiFunction<Integer, Integer, List>)
+    }
+
+    protected Collection resolveIdentifiers(PersistentEntity entity, Query.Junction criteria) {
+        if (criteria.isEmpty()) {
+            return new ArrayList(datastore[family].keySet())
+        }
+
+        Collection identifiers = executeSubQueryInternal(criteria, criteria.getCriteria())
+        if (!entity.isRoot()) {
+            Set matched = new HashSet(identifiers)
+            identifiers = datastore[family].keySet().findAll { matched.contains(it) }
+        }
+        return identifiers
+    }
+
     private List applyMaxAndOffset(List sortedResults) {
         final def total = sortedResults.size()
         if (offset >= total) return Collections.emptyList()
@@ -365,13 +403,13 @@ class SimpleMapQuery extends Query {
         },
         (AssociationQuery): { AssociationQuery aq, PersistentProperty property ->
             Query.Junction queryCriteria = aq.criteria
-            return executeAssociationSubQuery(datastore[family], aq.association.associatedEntity, queryCriteria, property)
+            return executeAssociationSubQuery(entriesToScan(), aq.association.associatedEntity, queryCriteria, property)
         },
         (Query.EqualsAll):{ Query.EqualsAll equalsAll, PersistentProperty property, Closure function=null, boolean onValue = false ->
             def name = equalsAll.property
             final values = subqueryIfNecessary(equalsAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) == it  }
             }
@@ -381,7 +419,7 @@ class SimpleMapQuery extends Query {
             def name = notEqualsAll.property
             final values = subqueryIfNecessary(notEqualsAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) != it  }
             }
@@ -391,7 +429,7 @@ class SimpleMapQuery extends Query {
             def name = greaterThanAll.property
             final values = subqueryIfNecessary(greaterThanAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) > it  }
             }
@@ -401,7 +439,7 @@ class SimpleMapQuery extends Query {
             def name = lessThanAll.property
             final values = subqueryIfNecessary(lessThanAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) < it  }
             }
@@ -411,7 +449,7 @@ class SimpleMapQuery extends Query {
             def name = lessThanEqualsAll.property
             final values = subqueryIfNecessary(lessThanEqualsAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) <= it  }
             }
@@ -421,7 +459,7 @@ class SimpleMapQuery extends Query {
             def name = greaterThanAll.property
             final values = subqueryIfNecessary(greaterThanAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) >= it  }
             }
@@ -436,7 +474,7 @@ class SimpleMapQuery extends Query {
             }
 
             if (function != null) {
-                def allEntities = datastore[family]
+                def allEntities = entriesToScan()
                 allEntities.findAll {
                     def calculatedValue = function(it.value[property.name])
                     calculatedValue == value
@@ -444,7 +482,7 @@ class SimpleMapQuery extends Query {
             }
             else {
                 if (equals.property.contains('.') || value == null) {
-                    def allEntities = datastore[family]
+                    def allEntities = entriesToScan()
                     return allEntities.findAll { resolveIfEmbedded(equals.property, it.value) == value }.collect { it.key }
                 }
                 else {
@@ -468,21 +506,8 @@ class SimpleMapQuery extends Query {
             return negateResults(indexed)
         },
         (Query.Like): { Query.Like like, PersistentProperty property ->
-            def indexer = entityPersister.getPropertyIndexer(property)
-
-            def root = indexer.indexRoot
             def regexFormat = like.pattern.replaceAll('%', '.*?')
-            def pattern = "${root}:${regexFormat}"
-            def matchingIndices = entityPersister.indices.findAll { key, value ->
-                key ==~ pattern
-            }
-
-            Set result = []
-            for (indexed in matchingIndices) {
-                result.addAll(indexed.value)
-            }
-
-            return result.toList()
+            return entityPersister.getPropertyIndex(property).queryMatching(Pattern.compile(regexFormat))
         },
         (Query.ILike): { Query.ILike like, PersistentProperty property ->
             def regexFormat = like.pattern.replaceAll('%', '.*?')
@@ -493,6 +518,13 @@ class SimpleMapQuery extends Query {
             return executeLikeWithRegex(entityPersister, property, regexFormat)
         },
         (Query.In): { Query.In inList, PersistentProperty property ->
+            def values = inList.values?.collect {
+                it != null && property instanceof ToOne && property.type.isInstance(it) ? entityPersister.getObjectIdentifier(it) : it
+            }
+            if (values != null && !inList.property.contains('.') && !values.contains(null)) {
+                return entityPersister.getPropertyIndex(property).queryIn(values)
+            }
+
             def disjunction = new Query.Disjunction()
             for (value in inList.values) {
                 disjunction.add(Restrictions.eq(inList.name, value))
@@ -504,114 +536,122 @@ class SimpleMapQuery extends Query {
             def from = between.from
             def to = between.to
             def name = between.property
-            def allEntities = datastore[family]
 
             if (function != null) {
+                def allEntities = entriesToScan()
                 allEntities.findAll { function(resolveIfEmbedded(name, it.value)) >= from && function(resolveIfEmbedded(name, it.value)) <= to }.collect { it.key }
             }
             else {
-                allEntities.findAll { resolveIfEmbedded(name, it.value) >= from && resolveIfEmbedded(name, it.value) <= to }.collect { it.key }
+                queryRange(property, name, from, true, to, true) { resolveIfEmbedded(name, it) >= from && resolveIfEmbedded(name, it) <= to }
             }
         },
         (Query.GreaterThan): { Query.GreaterThan gt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = gt.property
             final value = subqueryIfNecessary(gt)
-            def allEntities = datastore[family]
 
-            allEntities.findAll { (function != null ? function(resolveIfEmbedded(name, it.value)) : resolveIfEmbedded(name, it.value)) > value }.collect { it.key }
+            if (function != null) {
+                def allEntities = entriesToScan()
+                allEntities.findAll { function(resolveIfEmbedded(name, it.value)) > value }.collect { it.key }
+            }
+            else {
+                queryRange(property, name, value, false, null, false) { resolveIfEmbedded(name, it) > value }
+            }
         },
         (Query.GreaterThanProperty): { Query.GreaterThanProperty gt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
 
             allEntities.findAll { (function != null ? function(resolveIfEmbedded(name, it.value)) : resolveIfEmbedded(name, it.value)) > it.value[other] }.collect { it.key }
         },
         (Query.GreaterThanEqualsProperty): { Query.GreaterThanEqualsProperty gt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) >= it.value[other] }.collect { it.key }
         },
         (Query.LessThanProperty): { Query.LessThanProperty gt, PersistentProperty property ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) < it.value[other] }.collect { it.key }
         },
         (Query.LessThanEqualsProperty): { Query.LessThanEqualsProperty gt, PersistentProperty property ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) <= it.value[other] }.collect { it.key }
         },
         (Query.EqualsProperty): { Query.EqualsProperty gt, PersistentProperty property ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) == it.value[other] }.collect { it.key }
         },
         (Query.NotEqualsProperty): { Query.NotEqualsProperty gt, PersistentProperty property ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) != it.value[other] }.collect { it.key }
         },
         (Query.SizeEquals): { Query.SizeEquals se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() == value }
         },
        (Query.SizeNotEquals): { Query.SizeNotEquals se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() != value }
         },
         (Query.SizeGreaterThan): { Query.SizeGreaterThan se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() > value }
         },
         (Query.SizeGreaterThanEquals): { Query.SizeGreaterThanEquals se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() >= value }
         },
         (Query.SizeLessThan): { Query.SizeLessThan se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() < value }
         },
         (Query.SizeLessThanEquals): { Query.SizeLessThanEquals se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = entriesToScan()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() <= value }
         },
         (Query.GreaterThanEquals): { Query.GreaterThanEquals gt, PersistentProperty property ->
             def name = gt.property
             final value = subqueryIfNecessary(gt)
-            def allEntities = datastore[family]
 
-            allEntities.findAll { resolveIfEmbedded(name, it.value) >= value }.collect { it.key }
+            queryRange(property, name, value, true, null, false) { resolveIfEmbedded(name, it) >= value }
         },
-        (Query.LessThan): { Query.LessThan lt, PersistentProperty property ->
+        (Query.LessThan): { Query.LessThan lt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = lt.property
             final value = subqueryIfNecessary(lt)
-            def allEntities = datastore[family]
 
-            allEntities.findAll { resolveIfEmbedded(name, it.value) < value }.collect { it.key }
+            if (function != null) {
+                def allEntities = entriesToScan()
+                allEntities.findAll { function(resolveIfEmbedded(name, it.value)) < value }.collect { it.key }
+            }
+            else {
+                queryRange(property, name, null, false, value, false) { resolveIfEmbedded(name, it) < value }
+            }
         },
         (Query.LessThanEquals): { Query.LessThanEquals lte, PersistentProperty property ->
             def name = lte.property
             final value = subqueryIfNecessary(lte)
-            def allEntities = datastore[family]
 
-            allEntities.findAll { resolveIfEmbedded(name, it.value) <= value }.collect { it.key }
+            queryRange(property, name, null, false, value, true) { resolveIfEmbedded(name, it) <= value }
         }
     ]
 
@@ -648,26 +688,58 @@ class SimpleMapQuery extends Query {
     }
 
     protected List executeLikeWithRegex(SimpleMapEntityPersister entityPersister, PersistentProperty property, regexFormat) {
-        def indexer = entityPersister.getPropertyIndexer(property)
+        def pattern = Pattern.compile(regexFormat.toString(), Pattern.CASE_INSENSITIVE)
+        return entityPersister.getPropertyIndex(property).queryMatching(pattern)
+    }
 
-        def root = indexer.indexRoot
-        def pattern = Pattern.compile("${root}:${regexFormat}", Pattern.CASE_INSENSITIVE)
-        def matchingIndices = entityPersister.indices.findAll { key, value ->
-            pattern.matcher(key).matches()
+    /**
+     * Finds the keys of the entries matching a range predicate. When the property has a sorted index the candidates are
+     * looked up in the index and only those are checked against the predicate, otherwise all of the entries are scanned.
+     * A range needs at least one bound to be looked up in the index.
+     *
+     * @param property The property
+     * @param name The name of the property in the criterion
+     * @param from The lower bound or null
+     * @param fromInclusive Whether the lower bound is inclusive
+     * @param to The upper bound or null
+     * @param toInclusive Whether the upper bound is inclusive
+     * @param predicate The predicate, called with the native entry
+     * @return The matching keys
+     */
+    protected List queryRange(PersistentProperty property, String name, from, boolean fromInclusive, to, boolean toInclusive, Closure<Boolean> predicate) {
+        List candidates = null
+        if ((from != null || to != null) && !name.contains('.') && property != null) {
+            candidates = entityPersister.getPropertyIndex(property).queryRange(from, fromInclusive, to, toInclusive)
         }
-
-        Set result = []
-        for (indexed in matchingIndices) {
-            result.addAll(indexed.value)
+        Map allEntities = entriesToScan()
+        if (candidates == null || candidates.size() > allEntities.size() / 2) {
+            return allEntities.findAll { predicate.call(it.value) }.collect { it.key }
         }
 
-        return result.toList()
+        Set matched = new HashSet()
+        for (key in candidates) {
+            def entry = allEntities.get(key)
+            if (entry != null && predicate.call(entry)) {
+                matched << key
+            }
+        }
+        // the index returns the keys in the order of the values, whereas scans return them in the order the entries
+        // were stored, so the matches are put back in that order rather than sorted, which would not hold for assigned ids
+        List results = []
+        if (matched) {
+            for (key in allEntities.keySet()) {
+                if (matched.contains(key)) {
+                    results << key
+                }
+            }
+        }
+        return results
     }
 
     private ArrayList negateResults(List results) {
-        def entityMap = datastore[family]
+        def entityMap = entriesToScan()
         def allIds = new ArrayList(entityMap.keySet())
-        allIds.removeAll(results)
+        allIds.removeAll(new HashSet(results))
         return allIds
     }
 
@@ -682,27 +754,113 @@ class SimpleMapQuery extends Query {
 
     Collection executeSubQueryInternal(criteria, criteriaList) {
         SimpleMapResultList resultList = new SimpleMapResultList(this)
-        for (Query.Criterion criterion in criteriaList) {
-            if (criterion instanceof Query.Junction) {
-                resultList.results << executeSubQueryInternal(criterion, criterion.criteria)
+        Map previousScope = scope
+        try {
+            List remaining = criteriaList as List
+            if (criteria instanceof Query.Conjunction && remaining.size() > 1) {
+                List indexed = remaining.findAll { isAnsweredByIndex(it) }
+                if (indexed && indexed.size() < remaining.size()) {
+                    // answer the criteria that have an index first and only scan the candidates they leave for the rest
+                    for (criterion in remaining) {
+                        if (!(criterion instanceof Query.Junction)) {
+                            getValidProperty(criterion)
+                        }
+                    }
+                    for (criterion in indexed) {
+                        evaluateCriterion(criterion, resultList)
+                    }
+                    List candidates = applyJunctionToResults(criteria, resultList.results)
+                    if (!candidates) {
+                        return []
+                    }
+                    scope = createScope(candidates, previousScope)
+                    resultList.results = [candidates]
+                    remaining = remaining.findAll { criterion -> !indexed.any { it.is(criterion) } }
+                }
+            }
+            for (Query.Criterion criterion in remaining) {
+                evaluateCriterion(criterion, resultList)
+            }
+        }
+        finally {
+            scope = previousScope
+        }
+        return applyJunctionToResults(criteria,resultList.results)
+    }
+
+    protected void evaluateCriterion(Query.Criterion criterion, SimpleMapResultList resultList) {
+        if (criterion instanceof Query.Junction) {
+            resultList.results << executeSubQueryInternal(criterion, criterion.criteria)
+        }
+        else {
+            PersistentProperty property = getValidProperty(criterion)
+
+            if ((property instanceof Custom) && (criterion instanceof Query.PropertyCriterion)) {
+                CustomTypeMarshaller customTypeMarshaller = ((Custom) property).getCustomTypeMarshaller()
+                customTypeMarshaller.query(property, criterion, resultList)
             }
             else {
-                PersistentProperty property = getValidProperty(criterion)
+                def handler = handlers[criterion.getClass()]
 
-                if ((property instanceof Custom) && (criterion instanceof Query.PropertyCriterion)) {
-                    CustomTypeMarshaller customTypeMarshaller = ((Custom) property).getCustomTypeMarshaller()
-                    customTypeMarshaller.query(property, criterion, resultList)
-                    continue
-                }
-                else {
-                    def handler = handlers[criterion.getClass()]
+                def results = handler?.call(criterion, property) ?: []
+                resultList.results << results
+            }
+        }
+    }
 
-                    def results = handler?.call(criterion, property) ?: []
-                    resultList.results << results
-                }
+    /**
+     * Whether the given criterion is answered by a property index rather than by scanning the entries
+     *
+     * @param criterion The criterion
+     * @return True if it is
+     */
+    protected boolean isAnsweredByIndex(Query.Criterion criterion) {
+        if (!(criterion instanceof Query.PropertyCriterion) || criterion instanceof FunctionCallingCriterion) {
+            return false
+        }
+        Query.PropertyCriterion pc = (Query.PropertyCriterion) criterion
+        if (pc.property.contains('.')) {
+            return false
+        }
+        PersistentProperty property = entity.getPropertyByName(pc.property)
+        if (property == null) {
+            property = entity.identity?.name == pc.property ? entity.identity : null
+        }
+        if (property == null || property instanceof Custom) {
+            return false
+        }
+
+        switch (criterion.getClass()) {
+            case Query.IdEquals:
+                return true
+            case Query.Equals:
+                return pc.value != null
+            case Query.In:
+                Collection values = ((Query.In) criterion).values
+                return values != null && !values.contains(null)
+            case [Query.Between, Query.GreaterThan, Query.GreaterThanEquals]:
+                def from = criterion instanceof Query.Between ? ((Query.Between) criterion).from : pc.value
+                return from != null && !(from instanceof QueryableCriteria) && entityPersister.getPropertyIndex(property).isSortable()
+            case [Query.LessThan, Query.LessThanEquals]:
+                return pc.value != null && !(pc.value instanceof QueryableCriteria) && entityPersister.getPropertyIndex(property).isSortable()
+            default:
+                return false
+        }
+    }
+
+    /**
+     * Creates the scope of entries to scan from the candidates of a conjunction
+     */
+    protected Map createScope(Collection candidates, Map parentScope) {
+        Map allEntities = parentScope != null ? parentScope : datastore[family]
+        Map candidateEntries = new LinkedHashMap()
+        for (key in candidates) {
+            def entry = allEntities.get(key)
+            if (entry != null) {
+                candidateEntries.put(key, entry)
             }
         }
-        return applyJunctionToResults(criteria,resultList.results)
+        return candidateEntries
     }
 
     private List applyJunctionToResults(Query.Junction criteria, List resultList) {
@@ -769,6 +927,104 @@ class SimpleMapQuery extends Query {
         }
     }
 
+    /**
+     * Loads the instances for the given identifiers, skipping those that no longer exist
+     *
+     * @param identifiers The identifiers
+     * @param queryResult The map to populate
+     * @param limit The number of instances to load at most, or -1 to load all of them
+     * @return The populated map
+     */
+    protected Map populateQueryResult(Collection identifiers, Map queryResult, int limit) {
+        for (id in identifiers) {
+            if (limit > -1 && queryResult.size() >= limit) {
+                break
+            }
+            if (!queryResult.containsKey(id)) {
+                def instance = session.retrieve(entity.javaClass, id)
+                if (instance != null) {
+                    queryResult.put(id, instance)
+                }
+            }
+        }
+        return queryResult
+    }
+
+    /**
+     * Sorts the instances by the orders of the query. The values to sort by are read once per instance and ties keep
+     * the order of the instances. If a limit is given only the first instances up to the limit are kept, which are
+     * selected with a bounded heap instead of sorting all of the instances.
+     *
+     * @param entityMap The instances keyed by identifier
+     * @param limit The number of instances to keep, or -1 to keep all of them
+     * @return The sorted instances
+     */
+    @CompileStatic
+    protected Map sortQueryResult(Map entityMap, int limit) {
+        List<Query.Order> orders = orderBy
+        final int orderCount = orders.size()
+        final boolean[] descending = new boolean[orderCount]
+        for (int i = 0; i < orderCount; i++) {
+            descending[i] = orders[i].direction == Query.Order.Direction.DESC
+        }
+
+        List<Object[]> rows = new ArrayList<>(entityMap.size())
+        int position = 0
+        for (Object o in entityMap.entrySet()) {
+            Map.Entry entry = (Map.Entry) o
+            Object[] row = new Object[orderCount + 2]
+            for (int i = 0; i < orderCount; i++) {
+                row[i] = InvokerHelper.getProperty(entry.value, orders[i].property)
+            }
+            row[orderCount] = position++
+            row[orderCount + 1] = entry
+            rows.add(row)
+        }
+
+        Comparator<Object[]> comparator = new Comparator<Object[]>() {
+            @Override
+            int compare(Object[] a, Object[] b) {
+                for (int i = 0; i < orderCount; i++) {
+                    int cmp = ScriptBytecodeAdapter.compareTo(a[i], b[i])
+                    if (cmp != 0) {
+                        return descending[i] ? -cmp : cmp
+                    }
+                }
+                return Integer.compare((Integer) a[orderCount], (Integer) b[orderCount])
+            }
+        }
+
+        if (limit > 0 && limit < rows.size()) {
+            PriorityQueue<Object[]> top = new PriorityQueue<>(limit, comparator.reversed())
+            for (Object[] row in rows) {
+                if (top.size() < limit) {
+                    top.add(row)
+                }
+                else if (comparator.compare(row, top.peek()) < 0) {
+                    top.poll()
+                    top.add(row)
+                }
+            }
+            rows = new ArrayList<>(top)
+        }
+        rows.sort(comparator)
+
+        Map sorted = new LinkedHashMap()
+        for (Object[] row in rows) {
+            Map.Entry entry = (Map.Entry) row[orderCount + 1]
+            sorted.put(entry.key, entry.value)
+        }
+        return sorted
+    }
+
+    /**
+     * @return The entries that scans have to consider. Within a conjunction that was narrowed down by an index these are
+     * only the candidate entries, otherwise all of the entries of the family.
+     */
+    protected Map entriesToScan() {
+        scope != null ? scope : datastore[family]
+    }
+
     protected String getFamily(PersistentEntity entity) {
         def cm = entity.getMapping()
         String table = null
@@ -0,0 +1,120 @@
+package grails.gorm.services
+
+import grails.gorm.DetachedCriteria
+import grails.gorm.annotation.Entity
+import org.grails.datastore.gorm.query.criteria.CriteriaTemplate
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class WhereCriteriaTemplateSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(Gadget)
+    @Shared GadgetService gadgetService
+
+    void setupSpec() {
+        gadgetService = datastore.getService(GadgetService)
+        Gadget.withNewSession {
+            new Gadget(name: "Phone", maker: "Acme", price: 300).save()
+            new Gadget(name: "Tablet", maker: "Acme", price: 500).save()
+            new Gadget(name: "Watch", maker: "Globex", price: 200).save()
+            new Gadget(name: "Laptop", maker: "Globex", price: 1200, discontinued: true).save(flush: true)
+        }
+    }
+
+    void "test a where query is bound from a template on each call"() {
+        expect:
+        Gadget.withNewSession {
+            gadgetService.findByMaker("Acme")*.name.sort() == ["Phone", "Tablet"]
+        }
+        Gadget.withNewSession {
+            gadgetService.findByMaker("Globex")*.name.sort() == ["Laptop", "Watch"]
+        }
+        Gadget.withNewSession {
+            gadgetService.findByMaker("Initech").isEmpty()
+        }
+        ((CriteriaTemplate) gadgetService.'$findByMakerCriteriaTemplate').bindable
+    }
+
+    void "test a template with several arguments and junctions"() {
+        expect:
+        Gadget.withNewSession {
+            gadgetService.findInRange(250, 600)*.name.sort() == ["Phone", "Tablet"]
+        }
+        Gadget.withNewSession {
+            gadgetService.findInRange(100, 250)*.name == ["Watch"]
+        }
+        Gadget.withNewSession {
+            gadgetService.findByMakerOrCheaperThan("Globex", 350)*.name.sort() == ["Laptop", "Phone", "Watch"]
+        }
+        Gadget.withNewSession {
+            gadgetService.countAvailable("Globex") == 1
+        }
+        Gadget.withNewSession {
+            gadgetService.searchByName("%a%")*.name.sort() == ["Laptop", "Tablet", "Watch"]
+        }
+        Gadget.withNewSession {
+            gadgetService.searchByName("P%")*.name == ["Phone"]
+        }
+    }
+
+    void "test the bound criteria reference their template"() {
+        given:
+        CriteriaTemplate<Gadget> template = new CriteriaTemplate<>(new DetachedCriteria<>(Gadget))
+
+        when:
+        DetachedCriteria<Gadget> first = template.bind(["Acme"] as Object[]) { eq "maker", CriteriaTemplate.argument(0, "Acme") }
+        DetachedCriteria<Gadget> second = template.bind(["Globex"] as Object[]) { eq "maker", CriteriaTemplate.argument(0, "Globex") }
+
+        then:
+        template.bindable
+        first.criteriaTemplate.is(template)
+        second.criteriaTemplate.is(template)
+        first.templateArguments == ["Acme"] as Object[]
+        second.templateArguments == ["Globex"] as Object[]
+        template.prototype.criteria[0].value instanceof CriteriaTemplate.Parameter
+        first.criteria[0].value == "Acme"
+        second.criteria[0].value == "Globex"
+
+        and:"modifying the criteria detaches them from the template"
+        first.eq("name", "Phone").criteriaTemplate == null
+    }
+
+    void "test a where query that can't be templated is built on each call"() {
+        expect:
+        Gadget.withNewSession {
+            gadgetService.findByPriceRatio(2)*.name.sort() == ["Tablet"]
+        }
+    }
+}
+
+@Entity
+class Gadget {
+    String name
+    String maker
+    Integer price
+    boolean discontinued
+}
+
+@Service(Gadget)
+interface GadgetService {
+
+    @Where({ maker == maker })
+    List<Gadget> findByMaker(String maker)
+
+    @Where({ price >= min && price <= max })
+    List<Gadget> findInRange(Integer min, Integer max)
+
+    @Where({ maker == maker || price < price })
+    List<Gadget> findByMakerOrCheaperThan(String maker, Integer price)
+
+    @Where({ maker == maker && discontinued == false })
+    Number countAvailable(String maker)
+
+    @Where({ name ==~ pattern })
+    List<Gadget> searchByName(String pattern)
+
+    @Where({ price == ratio * 250 })
+    List<Gadget> findByPriceRatio(Integer ratio)
+}
@@ -0,0 +1,162 @@
+package grails.gorm.tests
+
+import grails.gorm.MultiTenant
+import grails.gorm.annotation.Entity
+import grails.gorm.multitenancy.TenantService
+import grails.gorm.multitenancy.Tenants
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.connections.ConnectionSource
+import org.grails.datastore.mapping.multitenancy.AllTenantsResolver
+import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
+import org.grails.datastore.mapping.multitenancy.exceptions.TenantExecutionException
+import org.grails.datastore.mapping.multitenancy.exceptions.TenantNotFoundException
+import org.grails.datastore.mapping.multitenancy.resolvers.SystemPropertyTenantResolver
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.IntBinaryOperator
+
+class EachTenantParallelSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore databaseDatastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver(
+                    (Settings.SETTING_MULTI_TENANCY_MODE): MultiTenancySettings.MultiTenancyMode.DATABASE,
+                    (Settings.SETTING_MULTI_TENANT_RESOLVER): new SystemPropertyTenantResolver()
+            ),
+            [ConnectionSource.DEFAULT, 'one', 'two', 'three', 'four'],
+            Squad
+    )
+
+    void "test the closure is executed for each tenant with its own session and a bounded concurrency"() {
+        given:
+        Map<Serializable, String> threads = new ConcurrentHashMap<>()
+        AtomicInteger running = new AtomicInteger()
+        AtomicInteger maxRunning = new AtomicInteger()
+
+        when:
+        Tenants.eachTenantParallel(databaseDatastore, 2) { String tenantId ->
+            int current = running.incrementAndGet()
+            maxRunning.accumulateAndGet(current, { int a, int b -> Math.max(a, b) } as IntBinaryOperator)
+            try {
+                threads.put(tenantId, Thread.currentThread().name)
+                new Squad(name: "Squad $tenantId").save(flush: true)
+                Thread.sleep(20)
+            } finally {
+                running.decrementAndGet()
+            }
+        }
+
+        then:"every tenant was executed once on a thread other than the caller"
+        threads.keySet() == ['one', 'two', 'three', 'four'] as Set
+        !threads.values().contains(Thread.currentThread().name)
+        maxRunning.get() <= 2
+
+        and:"the data was written to the datastore of each tenant"
+        ['one', 'two', 'three', 'four'].every { String tenantId ->
+            Tenants.withId(databaseDatastore, tenantId) { Squad.findAllByName("Squad $tenantId").size() } == 1
+        }
+    }
+
+    void "test the failures of the tenants are reported together"() {
+        given:
+        Set<Serializable> executed = ConcurrentHashMap.newKeySet()
+
+        when:
+        Tenants.eachTenantParallel(databaseDatastore, 3) { String tenantId ->
+            executed.add(tenantId)
+            if (tenantId in ['two', 'four']) {
+                throw new IllegalStateException("Failed for $tenantId")
+            }
+        }
+
+        then:
+        TenantExecutionException e = thrown()
+        e.failures.keySet() == ['two', 'four'] as Set
+        e.failures.values().every { it instanceof IllegalStateException }
+        e.cause instanceof IllegalStateException
+        e.suppressed.length == 1
+        executed == ['one', 'two', 'three', 'four'] as Set
+    }
+
+    void "test the maximum concurrency must be positive"() {
+        when:
+        Tenants.eachTenantParallel(databaseDatastore, 0) { }
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    void "test eachTenantParallel is exposed on the tenant service"() {
+        given:
+        Set<Serializable> executed = ConcurrentHashMap.newKeySet()
+        TenantService tenantService = databaseDatastore.getService(TenantService)
+
+        when:
+        tenantService.eachTenantParallel(4) { String tenantId ->
+            executed.add(tenantId)
+        }
+
+        then:
+        executed == ['one', 'two', 'three', 'four'] as Set
+    }
+
+    void "test eachTenantParallel with discriminator based multi-tenancy"() {
+        given:
+        SimpleMapDatastore datastore = new SimpleMapDatastore(
+                DatastoreUtils.createPropertyResolver(
+                        (Settings.SETTING_MULTI_TENANCY_MODE): MultiTenancySettings.MultiTenancyMode.DISCRIMINATOR,
+                        (Settings.SETTING_MULTI_TENANT_RESOLVER): new FixedTenantsResolver(tenantIds: ['red', 'blue', 'green'])
+                ),
+                Kit
+        )
+        for (String tenantId in ['red', 'blue', 'green']) {
+            Tenants.withId(datastore, tenantId) {
+                Kit.withNewSession {
+                    new Kit(colour: tenantId).save(flush: true)
+                }
+            }
+        }
+        Map<Serializable, List<String>> colours = new ConcurrentHashMap<>()
+
+        when:
+        Tenants.eachTenantParallel(datastore, 2) { String tenantId ->
+            colours.put(tenantId, Kit.list()*.colour)
+        }
+
+        then:
+        colours == [red: ['red'], blue: ['blue'], green: ['green']]
+
+        cleanup:
+        datastore?.close()
+    }
+}
+
+class FixedTenantsResolver implements AllTenantsResolver {
+    List<Serializable> tenantIds
+
+    @Override
+    Iterable<Serializable> resolveTenantIds() {
+        return tenantIds
+    }
+
+    @Override
+    Serializable resolveTenantIdentifier() throws TenantNotFoundException {
+        throw new TenantNotFoundException("No current tenant")
+    }
+}
+
+@Entity
+class Squad implements MultiTenant<Squad> {
+    String name
+}
+
+@Entity
+class Kit implements MultiTenant<Kit> {
+    String tenantId
+    String colour
+}
@@ -3,6 +3,7 @@ package grails.gorm.tests
 import grails.gorm.DetachedCriteria
 
 import org.grails.datastore.mapping.query.jpa.JpaQueryBuilder
+import org.grails.datastore.mapping.query.jpa.JpaQueryCache
 import org.springframework.dao.InvalidDataAccessResourceUsageException
 
 /**
@@ -220,4 +221,123 @@ class JpaQueryBuilderSpec extends GormDatastoreSpec{
         queryInfo.query == 'UPDATE grails.gorm.tests.Person person SET person.firstName=:p1'
         queryInfo.parameters == ["Fred"]
     }
+
+    void "Test cached select only extracts the parameters of a query with the same shape"() {
+        given:"A query cache"
+        JpaQueryCache cache = new JpaQueryCache()
+        def entity = session.mappingContext.getPersistentEntity(Person.name)
+        def select = { DetachedCriteria criteria ->
+            def builder = new JpaQueryBuilder(entity, criteria.criteria)
+            builder.queryCache = cache
+            builder.buildSelect()
+        }
+
+        when:"Queries that only differ in their values are built"
+        def first = select(new DetachedCriteria(Person).build {
+            or {
+                eq 'firstName', 'Bob'
+                between 'age', 10, 20
+            }
+            inList 'lastName', ['Simpson', 'Flanders']
+        })
+        def second = select(new DetachedCriteria(Person).build {
+            or {
+                eq 'firstName', 'Fred'
+                between 'age', 30, 40
+            }
+            inList 'lastName', ['Smith', 'Jones']
+        })
+
+        then:"The query is built once"
+        first.query == 'SELECT DISTINCT person FROM grails.gorm.tests.Person AS person WHERE ((person.firstName=:p1 OR (person.age >= :p2 AND person.age <= :p3)) AND person.lastName IN (:p4,:p5))'
+        second.query == first.query
+        first.parameters == ['Bob', 10, 20, 'Simpson', 'Flanders']
+        second.parameters == ['Fred', 30, 40, 'Smith', 'Jones']
+        cache.missCount == 1
+        cache.hitCount == 1
+
+        when:"A query with a different shape is built"
+        def third = select(new DetachedCriteria(Person).build {
+            or {
+                eq 'firstName', 'Fred'
+                between 'age', 30, 40
+            }
+            inList 'lastName', ['Smith']
+        })
+
+        then:"It is built and cached separately"
+        third.query.endsWith('person.lastName IN (:p4))')
+        third.parameters == ['Fred', 30, 40, 'Smith']
+        cache.missCount == 2
+        cache.size() == 2
+    }
+
+    void "Test cached update and delete"() {
+        given:"A query cache"
+        JpaQueryCache cache = new JpaQueryCache()
+        def entity = session.mappingContext.getPersistentEntity(Person.name)
+        def builder = { String name ->
+            def b = new JpaQueryBuilder(entity, new DetachedCriteria(Person).build { eq 'firstName', name }.criteria)
+            b.queryCache = cache
+            b
+        }
+
+        when:"Updates and deletes are built twice"
+        def update1 = builder('Bob').buildUpdate(firstName: 'Bob updated', age: 30)
+        def update2 = builder('Fred').buildUpdate(firstName: 'Fred updated', age: 40)
+        def delete1 = builder('Bob').buildDelete()
+        def delete2 = builder('Fred').buildDelete()
+
+        then:"Each statement is built once"
+        update2.query == update1.query
+        update2.query == 'UPDATE grails.gorm.tests.Person person SET person.age=:p1, person.firstName=:p2 WHERE (person.firstName=:p3)'
+        update2.parameters == [40, 'Fred updated', 'Fred']
+        delete2.query == delete1.query
+        delete2.query == 'DELETE grails.gorm.tests.Person person WHERE (person.firstName=:p1)'
+        delete2.parameters == ['Fred']
+        cache.missCount == 2
+        cache.hitCount == 2
+    }
+
+    void "Test the query cache evicts the least recently used query"() {
+        given:"A query cache with room for a single query"
+        JpaQueryCache cache = new JpaQueryCache(1)
+        def entity = session.mappingContext.getPersistentEntity(Person.name)
+        def select = { Closure criteria ->
+            def builder = new JpaQueryBuilder(entity, new DetachedCriteria(Person).build(criteria).criteria)
+            builder.queryCache = cache
+            builder.buildSelect()
+        }
+
+        when:"Queries of two shapes are built"
+        select { eq 'firstName', 'Bob' }
+        select { eq 'lastName', 'Simpson' }
+        select { eq 'firstName', 'Fred' }
+
+        then:"The first query was evicted"
+        cache.size() == 1
+        cache.evictionCount == 2
+        cache.missCount == 3
+        cache.hitRatio == 0d
+    }
+
+    void "Test queries with subqueries are not cached"() {
+        given:"A query with a subquery"
+        JpaQueryCache cache = new JpaQueryCache()
+        DetachedCriteria criteria = new DetachedCriteria(Person).build {
+            notIn("age", new DetachedCriteria(Person).build {
+                eq('lastName', 'Simpson')
+            }.distinct('age'))
+        }
+
+        when:"A jpa query is built"
+        def builder = new JpaQueryBuilder(session.mappingContext.getPersistentEntity(Person.name), criteria.criteria)
+        builder.queryCache = cache
+        def queryInfo = builder.buildSelect()
+
+        then:"The query is built but not cached"
+        queryInfo.parameters == ["Simpson"]
+        cache.size() == 0
+        cache.missCount == 0
+    }
 }
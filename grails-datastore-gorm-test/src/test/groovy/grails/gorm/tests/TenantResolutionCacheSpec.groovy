@@ -0,0 +1,187 @@
+package grails.gorm.tests
+
+import grails.gorm.MultiTenant
+import grails.gorm.annotation.Entity
+import grails.gorm.multitenancy.Tenants
+import org.grails.datastore.gorm.multitenancy.TenantResolutionCache
+import org.grails.datastore.gorm.support.AbstractDatastorePersistenceContextInterceptor
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
+import org.grails.datastore.mapping.multitenancy.TenantResolver
+import org.grails.datastore.mapping.multitenancy.exceptions.TenantNotFoundException
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class TenantResolutionCacheSpec extends Specification {
+
+    @Shared CountingTenantResolver tenantResolver = new CountingTenantResolver()
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver(
+                    (Settings.SETTING_MULTI_TENANCY_MODE): MultiTenancySettings.MultiTenancyMode.DISCRIMINATOR,
+                    (Settings.SETTING_MULTI_TENANT_RESOLVER): tenantResolver,
+                    (Settings.SETTING_MULTI_TENANCY_CACHE_TENANT_RESOLUTION): true
+            ),
+            Fixture
+    )
+
+    void setup() {
+        tenantResolver.tenantId = "home"
+        tenantResolver.resolutions = 0
+    }
+
+    void "test the tenant is resolved for every lookup outside of a unit of work"() {
+        when:
+        Fixture.withNewSession {
+            new Fixture(opponent: "Away").save(flush: true)
+            Fixture.count()
+            Fixture.findAllByOpponent("Away")
+        }
+
+        then:
+        tenantResolver.resolutions > 2
+    }
+
+    void "test the tenant is resolved once within a unit of work"() {
+        when:
+        int count = TenantResolutionCache.withCache {
+            Fixture.withNewSession {
+                new Fixture(opponent: "Rivals").save(flush: true)
+                Fixture.findAllByOpponent("Rivals")
+                Fixture.count()
+            }
+        }
+
+        then:
+        count > 0
+        tenantResolver.resolutions == 1
+        !TenantResolutionCache.isOpen()
+    }
+
+    void "test a bound tenant id takes precedence over the cached id"() {
+        when:
+        def ids = TenantResolutionCache.withCache {
+            [Tenants.currentId(datastore), Tenants.withId(datastore, "other") { Tenants.currentId(datastore) }, Tenants.currentId(datastore)]
+        }
+
+        then:
+        ids == ["home", "other", "home"]
+        tenantResolver.resolutions == 1
+    }
+
+    void "test clearing the cache resolves the tenant again"() {
+        when:
+        def ids = TenantResolutionCache.withCache {
+            def first = Tenants.currentId(datastore)
+            tenantResolver.tenantId = "away"
+            def cached = Tenants.currentId(datastore)
+            TenantResolutionCache.clear()
+            [first, cached, Tenants.currentId(datastore)]
+        }
+
+        then:
+        ids == ["home", "home", "away"]
+        tenantResolver.resolutions == 2
+    }
+
+    void "test a failure to resolve the tenant is not cached"() {
+        given:
+        tenantResolver.tenantId = null
+
+        when:
+        TenantResolutionCache.withCache {
+            try {
+                Tenants.currentId(datastore)
+            } catch (TenantNotFoundException ignored) {
+            }
+            tenantResolver.tenantId = "home"
+            Tenants.currentId(datastore)
+        }
+
+        then:
+        tenantResolver.resolutions == 2
+    }
+
+    void "test the persistence context interceptor scopes the cache to the unit of work"() {
+        given:
+        def interceptor = new AbstractDatastorePersistenceContextInterceptor(datastore) {}
+
+        when:
+        interceptor.init()
+        Tenants.currentId(datastore)
+        Tenants.currentId(datastore)
+        boolean open = TenantResolutionCache.isOpen()
+        interceptor.destroy()
+
+        then:
+        open
+        !TenantResolutionCache.isOpen()
+        tenantResolver.resolutions == 1
+    }
+
+    void "test the persistence context interceptor doesn't cache the tenant unless enabled"() {
+        given:
+        SimpleMapDatastore uncached = new SimpleMapDatastore(
+                DatastoreUtils.createPropertyResolver(
+                        (Settings.SETTING_MULTI_TENANCY_MODE): MultiTenancySettings.MultiTenancyMode.DISCRIMINATOR,
+                        (Settings.SETTING_MULTI_TENANT_RESOLVER): tenantResolver
+                ),
+                Fixture
+        )
+        def interceptor = new AbstractDatastorePersistenceContextInterceptor(uncached) {}
+
+        when:
+        interceptor.init()
+        Tenants.currentId(uncached)
+        Tenants.currentId(uncached)
+        boolean open = TenantResolutionCache.isOpen()
+        interceptor.destroy()
+
+        then:
+        !open
+        tenantResolver.resolutions == 2
+
+        cleanup:
+        uncached.close()
+    }
+
+    void "test the persistence context interceptor doesn't open the cache if the session can't be opened"() {
+        given:
+        def interceptor = new AbstractDatastorePersistenceContextInterceptor(datastore) {
+            @Override
+            protected Session getSession() {
+                throw new IllegalStateException("No session")
+            }
+        }
+
+        when:
+        interceptor.init()
+
+        then:
+        thrown(IllegalStateException)
+        !TenantResolutionCache.isOpen()
+    }
+}
+
+class CountingTenantResolver implements TenantResolver {
+    Serializable tenantId
+    int resolutions
+
+    @Override
+    Serializable resolveTenantIdentifier() throws TenantNotFoundException {
+        resolutions++
+        if (tenantId == null) {
+            throw new TenantNotFoundException("No tenant")
+        }
+        return tenantId
+    }
+}
+
+@Entity
+class Fixture implements MultiTenant<Fixture> {
+    String tenantId
+    String opponent
+}
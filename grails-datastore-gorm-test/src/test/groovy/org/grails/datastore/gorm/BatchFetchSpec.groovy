@@ -0,0 +1,111 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.core.SessionImplementor
+import org.grails.datastore.mapping.proxy.EntityProxy
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class BatchFetchSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(BatchAuthor, BatchBook, BatchReview, BatchCritic)
+
+    void setupSpec() {
+        BatchAuthor.withNewSession {
+            (1..5).each { int i ->
+                BatchAuthor author = new BatchAuthor(name: "Author $i")
+                (1..2).each { int j -> author.addToBooks(title: "Book $i.$j") }
+                author.save(flush: true)
+
+                new BatchReview(text: "Review $i", critic: new BatchCritic(name: "Critic $i").save()).save(flush: true)
+            }
+        }
+    }
+
+    void "test touching a lazy collection initializes the collections of other loaded instances in one batch"() {
+        when:"the books of one author are accessed"
+        List<Boolean> initialized
+        List<Integer> sizes
+        BatchAuthor.withNewSession {
+            List<BatchAuthor> authors = BatchAuthor.list()
+            assert authors.every { !it.books.isInitialized() }
+            authors[0].books.size()
+            initialized = authors.collect { it.books.isInitialized() }
+            sizes = authors.collect { it.books.size() }
+        }
+
+        then:"the books of up to batch size authors are initialized"
+        initialized.count { it } == 3
+        initialized[0]
+
+        and:"every collection holds its own elements"
+        sizes == [2, 2, 2, 2, 2]
+    }
+
+    void "test the collections of an evicted instance are no longer initialized in a batch"() {
+        when:"an author is evicted before the books of another author are accessed"
+        List<Boolean> initialized
+        BatchAuthor.withNewSession { Session session ->
+            List<BatchAuthor> authors = BatchAuthor.list()
+            session.clear(authors[1])
+            authors[0].books.size()
+            initialized = authors.collect { it.books.isInitialized() }
+        }
+
+        then:"the batch skips the collection of the evicted author"
+        initialized == [true, false, true, true, false]
+    }
+
+    void "test initializing a proxy retrieves the instances of other proxies of the association in one batch"() {
+        when:"the critic of one review is accessed"
+        int cached
+        String name
+        BatchReview.withNewSession { Session session ->
+            List<BatchReview> reviews = BatchReview.list()
+            assert reviews.every { it.critic instanceof EntityProxy && !((EntityProxy) it.critic).isInitialized() }
+            name = reviews[0].critic.name
+            cached = reviews.count { ((SessionImplementor) session).getCachedInstance(BatchCritic, it.criticId) != null }
+        }
+
+        then:"up to batch size critics are retrieved"
+        name.startsWith('Critic')
+        cached == 3
+    }
+}
+
+@Entity
+class BatchAuthor {
+    String name
+    Set<BatchBook> books
+
+    static hasMany = [books: BatchBook]
+
+    static mapping = {
+        books batchSize: 3
+    }
+}
+
+@Entity
+class BatchBook {
+    String title
+
+    static belongsTo = [author: BatchAuthor]
+}
+
+@Entity
+class BatchReview {
+    String text
+    BatchCritic critic
+
+    static mapping = {
+        critic batchSize: 3
+    }
+}
+
+@Entity
+class BatchCritic {
+    String name
+}
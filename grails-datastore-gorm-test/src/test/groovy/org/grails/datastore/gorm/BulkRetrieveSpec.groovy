@@ -0,0 +1,123 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.engine.Persister
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.simple.SimpleMapSession
+import org.grails.datastore.mapping.simple.engine.SimpleMapEntityPersister
+import org.springframework.context.ApplicationEventPublisher
+import org.springframework.core.env.PropertyResolver
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class BulkRetrieveSpec extends Specification {
+
+    @Shared @AutoCleanup CountingSimpleMapDatastore datastore = new CountingSimpleMapDatastore(BulkAuthor, BulkBook)
+
+    void "test getAll returns the instances in the order of the ids"() {
+        given:
+        List<Long> ids = BulkBook.withNewSession {
+            List<Long> saved = (1..5).collect { new BulkBook(title: "Book $it").save().id }
+            BulkBook.withSession { it.flush() }
+            saved
+        }
+        datastore.retrieveEntryCount.set(0)
+        datastore.retrieveEntriesCount.set(0)
+
+        when:"some ids are requested twice and one doesn't exist"
+        List<BulkBook> books = BulkBook.withNewSession {
+            BulkBook.getAll([ids[3], ids[0], 999L, ids[3], ids[1]])
+        }
+
+        then:
+        books*.title == ['Book 4', 'Book 1', null, 'Book 4', 'Book 2']
+        books[0].is(books[3])
+
+        and:"the entries are read with a single bulk call"
+        datastore.retrieveEntriesCount.get() == 1
+        datastore.retrieveEntryCount.get() == 0
+    }
+
+    void "test to-many associations are loaded in bulk"() {
+        given:
+        Long authorId = BulkAuthor.withNewSession {
+            BulkAuthor author = new BulkAuthor(name: "Stephen")
+            (1..3).each { author.addToBooks(new BulkBook(title: "Novel $it")) }
+            author.save(flush: true).id
+        }
+
+        expect:
+        BulkAuthor.withNewSession {
+            BulkAuthor.get(authorId).books*.title.sort()
+        } == ['Novel 1', 'Novel 2', 'Novel 3']
+    }
+}
+
+@Entity
+class BulkAuthor {
+    String name
+    static hasMany = [books: BulkBook]
+}
+
+@Entity
+class BulkBook {
+    String title
+}
+
+class CountingSimpleMapDatastore extends SimpleMapDatastore {
+    final AtomicInteger retrieveEntryCount = new AtomicInteger()
+    final AtomicInteger retrieveEntriesCount = new AtomicInteger()
+
+    CountingSimpleMapDatastore(Class... classes) {
+        super(classes)
+    }
+
+    @Override
+    protected Session createSession(PropertyResolver connectionDetails) {
+        new CountingSimpleMapSession(this)
+    }
+}
+
+class CountingSimpleMapSession extends SimpleMapSession {
+
+    CountingSimpleMapSession(CountingSimpleMapDatastore datastore) {
+        super(datastore, datastore.mappingContext, datastore.applicationEventPublisher)
+    }
+
+    @Override
+    protected Persister createPersister(Class cls, MappingContext mappingContext) {
+        PersistentEntity entity = mappingContext.getPersistentEntity(cls.name)
+        if (entity == null) {
+            return null
+        }
+        new CountingSimpleMapEntityPersister(mappingContext, entity, this, (CountingSimpleMapDatastore) getDatastore(), publisher)
+    }
+}
+
+class CountingSimpleMapEntityPersister extends SimpleMapEntityPersister {
+    private final CountingSimpleMapDatastore countingDatastore
+
+    CountingSimpleMapEntityPersister(MappingContext context, PersistentEntity entity, Session session,
+                                     CountingSimpleMapDatastore datastore, ApplicationEventPublisher publisher) {
+        super(context, entity, session, datastore, publisher)
+        this.countingDatastore = datastore
+    }
+
+    @Override
+    protected Map retrieveEntry(PersistentEntity persistentEntity, String family, Serializable key) {
+        countingDatastore.retrieveEntryCount.incrementAndGet()
+        super.retrieveEntry(persistentEntity, family, key)
+    }
+
+    @Override
+    protected Map<Serializable, Map> retrieveEntries(PersistentEntity persistentEntity, String family, List<Serializable> keys) {
+        countingDatastore.retrieveEntriesCount.incrementAndGet()
+        super.retrieveEntries(persistentEntity, family, keys)
+    }
+}
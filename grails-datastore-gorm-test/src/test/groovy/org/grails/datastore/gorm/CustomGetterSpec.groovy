@@ -0,0 +1,37 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class CustomGetterSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(NormalizedTag)
+
+    void setup() {
+        datastore.clearData()
+    }
+
+    void "test values are persisted through getters written by hand"() {
+        when:
+        Long id = NormalizedTag.withNewSession {
+            new NormalizedTag(name: "GORM", label: "Data").save(flush: true).id
+        }
+
+        then:
+        datastore.backingMap.values().find { it.containsKey(id) }.get(id).name == 'gorm'
+        NormalizedTag.withNewSession { NormalizedTag.findByName('gorm')?.label } == 'Data'
+    }
+}
+
+@Entity
+class NormalizedTag {
+    String name
+    String label
+
+    String getName() {
+        name?.toLowerCase()
+    }
+}
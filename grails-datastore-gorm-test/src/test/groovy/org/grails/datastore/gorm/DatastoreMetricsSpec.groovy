@@ -0,0 +1,141 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.metrics.DatastoreMetrics
+import org.grails.datastore.mapping.query.Query
+import org.grails.datastore.mapping.query.Restrictions
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class DatastoreMetricsSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(MeteredAuthor, MeteredBook)
+    @Shared DatastoreMetrics metrics = new DatastoreMetrics()
+
+    void setupSpec() {
+        datastore.instrumentation = metrics
+        MeteredAuthor.withNewSession {
+            (1..3).each { int i ->
+                MeteredAuthor author = new MeteredAuthor(name: "Author $i")
+                (1..2).each { int j -> author.addToBooks(title: "Book $i.$j") }
+                author.save(flush: true)
+            }
+        }
+    }
+
+    void setup() {
+        metrics.clear()
+    }
+
+    void "test query latency and rows are recorded by entity and criteria shape"() {
+        when:
+        MeteredBook.withNewSession {
+            MeteredBook.findAllByTitleLike('Book 1%')
+            MeteredBook.findAllByTitleLike('Book 2%')
+        }
+        DatastoreMetrics.Timer timer = metrics.timer(DatastoreMetrics.QUERY, 'entity', MeteredBook.name, 'criteria', 'and(Like(title))')
+
+        then:
+        timer.count() == 2
+        timer.totalTime(TimeUnit.NANOSECONDS) > 0
+        metrics.counter(DatastoreMetrics.QUERY_ROWS, 'entity', MeteredBook.name, 'criteria', 'and(Like(title))').count() == 4
+    }
+
+    void "test flushes are timed and their operations counted by type"() {
+        when:
+        MeteredAuthor.withNewSession {
+            new MeteredAuthor(name: "Inserted").save()
+            MeteredAuthor author = MeteredAuthor.findByName("Author 1")
+            author.name = "Author One"
+            author.save()
+            MeteredAuthor.withSession { it.flush() }
+        }
+
+        then:
+        metrics.timer(DatastoreMetrics.FLUSH).count() >= 1
+        metrics.counter(DatastoreMetrics.FLUSH_OPERATIONS, 'type', 'insert').count() == 1
+        metrics.counter(DatastoreMetrics.FLUSH_OPERATIONS, 'type', 'update').count() == 1
+
+        cleanup:
+        MeteredAuthor.withNewSession {
+            MeteredAuthor.findByName("Inserted").delete()
+            MeteredAuthor author = MeteredAuthor.findByName("Author One")
+            author.name = "Author 1"
+            author.save(flush: true)
+        }
+    }
+
+    void "test the first level cache hit ratio and session lifetime are recorded"() {
+        given:
+        Serializable id = MeteredAuthor.withNewSession { MeteredAuthor.findByName("Author 1").id }
+        metrics.clear()
+
+        when:
+        MeteredAuthor.withNewSession {
+            MeteredAuthor.get(id)
+            MeteredAuthor.get(id)
+        }
+
+        then:
+        metrics.firstLevelCacheHitRatio == 0.5d
+        metrics.timer(DatastoreMetrics.RETRIEVE, 'entity', MeteredAuthor.name).count() == 1
+        metrics.timer(DatastoreMetrics.SESSION).count() == 1
+    }
+
+    void "test the session lifetime is recorded once when the session is disconnected twice"() {
+        when:
+        Session session = datastore.connect()
+        session.disconnect()
+        session.disconnect()
+
+        then:
+        metrics.timer(DatastoreMetrics.SESSION).count() == 1
+    }
+
+    void "test lazy loading is counted and an N+1 select problem is detected"() {
+        given:
+        metrics.setNPlusOneThreshold(3)
+
+        when:"the books of every author are loaded one by one"
+        MeteredAuthor.withNewSession {
+            MeteredAuthor.list().each { it.books.size() }
+        }
+
+        then:
+        metrics.counter(DatastoreMetrics.LAZY_COLLECTION, 'type', MeteredBook.name).count() == 3
+        metrics.counter(DatastoreMetrics.N_PLUS_ONE, 'type', MeteredBook.name).count() == 1
+
+        cleanup:
+        metrics.setNPlusOneThreshold(DatastoreMetrics.DEFAULT_N_PLUS_ONE_THRESHOLD)
+    }
+
+    void "test the criteria shape doesn't contain values"() {
+        given:
+        Query.Junction criteria = new Query.Conjunction()
+                .add(new Query.Disjunction().add(Restrictions.eq('title', 'A')).add(Restrictions.eq('title', 'B')))
+                .add(Restrictions.gt('pages', 10))
+
+        expect:
+        DatastoreMetrics.criteriaShape(criteria) == 'and(or(Equals(title),Equals(title)),GreaterThan(pages))'
+    }
+}
+
+@Entity
+class MeteredAuthor {
+    String name
+    Set<MeteredBook> books
+
+    static hasMany = [books: MeteredBook]
+}
+
+@Entity
+class MeteredBook {
+    String title
+
+    static belongsTo = [author: MeteredAuthor]
+}
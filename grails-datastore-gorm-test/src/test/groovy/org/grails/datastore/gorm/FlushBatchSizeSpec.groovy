@@ -0,0 +1,143 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.gorm.events.DefaultApplicationEventPublisher
+import org.grails.datastore.mapping.cache.TPCacheAdapterRepository
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.core.impl.PendingInsert
+import org.grails.datastore.mapping.engine.Persister
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.simple.SimpleMapSession
+import org.grails.datastore.mapping.simple.engine.SimpleMapEntityPersister
+import org.springframework.context.ApplicationEventPublisher
+import org.springframework.core.env.PropertyResolver
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class FlushBatchSizeSpec extends Specification {
+
+    @Shared @AutoCleanup RecordingSimpleMapDatastore datastore = new RecordingSimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver((Settings.SETTING_FLUSH_BATCH_SIZE): 2),
+            BatchedBook
+    )
+
+    void "test the flush batch size is configured on the session"() {
+        expect:
+        ((AbstractSession) datastore.connect()).flushBatchSize == 2
+    }
+
+    void "test pending inserts and updates are flushed in batches"() {
+        when:"more inserts than the batch size are flushed"
+        BatchedBook.withNewSession {
+            (1..5).each { new BatchedBook(title: "Book $it").save() }
+            BatchedBook.withSession { it.flush() }
+        }
+
+        then:"every insert is executed"
+        BatchedBook.withNewSession { BatchedBook.count() } == 5
+
+        when:"the instances are updated"
+        BatchedBook.withNewSession {
+            BatchedBook.list().each { it.title = it.title.toUpperCase(); it.save() }
+            BatchedBook.withSession { it.flush() }
+        }
+
+        then:"every update is executed"
+        BatchedBook.withNewSession { BatchedBook.findAllByTitleLike('BOOK%').size() } == 5
+    }
+
+    void "test inserts are stored in batches no larger than the batch size"() {
+        given:
+        BatchedBook.withNewSession { BatchedBook.list()*.delete(flush: true) }
+        datastore.storedBatchSizes.clear()
+
+        when:
+        BatchedBook.withNewSession {
+            (1..5).each { new BatchedBook(title: "Book $it").save() }
+            BatchedBook.withSession { it.flush() }
+        }
+
+        then:"the last insert is executed on its own"
+        datastore.storedBatchSizes == [2, 2]
+        BatchedBook.withNewSession { BatchedBook.count() } == 5
+    }
+
+    void "test a cancelled insert in a batch is vetoed"() {
+        given:
+        BatchedBook.withNewSession { BatchedBook.list()*.delete(flush: true) }
+
+        when:
+        BatchedBook.withNewSession {
+            new BatchedBook(title: "Kept").save()
+            new BatchedBook(title: "Vetoed").save()
+            new BatchedBook(title: "Also Kept").save()
+            BatchedBook.withSession { it.flush() }
+        }
+
+        then:
+        BatchedBook.withNewSession { BatchedBook.findByTitle("Vetoed") } == null
+        BatchedBook.withNewSession { BatchedBook.findByTitle("Also Kept") } != null
+    }
+}
+
+class RecordingSimpleMapDatastore extends SimpleMapDatastore {
+
+    final List<Integer> storedBatchSizes = []
+
+    RecordingSimpleMapDatastore(PropertyResolver configuration, Class... classes) {
+        super(configuration, new DefaultApplicationEventPublisher(), classes)
+    }
+
+    @Override
+    protected Session createSession(PropertyResolver connectionDetails) {
+        SimpleMapSession session = new RecordingSimpleMapSession(this)
+        session.setFlushBatchSize(flushBatchSize)
+        return session
+    }
+}
+
+class RecordingSimpleMapSession extends SimpleMapSession {
+
+    RecordingSimpleMapSession(RecordingSimpleMapDatastore datastore) {
+        super(datastore, datastore.mappingContext, datastore.applicationEventPublisher)
+    }
+
+    @Override
+    protected Persister createPersister(Class cls, MappingContext mappingContext) {
+        PersistentEntity entity = mappingContext.getPersistentEntity(cls.name)
+        if (entity == null) {
+            return null
+        }
+        return new RecordingSimpleMapEntityPersister(mappingContext, entity, this, (RecordingSimpleMapDatastore) getDatastore(), publisher, cacheAdapterRepository)
+    }
+}
+
+class RecordingSimpleMapEntityPersister extends SimpleMapEntityPersister {
+
+    RecordingSimpleMapEntityPersister(MappingContext context, PersistentEntity entity, Session session,
+                                      RecordingSimpleMapDatastore datastore, ApplicationEventPublisher publisher,
+                                      TPCacheAdapterRepository<Map> cacheAdapterRepository) {
+        super(context, entity, session, datastore, publisher, cacheAdapterRepository)
+    }
+
+    @Override
+    protected List<Object> storeEntries(PersistentEntity persistentEntity, List<PendingInsert<Map, Object>> inserts) {
+        ((RecordingSimpleMapDatastore) session.datastore).storedBatchSizes << inserts.size()
+        return super.storeEntries(persistentEntity, inserts)
+    }
+}
+
+@Entity
+class BatchedBook {
+    String title
+
+    def beforeInsert() {
+        title != "Vetoed"
+    }
+}
@@ -0,0 +1,162 @@
+package org.grails.datastore.gorm
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class IndexedQuerySpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(IndexedScore, IndexedCode)
+
+    void setup() {
+        datastore.clearData()
+    }
+
+    void "test range queries use the sorted index and see updates and deletes"() {
+        given:
+        IndexedScore.withNewSession {
+            (1..20).each { new IndexedScore(player: "p${it % 4}", points: it).save() }
+            IndexedScore.withSession { it.flush() }
+        }
+
+        expect:
+        IndexedScore.withNewSession { IndexedScore.findAllByPointsGreaterThan(17)*.points } == [18, 19, 20]
+        IndexedScore.withNewSession { IndexedScore.findAllByPointsGreaterThanEquals(19)*.points } == [19, 20]
+        IndexedScore.withNewSession { IndexedScore.findAllByPointsBetween(5, 7)*.points } == [5, 6, 7]
+
+        when:"an entry is updated and another is deleted"
+        IndexedScore.withNewSession {
+            IndexedScore first = IndexedScore.findByPoints(1)
+            first.points = 100
+            first.save()
+            IndexedScore.findByPoints(20).delete()
+            IndexedScore.withSession { it.flush() }
+        }
+
+        then:
+        IndexedScore.withNewSession { IndexedScore.findAllByPointsGreaterThan(17)*.points } == [100, 18, 19]
+        IndexedScore.withNewSession { IndexedScore.countByPointsLessThan(5) } == 3
+    }
+
+    void "test upper bounded range queries use the sorted index and match null values"() {
+        given:
+        IndexedScore.withNewSession {
+            new IndexedScore(player: "none").save()
+            (1..20).each { new IndexedScore(player: "p${it % 4}", points: it).save() }
+            IndexedScore.withSession { it.flush() }
+        }
+
+        expect:
+        IndexedScore.withNewSession { IndexedScore.findAllByPointsLessThan(3)*.points } == [null, 1, 2]
+        IndexedScore.withNewSession { IndexedScore.findAllByPointsLessThanEquals(3)*.points } == [null, 1, 2, 3]
+        IndexedScore.withNewSession { IndexedScore.findAllByPlayerAndPointsLessThanEquals('p2', 10)*.points } == [2, 6, 10]
+
+        when:"an entry is updated below the bound"
+        IndexedScore.withNewSession {
+            IndexedScore last = IndexedScore.findByPoints(20)
+            last.points = 0
+            last.save()
+            IndexedScore.withSession { it.flush() }
+        }
+
+        then:
+        IndexedScore.withNewSession { IndexedScore.findAllByPointsLessThan(2)*.points } == [null, 1, 0]
+    }
+
+    void "test conjunctions only scan the candidates of indexed criteria"() {
+        given:
+        IndexedScore.withNewSession {
+            (1..20).each { new IndexedScore(player: "p${it % 4}", points: it).save() }
+            IndexedScore.withSession { it.flush() }
+        }
+
+        expect:
+        IndexedScore.withNewSession {
+            IndexedScore.findAllByPlayerAndPointsLessThan('p1', 10)*.points
+        } == [1, 5, 9]
+        IndexedScore.withNewSession {
+            IndexedScore.findAllByPlayerInListAndPlayerLike(['p1', 'p2'], '%2')*.points
+        } == [2, 6, 10, 14, 18]
+        IndexedScore.withNewSession {
+            IndexedScore.findAllByPlayerAndPointsGreaterThan('unknown', 0)
+        } == []
+    }
+
+    void "test ordered queries with max and offset"() {
+        given:
+        IndexedScore.withNewSession {
+            [7, 3, 9, 1, 5, 3].each { new IndexedScore(player: "p$it", points: it).save() }
+            IndexedScore.withSession { it.flush() }
+        }
+
+        expect:
+        IndexedScore.withNewSession { IndexedScore.list(sort: 'points', order: 'desc', max: 2)*.points } == [9, 7]
+        IndexedScore.withNewSession { IndexedScore.list(sort: 'points', max: 3, offset: 1)*.points } == [3, 3, 5]
+        IndexedScore.withNewSession { IndexedScore.list(sort: 'points')*.points } == [1, 3, 3, 5, 7, 9]
+        IndexedScore.withNewSession { IndexedScore.list(max: 2)*.points } == [7, 3]
+    }
+
+    void "test range queries answered from the index keep the order of a scan for assigned ids"() {
+        given:
+        IndexedCode.withNewSession {
+            [['item-10', 10], ['item-9', 9], ['item-2', 8], ['a', 1], ['b', 1], ['c', 1], ['d', 1], ['e', 1]].each { List pair ->
+                new IndexedCode(code: pair[0], rank: pair[1]).save()
+            }
+            IndexedCode.withSession { it.flush() }
+        }
+
+        expect:
+        IndexedCode.withNewSession { IndexedCode.findAllByRankGreaterThan(5)*.code } == ['item-10', 'item-9', 'item-2']
+        IndexedCode.withNewSession { IndexedCode.findAllByRankGreaterThanEquals(1)*.code } == ['item-10', 'item-9', 'item-2', 'a', 'b', 'c', 'd', 'e']
+        IndexedCode.withNewSession { IndexedCode.findAllByRankLessThan(9)*.code } == ['item-2', 'a', 'b', 'c', 'd', 'e']
+        IndexedCode.withNewSession { IndexedCode.findAllByRankLessThanEquals(1)*.code } == ['a', 'b', 'c', 'd', 'e']
+    }
+
+    void "test identifiers are unique when sessions save concurrently"() {
+        given:
+        ExecutorService executor = Executors.newFixedThreadPool(4)
+
+        when:
+        List<Callable<List<Long>>> tasks = (1..4).collect { int thread ->
+            ({ ->
+                IndexedScore.withNewSession {
+                    (1..25).collect { new IndexedScore(player: "t$thread", points: it).save().id }
+                }
+            } as Callable<List<Long>>)
+        }
+        List<Long> ids = executor.invokeAll(tasks).collectMany { it.get() }
+
+        then:
+        ids.size() == 100
+        ids.unique(false).size() == 100
+
+        cleanup:
+        executor.shutdown()
+    }
+}
+
+@Entity
+class IndexedScore {
+    String player
+    Integer points
+
+    static constraints = {
+        points nullable: true
+    }
+}
+
+@Entity
+class IndexedCode {
+    String code
+    Integer rank
+
+    static mapping = {
+        id name: 'code', generator: 'assigned'
+    }
+}
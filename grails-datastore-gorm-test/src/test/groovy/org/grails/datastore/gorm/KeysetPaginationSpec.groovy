@@ -0,0 +1,161 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.DetachedCriteria
+import grails.gorm.PagedResultList
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.query.Query
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.simple.SimpleMapSession
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
+
+class KeysetPaginationSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(Ticket)
+    @Shared List<Long> ids
+
+    void setupSpec() {
+        Ticket.withNewSession {
+            ids = (1..10).collect { int i ->
+                new Ticket(name: "Ticket $i", priority: i % 3).save(flush: true).id
+            }
+        }
+    }
+
+    void "test a page after the last sort value of the previous page"() {
+        when:
+        int totalCount
+        List<Long> pageIds = Ticket.withNewSession {
+            PagedResultList page = (PagedResultList) Ticket.list(sort: 'id', max: 3, after: [ids[2]])
+            totalCount = page.totalCount
+            page*.id
+        }
+
+        then:"the page continues after the given identifier"
+        pageIds == ids[3..5]
+
+        and:"the total count is not restricted by the seek criterion"
+        totalCount == 10
+    }
+
+    void "test paging through the results after the values of several sort orders"() {
+        given:
+        DetachedCriteria<Ticket> criteria = new DetachedCriteria<>(Ticket).sort('priority', 'desc').sort('id', 'asc')
+
+        when:"every page is fetched after the last result of the previous one"
+        List<Long> paged = []
+        List<Long> all = Ticket.withNewSession {
+            List<Ticket> page = criteria.list(max: 4)
+            while (page) {
+                paged.addAll(page*.id)
+                Ticket last = page.last()
+                page = criteria.after(last.priority, last.id).list(max: 4)
+            }
+            criteria.list()*.id
+        }
+
+        then:"the pages hold every result once in order"
+        paged == all
+        paged.size() == 10
+    }
+
+    void "test keyset pagination requires an order for each value"() {
+        when:
+        Ticket.withNewSession {
+            Ticket.list(max: 3, after: [1])
+        }
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    void "test sorting by text continues after the value ignoring case like the sort does by default"() {
+        when:
+        List<String> names = Ticket.withNewSession {
+            Ticket.list(sort: 'name', max: 2, after: ['TICKET 3'])*.name
+        }
+
+        then:"the value is compared in lower case"
+        names == ['Ticket 4', 'Ticket 5']
+
+        when:"case is not ignored"
+        names = Ticket.withNewSession {
+            Ticket.list(sort: 'name', ignoreCase: false, max: 2, after: ['TICKET 3'])*.name
+        }
+
+        then:"the value is compared as it is"
+        names == ['Ticket 1', 'Ticket 10']
+    }
+
+    void "test keyset pagination fails fast for queries that don't support it"() {
+        when:
+        Ticket.withNewSession { SimpleMapSession session ->
+            Query query = new Query(session, session.mappingContext.getPersistentEntity(Ticket.name)) {
+                @Override
+                protected List executeQuery(PersistentEntity entity, Query.Junction criteria) {
+                    []
+                }
+            }
+            query.after(1L)
+        }
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    void "test the total count is computed concurrently with the page"() {
+        when:
+        PagedResultList results = (PagedResultList) Ticket.withNewSession {
+            Ticket.list(max: 2, concurrentCount: true)
+        }
+
+        then:
+        results.size() == 2
+        results.totalCount == 10
+    }
+
+    void "test the total count is computed by the count executor unless the page query flushes changes"() {
+        given:
+        AtomicInteger executed = new AtomicInteger()
+        PagedResultList.countExecutor = { Runnable task ->
+            executed.incrementAndGet()
+            task.run()
+        } as Executor
+
+        when:
+        int totalCount = Ticket.withNewSession {
+            ((PagedResultList) Ticket.list(max: 2, concurrentCount: true)).totalCount
+        }
+
+        then:
+        totalCount == 10
+        executed.get() == 1
+
+        when:"the session has changes that aren't flushed yet"
+        totalCount = Ticket.withNewSession {
+            new Ticket(name: "Ticket 11", priority: 0).save()
+            ((PagedResultList) Ticket.list(max: 2, concurrentCount: true)).totalCount
+        }
+
+        then:"the count is queried after the page query flushed them"
+        totalCount == 11
+        executed.get() == 1
+
+        cleanup:
+        PagedResultList.countExecutor = null
+        Ticket.withNewSession {
+            Ticket.findByName("Ticket 11")?.delete(flush: true)
+        }
+    }
+}
+
+@Entity
+class Ticket {
+    String name
+    int priority
+}
@@ -0,0 +1,105 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.MultiTenant
+import grails.gorm.annotation.Entity
+import grails.gorm.multitenancy.Tenants
+import org.grails.datastore.gorm.events.DefaultApplicationEventPublisher
+import org.grails.datastore.gorm.finders.DynamicFinderInvocation
+import org.grails.datastore.gorm.finders.FindAllByFinder
+import org.grails.datastore.gorm.finders.MethodExpression
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
+import org.grails.datastore.mapping.multitenancy.resolvers.SystemPropertyTenantResolver
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class MultiTenantDynamicFinderSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver(
+                    [(Settings.SETTING_MULTI_TENANCY_MODE): MultiTenancySettings.MultiTenancyMode.DISCRIMINATOR,
+                     (Settings.SETTING_MULTI_TENANT_RESOLVER): new SystemPropertyTenantResolver()]),
+            new DefaultApplicationEventPublisher(),
+            TenantRecord
+    )
+
+    void setupSpec() {
+        ['acme', 'globex'].each { String tenant ->
+            Tenants.withId(tenant) {
+                TenantRecord.withNewSession {
+                    new TenantRecord(name: "Shared", rank: 1).save()
+                    new TenantRecord(name: "Shared", rank: 2).save()
+                    new TenantRecord(name: "Only $tenant", rank: 1).save(flush: true)
+                }
+            }
+        }
+    }
+
+    void cleanupSpec() {
+        System.clearProperty(SystemPropertyTenantResolver.PROPERTY_NAME)
+    }
+
+    void "test dynamic finders resolve the tenant on every invocation"() {
+        when:"the same finders are invoked alternately for different tenants"
+        List<String> results = []
+        3.times {
+            ['acme', 'globex'].each { String tenant ->
+                Tenants.withId(tenant) {
+                    TenantRecord.withNewSession {
+                        results << "$tenant:${TenantRecord.countByNameAndRank('Shared', 1)}:${TenantRecord.findAllByNameLike('Only%')*.name.join(',')}".toString()
+                    }
+                }
+            }
+        }
+
+        then:
+        results == ['acme:1:Only acme', 'globex:1:Only globex'] * 3
+    }
+
+    void "test invocations of a finder method don't share state"() {
+        given:
+        FindAllByFinder finder = new FindAllByFinder(datastore)
+
+        when:
+        DynamicFinderInvocation first = finder.createFinderInvocation(TenantRecord, 'findAllByNameAndRankNotEqual', null, ['Shared', 1] as Object[])
+        DynamicFinderInvocation second = finder.createFinderInvocation(TenantRecord, 'findAllByNameAndRankNotEqual', null, ['Other', 2, [max: 1]] as Object[])
+
+        then:
+        first.operator == 'And'
+        first.expressions*.propertyName == ['name', 'rank']
+        first.expressions*.arguments.flatten() == ['Shared', 1]
+        second.expressions*.arguments.flatten() == ['Other', 2]
+        second.arguments == [[max: 1]] as Object[]
+        !first.expressions[0].is(second.expressions[0])
+    }
+
+    void "test a finder that overrides findMethodExpression creates the expressions of cached plans"() {
+        given:
+        List<String> clauses = []
+        FindAllByFinder finder = new FindAllByFinder(datastore) {
+            @Override
+            protected MethodExpression findMethodExpression(Class clazz, String expression) {
+                clauses << expression
+                return super.findMethodExpression(clazz, expression)
+            }
+        }
+
+        when:
+        2.times {
+            finder.createFinderInvocation(TenantRecord, 'findAllByNameAndRankNotEqual', null, ['Shared', 1] as Object[])
+        }
+
+        then:
+        clauses == ['Name', 'RankNotEqual'] * 2
+    }
+}
+
+@Entity
+class TenantRecord implements MultiTenant<TenantRecord> {
+    String tenantId
+    String name
+    Integer rank
+}
@@ -0,0 +1,158 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.gorm.events.DefaultApplicationEventPublisher
+import org.grails.datastore.mapping.cache.TPCacheAdapterRepository
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.engine.EntityAccess
+import org.grails.datastore.mapping.engine.Persister
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.simple.engine.SimpleMapEntityPersister
+import org.grails.datastore.mapping.transactions.SessionOnlyTransaction
+import org.grails.datastore.mapping.transactions.Transaction
+import org.springframework.context.ApplicationEventPublisher
+import org.springframework.core.env.PropertyResolver
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class PendingObjectRegistrySpec extends Specification {
+
+    @Shared @AutoCleanup PendingRegistryDatastore datastore = new PendingRegistryDatastore(
+            DatastoreUtils.createPropertyResolver(null),
+            PendingNode, PendingLeaf, PendingTag
+    )
+
+    void setup() {
+        datastore.storedEntities.clear()
+    }
+
+    void "test an entity reached through two cascade paths is inserted once"() {
+        when:"a node references the same transient leaf from two associations"
+        PendingNode node = PendingNode.withNewSession { AbstractSession session ->
+            PendingLeaf leaf = new PendingLeaf(name: "Shared")
+            PendingNode n = new PendingNode(name: "Node", first: leaf, second: leaf)
+            n.save()
+            assert session.isPendingAlready(leaf)
+            session.flush()
+            n
+        }
+
+        then:"the leaf is queued and stored only once"
+        datastore.storedEntities.count { it == PendingLeaf } == 1
+        datastore.storedEntities.count { it == PendingNode } == 1
+        node.first.id != null
+        node.first.id == node.second.id
+    }
+
+    void "test distinct transient instances that are equal are both inserted"() {
+        when:"two different instances that compare equal are saved"
+        List<PendingTag> tags = PendingTag.withNewSession { AbstractSession session ->
+            PendingTag first = new PendingTag(name: "groovy")
+            PendingTag second = new PendingTag(name: "groovy")
+            assert first == second && !first.is(second)
+            first.save()
+            boolean secondPending = session.isPendingAlready(second)
+            second.save()
+            assert !secondPending
+            session.flush()
+            [first, second]
+        }
+
+        then:"each instance is inserted with its own identifier"
+        datastore.storedEntities.count { it == PendingTag } == 2
+        tags*.id.every { it != null }
+        tags[0].id != tags[1].id
+    }
+}
+
+/**
+ * A datastore whose sessions keep the pending object registry of {@link AbstractSession}, which
+ * {@link org.grails.datastore.mapping.simple.SimpleMapSession} disables.
+ */
+class PendingRegistryDatastore extends SimpleMapDatastore {
+
+    final List<Class> storedEntities = []
+
+    PendingRegistryDatastore(PropertyResolver configuration, Class... classes) {
+        super(configuration, new DefaultApplicationEventPublisher(), classes)
+    }
+
+    @Override
+    protected Session createSession(PropertyResolver connectionDetails) {
+        return new PendingRegistrySession(this)
+    }
+}
+
+class PendingRegistrySession extends AbstractSession<Map> {
+
+    PendingRegistrySession(PendingRegistryDatastore datastore) {
+        super(datastore, datastore.mappingContext, datastore.applicationEventPublisher, datastore.cacheAdapterRepository)
+    }
+
+    @Override
+    protected Persister createPersister(Class cls, MappingContext mappingContext) {
+        PersistentEntity entity = mappingContext.getPersistentEntity(cls.name)
+        if (entity == null) {
+            return null
+        }
+        return new PendingRegistryEntityPersister(mappingContext, entity, this, (PendingRegistryDatastore) getDatastore(), publisher, cacheAdapterRepository)
+    }
+
+    @Override
+    protected Transaction beginTransactionInternal() {
+        return new SessionOnlyTransaction<Map>(nativeInterface, this)
+    }
+
+    @Override
+    Map getNativeInterface() {
+        return ((PendingRegistryDatastore) getDatastore()).backingMap
+    }
+}
+
+class PendingRegistryEntityPersister extends SimpleMapEntityPersister {
+
+    PendingRegistryEntityPersister(MappingContext context, PersistentEntity entity, Session session,
+                                   PendingRegistryDatastore datastore, ApplicationEventPublisher publisher,
+                                   TPCacheAdapterRepository<Map> cacheAdapterRepository) {
+        super(context, entity, session, datastore, publisher, cacheAdapterRepository)
+    }
+
+    @Override
+    protected storeEntry(PersistentEntity persistentEntity, EntityAccess entityAccess, storeId, Map nativeEntry) {
+        ((PendingRegistryDatastore) session.datastore).storedEntities << persistentEntity.javaClass
+        return super.storeEntry(persistentEntity, entityAccess, storeId, nativeEntry)
+    }
+}
+
+@Entity
+class PendingNode {
+    String name
+    PendingLeaf first
+    PendingLeaf second
+}
+
+@Entity
+class PendingLeaf {
+    String name
+    static belongsTo = [PendingNode]
+}
+
+@Entity
+class PendingTag {
+    String name
+
+    @Override
+    boolean equals(Object o) {
+        o instanceof PendingTag && name == ((PendingTag) o).name
+    }
+
+    @Override
+    int hashCode() {
+        name?.hashCode() ?: 0
+    }
+}
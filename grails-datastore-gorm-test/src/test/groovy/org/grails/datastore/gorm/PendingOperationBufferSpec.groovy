@@ -0,0 +1,106 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import jakarta.persistence.FlushModeType
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class PendingOperationBufferSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver((Settings.SETTING_MAX_PENDING_OPERATIONS): 10),
+            BufferedItem, BufferedOrder, BufferedLine
+    )
+
+    void "test the session is flushed automatically when the pending operation buffer is full"() {
+        when:"more operations are buffered than the configured maximum"
+        Map stats = BufferedItem.withNewSession { AbstractSession session ->
+            (1..25).each { new BufferedItem(name: "Item $it").save() }
+            [max: session.maxPendingOperations, autoFlushes: session.autoFlushCount,
+             highWaterMark: session.pendingOperationsHighWaterMark, pending: session.pendingOperationCount]
+        }
+
+        then:"no exception is thrown and the buffer never grows past the limit"
+        stats.max == 10
+        stats.autoFlushes == 2
+        stats.highWaterMark == 10
+        stats.pending == 5
+
+        and:"the operations flushed automatically are persisted"
+        BufferedItem.withNewSession { BufferedItem.count() } == 20
+    }
+
+    void "test the session is not flushed automatically in COMMIT flush mode"() {
+        when:"more operations are buffered than the configured maximum in COMMIT flush mode"
+        Map stats = BufferedItem.withNewSession { AbstractSession session ->
+            session.flushMode = FlushModeType.COMMIT
+            (1..25).each { new BufferedItem(name: "Commit $it").save() }
+            Map result = [autoFlushes: session.autoFlushCount, pending: session.pendingOperationCount,
+                          persisted: BufferedItem.withNewSession { BufferedItem.countByNameLike("Commit%") }]
+            session.flush()
+            result
+        }
+
+        then:"nothing is written before the explicit flush"
+        stats.autoFlushes == 0
+        stats.pending == 25
+        stats.persisted == 0
+
+        and:"the explicit flush writes all of the buffered operations"
+        BufferedItem.withNewSession { BufferedItem.countByNameLike("Commit%") } == 25
+    }
+
+    void "test the buffer is only checked once the top level operation returns"() {
+        when:"a single save cascades more operations than the configured maximum"
+        Map stats = BufferedOrder.withNewSession { AbstractSession session ->
+            session.maxPendingOperations = 3
+            BufferedOrder order = new BufferedOrder(number: "A1")
+            (1..5).each { order.addToLines(new BufferedLine(product: "Product $it")) }
+            order.save()
+            [autoFlushes: session.autoFlushCount, highWaterMark: session.pendingOperationsHighWaterMark,
+             pending: session.pendingOperationCount]
+        }
+
+        then:"the cascade is written by one automatic flush after the save"
+        stats.autoFlushes == 1
+        stats.highWaterMark > 3
+        stats.pending == 0
+        BufferedOrder.withNewSession { BufferedOrder.findByNumber("A1").lines.size() } == 5
+    }
+
+    void "test the buffer can be limited by estimated size"() {
+        when:
+        Map stats = BufferedItem.withNewSession { AbstractSession session ->
+            session.maxPendingOperations = 0
+            session.maxPendingOperationsSize = 1
+            new BufferedItem(name: "Sized").save()
+            [autoFlushes: session.autoFlushCount, pending: session.pendingOperationCount]
+        }
+
+        then:
+        stats.autoFlushes == 1
+        stats.pending == 0
+    }
+}
+
+@Entity
+class BufferedItem {
+    String name
+}
+
+@Entity
+class BufferedOrder {
+    String number
+    static hasMany = [lines: BufferedLine]
+}
+
+@Entity
+class BufferedLine {
+    String product
+    static belongsTo = [order: BufferedOrder]
+}
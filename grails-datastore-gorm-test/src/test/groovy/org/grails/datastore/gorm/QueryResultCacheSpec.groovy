@@ -0,0 +1,168 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.cache.TPCacheStatistics
+import org.grails.datastore.mapping.query.cache.TPCacheQueryResultCache
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class QueryResultCacheSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(CachedCity, CachedCapital, CachedMayor)
+
+    void setup() {
+        datastore.clearData()
+        datastore.queryResultCache = new TPCacheQueryResultCache(100, -1)
+        CachedCity.withNewSession {
+            new CachedCity(name: "Lyon", country: "FR", population: 513).save()
+            new CachedCity(name: "Nice", country: "FR", population: 342).save()
+            new CachedCity(name: "Porto", country: "PT", population: 231).save()
+            CachedCity.withSession { it.flush() }
+        }
+    }
+
+    void "test identical cached queries are answered from the cache"() {
+        when:
+        List<List<String>> results = (1..3).collect {
+            CachedCity.withNewSession {
+                CachedCity.where { country == 'FR' }.list(sort: 'name', cache: true)*.name
+            }
+        }
+        TPCacheStatistics statistics = statistics(CachedCity)
+
+        then:
+        results.every { it == ['Lyon', 'Nice'] }
+        statistics.hitCount == 2
+        statistics.missCount == 1
+
+        when:"the query isn't cached or its criteria differ"
+        CachedCity.withNewSession {
+            CachedCity.where { country == 'FR' }.list(sort: 'name')
+            CachedCity.where { country == 'PT' }.list(sort: 'name', cache: true)
+        }
+
+        then:
+        statistics(CachedCity).hitCount == 2
+        statistics(CachedCity).missCount == 2
+    }
+
+    void "test cached results are evicted when an instance is written"() {
+        given:
+        Closure<List<String>> query = {
+            CachedCity.withNewSession {
+                CachedCity.findAllByCountry('FR', [sort: 'name', cache: true])*.name
+            }
+        }
+        query.call()
+
+        when:
+        CachedCity.withNewSession {
+            new CachedCity(name: "Brest", country: "FR", population: 139).save(flush: true)
+        }
+
+        then:
+        query.call() == ['Brest', 'Lyon', 'Nice']
+
+        when:
+        CachedCity.withNewSession {
+            CachedCity.findByName('Lyon').delete(flush: true)
+        }
+
+        then:
+        query.call() == ['Brest', 'Nice']
+        statistics(CachedCity).hitCount == 0
+    }
+
+    void "test projections are cached and writes of a subclass evict the queries of the parent"() {
+        given:
+        Closure<Number> count = {
+            CachedCity.withNewSession {
+                CachedCity.where { population > 200 }.count(cache: true)
+            }
+        }
+
+        expect:
+        count.call() == 3
+        count.call() == 3
+        statistics(CachedCity).hitCount == 1
+
+        when:
+        CachedCapital.withNewSession {
+            new CachedCapital(name: "Lisbon", country: "PT", population: 545).save(flush: true)
+        }
+
+        then:
+        count.call() == 4
+    }
+
+    void "test queries with criteria on an association are not cached"() {
+        given:
+        CachedMayor.withNewSession {
+            new CachedMayor(name: "Gregory", city: CachedCity.findByName("Lyon")).save(flush: true)
+        }
+        Closure<List<String>> query = {
+            CachedMayor.withNewSession {
+                CachedMayor.createCriteria().list(cache: true) {
+                    city { eq 'country', 'FR' }
+                }*.name
+            }
+        }
+
+        expect:
+        query.call() == ['Gregory']
+
+        when:"the associated instance is changed"
+        CachedCity.withNewSession {
+            CachedCity lyon = CachedCity.findByName("Lyon")
+            lyon.country = "XX"
+            lyon.save(flush: true)
+        }
+
+        then:
+        query.call() == []
+        statistics(CachedMayor).size == 0
+    }
+
+    void "test cached results are evicted again when the transaction that flushed a write completes"() {
+        given:
+        Closure<List<String>> query = {
+            CachedCity.withNewSession {
+                CachedCity.findAllByCountry('PT', [sort: 'name', cache: true])*.name
+            }
+        }
+
+        when:"another session caches the results between the flush and the commit"
+        long sizeBeforeCommit = CachedCity.withTransaction {
+            new CachedCity(name: "Braga", country: "PT", population: 193).save(flush: true)
+            query.call()
+            statistics(CachedCity).size
+        }
+
+        then:
+        sizeBeforeCommit == 1
+        statistics(CachedCity).size == 0
+    }
+
+    private TPCacheStatistics statistics(Class type) {
+        datastore.queryResultCache.getStatistics(datastore.mappingContext.getPersistentEntity(type.name))
+    }
+}
+
+@Entity
+class CachedCity {
+    String name
+    String country
+    Integer population
+}
+
+@Entity
+class CachedCapital extends CachedCity {
+}
+
+@Entity
+class CachedMayor {
+    String name
+    CachedCity city
+}
@@ -0,0 +1,114 @@
+package org.grails.datastore.gorm
+
+import java.util.stream.Collectors
+import java.util.stream.Stream
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.query.ScrollableQueryResults
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class QueryStreamSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(StreamedRecord)
+
+    void setupSpec() {
+        StreamedRecord.withNewSession {
+            (1..25).each { new StreamedRecord(name: "Record $it", position: 26 - it, even: it % 2 == 0).save() }
+            StreamedRecord.withSession { it.flush() }
+        }
+    }
+
+    void "test a detached criteria can be streamed"() {
+        when:
+        List<String> names = StreamedRecord.withNewSession {
+            Stream<StreamedRecord> stream = StreamedRecord.where { even == true }.stream(fetchSize: 3)
+            try {
+                stream.map { it.name }.collect(Collectors.toList())
+            }
+            finally {
+                stream.close()
+            }
+        }
+
+        then:
+        names == (1..25).findAll { it % 2 == 0 }.collect { "Record $it".toString() }
+    }
+
+    void "test streaming honours offset, max and order"() {
+        when:
+        List<Map> results = StreamedRecord.withNewSession {
+            def criteria = StreamedRecord.where { position > 5 }
+            [
+                list: criteria.list(sort: 'position', offset: 2, max: 7)*.position,
+                streamed: criteria.stream(sort: 'position', offset: 2, max: 7, fetchSize: 2).map { it.position }.collect(Collectors.toList()),
+                unordered: criteria.list(offset: 3, max: 5)*.name,
+                streamedUnordered: criteria.stream(offset: 3, max: 5, fetchSize: 2).map { it.name }.collect(Collectors.toList())
+            ]
+        }
+
+        then:
+        results.streamed == results.list
+        results.streamed == [8, 9, 10, 11, 12, 13, 14]
+        results.streamedUnordered == results.unordered
+    }
+
+    void "test dynamic finders and criteria queries return streams"() {
+        when:
+        List<Long> counts = StreamedRecord.withNewSession {
+            Stream finder = StreamedRecord.findAllByEven(false, [stream: true, fetchSize: 4])
+            Stream criteria = StreamedRecord.createCriteria().stream(fetchSize: 5) { lt 'position', 11 }
+            [finder.count(), criteria.count()]
+        }
+
+        then:
+        counts == [13L, 10L]
+    }
+
+    void "test instances that have been streamed are evicted from the session unless modified"() {
+        when:
+        Map<String, Boolean> state = StreamedRecord.withNewSession { session ->
+            ScrollableQueryResults<StreamedRecord> results = session.createQuery(StreamedRecord).lte('position', 10).scroll(2)
+            StreamedRecord first = results.next()
+            StreamedRecord second = results.next()
+            second.name = 'Modified'
+            StreamedRecord third = results.next()
+            Map<String, Boolean> contained = [first: session.contains(first), second: session.contains(second), third: session.contains(third)]
+            results.close()
+            contained
+        }
+
+        then:
+        !state.first
+        state.second
+        state.third
+    }
+
+    void "test instances that were attached before they were streamed are not evicted"() {
+        when:
+        Map<String, Boolean> state = StreamedRecord.withNewSession { session ->
+            StreamedRecord attached = StreamedRecord.findByPosition(9)
+            ScrollableQueryResults<StreamedRecord> results = session.createQuery(StreamedRecord).lte('position', 10).scroll(2)
+            StreamedRecord first = results.next()
+            StreamedRecord second = results.next()
+            results.next()
+            Map<String, Boolean> contained = [first: session.contains(first), same: second.is(attached), attached: session.contains(attached)]
+            results.close()
+            contained
+        }
+
+        then:
+        !state.first
+        state.same
+        state.attached
+    }
+}
+
+@Entity
+class StreamedRecord {
+    String name
+    Integer position
+    Boolean even
+}
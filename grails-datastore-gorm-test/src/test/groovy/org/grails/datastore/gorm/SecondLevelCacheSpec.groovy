@@ -0,0 +1,195 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.cache.TPCacheStatistics
+import org.grails.datastore.mapping.cache.impl.CaffeineTPCacheAdapterRepository
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class SecondLevelCacheSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(CachedBook, CachedShelf, UncachedNote)
+
+    void setup() {
+        datastore.clearData()
+    }
+
+    void "test the mapping block enables the second-level cache per entity"() {
+        expect:
+        datastore.cacheAdapterRepository instanceof CaffeineTPCacheAdapterRepository
+        repository.getTPCacheAdapter(entity(CachedBook)) != null
+        repository.getQueryResultsTPCacheAdapter(entity(CachedBook)) == null
+        repository.getQueryResultsTPCacheAdapter(entity(CachedShelf)) != null
+        repository.getTPCacheAdapter(entity(UncachedNote)) == null
+        repository.getStatistics(entity(UncachedNote)) == TPCacheStatistics.EMPTY
+    }
+
+    void "test instances are cached when read and served to other sessions"() {
+        given:
+        Long id = CachedBook.withNewSession {
+            new CachedBook(title: "Dune").save(flush: true).id
+        }
+        TPCacheStatistics before = statistics(CachedBook)
+
+        when:
+        List<String> titles = (1..3).collect {
+            CachedBook.withNewSession { CachedBook.get(id).title }
+        }
+
+        then:
+        titles == ['Dune', 'Dune', 'Dune']
+        statistics(CachedBook).missCount - before.missCount == 1
+        statistics(CachedBook).hitCount - before.hitCount == 2
+        statistics(CachedBook).size == 1
+    }
+
+    void "test instances read in bulk are cached"() {
+        given:
+        List<Long> ids = CachedBook.withNewSession {
+            [new CachedBook(title: "Emma").save(), new CachedBook(title: "Ulysses").save(flush: true)]*.id
+        }
+
+        TPCacheStatistics before = statistics(CachedBook)
+
+        when:
+        CachedBook.withNewSession { CachedBook.getAll(ids) }
+        List<String> titles = CachedBook.withNewSession { CachedBook.getAll(ids)*.title }
+
+        then:
+        titles == ['Emma', 'Ulysses']
+        statistics(CachedBook).hitCount - before.hitCount == 2
+    }
+
+    void "test changes that are not flushed don't leak into the cache"() {
+        given:
+        Long id = CachedBook.withNewSession {
+            new CachedBook(title: "Dune").save(flush: true).id
+        }
+        CachedBook.withNewSession { CachedBook.get(id) }
+
+        when:"an instance is changed and saved but the session is cleared before it is flushed"
+        CachedBook.withNewSession { session ->
+            CachedBook book = CachedBook.get(id)
+            book.title = "Changed"
+            book.save()
+            session.clear()
+        }
+
+        then:
+        CachedBook.withNewSession { CachedBook.get(id).title } == 'Dune'
+    }
+
+    void "test cached entries are evicted when an instance is updated or deleted"() {
+        given:
+        Long id = CachedBook.withNewSession {
+            new CachedBook(title: "Dune").save(flush: true).id
+        }
+        CachedBook.withNewSession { CachedBook.get(id) }
+
+        when:
+        CachedBook.withNewSession {
+            CachedBook book = CachedBook.get(id)
+            book.title = "Dune Messiah"
+            book.save(flush: true)
+        }
+
+        then:
+        statistics(CachedBook).size == 0
+        CachedBook.withNewSession { CachedBook.get(id).title } == 'Dune Messiah'
+
+        when:
+        CachedBook.withNewSession {
+            CachedBook.get(id).delete(flush: true)
+        }
+
+        then:
+        statistics(CachedBook).size == 0
+        CachedBook.withNewSession { CachedBook.get(id) } == null
+    }
+
+    void "test cached query results are invalidated when an instance is written"() {
+        given:
+        CachedShelf.withNewSession {
+            new CachedShelf(name: "Fiction").save(flush: true)
+        }
+        TPCacheStatistics before = repository.getQueryResultsStatistics(entity(CachedShelf))
+        Closure<List<String>> query = {
+            CachedShelf.withNewSession {
+                CachedShelf.list(sort: 'name', cache: true)*.name
+            }
+        }
+
+        expect:
+        query.call() == ['Fiction']
+        query.call() == ['Fiction']
+        repository.getQueryResultsStatistics(entity(CachedShelf)).hitCount - before.hitCount == 1
+
+        when:
+        CachedShelf.withNewSession {
+            new CachedShelf(name: "History").save(flush: true)
+        }
+
+        then:
+        repository.getQueryResultsStatistics(entity(CachedShelf)).size == 0
+        query.call() == ['Fiction', 'History']
+    }
+
+    void "test the writes of a transaction are evicted again by one synchronization when it completes"() {
+        given:
+        Long id = CachedShelf.withNewSession {
+            new CachedShelf(name: "Fiction").save(flush: true).id
+        }
+
+        when:"another session caches the results between the writes and the commit"
+        int synchronizations = CachedShelf.withTransaction {
+            new CachedShelf(name: "History").save(flush: true)
+            new CachedShelf(name: "Poetry").save(flush: true)
+            CachedShelf.get(id).delete(flush: true)
+            CachedShelf.withNewSession { CachedShelf.list(sort: 'name', cache: true) }
+            TransactionSynchronizationManager.synchronizations.count { it.getClass().simpleName == 'ThirdPartyCacheEvictions' }
+        }
+
+        then:
+        synchronizations == 1
+        repository.getQueryResultsStatistics(entity(CachedShelf)).size == 0
+    }
+
+    private CaffeineTPCacheAdapterRepository getRepository() {
+        (CaffeineTPCacheAdapterRepository) datastore.cacheAdapterRepository
+    }
+
+    private PersistentEntity entity(Class type) {
+        datastore.mappingContext.getPersistentEntity(type.name)
+    }
+
+    private TPCacheStatistics statistics(Class type) {
+        repository.getStatistics(entity(type))
+    }
+}
+
+@Entity
+class CachedBook {
+    String title
+
+    static mapping = {
+        secondLevelCache true
+    }
+}
+
+@Entity
+class CachedShelf {
+    String name
+
+    static mapping = {
+        secondLevelCache queries: true
+    }
+}
+
+@Entity
+class UncachedNote {
+    String text
+}
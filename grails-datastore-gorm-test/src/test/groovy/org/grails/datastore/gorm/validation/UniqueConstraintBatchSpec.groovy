@@ -0,0 +1,91 @@
+package org.grails.datastore.gorm.validation
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.gorm.validation.constraints.MappingContextAwareConstraintFactory
+import org.grails.datastore.gorm.validation.constraints.builtin.UniqueConstraint
+import org.grails.datastore.gorm.validation.constraints.builtin.UniqueConstraintBatch
+import org.grails.datastore.gorm.validation.constraints.registry.DefaultValidatorRegistry
+import org.grails.datastore.gorm.validation.listener.ValidationEventListener
+import org.grails.datastore.mapping.query.event.PreQueryEvent
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.springframework.context.ApplicationEvent
+import org.springframework.context.ApplicationListener
+import org.springframework.context.support.StaticMessageSource
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class UniqueConstraintBatchSpec extends Specification {
+
+    @Shared @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(ImportedCode)
+    @Shared AtomicInteger queries = new AtomicInteger()
+
+    void setupSpec() {
+        DefaultValidatorRegistry validatorRegistry = new DefaultValidatorRegistry(datastore.mappingContext, datastore.connectionSources.defaultConnectionSource.settings)
+        validatorRegistry.addConstraintFactory(
+                new MappingContextAwareConstraintFactory(UniqueConstraint, new StaticMessageSource(), datastore.mappingContext)
+        )
+        datastore.mappingContext.setValidatorRegistry(validatorRegistry)
+        datastore.applicationEventPublisher.addApplicationListener(new ValidationEventListener(datastore))
+        datastore.applicationEventPublisher.addApplicationListener({ ApplicationEvent event ->
+            if (event instanceof PreQueryEvent) {
+                queries.incrementAndGet()
+            }
+        } as ApplicationListener<ApplicationEvent>)
+    }
+
+    void "test the unique constraints of saveAll are validated with one query"() {
+        given:"an existing code"
+        ImportedCode.withNewSession {
+            new ImportedCode(code: "A", region: "eu").save(flush: true)
+        }
+
+        and:"a batch with a duplicate of the existing code and a duplicate within the batch"
+        List<ImportedCode> batch = [
+                new ImportedCode(code: "A", region: "eu"),
+                new ImportedCode(code: "B", region: "eu"),
+                new ImportedCode(code: "B", region: "eu"),
+                new ImportedCode(code: "A", region: "us"),
+                new ImportedCode(code: "C", region: "eu")
+        ]
+
+        when:"the batch is saved"
+        queries.set(0)
+        List<UniqueConstraintBatch> registeredBeforeFlush
+        List<UniqueConstraintBatch> registered = ImportedCode.withNewSession { session ->
+            ImportedCode.saveAll(batch)
+            registeredBeforeFlush = batch.collect { UniqueConstraintBatch.find(session, it) }
+            session.flush()
+            batch.collect { UniqueConstraintBatch.find(session, it) }
+        }
+
+        then:"the codes were looked up with a single query"
+        queries.get() == 1
+
+        and:"the batch was registered until the inserts were flushed"
+        registeredBeforeFlush.every { it != null }
+        registered.every { it == null }
+
+        and:"the duplicates are rejected"
+        batch*.hasErrors() == [true, false, true, false, false]
+        batch[0].errors.getFieldError('code') != null
+        batch[2].errors.getFieldError('code') != null
+
+        and:"the other codes are saved"
+        ImportedCode.withNewSession {
+            ImportedCode.count()
+        } == 4
+    }
+}
+
+@Entity
+class ImportedCode {
+    String code
+    String region
+
+    static constraints = {
+        code unique: 'region'
+    }
+}
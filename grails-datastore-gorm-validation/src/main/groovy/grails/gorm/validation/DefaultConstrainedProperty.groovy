@@ -46,7 +46,7 @@ class DefaultConstrainedProperty implements ConstrainedProperty {
     final String propertyName
 
     protected final ConstraintRegistry constraintRegistry
-    protected final Map<String, Constraint> appliedConstraints = new LinkedHashMap<String, Constraint>()
+    protected final Map<String, Constraint> appliedConstraints = new AppliedConstraints()
 
     // simple constraints
     /** whether the property should be displayed */
@@ -581,23 +581,18 @@ class DefaultConstrainedProperty implements ConstrainedProperty {
      * @param errors The Errors instances to report errors to
      */
     void validate(Object target, Object propertyValue, Errors errors) {
-        List<Constraint> delayedConstraints = new ArrayList<Constraint>()
-
-        // validate only vetoing constraints first, putting non-vetoing into delayedConstraints
-        for (Constraint c in appliedConstraints.values()) {
-            if (c instanceof VetoingConstraint) {
-                // stop validation process when constraint vetoes
-                if (((VetoingConstraint)c).validateWithVetoing(target, propertyValue, errors)) {
-                    return
-                }
-            }
-            else {
-                delayedConstraints.add(c)
+        CompiledConstraints compiled = ((AppliedConstraints) appliedConstraints).compile()
+
+        // validate only vetoing constraints first
+        for (VetoingConstraint c in compiled.vetoing) {
+            // stop validation process when constraint vetoes
+            if (c.validateWithVetoing(target, propertyValue, errors)) {
+                return
             }
         }
 
         // process non-vetoing constraints
-        for (Constraint c : delayedConstraints) {
+        for (Constraint c in compiled.delayed) {
             c.validate(target, propertyValue, errors)
         }
     }
@@ -727,4 +722,70 @@ class DefaultConstrainedProperty implements ConstrainedProperty {
     Map<String, Object> getMetaConstraints() {
         return metaConstraints
     }
+
+    /**
+     * The applied constraints. Keeps the constraints split into the vetoing constraints and the delayed constraints, in the
+     * order they were applied, so that validation doesn't have to sort them on every call.
+     */
+    @CompileStatic
+    protected static class AppliedConstraints extends LinkedHashMap<String, Constraint> {
+
+        private volatile CompiledConstraints compiled
+
+        @Override
+        Constraint put(String key, Constraint value) {
+            Constraint previous = super.put(key, value)
+            compiled = null
+            return previous
+        }
+
+        @Override
+        void putAll(Map<? extends String, ? extends Constraint> m) {
+            super.putAll(m)
+            compiled = null
+        }
+
+        @Override
+        Constraint remove(Object key) {
+            Constraint previous = super.remove(key)
+            compiled = null
+            return previous
+        }
+
+        @Override
+        void clear() {
+            super.clear()
+            compiled = null
+        }
+
+        CompiledConstraints compile() {
+            CompiledConstraints current = compiled
+            if (current == null) {
+                List<VetoingConstraint> vetoing = []
+                List<Constraint> delayed = []
+                for (Constraint c in values()) {
+                    if (c instanceof VetoingConstraint) {
+                        vetoing.add((VetoingConstraint) c)
+                    }
+                    else {
+                        delayed.add(c)
+                    }
+                }
+                current = new CompiledConstraints(vetoing as VetoingConstraint[], delayed as Constraint[])
+                compiled = current
+            }
+            return current
+        }
+    }
+
+    @CompileStatic
+    protected static class CompiledConstraints {
+        final VetoingConstraint[] vetoing
+        final Constraint[] delayed
+
+        CompiledConstraints(VetoingConstraint[] vetoing, Constraint[] delayed) {
+            this.vetoing = vetoing
+            this.delayed = delayed
+        }
+    }
 }
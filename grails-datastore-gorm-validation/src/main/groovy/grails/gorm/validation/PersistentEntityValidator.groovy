@@ -3,6 +3,23 @@ package grails.gorm.validation
 import groovy.transform.CompileDynamic
 import groovy.transform.CompileStatic
 import org.grails.datastore.gorm.support.BeforeValidateHelper
+import org.grails.datastore.gorm.support.EventTriggerCaller
+import org.grails.datastore.gorm.validation.constraints.BlankConstraint
+import org.grails.datastore.gorm.validation.constraints.CreditCardConstraint
+import org.grails.datastore.gorm.validation.constraints.EmailConstraint
+import org.grails.datastore.gorm.validation.constraints.EntityConstraintPlan
+import org.grails.datastore.gorm.validation.constraints.InListConstraint
+import org.grails.datastore.gorm.validation.constraints.MatchesConstraint
+import org.grails.datastore.gorm.validation.constraints.MaxConstraint
+import org.grails.datastore.gorm.validation.constraints.MaxSizeConstraint
+import org.grails.datastore.gorm.validation.constraints.MinConstraint
+import org.grails.datastore.gorm.validation.constraints.MinSizeConstraint
+import org.grails.datastore.gorm.validation.constraints.NotEqualConstraint
+import org.grails.datastore.gorm.validation.constraints.NullableConstraint
+import org.grails.datastore.gorm.validation.constraints.RangeConstraint
+import org.grails.datastore.gorm.validation.constraints.ScaleConstraint
+import org.grails.datastore.gorm.validation.constraints.SizeConstraint
+import org.grails.datastore.gorm.validation.constraints.UrlConstraint
 import org.grails.datastore.gorm.validation.constraints.eval.ConstraintsEvaluator
 import org.grails.datastore.mapping.model.MappingContext
 import org.grails.datastore.mapping.model.PersistentEntity
@@ -14,10 +31,18 @@ import org.grails.datastore.mapping.model.types.ToOne
 import org.grails.datastore.mapping.proxy.ProxyHandler
 import org.grails.datastore.mapping.reflect.EntityReflector
 import org.grails.datastore.mapping.reflect.ReflectionUtils
+import org.grails.datastore.mapping.validation.ValidationErrors
 import org.springframework.context.MessageSource
+import org.springframework.context.i18n.LocaleContext
+import org.springframework.context.i18n.LocaleContextHolder
+import org.springframework.validation.BindingResult
 import org.springframework.validation.Errors
 import org.springframework.validation.FieldError
 
+import java.util.concurrent.Callable
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+
 /**
  * A Validator that validates a {@link org.grails.datastore.mapping.model.PersistentEntity} against known constraints
  *
@@ -30,6 +55,12 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
     private static final List<String> EMBEDDED_EXCLUDES = Arrays.asList(
                                                             GormProperties.IDENTITY,
                                                             GormProperties.VERSION)
+    private static final int PARALLEL_CHUNKS_PER_THREAD = 4
+    private static final Set<Class> SESSION_FREE_CONSTRAINTS = Collections.unmodifiableSet(new HashSet<Class>(Arrays.asList(
+                                                            BlankConstraint, CreditCardConstraint, EmailConstraint, InListConstraint,
+                                                            MatchesConstraint, MaxConstraint, MaxSizeConstraint, MinConstraint,
+                                                            MinSizeConstraint, NotEqualConstraint, NullableConstraint, RangeConstraint,
+                                                            ScaleConstraint, SizeConstraint, UrlConstraint)))
 
     final PersistentEntity entity
     final EntityReflector entityReflector
@@ -38,8 +69,22 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
     final Map<String, ConstrainedProperty> constrainedProperties
     final BeforeValidateHelper validateHelper = new BeforeValidateHelper()
 
+    /**
+     * The minimum number of elements of a to-many association for validation to cascade to them in parallel.
+     * A value lower than 1 disables parallel cascading. Only associations whose elements are validated with constraints that
+     * don't need the current session are validated on the threads of the {@link #parallelCascadePool}, see {@link #isSessionRequired(PersistentEntity)}
+     */
+    int parallelCascadeThreshold = -1
+
+    /**
+     * The pool used to cascade validation in parallel, the common pool by default
+     */
+    ForkJoinPool parallelCascadePool = ForkJoinPool.commonPool()
+
     protected final ProxyHandler proxyHandler
 
+    private volatile EntityConstraintPlan constraintPlan
+
     PersistentEntityValidator(PersistentEntity entity, MessageSource messageSource, ConstraintsEvaluator constraintsEvaluator) {
         this.entity = entity
         this.messageSource = messageSource
@@ -61,40 +106,48 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
             throw new IllegalArgumentException("Argument [$obj] is not an instance of [$targetClass] which this validator is configured for")
         }
 
-        Map<String, ConstrainedProperty> constrainedProperties = this.constrainedProperties
-        Set<String> constrainedPropertyNames = new HashSet<>(constrainedProperties.keySet())
+        EntityConstraintPlan plan = getConstraintPlan()
 
-        def validatedObjects = new HashSet()
+        Set validatedObjects = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>())
+        if (parallelCascadeThreshold > 0) {
+            validatedObjects = Collections.synchronizedSet(validatedObjects)
+        }
         validatedObjects.add(obj)
 
-        for(PersistentProperty pp in entity.persistentProperties) {
-            def propertyName = pp.name
-
-            ConstrainedProperty constrainedProperty = constrainedProperties.get(propertyName)
-
-            if(constrainedProperty != null) {
-                validatePropertyWithConstraint(obj, propertyName, entityReflector, errors, constrainedProperty, pp)
-            }
-
-            if(pp instanceof Association) {
-                Association association = (Association)pp
-                if(cascade) {
-                    cascadeToAssociativeProperty(obj, errors, entityReflector, association, validatedObjects)
+        Object unwrapped = null
+        for(EntityConstraintPlan.PropertyStep step in plan.persistentProperties) {
+            ConstrainedProperty constrainedProperty = step.constrainedProperty
+            if(constrainedProperty != null && errors.getFieldError(step.name) == null) {
+                if(unwrapped == null) {
+                    unwrapped = proxyHandler != null ? proxyHandler.unwrap(obj) : obj
                 }
+                constrainedProperty.validate(obj, entityReflector.getProperty(unwrapped, step.index), errors)
             }
 
-            constrainedPropertyNames.remove(propertyName)
+            if(cascade && step.association != null) {
+                cascadeToAssociativeProperty(obj, errors, entityReflector, step.association, validatedObjects)
+            }
         }
 
-        for(String remainingProperty in constrainedPropertyNames) {
-            ConstrainedProperty constrainedProperty = constrainedProperties.get(remainingProperty)
-            if(remainingProperty != null) {
-                validatePropertyWithConstraint(obj, remainingProperty, entityReflector, errors, constrainedProperty, null)
-            }
+        for(EntityConstraintPlan.PropertyStep step in plan.transientProperties) {
+            validatePropertyWithConstraint(obj, step.name, entityReflector, errors, step.constrainedProperty, null)
         }
 
     }
 
+    /**
+     * @return The constraints of the entity compiled into the steps taken to validate an instance
+     * @since 9.0
+     */
+    EntityConstraintPlan getConstraintPlan() {
+        EntityConstraintPlan plan = constraintPlan
+        if (plan == null) {
+            plan = EntityConstraintPlan.compile(entity, constrainedProperties)
+            constraintPlan = plan
+        }
+        return plan
+    }
+
     /**
      * Cascades validation onto an associative property maybe a one-to-many, one-to-one or many-to-one relationship.
      *
@@ -156,7 +209,24 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
             return
         }
 
-        if (collection instanceof List || collection instanceof SortedSet) {
+        if (isParallelCascade(collection, association, errors)) {
+            List elements
+            List indexesOrKeys
+            if (collection instanceof Map) {
+                Map map = (Map) collection
+                elements = new ArrayList(map.values())
+                indexesOrKeys = new ArrayList(map.keySet())
+            }
+            else {
+                elements = new ArrayList((Collection) collection)
+                indexesOrKeys = new ArrayList(elements.size())
+                for (int i = 0; i < elements.size(); i++) {
+                    indexesOrKeys.add(i)
+                }
+            }
+            cascadeValidationToManyInParallel(parentObject, propertyName, association, (BindingResult) errors, entityReflector, elements, indexesOrKeys, validatedObjects)
+        }
+        else if (collection instanceof List || collection instanceof SortedSet) {
             int idx = 0
             for (Object associatedObject : ((Collection)collection)) {
                 cascadeValidationToOne(parentObject, propertyName, association, errors, entityReflector,associatedObject, idx++, validatedObjects)
@@ -177,6 +247,125 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
         }
     }
 
+    /**
+     * Cascades validation to the elements of a large to-many association in parallel. The elements are split into chunks that
+     * are validated on the {@link #parallelCascadePool}, each into its own errors instance with the nested path of the parent, and
+     * the errors of the chunks are then added to the parent errors in the order of the elements.
+     *
+     * @param errors The Errors instance
+     * @param elements The elements of the association
+     * @param indexesOrKeys The index or the map key of each element
+     * @param validatedObjects The objects validated so far, which has to be safe for concurrent use
+     */
+    protected void cascadeValidationToManyInParallel(Object parentObject, String propertyName, Association association, BindingResult errors, EntityReflector entityReflector, List elements, List indexesOrKeys, Set validatedObjects) {
+        ForkJoinPool pool = parallelCascadePool != null ? parallelCascadePool : ForkJoinPool.commonPool()
+        int size = elements.size()
+        int chunkSize = Math.max(1, (int) Math.ceil(size / (double) (pool.getParallelism() * PARALLEL_CHUNKS_PER_THREAD)))
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext()
+
+        List<ForkJoinTask<Errors>> tasks = new ArrayList<>()
+        for (int from = 0; from < size; from += chunkSize) {
+            tasks.add(createCascadeTask(parentObject, propertyName, association, errors, entityReflector, elements, indexesOrKeys, from, Math.min(size, from + chunkSize), validatedObjects, localeContext))
+        }
+
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool().is(pool)) {
+            ForkJoinTask.invokeAll(tasks)
+        }
+        else {
+            pool.invoke(ForkJoinTask.adapt({ ForkJoinTask.invokeAll(tasks) } as Runnable))
+        }
+
+        for (ForkJoinTask<Errors> task in tasks) {
+            Errors chunkErrors = task.join()
+            if (chunkErrors.hasErrors()) {
+                errors.addAllErrors(chunkErrors)
+            }
+        }
+    }
+
+    private ForkJoinTask<Errors> createCascadeTask(Object parentObject, String propertyName, Association association, BindingResult errors, EntityReflector entityReflector, List elements, List indexesOrKeys, int from, int to, Set validatedObjects, LocaleContext localeContext) {
+        Object target = errors.getTarget()
+        String objectName = errors.getObjectName()
+        String nestedPath = errors.getNestedPath()
+        return ForkJoinTask.adapt({
+            Errors chunkErrors = new ValidationErrors(target, objectName)
+            chunkErrors.setNestedPath(nestedPath)
+            LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext()
+            LocaleContextHolder.setLocaleContext(localeContext)
+            try {
+                for (int i = from; i < to; i++) {
+                    cascadeValidationToOne(parentObject, propertyName, association, chunkErrors, entityReflector, elements.get(i), indexesOrKeys.get(i), validatedObjects)
+                }
+            }
+            finally {
+                LocaleContextHolder.setLocaleContext(previousLocaleContext)
+            }
+            return chunkErrors
+        } as Callable<Errors>)
+    }
+
+    private boolean isParallelCascade(Object collection, Association association, Errors errors) {
+        if (parallelCascadeThreshold < 1 || !(errors instanceof BindingResult) || ((BindingResult) errors).getTarget() == null) {
+            return false
+        }
+        int size
+        if (collection instanceof Collection) {
+            size = ((Collection) collection).size()
+        }
+        else if (collection instanceof Map) {
+            size = ((Map) collection).size()
+        }
+        else {
+            return false
+        }
+        return size >= parallelCascadeThreshold && !isSessionRequired(association.getAssociatedEntity())
+    }
+
+    /**
+     * Whether validating an instance of the entity, including the cascade to its associations, may need the current session.
+     * That is the case for constraints other than the built-in ones that only check the value, such as unique or custom validators,
+     * and for beforeValidate callbacks, which are all evaluated on the calling thread
+     *
+     * @param entity The entity
+     * @return True if the session may be needed
+     * @since 9.0
+     */
+    static boolean isSessionRequired(PersistentEntity entity) {
+        return isSessionRequired(entity, Collections.newSetFromMap(new IdentityHashMap<PersistentEntity, Boolean>()))
+    }
+
+    private static boolean isSessionRequired(PersistentEntity entity, Set<PersistentEntity> visited) {
+        if (entity == null || !visited.add(entity)) {
+            return false
+        }
+        Class javaClass = entity.getJavaClass()
+        if (EventTriggerCaller.buildCaller(BeforeValidateHelper.BEFORE_VALIDATE, javaClass, null, [List] as Class[]) != null ||
+                EventTriggerCaller.buildCaller(BeforeValidateHelper.BEFORE_VALIDATE, javaClass, null, new Class[0]) != null) {
+            return true
+        }
+
+        def validator = entity.getMappingContext().getEntityValidator(entity)
+        if (validator instanceof PersistentEntityValidator) {
+            for (ConstrainedProperty constrainedProperty in ((PersistentEntityValidator) validator).getConstrainedProperties().values()) {
+                for (Constraint constraint in constrainedProperty.getAppliedConstraints()) {
+                    if (!SESSION_FREE_CONSTRAINTS.contains(constraint.getClass())) {
+                        return true
+                    }
+                }
+            }
+        }
+        else if (validator != null) {
+            return true
+        }
+
+        for (Association association in entity.getAssociations()) {
+            if (isSessionRequired(association.getAssociatedEntity(), visited)) {
+                return true
+            }
+        }
+        return false
+    }
+
     /**
      * Cascades validation to a one-to-one or many-to-one property.
      *
@@ -193,12 +382,10 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
             return
         }
 
-        if(validatedObjects.contains(associatedObject)) {
+        if(!validatedObjects.add(associatedObject)) {
             return
         }
 
-        validatedObjects.add(associatedObject)
-
         PersistentEntity associatedEntity = association.getAssociatedEntity()
         if (associatedEntity == null) {
             return
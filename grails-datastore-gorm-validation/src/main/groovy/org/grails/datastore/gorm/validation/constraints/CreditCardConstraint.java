@@ -13,6 +13,8 @@ import org.springframework.validation.Errors;
  */
 public class CreditCardConstraint extends AbstractConstraint {
 
+    private static final CreditCardValidator VALIDATOR = new CreditCardValidator();
+
     private final boolean creditCard;
 
     public CreditCardConstraint(Class<?> constraintOwningClass, String constraintPropertyName, Object constraintParameter, MessageSource messageSource) {
@@ -26,9 +28,7 @@ public class CreditCardConstraint extends AbstractConstraint {
             return;
         }
 
-        CreditCardValidator validator = new CreditCardValidator();
-
-        if (!validator.isValid(propertyValue.toString())) {
+        if (!VALIDATOR.isValid(propertyValue.toString())) {
             Object[] args = new Object[] { constraintPropertyName, constraintOwningClass, propertyValue };
             rejectValue(target, errors, ConstrainedProperty.DEFAULT_INVALID_CREDIT_CARD_MESSAGE_CODE,
                     ConstrainedProperty.CREDIT_CARD_CONSTRAINT + ConstrainedProperty.INVALID_SUFFIX, args);
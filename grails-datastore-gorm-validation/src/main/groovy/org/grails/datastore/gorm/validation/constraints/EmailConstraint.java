@@ -53,14 +53,13 @@ public class EmailConstraint extends AbstractConstraint {
             return;
         }
 
-        EmailValidator emailValidator = EmailValidator.getInstance();
-        Object[] args = new Object[] { constraintPropertyName, constraintOwningClass, propertyValue };
         String value = propertyValue.toString();
         if (StringUtils.isEmpty(value)) {
             return;
         }
 
-        if (!emailValidator.isValid(value)) {
+        if (!EmailValidator.getInstance().isValid(value)) {
+            Object[] args = new Object[] { constraintPropertyName, constraintOwningClass, propertyValue };
             rejectValue(target, errors, ConstrainedProperty.DEFAULT_INVALID_EMAIL_MESSAGE_CODE,
                     ConstrainedProperty.EMAIL_CONSTRAINT + ConstrainedProperty.INVALID_SUFFIX, args);
         }
@@ -0,0 +1,94 @@
+package org.grails.datastore.gorm.validation.constraints
+
+import grails.gorm.validation.ConstrainedProperty
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.model.PersistentProperty
+import org.grails.datastore.mapping.model.types.Association
+
+/**
+ * The evaluated constraints of an entity compiled into the steps a {@link grails.gorm.validation.PersistentEntityValidator} takes to
+ * validate an instance. The steps follow the order of the persistent properties of the entity, followed by the constrained
+ * properties that aren't persistent, so that the errors are reported in the same order as when the constraints are looked up
+ * on each validation.
+ *
+ * @since 9.0
+ */
+@CompileStatic
+class EntityConstraintPlan {
+
+    /**
+     * The persistent properties, in the order of the entity
+     */
+    final List<PropertyStep> persistentProperties
+
+    /**
+     * The constrained properties that aren't persistent
+     */
+    final List<PropertyStep> transientProperties
+
+    protected EntityConstraintPlan(List<PropertyStep> persistentProperties, List<PropertyStep> transientProperties) {
+        this.persistentProperties = persistentProperties
+        this.transientProperties = transientProperties
+    }
+
+    /**
+     * Compiles the constraints of an entity
+     *
+     * @param entity The entity
+     * @param constrainedProperties The evaluated constraints
+     * @return The plan
+     */
+    static EntityConstraintPlan compile(PersistentEntity entity, Map<String, ConstrainedProperty> constrainedProperties) {
+        // iterated like the copy made for each validation so that the remaining properties keep the same order
+        Set<String> remainingPropertyNames = new HashSet<>(constrainedProperties.keySet())
+        List<PropertyStep> persistentProperties = []
+        List<PersistentProperty> properties = entity.persistentProperties
+        for (int i = 0; i < properties.size(); i++) {
+            PersistentProperty property = properties.get(i)
+            String propertyName = property.name
+            persistentProperties.add(new PropertyStep(propertyName, i, constrainedProperties.get(propertyName), property instanceof Association ? (Association) property : null))
+            remainingPropertyNames.remove(propertyName)
+        }
+
+        List<PropertyStep> transientProperties = []
+        for (String propertyName in remainingPropertyNames) {
+            ConstrainedProperty constrainedProperty = constrainedProperties.get(propertyName)
+            if (constrainedProperty != null) {
+                transientProperties.add(new PropertyStep(propertyName, -1, constrainedProperty, null))
+            }
+        }
+        return new EntityConstraintPlan(Collections.unmodifiableList(persistentProperties), Collections.unmodifiableList(transientProperties))
+    }
+
+    /**
+     * A property to validate
+     */
+    @CompileStatic
+    static class PropertyStep {
+        /**
+         * The name of the property
+         */
+        final String name
+        /**
+         * The index of the property for {@link org.grails.datastore.mapping.reflect.EntityReflector#getProperty(java.lang.Object, int)},
+         * -1 if it isn't persistent
+         */
+        final int index
+        /**
+         * The constraints of the property or null if it isn't constrained
+         */
+        final ConstrainedProperty constrainedProperty
+        /**
+         * The association to cascade validation to, if the property is one
+         */
+        final Association association
+
+        PropertyStep(String name, int index, ConstrainedProperty constrainedProperty, Association association) {
+            this.name = name
+            this.index = index
+            this.constrainedProperty = constrainedProperty
+            this.association = association
+        }
+    }
+}
@@ -5,6 +5,8 @@ import grails.gorm.validation.ConstrainedProperty;
 import org.springframework.context.MessageSource;
 import org.springframework.validation.Errors;
 
+import java.util.regex.Pattern;
+
 /**
  * Validates the property against a supplied regular expression.
  *
@@ -14,10 +16,12 @@ import org.springframework.validation.Errors;
 public class MatchesConstraint extends AbstractConstraint {
 
     private final String regex;
+    private final Pattern pattern;
 
     public MatchesConstraint(Class<?> constraintOwningClass, String constraintPropertyName, Object constraintParameter, MessageSource messageSource) {
         super(constraintOwningClass, constraintPropertyName, constraintParameter, messageSource);
         this.regex = this.constraintParameter.toString();
+        this.pattern = Pattern.compile(regex);
     }
 
     /**
@@ -51,7 +55,7 @@ public class MatchesConstraint extends AbstractConstraint {
 
     @Override
     protected void processValidate(Object target, Object propertyValue, Errors errors) {
-        if (propertyValue.toString().matches(regex)) {
+        if (pattern.matcher(propertyValue.toString()).matches()) {
             return;
         }
 
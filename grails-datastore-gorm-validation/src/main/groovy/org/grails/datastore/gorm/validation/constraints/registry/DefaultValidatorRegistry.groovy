@@ -36,12 +36,18 @@ class DefaultValidatorRegistry implements ValidatorRegistry, ConstraintRegistry,
     final MessageSource messageSource
     final MappingContext mappingContext
 
+    /**
+     * The minimum size of a to-many association for the created validators to cascade validation to its elements in parallel
+     */
+    int parallelCascadeValidationThreshold = -1
+
     DefaultValidatorRegistry(MappingContext mappingContext, ConnectionSourceSettings connectionSourceSettings, MessageSource messageSource = new StaticMessageSource()) {
         this.constraintRegistry = new DefaultConstraintRegistry(messageSource)
         this.messageSource = messageSource
         Map<String, Object> defaultConstraintsMap = resolveDefaultConstraints(connectionSourceSettings)
         this.constraintsEvaluator = new DefaultConstraintEvaluator(constraintRegistry, mappingContext, defaultConstraintsMap)
         this.mappingContext = mappingContext
+        this.parallelCascadeValidationThreshold = connectionSourceSettings.parallelCascadeValidationThreshold
     }
 
     protected Map<String, Object> resolveDefaultConstraints( ConnectionSourceSettings connectionSourceSettings ) {
@@ -66,6 +72,7 @@ class DefaultValidatorRegistry implements ValidatorRegistry, ConstraintRegistry,
         }
         else {
             validator = new PersistentEntityValidator(entity, messageSource, constraintsEvaluator)
+            ((PersistentEntityValidator) validator).parallelCascadeThreshold = parallelCascadeValidationThreshold
             validatorMap.put(entity, validator)
         }
         return validator
@@ -21,6 +21,9 @@ import jakarta.persistence.Transient
 
 class PersistentEntityValidatorSpec extends Specification {
     @Shared Validator authorValidator
+    @Shared Validator invoiceValidator
+    @Shared Validator parallelInvoiceValidator
+    @Shared Validator accountValidator
 
     void setupSpec() {
         MappingContext mappingContext = new KeyValueMappingContext("test")
@@ -30,9 +33,18 @@ class PersistentEntityValidatorSpec extends Specification {
         PersistentEntity authorEntity = mappingContext.addPersistentEntity(Author)
         mappingContext.addPersistentEntity(Book)
         mappingContext.addPersistentEntity(Publisher)
+        PersistentEntity invoiceEntity = mappingContext.addPersistentEntity(Invoice)
+        mappingContext.addPersistentEntity(InvoiceLine)
+        mappingContext.addPersistentEntity(InvoiceNote)
+        PersistentEntity accountEntity = mappingContext.addPersistentEntity(Account)
 
         ValidatorRegistry registry = new DefaultValidatorRegistry(mappingContext, new ConnectionSourceSettings())
         authorValidator = registry.getValidator(authorEntity)
+        invoiceValidator = registry.getValidator(invoiceEntity)
+        accountValidator = registry.getValidator(accountEntity)
+
+        ValidatorRegistry parallelRegistry = new DefaultValidatorRegistry(mappingContext, new ConnectionSourceSettings().parallelCascadeValidationThreshold(2))
+        parallelInvoiceValidator = parallelRegistry.getValidator(invoiceEntity)
     }
 
     // beforeValidate on the initial save is part of the GormValidationApi doValidate() call
@@ -161,6 +173,115 @@ class PersistentEntityValidatorSpec extends Specification {
         !errors.hasErrors()
         !author.dirtyPublisher.validateCalled
     }
+
+    def "validation cascades to the elements of a large to-many association in parallel"() {
+        given:
+        Invoice invoice = new Invoice(number: 'INV-1', lines: (0..<500).collect { int i ->
+            new InvoiceLine(sku: i % 100 == 7 ? '' : "SKU-$i")
+        })
+        Errors serialErrors = new ValidationErrors(invoice)
+        Errors parallelErrors = new ValidationErrors(invoice)
+
+        when:
+        invoiceValidator.validate(invoice, serialErrors)
+        parallelInvoiceValidator.validate(invoice, parallelErrors)
+
+        then: "the errors are reported under the nested paths of the elements in the order of the elements"
+        ((PersistentEntityValidator) parallelInvoiceValidator).parallelCascadeThreshold == 2
+        parallelErrors.errorCount == 5
+        parallelErrors.fieldErrors*.field == ['lines[7].sku', 'lines[107].sku', 'lines[207].sku', 'lines[307].sku', 'lines[407].sku']
+        parallelErrors.fieldErrors*.field == serialErrors.fieldErrors*.field
+        parallelErrors.fieldErrors*.codes == serialErrors.fieldErrors*.codes
+    }
+
+    def "validation cascades on the calling thread to elements with constraints that may need the session"() {
+        given:
+        Invoice invoice = new Invoice(number: 'INV-2', notes: (0..<50).collect { int i -> new InvoiceNote(text: "Note $i") })
+        Errors errors = new ValidationErrors(invoice)
+        InvoiceNote.validatingThreads.clear()
+
+        when:
+        parallelInvoiceValidator.validate(invoice, errors)
+
+        then:
+        !errors.hasErrors()
+        PersistentEntityValidator.isSessionRequired(((PersistentEntityValidator) parallelInvoiceValidator).entity.mappingContext.getPersistentEntity(InvoiceNote.name))
+        !PersistentEntityValidator.isSessionRequired(((PersistentEntityValidator) parallelInvoiceValidator).entity.mappingContext.getPersistentEntity(InvoiceLine.name))
+        InvoiceNote.validatingThreads == [Thread.currentThread()] as Set
+    }
+
+    def "the compiled constraint plan follows the persistent properties of the entity"() {
+        when:
+        def plan = ((PersistentEntityValidator) accountValidator).constraintPlan
+
+        then:
+        plan.is(((PersistentEntityValidator) accountValidator).constraintPlan)
+        plan.persistentProperties*.name == ((PersistentEntityValidator) accountValidator).entity.persistentProperties*.name
+        plan.persistentProperties.find { it.name == 'code' }.constrainedProperty.hasAppliedConstraint('matches')
+        'confirmation' in plan.transientProperties*.name
+    }
+
+    def "validation with compiled constraints reports the errors of every constraint in order"() {
+        given:
+        Account account = new Account(code: 'abc', email: 'not an email', card: '1234', name: '', confirmation: 'x')
+        Errors errors = new ValidationErrors(account)
+
+        when:
+        accountValidator.validate(account, errors)
+
+        then: "vetoing constraints stop the validation of a property and the other constraints report in the order they were applied"
+        errors.getFieldErrors('name')*.code == ['blank']
+        errors.getFieldErrors('code')*.code == ['matches.invalid', 'size.toosmall']
+        errors.getFieldError('email').code == 'email.invalid'
+        errors.getFieldError('card').code == 'creditCard.invalid'
+        errors.getFieldError('confirmation').code == 'size.toosmall'
+
+        when: "the values are valid"
+        account = new Account(code: 'ABCD', email: 'someone@example.com', card: '4111111111111111', name: 'Someone', confirmation: 'confirmed')
+        errors = new ValidationErrors(account)
+        accountValidator.validate(account, errors)
+
+        then:
+        !errors.hasErrors()
+    }
+
+    def "constraints applied after validation are taken into account"() {
+        given:
+        PersistentEntityValidator validator = (PersistentEntityValidator) accountValidator
+        Account account = new Account(code: 'ABCD', email: 'someone@example.com', card: '4111111111111111', name: 'Someone', confirmation: 'confirmed')
+        Errors errors = new ValidationErrors(account)
+        validator.validate(account, errors)
+
+        when:
+        validator.constrainedProperties.name.applyConstraint('inList', ['Anyone'])
+        errors = new ValidationErrors(account)
+        validator.validate(account, errors)
+
+        then:
+        errors.getFieldError('name').code == 'not.inList'
+
+        cleanup:
+        validator.constrainedProperties.name.applyConstraint('inList', null)
+    }
+}
+
+@Entity
+class Account {
+    String name
+    String code
+    String email
+    String card
+
+    @Transient
+    String confirmation
+
+    static constraints = {
+        name blank: false
+        code matches: /[A-Z]+/, size: 4..8
+        email email: true
+        card creditCard: true
+        confirmation nullable: true, size: 3..20
+    }
 }
 
 @Entity
@@ -200,6 +321,40 @@ class Author {
     }
 }
 
+@Entity
+class Invoice {
+    String number
+    List<InvoiceLine> lines
+    List<InvoiceNote> notes
+
+    static hasMany = [lines: InvoiceLine, notes: InvoiceNote]
+}
+
+@Entity
+class InvoiceNote {
+    static Set<Thread> validatingThreads = Collections.synchronizedSet(new HashSet<Thread>())
+
+    String text
+    static belongsTo = [invoice: Invoice]
+
+    static constraints = {
+        text validator: { String value ->
+            validatingThreads.add(Thread.currentThread())
+            return true
+        }
+    }
+}
+
+@Entity
+class InvoiceLine {
+    String sku
+    static belongsTo = [invoice: Invoice]
+
+    static constraints = {
+        sku blank: false
+    }
+}
+
 @Entity
 class Book {
     String name
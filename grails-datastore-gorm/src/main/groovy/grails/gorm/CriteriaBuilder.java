@@ -17,6 +17,7 @@ package grails.gorm;
 
 import groovy.lang.Closure;
 import groovy.lang.DelegatesTo;
+import org.grails.datastore.gorm.finders.DynamicFinder;
 import org.grails.datastore.gorm.query.criteria.AbstractCriteriaBuilder;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.model.MappingContext;
@@ -28,8 +29,10 @@ import org.grails.datastore.mapping.query.api.ProjectionList;
 
 import jakarta.persistence.criteria.JoinType;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.grails.datastore.gorm.finders.DynamicFinder.populateArgumentsForCriteria;
 
@@ -149,6 +152,40 @@ public class CriteriaBuilder<T> extends AbstractCriteriaBuilder implements Build
         return new PagedResultList(query);
     }
 
+    /**
+     * Defines and executes a query whose results are fetched lazily in a single call. Example: Foo.createCriteria().stream { }
+     * The stream should be closed and consumed within the current session.
+     *
+     * @param callable The closure to execute
+     *
+     * @return The stream of results
+     */
+    public Stream stream(Closure callable) {
+        return stream(Collections.emptyMap(), callable);
+    }
+
+    /**
+     * Defines and executes a query whose results are fetched lazily, {@code fetchSize} results at a time
+     *
+     * @param params The pagination and fetch size parameters
+     * @param callable The closure to execute
+     *
+     * @return The stream of results
+     */
+    public Stream stream(Map params, Closure callable) {
+        ensureQueryIsInitialized();
+
+        paginationEnabledList = true;
+        orderEntries = new ArrayList<>();
+        invokeClosureNode(callable);
+        populateArgumentsForCriteria(targetClass, query, params);
+        for (Query.Order orderEntry : orderEntries) {
+            query.order(orderEntry);
+        }
+        Object fetchSize = params.get(DynamicFinder.ARGUMENT_FETCH_SIZE);
+        return query.stream(fetchSize != null ? Integer.parseInt(fetchSize.toString()) : Query.DEFAULT_FETCH_SIZE);
+    }
+
     /**
      * Defines and executes a count query in a single call. Example: Foo.createCriteria.count { }
      * @param callable The closure to execute
@@ -31,6 +31,7 @@ import org.grails.datastore.mapping.query.api.QueryArgumentsAware
 import org.grails.datastore.mapping.query.api.QueryableCriteria
 
 import jakarta.persistence.criteria.JoinType
+import java.util.stream.Stream
 
 /**
  * Represents criteria that is not bound to the current connection and can be built up and re-used at a later date.
@@ -134,7 +135,7 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
     List<T> list(Map args = Collections.emptyMap(), @DelegatesTo(DetachedCriteria) Closure additionalCriteria = null) {
         (List)withPopulatedQuery(args, additionalCriteria) { Query query ->
             if (args?.max) {
-                return new PagedResultList(query)
+                return new PagedResultList(query, args.get(DynamicFinder.ARGUMENT_CONCURRENT_COUNT) as boolean)
             }
             return query.list()
         }
@@ -149,6 +150,28 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
         list(Collections.emptyMap(), additionalCriteria)
     }
 
+    /**
+     * Streams the records matching the criterion contained within this DetachedCriteria instance. The records are fetched
+     * lazily, {@code fetchSize} records at a time, hence the stream should be closed and consumed within the current session.
+     *
+     * @return A stream of matching instances
+     */
+    Stream<T> stream(Map args = Collections.emptyMap(), @DelegatesTo(DetachedCriteria) Closure additionalCriteria = null) {
+        (Stream<T>)withPopulatedQuery(args, additionalCriteria) { Query query ->
+            def fetchSize = args?.get(DynamicFinder.ARGUMENT_FETCH_SIZE)
+            return query.stream(fetchSize != null ? fetchSize.toString().toInteger() : Query.DEFAULT_FETCH_SIZE)
+        }
+    }
+
+    /**
+     * Streams the records matching the criterion contained within this DetachedCriteria instance
+     *
+     * @return A stream of matching instances
+     */
+    Stream<T> stream(@DelegatesTo(DetachedCriteria) Closure additionalCriteria) {
+        stream(Collections.emptyMap(), additionalCriteria)
+    }
+
     @Override
     Iterator<T> iterator() {
         return list().iterator()
@@ -556,6 +579,9 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
      * @return The total number deleted
      */
     Number deleteAll() {
+        if (afterValues != null) {
+            throw new UnsupportedOperationException("Keyset pagination with after() is not supported by deleteAll()")
+        }
         GormEnhancer.findStaticApi(targetClass, connectionName).withDatastoreSession { Session session ->
             applyLazyCriteria()
             session.deleteAll(this)
@@ -568,6 +594,9 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
      * @return The total number updated
      */
     Number updateAll(Map properties) {
+        if (afterValues != null) {
+            throw new UnsupportedOperationException("Keyset pagination with after() is not supported by updateAll()")
+        }
         GormEnhancer.findStaticApi(targetClass, connectionName).withDatastoreSession { Session session ->
             applyLazyCriteria()
             session.updateAll(this, properties)
@@ -618,6 +647,18 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
         (DetachedCriteria<T>)super.offset(offset)
     }
 
+    /**
+     * Sets the values of the sort orders to continue after and returns a new criteria instance. This method does not mutate the original criteria!
+     *
+     * @param lastSortValues The values of the sorted properties of the last result of the previous page
+     * @return A new DetachedCriteria instance derived from this
+     * @see Query#after(Object...)
+     */
+    @Override
+    DetachedCriteria<T> after(Object... lastSortValues) {
+        (DetachedCriteria<T>)super.after(lastSortValues)
+    }
+
     /**
      * Adds a sort order to this criteria instance
      *
@@ -755,6 +796,9 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
             if (defaultOffset != null) {
                 query.offset(defaultOffset)
             }
+            if (afterValues != null) {
+                query.after(afterValues)
+            }
             DynamicFinder.applyDetachedCriteria(query, this)
 
             if(query instanceof QueryArgumentsAware) {
@@ -18,13 +18,28 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.persistence.FlushModeType;
+
+import org.grails.datastore.mapping.core.AbstractSession;
+import org.grails.datastore.mapping.core.Datastore;
+import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.query.Query;
 
 /**
  * A result list implementation that provides an additional property called 'totalCount' to obtain the total number of
  * records. Useful for pagination.
  *
+ * <p>The total count is queried the first time it is requested, or concurrently with the page if the list is created with
+ * {@code concurrentCount}. If the query caches its results the count query does so too. Concurrent counts are executed by a
+ * dedicated pool of daemon threads, which can be replaced with {@link #setCountExecutor(Executor)}.</p>
+ *
  * @author Graeme Rocher
  * @since 1.0
  */
@@ -38,11 +53,32 @@ public class PagedResultList<E> implements Serializable, List<E> {
     protected List<E> resultList;
     protected int totalCount = Integer.MIN_VALUE;
 
+    protected transient CompletableFuture<Number> totalCountFuture;
+
+    private static volatile Executor countExecutor;
+
     public PagedResultList(Query query) {
         this.query = query;
         this.resultList = query == null ? Collections.<E>emptyList() : query.list();
     }
 
+    /**
+     * Creates a result list, optionally counting the total number of records concurrently with fetching the page. The concurrent count
+     * is executed in a new session of the datastore, so it only sees changes that are visible to other sessions. It isn't used for
+     * multi-tenant entities, whose criteria depend on the tenant resolved by the current thread, nor while the session may have changes
+     * that the page query would flush first. In those cases the total count is queried when it is first requested.
+     *
+     * @param query The query
+     * @param concurrentCount Whether to count the records concurrently
+     */
+    public PagedResultList(Query query, boolean concurrentCount) {
+        this.query = query;
+        if (query != null && concurrentCount && !query.getEntity().isMultiTenant() && !mayFlushBeforeQuery(query.getSession())) {
+            this.totalCountFuture = countConcurrently(query);
+        }
+        this.resultList = query == null ? Collections.<E>emptyList() : query.list();
+    }
+
     /**
      * @return The total number of records for this query
      */
@@ -100,15 +136,98 @@ public class PagedResultList<E> implements Serializable, List<E> {
         if (totalCount == Integer.MIN_VALUE) {
             if (query == null) {
                 totalCount = 0;
+            } else if (totalCountFuture != null) {
+                Number result;
+                try {
+                    result = totalCountFuture.join();
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+                } finally {
+                    totalCountFuture = null;
+                }
+                totalCount = result == null ? 0 : result.intValue();
             } else {
                 Query newQuery = (Query)query.clone();
                 newQuery.projections().count();
+                if (query.isQueryCacheEnabled()) {
+                    newQuery.cache(true);
+                }
                 Number result = (Number) newQuery.singleResult();
                 totalCount = result == null ? 0 : result.intValue();
             }
         }
     }
 
+    /**
+     * Sets the executor concurrent total counts are executed by
+     *
+     * @param executor The executor or null to use the default pool
+     * @since 9.0
+     */
+    public static void setCountExecutor(Executor executor) {
+        countExecutor = executor;
+    }
+
+    /**
+     * @return The executor concurrent total counts are executed by
+     * @since 9.0
+     */
+    public static Executor getCountExecutor() {
+        Executor executor = countExecutor;
+        if (executor == null) {
+            synchronized (PagedResultList.class) {
+                executor = countExecutor;
+                if (executor == null) {
+                    executor = createCountExecutor();
+                    countExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static Executor createCountExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "gorm-paged-count-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static boolean mayFlushBeforeQuery(Session session) {
+        if (session.getFlushMode() != FlushModeType.AUTO) {
+            return false;
+        }
+        // the count in another session wouldn't see the changes the page query flushes
+        return !(session instanceof AbstractSession) || ((AbstractSession) session).getPendingOperationCount() > 0;
+    }
+
+    private static CompletableFuture<Number> countConcurrently(Query query) {
+        Session session = query.getSession();
+        final Datastore datastore = session.getDatastore();
+        final PersistentEntity entity = query.getEntity();
+        final List<Query.Criterion> criteria = new ArrayList<>(query.getCriteria().getCriteria());
+        final boolean cache = query.isQueryCacheEnabled();
+        return CompletableFuture.supplyAsync(() -> {
+            Session countSession = datastore.connect();
+            try {
+                Query countQuery = countSession.createQuery(entity.getJavaClass());
+                for (Query.Criterion criterion : criteria) {
+                    countQuery.add(criterion);
+                }
+                countQuery.projections().count();
+                if (cache) {
+                    countQuery.cache(true);
+                }
+                return (Number) countQuery.singleResult();
+            } finally {
+                countSession.disconnect();
+            }
+        }, getCountExecutor());
+    }
+
     @Override
     public int size() {
         return resultList.size();
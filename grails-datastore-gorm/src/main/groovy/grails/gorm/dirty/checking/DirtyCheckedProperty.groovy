@@ -14,4 +14,10 @@ import java.lang.annotation.Target
 @Retention(RetentionPolicy.RUNTIME)
 @Target([ElementType.METHOD])
 @interface DirtyCheckedProperty {
+
+    /**
+     * @return The ordinal of the property in the dirty property mask of the {@link org.grails.datastore.mapping.dirty.checking.DirtyCheckable} instance or -1 if it has none
+     * @since 9.0
+     */
+    int ordinal() default -1
 }
\ No newline at end of file
@@ -31,6 +31,15 @@ interface TenantService {
      */
     void eachTenant(Closure callable)
 
+    /**
+     * Execute the given closure for each tenant in parallel, running at most the given number of tenants at a time. Each tenant is executed
+     * on its own thread with a new datastore session for the scope of the call
+     *
+     * @param maxConcurrency The maximum number of tenants to execute the closure for at the same time
+     * @param callable The closure
+     * @throws org.grails.datastore.mapping.multitenancy.exceptions.TenantExecutionException if the closure failed for one or more tenants
+     */
+    void eachTenantParallel(int maxConcurrency, Closure callable)
 
     /**
      * @return The current tenant id
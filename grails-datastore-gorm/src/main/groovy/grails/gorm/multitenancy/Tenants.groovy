@@ -3,6 +3,7 @@ package grails.gorm.multitenancy
 import groovy.transform.CompileStatic
 import groovy.util.logging.Slf4j
 import org.grails.datastore.gorm.GormEnhancer
+import org.grails.datastore.gorm.multitenancy.TenantResolutionCache
 import org.grails.datastore.mapping.core.Datastore
 import org.grails.datastore.mapping.core.connections.ConnectionSource
 import org.grails.datastore.mapping.core.connections.ConnectionSources
@@ -10,6 +11,18 @@ import org.grails.datastore.mapping.multitenancy.AllTenantsResolver
 import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
 import org.grails.datastore.mapping.multitenancy.MultiTenantCapableDatastore
 import org.grails.datastore.mapping.multitenancy.TenantResolver
+import org.grails.datastore.mapping.multitenancy.exceptions.TenantException
+import org.grails.datastore.mapping.multitenancy.exceptions.TenantExecutionException
+
+import java.lang.reflect.Method
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.Semaphore
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * Helper methods for working with multi tenancy
@@ -41,6 +54,28 @@ class Tenants {
         eachTenantInternal(GormEnhancer.findDatastoreByType(datastoreClass), callable)
     }
 
+    /**
+     * Execute the given closure for each tenant in parallel, running at most the given number of tenants at a time.
+     *
+     * @param maxConcurrency The maximum number of tenants to execute the closure for at the same time
+     * @param callable The closure
+     * @throws TenantExecutionException if the closure failed for one or more tenants
+     */
+    static void eachTenantParallel(int maxConcurrency, Closure callable) {
+        eachTenantParallel(asMultiTenantCapable(GormEnhancer.findSingleDatastore()), maxConcurrency, callable)
+    }
+
+    /**
+     * Execute the given closure for each tenant of the given datastore type in parallel, running at most the given number of tenants at a time.
+     *
+     * @param maxConcurrency The maximum number of tenants to execute the closure for at the same time
+     * @param callable The closure
+     * @throws TenantExecutionException if the closure failed for one or more tenants
+     */
+    static void eachTenantParallel(Class<? extends Datastore> datastoreClass, int maxConcurrency, Closure callable) {
+        eachTenantParallel(asMultiTenantCapable(GormEnhancer.findDatastoreByType(datastoreClass)), maxConcurrency, callable)
+    }
+
     /**
      * @return The current tenant id
      *
@@ -70,7 +105,7 @@ class Tenants {
             return tenantId
         } else {
             TenantResolver tenantResolver = multiTenantCapableDatastore.getTenantResolver()
-            Serializable tenantIdentifier = tenantResolver.resolveTenantIdentifier()
+            Serializable tenantIdentifier = TenantResolutionCache.resolve(tenantResolver)
             log.debug "Resolved tenant id [$tenantIdentifier] from resolver [${tenantResolver.getClass().simpleName}]"
             return tenantIdentifier
         }
@@ -92,7 +127,7 @@ class Tenants {
             }
             else {
                 TenantResolver tenantResolver = multiTenantCapableDatastore.getTenantResolver()
-                def tenantIdentifier = tenantResolver.resolveTenantIdentifier()
+                def tenantIdentifier = TenantResolutionCache.resolve(tenantResolver)
                 log.debug "Resolved tenant id [$tenantIdentifier] from resolver [${tenantResolver.getClass().simpleName}]"
                 return tenantIdentifier
             }
@@ -281,19 +316,96 @@ class Tenants {
      * @return The result of the closure
      */
     static void eachTenant(MultiTenantCapableDatastore multiTenantCapableDatastore, Closure callable) {
+        for (tenantId in resolveTenantIds(multiTenantCapableDatastore)) {
+            withId(multiTenantCapableDatastore, tenantId, callable)
+        }
+    }
+
+    /**
+     * Execute the given closure for each tenant of the given datastore in parallel, running at most the given number of tenants at a time.
+     * The closure is executed for each tenant on its own thread, with the tenant id bound and a new datastore session for the scope of the call.
+     * Virtual threads are used if the JVM supports them.
+     *
+     * <p>The closure is executed for every tenant even if it fails for some of them. Once all tenants are done the failures are
+     * reported together.</p>
+     *
+     * @param maxConcurrency The maximum number of tenants to execute the closure for at the same time
+     * @param callable The closure
+     * @throws TenantExecutionException if the closure failed for one or more tenants
+     */
+    static void eachTenantParallel(MultiTenantCapableDatastore multiTenantCapableDatastore, int maxConcurrency, Closure callable) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Argument [maxConcurrency] must be greater than zero")
+        }
+        List<Serializable> tenantIds = resolveTenantIds(multiTenantCapableDatastore)
+        if (tenantIds.isEmpty()) {
+            return
+        }
+
+        Semaphore permits = new Semaphore(maxConcurrency)
+        ClassLoader contextClassLoader = Thread.currentThread().contextClassLoader
+        Map<Serializable, Future<?>> executions = new LinkedHashMap<>()
+        ExecutorService executor = createTenantExecutor(Math.min(maxConcurrency, tenantIds.size()))
+        try {
+            for (Serializable tenantId in tenantIds) {
+                permits.acquire()
+                Closure tenantCallable = (Closure) callable.clone()
+                try {
+                    executions.put(tenantId, executor.submit({
+                        Thread.currentThread().contextClassLoader = contextClassLoader
+                        try {
+                            executeForTenant(multiTenantCapableDatastore, tenantId, tenantCallable)
+                        }
+                        finally {
+                            permits.release()
+                        }
+                    } as Runnable))
+                } catch (RejectedExecutionException e) {
+                    permits.release()
+                    throw e
+                }
+            }
+
+            Map<Serializable, Throwable> failures = new LinkedHashMap<>()
+            for (Map.Entry<Serializable, Future<?>> execution in executions.entrySet()) {
+                try {
+                    execution.value.get()
+                } catch (ExecutionException e) {
+                    failures.put(execution.key, e.cause ?: e)
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new TenantExecutionException("Execution failed for ${failures.size()} of ${tenantIds.size()} tenants: ${failures.keySet()}", failures)
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt()
+            executor.shutdownNow()
+            throw new TenantException("Interrupted while executing for each tenant", e)
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    /**
+     * Resolves the ids of all tenants of the given datastore
+     *
+     * @param multiTenantCapableDatastore The datastore
+     * @return The tenant ids
+     */
+    protected static List<Serializable> resolveTenantIds(MultiTenantCapableDatastore multiTenantCapableDatastore) {
         MultiTenancySettings.MultiTenancyMode multiTenancyMode = multiTenantCapableDatastore.multiTenancyMode
+        List<Serializable> tenantIds = []
         if (multiTenancyMode == MultiTenancySettings.MultiTenancyMode.DATABASE) {
             if (multiTenantCapableDatastore.tenantResolver instanceof AllTenantsResolver) {
-                def tenantIds = ((AllTenantsResolver) multiTenantCapableDatastore.tenantResolver).resolveTenantIds()
-                for (tenantId in tenantIds) {
-                    withId(multiTenantCapableDatastore, tenantId, callable)
+                for (tenantId in ((AllTenantsResolver) multiTenantCapableDatastore.tenantResolver).resolveTenantIds()) {
+                    tenantIds.add(tenantId)
                 }
             } else {
                 ConnectionSources connectionSources = multiTenantCapableDatastore.connectionSources
                 for (ConnectionSource connectionSource in connectionSources.allConnectionSources) {
                     def tenantId = connectionSource.name
                     if (tenantId != ConnectionSource.DEFAULT) {
-                        withId(multiTenantCapableDatastore, tenantId, callable)
+                        tenantIds.add(tenantId)
                     }
                 }
             }
@@ -301,7 +413,7 @@ class Tenants {
             TenantResolver tenantResolver = multiTenantCapableDatastore.tenantResolver
             if (tenantResolver instanceof AllTenantsResolver) {
                 for (tenantId in ((AllTenantsResolver) tenantResolver).resolveTenantIds()) {
-                    withId(multiTenantCapableDatastore, tenantId, callable)
+                    tenantIds.add(tenantId)
                 }
             } else {
                 throw new UnsupportedOperationException("Multi tenancy mode $multiTenancyMode is configured, but the configured TenantResolver does not implement the [org.grails.datastore.mapping.multitenancy.AllTenantsResolver] interface")
@@ -309,6 +421,41 @@ class Tenants {
         } else {
             throw new UnsupportedOperationException("Method not supported in multi tenancy mode $multiTenancyMode")
         }
+        return tenantIds
+    }
+
+    private static void executeForTenant(MultiTenantCapableDatastore multiTenantCapableDatastore, Serializable tenantId, Closure callable) {
+        if (multiTenantCapableDatastore.getMultiTenancyMode().isSharedConnection()) {
+            // the tenants share the connection, but every thread needs a session of its own
+            multiTenantCapableDatastore.withNewSession(tenantId) {
+                withId(multiTenantCapableDatastore, tenantId, callable)
+            }
+        }
+        else {
+            withId(multiTenantCapableDatastore, tenantId, callable)
+        }
+    }
+
+    private static ExecutorService createTenantExecutor(int threads) {
+        try {
+            // virtual threads are available from Java 21
+            Method virtualThreadExecutor = Executors.getMethod("newVirtualThreadPerTaskExecutor")
+            return (ExecutorService) virtualThreadExecutor.invoke(null)
+        } catch (NoSuchMethodException ignored) {
+            AtomicInteger threadNumber = new AtomicInteger()
+            return Executors.newFixedThreadPool(threads, { Runnable runnable ->
+                Thread thread = new Thread(runnable, "gorm-tenant-${threadNumber.incrementAndGet()}")
+                thread.daemon = true
+                return thread
+            } as ThreadFactory)
+        }
+    }
+
+    private static MultiTenantCapableDatastore asMultiTenantCapable(Datastore datastore) {
+        if (datastore instanceof MultiTenantCapableDatastore) {
+            return (MultiTenantCapableDatastore) datastore
+        }
+        throw new UnsupportedOperationException("Datastore implementation does not support multi-tenancy")
     }
 
     private static void eachTenantInternal(Datastore datastore, Closure callable) {
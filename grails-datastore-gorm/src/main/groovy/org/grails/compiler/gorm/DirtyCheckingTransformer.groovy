@@ -6,6 +6,7 @@ import groovy.transform.CompilationUnitAware
 import groovy.transform.CompileStatic
 import org.codehaus.groovy.ast.*
 import org.codehaus.groovy.ast.expr.ConstantExpression
+import org.codehaus.groovy.ast.expr.Expression
 import org.codehaus.groovy.ast.expr.ListExpression
 import org.codehaus.groovy.ast.expr.MethodCallExpression
 import org.codehaus.groovy.ast.stmt.BlockStatement
@@ -48,6 +49,10 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
     public static final ClassNode DIRTY_CHECKED_PROPERTY_CLASS_NODE = ClassHelper.make(DirtyCheckedProperty)
     public static final ClassNode DIRTY_CHECK_CLASS_NODE = ClassHelper.make(DirtyCheck)
     public static final AnnotationNode DIRTY_CHECKED_PROPERTY_ANNOTATION_NODE = new AnnotationNode(DIRTY_CHECKED_PROPERTY_CLASS_NODE)
+    /**
+     * The key of the node metadata that holds the ordinal the dirty checked properties of sub classes start at
+     */
+    public static final String NEXT_DIRTY_PROPERTY_ORDINAL = "DirtyCheckingTransformer.nextDirtyPropertyOrdinal"
 
     static {
         if(ClassUtils.isPresent("jakarta.validation.Constraint")) {
@@ -77,6 +82,7 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
             changeTrackableClassNode.setSuperClass(new ClassNode(DirtyCheckable).getPlainNodeReference())
         }
         final MethodNode markDirtyMethodNode = changeTrackableClassNode.getMethod(METHOD_NAME_MARK_DIRTY, new Parameter(ClassHelper.STRING_TYPE, "propertyName"), new Parameter(ClassHelper.OBJECT_TYPE, "newValue"))
+        final MethodNode markDirtyWithOrdinalMethodNode = changeTrackableClassNode.getMethod(METHOD_NAME_MARK_DIRTY, new Parameter(ClassHelper.int_TYPE, "ordinal"), new Parameter(ClassHelper.STRING_TYPE, "propertyName"), new Parameter(ClassHelper.OBJECT_TYPE, "newValue"), new Parameter(ClassHelper.OBJECT_TYPE, "oldValue"))
 
 
         ClassNode superClass = classNode.getSuperClass()
@@ -140,6 +146,9 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
         }
 
         boolean hasVersion = false
+        // the ordinals of the dirty property mask continue those of the dirty checked super class, so that they are unique
+        // across the hierarchy
+        int nextOrdinal = shouldWeave ? 0 : findNextOrdinal(superClass)
         for (PropertyNode pn in propertyNodes) {
             final propertyName = pn.name
             if (!pn.isStatic() && pn.isPublic() && !NameUtils.isConfigurational(propertyName)) {
@@ -231,8 +240,17 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
                     }
 
                     // now add the setter that tracks changes. Each setters becomes:
-                    // void setFoo(String foo) { markDirty("foo", foo); this.foo = foo }
-                    addDirtyCheckingSetter(classNode, propertyName, fieldName, returnType, markDirtyMethodNode, staticCompilationVisitor)
+                    // void setFoo(String foo) { markDirty(0, "foo", foo, this.foo); this.foo = foo }
+                    if(markDirtyWithOrdinalMethodNode != null) {
+                        int ordinal = -1
+                        if(nextOrdinal > -1) {
+                            ordinal = nextOrdinal++
+                        }
+                        addDirtyCheckingSetter(classNode, propertyName, fieldName, returnType, markDirtyWithOrdinalMethodNode, ordinal, staticCompilationVisitor)
+                    }
+                    else {
+                        addDirtyCheckingSetter(classNode, propertyName, fieldName, returnType, markDirtyMethodNode, -1, staticCompilationVisitor)
+                    }
                 }
                 else if(getterAndSetter.hasBoth()) {
                     // if both a setter and getter are present, we get hold of the setter and weave the markDirty method call into it
@@ -248,7 +266,7 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
                     else if(getterAndSetter.getter != null) {
                         String fieldName = propertyField.getName()
                         ClassNode returnType = resolvePropertyReturnType(pn, classNode)
-                        addDirtyCheckingSetter(classNode, propertyName, fieldName, returnType, markDirtyMethodNode, staticCompilationVisitor)
+                        addDirtyCheckingSetter(classNode, propertyName, fieldName, returnType, markDirtyMethodNode, -1, staticCompilationVisitor)
                     }
                     else {
                         gettersAndSetters.remove(propertyName)
@@ -277,6 +295,42 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
                 weaveIntoExistingSetter(propertyName, getterAndSetter, markDirtyMethodNode)
             }
         }
+        // a class may be transformed more than once, the setters generated by the first transformation are kept
+        Integer transformedOrdinal = (Integer) classNode.getNodeMetaData(NEXT_DIRTY_PROPERTY_ORDINAL)
+        if (transformedOrdinal == null || transformedOrdinal < nextOrdinal) {
+            classNode.putNodeMetaData(NEXT_DIRTY_PROPERTY_ORDINAL, nextOrdinal)
+        }
+    }
+
+    /**
+     * Finds the ordinal the dirty checked properties of a sub class of the given class start at
+     *
+     * @param superClass The dirty checked super class
+     * @return The ordinal or -1 if the super class is compiled together with the sub class and hasn't been transformed yet
+     */
+    private static int findNextOrdinal(ClassNode superClass) {
+        Integer next = (Integer) superClass.redirect().getNodeMetaData(NEXT_DIRTY_PROPERTY_ORDINAL)
+        if (next != null) {
+            return next
+        }
+        if (superClass.isPrimaryClassNode()) {
+            return -1
+        }
+        // the super class was compiled before, continue after the highest ordinal of its setters
+        int max = -1
+        ClassNode current = superClass
+        while (current != null && !current.equals(OBJECT_CLASS_NODE)) {
+            for (MethodNode mn in current.getMethods()) {
+                for (AnnotationNode an in mn.getAnnotations(DIRTY_CHECKED_PROPERTY_CLASS_NODE)) {
+                    Expression ordinal = an.getMember("ordinal")
+                    if (ordinal instanceof ConstantExpression && ((ConstantExpression) ordinal).getValue() instanceof Number) {
+                        max = Math.max(max, ((Number) ((ConstantExpression) ordinal).getValue()).intValue())
+                    }
+                }
+            }
+            current = current.getSuperClass()
+        }
+        return max + 1
     }
 
     /**
@@ -309,18 +363,32 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
         returnType
     }
 
-    private void addDirtyCheckingSetter(ClassNode classNode, String propertyName, String fieldName, ClassNode returnType, MethodNode markDirtyMethodNode, StaticCompilationVisitor staticCompilationVisitor) {
+    private void addDirtyCheckingSetter(ClassNode classNode, String propertyName, String fieldName, ClassNode returnType, MethodNode markDirtyMethodNode, int ordinal, StaticCompilationVisitor staticCompilationVisitor) {
         final String setterName = NameUtils.getSetterName(propertyName)
         final Parameter setterParameter = param(returnType, propertyName)
         MethodNode setter = classNode.getMethod(setterName, setterParameter)
         if (setter == null) {
             final BlockStatement setterBody = new BlockStatement()
-            MethodCallExpression markDirtyMethodCall = createMarkDirtyMethodCall(markDirtyMethodNode, propertyName, setterParameter)
+            MethodCallExpression markDirtyMethodCall
+            if (markDirtyMethodNode.parameters.length == 4) {
+                // the old value is read straight from the field, the setter is generated so the getter is too
+                markDirtyMethodCall = createMarkDirtyMethodCall(markDirtyMethodNode, ordinal, propertyName, setterParameter, propX(varX("this"), fieldName))
+            }
+            else {
+                markDirtyMethodCall = createMarkDirtyMethodCall(markDirtyMethodNode, propertyName, setterParameter)
+            }
             setterBody.addStatement(stmt(markDirtyMethodCall))
             setterBody.addStatement(assignS(propX(varX("this"), fieldName), varX(setterParameter)))
 
             setter = classNode.addMethod(setterName, PUBLIC, ClassHelper.VOID_TYPE, params(setterParameter), null, setterBody)
-            setter.addAnnotation(DIRTY_CHECKED_PROPERTY_ANNOTATION_NODE)
+            if (ordinal > -1) {
+                AnnotationNode dirtyCheckedProperty = new AnnotationNode(DIRTY_CHECKED_PROPERTY_CLASS_NODE)
+                dirtyCheckedProperty.addMember("ordinal", constX(ordinal, true))
+                setter.addAnnotation(dirtyCheckedProperty)
+            }
+            else {
+                setter.addAnnotation(DIRTY_CHECKED_PROPERTY_ANNOTATION_NODE)
+            }
             staticCompilationVisitor.visitMethod(
                     setter
             )
@@ -408,6 +476,13 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
         return markDirtyMethodCall
     }
 
+    protected MethodCallExpression createMarkDirtyMethodCall(MethodNode markDirtyMethodNode, int ordinal, String propertyName, Variable value, Expression oldValue) {
+        def args = args(constX(ordinal, true), constX(propertyName), varX(value), oldValue)
+        final markDirtyMethodCall = callX(varX("this"), markDirtyMethodNode.name, args)
+        markDirtyMethodCall.methodTarget = markDirtyMethodNode
+        return markDirtyMethodCall
+    }
+
     protected GetterAndSetter getGetterAndSetterForPropertyName(LinkedHashMap<String, GetterAndSetter> gettersAndSetters, String propertyName) {
         def getterAndSetter = gettersAndSetters[propertyName]
         if (getterAndSetter == null) {
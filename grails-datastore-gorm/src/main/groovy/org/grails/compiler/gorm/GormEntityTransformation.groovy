@@ -51,6 +51,9 @@ import org.codehaus.groovy.ast.tools.GeneralUtils
 import org.codehaus.groovy.control.CompilationUnit
 import org.codehaus.groovy.control.CompilePhase
 import org.codehaus.groovy.control.SourceUnit
+import org.codehaus.groovy.control.io.FileReaderSource
+import org.codehaus.groovy.control.io.ReaderSource
+import org.codehaus.groovy.control.io.URLReaderSource
 import org.codehaus.groovy.transform.ASTTransformation
 import org.codehaus.groovy.transform.AbstractASTTransformation
 import org.codehaus.groovy.transform.GroovyASTTransformation
@@ -58,6 +61,7 @@ import org.grails.datastore.gorm.GormEnhancer
 import org.grails.datastore.gorm.GormEntity
 import org.grails.datastore.gorm.GormEntityDirtyCheckable
 import org.grails.datastore.gorm.query.GormQueryOperations
+import org.grails.datastore.gorm.utils.EntityIndex
 import org.grails.datastore.mapping.model.config.GormProperties
 import org.grails.datastore.mapping.reflect.AstUtils
 import org.grails.datastore.mapping.reflect.ClassUtils
@@ -158,9 +162,18 @@ class GormEntityTransformation extends AbstractASTTransformation implements Comp
             return
         }
 
+        // an entity super class compiled together with this class is transformed first, because the ordinals
+        // of the dirty checked properties of this class continue those of the super class
+        ClassNode superClassNode = classNode.getSuperClass()
+        if (superClassNode != null && superClassNode.isPrimaryClassNode() && superClassNode.getModule() != null &&
+                (hasAnnotation(superClassNode, MY_TYPE) || hasAnnotation(superClassNode, JPA_ENTITY_CLASS_NODE) || AstUtils.isDomainClass(superClassNode))) {
+            visit(superClassNode, superClassNode.getModule().getContext())
+        }
+
         final boolean isJpaEntity = hasAnnotation(classNode, JPA_ENTITY_CLASS_NODE)
 
         AstUtils.addTransformedEntityName(classNode.name)
+        addToEntityIndex(classNode, sourceUnit)
         // Add the entity annotation and enable generic replacement
         classNode.setUsingGenerics(true)
 
@@ -376,6 +389,24 @@ class GormEntityTransformation extends AbstractASTTransformation implements Comp
         classNode.putNodeMetaData(AstUtils.TRANSFORM_APPLIED_MARKER, APPLIED_MARKER)
     }
 
+    /**
+     * Records the entity in the {@link EntityIndex} of the compilation output so that it can be found without scanning the classpath
+     */
+    protected void addToEntityIndex(ClassNode classNode, SourceUnit sourceUnit) {
+        ReaderSource readerSource = sourceUnit.getSource()
+        // Don't index runtime compiled scripts
+        if (readerSource instanceof FileReaderSource || readerSource instanceof URLReaderSource) {
+            File targetDirectory = sourceUnit.configuration.targetDirectory
+            if (targetDirectory != null) {
+                try {
+                    EntityIndex.addEntity(targetDirectory, classNode.name)
+                } catch (Throwable e) {
+                    AstUtils.warning(sourceUnit, classNode, "Error adding entity [${classNode.name}] to the entity index: $e.message")
+                }
+            }
+        }
+    }
+
     protected Class pickGormEntityTrait(ClassNode classNode, SourceUnit source) {
         def classLoader = getClass().classLoader
 
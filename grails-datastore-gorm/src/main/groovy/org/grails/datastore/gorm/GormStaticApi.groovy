@@ -14,6 +14,8 @@
  */
 package org.grails.datastore.gorm
 
+import java.util.concurrent.ConcurrentHashMap
+
 import grails.gorm.CriteriaBuilder
 import grails.gorm.DetachedCriteria
 import grails.gorm.MultiTenant
@@ -30,6 +32,7 @@ import org.grails.datastore.gorm.finders.DynamicFinder
 import org.grails.datastore.gorm.finders.FinderMethod
 import org.grails.datastore.gorm.multitenancy.TenantDelegatingGormOperations
 import org.grails.datastore.gorm.query.NamedCriteriaProxy
+import org.grails.datastore.gorm.validation.constraints.builtin.UniqueConstraintBatch
 import org.grails.datastore.mapping.core.Datastore
 import org.grails.datastore.mapping.core.DatastoreUtils
 import org.grails.datastore.mapping.core.Session
@@ -63,6 +66,7 @@ import org.springframework.util.Assert
 class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D> {
 
     protected final List<FinderMethod> gormDynamicFinders
+    private final Map<String, FinderMethod> dynamicFindersByMethodName = new ConcurrentHashMap<>()
 
     protected final PlatformTransactionManager transactionManager
     protected final String defaultQualifier
@@ -135,7 +139,7 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
      */
     @CompileDynamic
     def methodMissing(String methodName, Object args) {
-        FinderMethod method = gormDynamicFinders.find { FinderMethod f -> f.isMethodMatch(methodName) }
+        FinderMethod method = findDynamicFinder(methodName)
         if (!method) {
             if(args && args[-1] instanceof Closure) {
                 NamedCriteriaProxy proxy = GormEnhancer.createNamedQuery(persistentClass, methodName)
@@ -186,6 +190,24 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
         return method.invoke(persistentClass, methodName, args)
     }
 
+    /**
+     * Finds the dynamic finder for the given method name. The finder matching a method name is only searched for once,
+     * which matters for multi-tenant entities whose finder invocations always go through {@link #methodMissing(String, Object)}.
+     *
+     * @param methodName The method name
+     * @return The finder or null if no finder matches
+     */
+    protected FinderMethod findDynamicFinder(String methodName) {
+        FinderMethod method = dynamicFindersByMethodName.get(methodName)
+        if (method == null) {
+            method = gormDynamicFinders.find { FinderMethod f -> f.isMethodMatch(methodName) }
+            if (method != null) {
+                dynamicFindersByMethodName.put(methodName, method)
+            }
+        }
+        return method
+    }
+
     /**
      *
      * @param callable Callable closure containing detached criteria definition
@@ -247,24 +269,33 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
     }
 
     /**
-     * Saves a list of objects in one go
+     * Saves a list of objects in one go. The unique constraints of the objects are validated together, see {@link UniqueConstraintBatch}
      * @param objectsToSave The objects to save
      * @return A list of object identifiers
      */
     List<Serializable> saveAll(Object... objectsToSave) {
-        (List<Serializable>)execute({ Session session ->
-            session.persist Arrays.asList(objectsToSave)
-        } as SessionCallback)
+        saveAll((Iterable<?>) Arrays.asList(objectsToSave))
     }
 
     /**
-     * Saves a list of objects in one go
+     * Saves a list of objects in one go. The unique constraints of the objects are validated together, see {@link UniqueConstraintBatch}
      * @param objectToSave Collection of objects to save
      * @return A list of object identifiers
      */
     List<Serializable> saveAll(Iterable<?> objectsToSave) {
         (List<Serializable>)execute({ Session session ->
-            session.persist objectsToSave
+            UniqueConstraintBatch batch = UniqueConstraintBatch.register(session, objectsToSave)
+            List<Serializable> ids
+            try {
+                ids = session.persist(objectsToSave)
+            }
+            catch (Throwable e) {
+                batch.unregister(session)
+                throw e
+            }
+            // the objects are validated when their inserts are flushed
+            batch.unregisterAfterFlush(session)
+            return ids
         } as SessionCallback)
     }
 
@@ -593,7 +624,7 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
             Query q = session.createQuery(persistentClass)
             DynamicFinder.populateArgumentsForCriteria(persistentClass, q, params)
             if (params?.max) {
-                return new PagedResultList(q)
+                return new PagedResultList(q, params.get(DynamicFinder.ARGUMENT_CONCURRENT_COUNT) as boolean)
             }
             return q.list()
         } as SessionCallback)
@@ -7,6 +7,7 @@ import org.grails.datastore.gorm.events.ConfigurableApplicationContextEventPubli
 import org.grails.datastore.gorm.events.DefaultApplicationEventPublisher
 import org.grails.datastore.gorm.plugin.support.PersistenceContextInterceptorAggregator
 import org.grails.datastore.gorm.support.AbstractDatastorePersistenceContextInterceptor
+import org.grails.datastore.gorm.utils.EntityIndex
 import org.grails.datastore.mapping.config.DatastoreServiceMethodInvokingFactoryBean
 import org.grails.datastore.mapping.core.DatastoreUtils
 import org.grails.datastore.mapping.model.config.GormProperties
@@ -33,6 +34,7 @@ import org.springframework.core.type.classreading.CachingMetadataReaderFactory
 import org.springframework.util.ClassUtils
 
 import java.beans.Introspector
+import java.lang.annotation.Annotation
 
 /**
  * Abstract class for datastore initializers to implement
@@ -167,9 +169,19 @@ abstract class AbstractDatastoreInitializer implements ResourceLoaderAware{
 
     @CompileStatic
     protected void scanForPersistentClasses() {
-        // scan defined packages
+        // read the entity index written at compile time and only scan the packages it doesn't cover
+        EntityIndex entityIndex = EntityIndex.load(classLoader)
         def readerFactory = new CachingMetadataReaderFactory(resourcePatternResolver)
         for (pkg in packages) {
+            if (entityIndex != null && entityIndex.covers(pkg, classLoader)) {
+                for (Class indexed in entityIndex.loadEntities(pkg, classLoader)) {
+                    // the index may be stale, only map classes that are still entities
+                    if (isEntity(indexed)) {
+                        persistentClasses << indexed
+                    }
+                }
+                continue
+            }
             String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
                     ClassUtils.convertClassNameToResourcePath(pkg) + ENTITY_CLASS_RESOURCE_PATTERN;
 
@@ -207,6 +219,17 @@ abstract class AbstractDatastoreInitializer implements ResourceLoaderAware{
         }
     }
 
+    @CompileStatic
+    private static boolean isEntity(Class type) {
+        for (Annotation annotation in type.annotations) {
+            String annotationName = annotation.annotationType().name
+            if (annotationName == "grails.persistence.Entity" || annotationName == Entity.name || annotationName == jakarta.persistence.Entity.name) {
+                return true
+            }
+        }
+        return false
+    }
+
     /**
      * Configures an existing BeanDefinitionRegistry
      *
@@ -21,6 +21,7 @@ import groovy.lang.MissingMethodException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -82,6 +83,9 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
     public static final String ARGUMENT_IGNORE_CASE = "ignoreCase";
     public static final String ARGUMENT_CACHE = "cache";
     public static final String ARGUMENT_LOCK = "lock";
+    public static final String ARGUMENT_STREAM = "stream";
+    public static final String ARGUMENT_AFTER = "after";
+    public static final String ARGUMENT_CONCURRENT_COUNT = "concurrentCount";
     protected Pattern pattern;
 
     private static final String OPERATOR_OR = "Or";
@@ -97,7 +101,10 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
 
     private static final String NOT = "Not";
     private static final Map<String, Constructor> methodExpressions = new LinkedHashMap<String, Constructor>();
+    private static volatile int methodExpressionsVersion;
     protected final MappingContext mappingContext;
+    private final Map<String, FinderPlan> finderPlans = new ConcurrentHashMap<>();
+    private final boolean customMethodExpressions = overridesFindMethodExpression(getClass());
 
     static {
         defaultOperationPatterns = new Pattern[2];
@@ -237,6 +244,7 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
      */
     public void setPattern(String pattern) {
         this.pattern = Pattern.compile(pattern);
+        finderPlans.clear();
     }
 
     /**
@@ -272,83 +280,49 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
             System.arraycopy(arguments,0,tmp, 0, arguments.length);
             arguments = tmp;
         }
-        Matcher match = pattern.matcher(methodName);
-        // find match
-        match.find();
+        FinderPlan plan = getFinderPlan(methodName);
 
-        String[] queryParameters;
-        int totalRequiredArguments = 0;
-        // get the sequence clauses
-        final String querySequence;
-        int groupCount = match.groupCount();
-        if (groupCount == 6) {
-            String booleanProperty = match.group(3);
-            if (booleanProperty == null) {
-                booleanProperty = match.group(6);
-                querySequence = null;
-            }
-            else {
-                querySequence = match.group(5);
-            }
-            Boolean arg = Boolean.TRUE;
-            if (booleanProperty.matches("Not[A-Z].*")) {
-                booleanProperty = booleanProperty.substring(3);
-                arg = Boolean.FALSE;
-            }
-            MethodExpression booleanExpression = findMethodExpression(clazz, booleanProperty);
-            booleanExpression.setArguments(new Object[]{arg});
+        if (plan.booleanExpression != null) {
+            MethodExpression booleanExpression = newMethodExpression(clazz, plan.booleanExpression);
+            booleanExpression.setArguments(new Object[]{plan.booleanArgument});
             expressions.add(booleanExpression);
         }
-        else {
-            querySequence = match.group(2);
-        }
-        // if it contains operator and split
-        boolean containsOperator = false;
-        String operatorInUse = null;
-        if (querySequence != null) {
-            for (int i = 0; i < operators.length; i++) {
-                Matcher currentMatcher = operatorPatterns[i].matcher(querySequence);
-                if (currentMatcher.find()) {
-                    containsOperator = true;
-                    operatorInUse = operators[i];
-
-                    queryParameters = querySequence.split(operatorInUse);
-
-                    // loop through query parameters and create expressions
-                    // calculating the number of arguments required for the expression
-                    int argumentCursor = 0;
-                    for (String queryParameter : queryParameters) {
-                        MethodExpression currentExpression = findMethodExpression(clazz, queryParameter);
-                        final int requiredArgs = currentExpression.getArgumentsRequired();
-                        // populate the arguments into the GrailsExpression from the argument list
-                        Object[] currentArguments = new Object[requiredArgs];
-                        if ((argumentCursor + requiredArgs) > arguments.length) {
-                            throw new MissingMethodException(methodName, clazz, arguments);
-                        }
 
-                        for (int k = 0; k < requiredArgs; k++, argumentCursor++) {
-                            currentArguments[k] = arguments[argumentCursor];
-                        }
-                        currentExpression = getInitializedExpression(currentExpression, currentArguments);
-                        PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
+        int totalRequiredArguments = 0;
+        final String operatorInUse = plan.operator;
+        if (operatorInUse != null) {
+            // loop through query parameters and create expressions
+            // calculating the number of arguments required for the expression
+            PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
+            int argumentCursor = 0;
+            for (ExpressionTemplate template : plan.expressions) {
+                MethodExpression currentExpression = newMethodExpression(clazz, template);
+                final int requiredArgs = currentExpression.getArgumentsRequired();
+                // populate the arguments into the GrailsExpression from the argument list
+                Object[] currentArguments = new Object[requiredArgs];
+                if ((argumentCursor + requiredArgs) > arguments.length) {
+                    throw new MissingMethodException(methodName, clazz, arguments);
+                }
 
-                        try {
-                            currentExpression.convertArguments(persistentEntity);
-                        } catch (ConversionException e) {
-                            throw new MissingMethodException(methodName, clazz, arguments);
-                        }
+                for (int k = 0; k < requiredArgs; k++, argumentCursor++) {
+                    currentArguments[k] = arguments[argumentCursor];
+                }
+                currentExpression = getInitializedExpression(currentExpression, currentArguments);
 
-                        // add to list of expressions
-                        totalRequiredArguments += currentExpression.argumentsRequired;
-                        expressions.add(currentExpression);
-                    }
-                    break;
+                try {
+                    currentExpression.convertArguments(persistentEntity);
+                } catch (ConversionException e) {
+                    throw new MissingMethodException(methodName, clazz, arguments);
                 }
+
+                // add to list of expressions
+                totalRequiredArguments += currentExpression.argumentsRequired;
+                expressions.add(currentExpression);
             }
         }
         // otherwise there is only one expression
-        if (!containsOperator && querySequence != null) {
-            MethodExpression solo =findMethodExpression(clazz,querySequence);
+        else if (plan.expressions.length > 0) {
+            MethodExpression solo = newMethodExpression(clazz, plan.expressions[0]);
 
             final int requiredArguments = solo.getArgumentsRequired();
             if (requiredArguments  > arguments.length) {
@@ -356,8 +330,6 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
             }
 
             totalRequiredArguments += requiredArguments;
-            Object[] soloArgs = new Object[requiredArguments];
-            System.arraycopy(arguments, 0, soloArgs, 0, requiredArguments);
             solo = getInitializedExpression(solo, arguments);
             PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
             try {
@@ -388,6 +360,75 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
                 expressions, additionalCriteria, operatorInUse);
     }
 
+    /**
+     * Obtains the parsed form of the given finder method. Parsing the method name is independent of the class, the arguments
+     * and the current tenant, hence the plan of each method name is only computed once by this finder.
+     *
+     * @param methodName The method name
+     * @return The plan
+     */
+    private FinderPlan getFinderPlan(String methodName) {
+        FinderPlan plan = finderPlans.get(methodName);
+        if (plan == null || plan.methodExpressionsVersion != methodExpressionsVersion) {
+            plan = compileFinderPlan(methodName);
+            finderPlans.put(methodName, plan);
+        }
+        return plan;
+    }
+
+    private FinderPlan compileFinderPlan(String methodName) {
+        int version = methodExpressionsVersion;
+        Matcher match = pattern.matcher(methodName);
+        // find match
+        match.find();
+
+        ExpressionTemplate booleanExpression = null;
+        Boolean booleanArgument = null;
+        // get the sequence clauses
+        final String querySequence;
+        int groupCount = match.groupCount();
+        if (groupCount == 6) {
+            String booleanProperty = match.group(3);
+            if (booleanProperty == null) {
+                booleanProperty = match.group(6);
+                querySequence = null;
+            }
+            else {
+                querySequence = match.group(5);
+            }
+            booleanArgument = Boolean.TRUE;
+            if (booleanProperty.matches("Not[A-Z].*")) {
+                booleanProperty = booleanProperty.substring(3);
+                booleanArgument = Boolean.FALSE;
+            }
+            booleanExpression = resolveMethodExpression(booleanProperty);
+        }
+        else {
+            querySequence = match.group(2);
+        }
+
+        // if it contains operator and split
+        String operatorInUse = null;
+        List<ExpressionTemplate> expressions = new ArrayList<>();
+        if (querySequence != null) {
+            for (int i = 0; i < operators.length; i++) {
+                Matcher currentMatcher = operatorPatterns[i].matcher(querySequence);
+                if (currentMatcher.find()) {
+                    operatorInUse = operators[i];
+                    for (String queryParameter : querySequence.split(operatorInUse)) {
+                        expressions.add(resolveMethodExpression(queryParameter));
+                    }
+                    break;
+                }
+            }
+            if (operatorInUse == null) {
+                expressions.add(resolveMethodExpression(querySequence));
+            }
+        }
+        return new FinderPlan(booleanExpression, booleanArgument, operatorInUse,
+                expressions.toArray(new ExpressionTemplate[0]), version);
+    }
+
     public Object invoke(final Class clazz, String methodName, Object[] arguments) {
         return invoke(clazz, methodName, (Closure)null, arguments);
     }
@@ -518,6 +559,16 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
         if (offset > -1) {
             query.offset(offset);
         }
+        Object afterObject = argMap.get(ARGUMENT_AFTER);
+        if (afterObject instanceof Collection) {
+            query.after(((Collection) afterObject).toArray());
+        }
+        else if (afterObject instanceof Object[]) {
+            query.after((Object[]) afterObject);
+        }
+        else if (afterObject != null) {
+            query.after(afterObject);
+        }
         Object sortObject = argMap.get(ARGUMENT_SORT);
         boolean ignoreCase = !argMap.containsKey(ARGUMENT_IGNORE_CASE) || ClassUtils.getBooleanFromMap(ARGUMENT_IGNORE_CASE, argMap);
 
@@ -629,12 +680,36 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
         return findMethodExpressionInternal(clazz, expression);
     }
 
+    /**
+     * Creates the method expression of a clause of a finder plan. If a subclass overrides
+     * {@link #findMethodExpression(Class, String)} the expression is created by it, from the text of the clause, rather than
+     * from the cached template.
+     */
+    private MethodExpression newMethodExpression(Class clazz, ExpressionTemplate template) {
+        return customMethodExpressions ? findMethodExpression(clazz, template.expression) : template.newExpression(clazz);
+    }
+
+    private static boolean overridesFindMethodExpression(Class<?> type) {
+        for (Class<?> c = type; c != null && c != DynamicFinder.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("findMethodExpression", Class.class, String.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not declared by this class
+            }
+        }
+        return false;
+    }
+
     protected static MethodExpression findMethodExpression(String expression) {
         return findMethodExpressionInternal(null, expression);
     }
 
     private static MethodExpression findMethodExpressionInternal(final Class clazz, String expression) {
-        MethodExpression me = null;
+        return resolveMethodExpression(expression).newExpression(clazz);
+    }
+
+    private static ExpressionTemplate resolveMethodExpression(String expression) {
         final Matcher matcher = methodExpressinPattern.matcher(expression);
         Class methodExpressionClass = Equal.class;
         Constructor methodExpressionConstructor = null;
@@ -660,41 +735,83 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
         }
 
         propertyName = NameUtils.decapitalizeFirstChar(propertyName);
-        if(methodExpressionConstructor != null) {
-            try {
-                me = (MethodExpression) methodExpressionConstructor.newInstance(clazz, propertyName);
-            } catch (Exception e) {
-                // ignore
-            }
-        }
-        if (me == null) {
-            me = new Equal(clazz, propertyName);
+        return new ExpressionTemplate(expression, methodExpressionConstructor, propertyName, negation);
+    }
+
+    /**
+     * The parsed form of a finder method
+     */
+    private static final class FinderPlan {
+        final ExpressionTemplate booleanExpression;
+        final Boolean booleanArgument;
+        final String operator;
+        final ExpressionTemplate[] expressions;
+        final int methodExpressionsVersion;
+
+        FinderPlan(ExpressionTemplate booleanExpression, Boolean booleanArgument, String operator,
+                   ExpressionTemplate[] expressions, int methodExpressionsVersion) {
+            this.booleanExpression = booleanExpression;
+            this.booleanArgument = booleanArgument;
+            this.operator = operator;
+            this.expressions = expressions;
+            this.methodExpressionsVersion = methodExpressionsVersion;
         }
-        if(negation) {
-            final MethodExpression finalMe = me;
-            return new MethodExpression(clazz, propertyName) {
-                @Override
-                public Query.Criterion createCriterion() {
-                    return new Query.Negation().add(finalMe.createCriterion());
-                }
+    }
 
-                @Override
-                public void setArguments(Object[] arguments) {
-                    finalMe.setArguments(arguments);
+    /**
+     * A parsed method expression from which a new {@link MethodExpression} is created for each invocation
+     */
+    private static final class ExpressionTemplate {
+        final String expression;
+        final Constructor constructor;
+        final String propertyName;
+        final boolean negation;
+
+        ExpressionTemplate(String expression, Constructor constructor, String propertyName, boolean negation) {
+            this.expression = expression;
+            this.constructor = constructor;
+            this.propertyName = propertyName;
+            this.negation = negation;
+        }
+
+        MethodExpression newExpression(Class clazz) {
+            MethodExpression me = null;
+            if(constructor != null) {
+                try {
+                    me = (MethodExpression) constructor.newInstance(clazz, propertyName);
+                } catch (Exception e) {
+                    // ignore
                 }
+            }
+            if (me == null) {
+                me = new Equal(clazz, propertyName);
+            }
+            if(negation) {
+                final MethodExpression finalMe = me;
+                return new MethodExpression(clazz, propertyName) {
+                    @Override
+                    public Query.Criterion createCriterion() {
+                        return new Query.Negation().add(finalMe.createCriterion());
+                    }
 
-                @Override
-                public int getArgumentsRequired() {
-                    return finalMe.getArgumentsRequired();
-                }
+                    @Override
+                    public void setArguments(Object[] arguments) {
+                        finalMe.setArguments(arguments);
+                    }
 
-                @Override
-                public Object[] getArguments() {
-                    return finalMe.getArguments();
-                }
-            };
+                    @Override
+                    public int getArgumentsRequired() {
+                        return finalMe.getArgumentsRequired();
+                    }
+
+                    @Override
+                    public Object[] getArguments() {
+                        return finalMe.getArguments();
+                    }
+                };
+            }
+            return me;
         }
-        return me;
     }
 
     private static void handleFetchType(BuildableCriteria q, String associationName, FetchType fetchType) {
@@ -710,6 +827,7 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
     private static void resetMethodExpressionPattern() {
         String expressionPattern = DefaultGroovyMethods.join((Iterable)methodExpressions.keySet(), "|");
         methodExpressinPattern = Pattern.compile("\\p{Upper}[\\p{Lower}\\d]+(" + expressionPattern + ")");
+        methodExpressionsVersion++;
     }
 
     private static void addSimpleSort(Query q, String sort, String order, boolean ignoreCase) {
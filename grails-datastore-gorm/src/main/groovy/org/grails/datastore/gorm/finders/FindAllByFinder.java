@@ -14,6 +14,7 @@
  */
 package org.grails.datastore.gorm.finders;
 
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.grails.datastore.mapping.core.Datastore;
@@ -21,6 +22,7 @@ import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.core.SessionCallback;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.query.Query;
+import org.grails.datastore.mapping.reflect.ClassUtils;
 
 /**
  * Finder used to return multiple results. Eg. Book.findAllBy..(..)
@@ -45,11 +47,28 @@ public class FindAllByFinder extends DynamicFinder {
         return execute(new SessionCallback<Object>() {
             public Object doInSession(final Session session) {
                 Query q = buildQuery(invocation, session);
+                Object[] arguments = invocation.getArguments();
+                if (arguments.length > 0 && arguments[0] instanceof Map && ClassUtils.getBooleanFromMap(ARGUMENT_STREAM, (Map) arguments[0])) {
+                    return streamQuery(q, (Map) arguments[0]);
+                }
                 return invokeQuery(q);
             }
         });
     }
 
+    /**
+     * Executes the query returning a {@link java.util.stream.Stream} that fetches the results lazily, as requested with
+     * the {@code stream: true} argument. The size of the chunks can be given with the {@code fetchSize} argument.
+     *
+     * @param q The query
+     * @param argMap The arguments of the finder
+     * @return The stream of results
+     */
+    protected Object streamQuery(Query q, Map argMap) {
+        Object fetchSize = argMap.get(ARGUMENT_FETCH_SIZE);
+        return q.stream(fetchSize != null ? Integer.parseInt(fetchSize.toString()) : Query.DEFAULT_FETCH_SIZE);
+    }
+
     protected Object invokeQuery(Query q) {
         return q.list();
     }
@@ -0,0 +1,108 @@
+package org.grails.datastore.gorm.multitenancy
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.multitenancy.TenantResolver
+
+/**
+ * Remembers the tenant ids returned by {@link TenantResolver} instances for the duration of a unit of work, such as a web request,
+ * so that the resolver is only asked once even though the tenant id is needed by every query, insert, update and validation.
+ *
+ * <p>A scope is bound to the current thread with {@link #open()} and {@link #close()}, or {@link #withCache(groovy.lang.Closure)}.
+ * Scopes can be nested, the resolved ids are discarded when the outermost scope is closed. Outside of a scope every lookup goes to
+ * the resolver. Only non null ids are remembered and a failure to resolve the tenant is never remembered.</p>
+ *
+ * <p>The persistence context interceptor opens a scope for each unit of work if
+ * {@link org.grails.datastore.mapping.config.Settings#SETTING_MULTI_TENANCY_CACHE_TENANT_RESOLUTION} is enabled.</p>
+ *
+ * @since 9.0
+ */
+@CompileStatic
+class TenantResolutionCache {
+
+    private static final ThreadLocal<Scope> currentScope = new ThreadLocal<>()
+
+    /**
+     * Opens a scope on the current thread, or joins the scope that is already open
+     */
+    static void open() {
+        Scope scope = currentScope.get()
+        if (scope == null) {
+            currentScope.set(new Scope())
+        }
+        else {
+            scope.depth++
+        }
+    }
+
+    /**
+     * Closes the scope opened by the matching call to {@link #open()}
+     */
+    static void close() {
+        Scope scope = currentScope.get()
+        if (scope != null) {
+            if (scope.depth == 0) {
+                currentScope.remove()
+            }
+            else {
+                scope.depth--
+            }
+        }
+    }
+
+    /**
+     * @return Whether a scope is open on the current thread
+     */
+    static boolean isOpen() {
+        currentScope.get() != null
+    }
+
+    /**
+     * Forgets the tenant ids resolved in the current scope, for example after the tenant of the current user has changed
+     */
+    static void clear() {
+        currentScope.get()?.tenantIds?.clear()
+    }
+
+    /**
+     * Executes the closure within a scope
+     *
+     * @param callable The closure
+     * @return The result of the closure
+     */
+    static <T> T withCache(Closure<T> callable) {
+        open()
+        try {
+            return callable.call()
+        }
+        finally {
+            close()
+        }
+    }
+
+    /**
+     * Resolves the tenant id with the given resolver, reusing the id resolved earlier in the current scope
+     *
+     * @param tenantResolver The tenant resolver
+     * @return The tenant id
+     * @throws org.grails.datastore.mapping.multitenancy.exceptions.TenantNotFoundException if the resolver can't find the tenant
+     */
+    static Serializable resolve(TenantResolver tenantResolver) {
+        Scope scope = currentScope.get()
+        if (scope == null) {
+            return tenantResolver.resolveTenantIdentifier()
+        }
+        Serializable tenantId = scope.tenantIds.get(tenantResolver)
+        if (tenantId == null) {
+            tenantId = tenantResolver.resolveTenantIdentifier()
+            if (tenantId != null) {
+                scope.tenantIds.put(tenantResolver, tenantId)
+            }
+        }
+        return tenantId
+    }
+
+    private static class Scope {
+        final Map<TenantResolver, Serializable> tenantIds = new IdentityHashMap<>()
+        int depth
+    }
+}
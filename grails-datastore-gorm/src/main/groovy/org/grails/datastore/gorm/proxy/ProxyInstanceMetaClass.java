@@ -20,6 +20,7 @@ import groovy.lang.MetaClass;
 import java.io.Serializable;
 
 import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.metrics.DatastoreInstrumentation;
 import org.springframework.dao.DataIntegrityViolationException;
 
 /**
@@ -69,6 +70,10 @@ public class ProxyInstanceMetaClass extends DelegatingMetaClass {
                         "Error loading association [" + getKey() + "] of type [" + getTheClass() +
                                 "]. Associated instance no longer exists.");
             }
+            DatastoreInstrumentation instrumentation = DatastoreInstrumentation.of(session);
+            if (instrumentation != null) {
+                instrumentation.proxyInitialized(session, getTheClass());
+            }
         }
 
         return proxyTarget;
@@ -18,9 +18,20 @@ package org.grails.datastore.gorm.query;
 import java.io.Closeable;
 import java.util.*;
 
+import org.grails.datastore.mapping.core.AbstractSession;
+import org.grails.datastore.mapping.core.Session;
+
 /**
  * An abstract result list for initializing objects lazily from a cursor
  *
+ * <p>By default every object decoded from the cursor is retained so that the list supports random access. A list created in
+ * forward-only mode instead decodes objects as they are iterated and doesn't retain them, so that a large result set can be
+ * scanned in constant memory. A forward-only list can be iterated once, random access and modification fail with an
+ * {@link UnsupportedOperationException}, and its size is only known if it was given to the constructor. If an
+ * {@link #setEvictionSession(Session) eviction session} is set each object the iteration loaded is also evicted from the
+ * first level cache of the session once the iteration moves past it, unless it has been modified. Objects that were already
+ * attached to an {@link AbstractSession} when the iteration loaded them stay in the session.</p>
+ *
  * @author Graeme Rocher
  * @since 5.0
  */
@@ -31,29 +42,72 @@ public abstract class AbstractResultList extends AbstractList implements Closeab
     private Integer size;
     protected boolean initialized = false;
     protected Iterator<Object> cursor;
+    protected final boolean forwardOnly;
+    private Session evictionSession;
+    private boolean iterated;
 
     public AbstractResultList(int offset, Iterator<Object> cursor) {
         this(offset, -1, cursor);
     }
 
     public AbstractResultList(int offset, Integer size, Iterator<Object> cursor) {
+        this(offset, size, cursor, false);
+    }
+
+    /**
+     * @param offset The offset
+     * @param size The size of the results or -1 if it is unknown
+     * @param cursor The cursor
+     * @param forwardOnly Whether objects are decoded on iteration only and not retained
+     * @since 9.0
+     */
+    public AbstractResultList(int offset, Integer size, Iterator<Object> cursor, boolean forwardOnly) {
         this.offset = offset;
+        this.forwardOnly = forwardOnly;
         boolean hasSize = size != null && size > -1;
         if(hasSize) {
             this.size = size;
         }
         this.cursor = cursor;
         this.initialized = !cursor.hasNext();
-        this.initializedObjects = hasSize ? new ArrayList(size) : new ArrayList();
+        this.initializedObjects = hasSize && !forwardOnly ? new ArrayList(size) : new ArrayList();
     }
 
     public Iterator<Object> getCursor() {
         return cursor;
     }
 
+    /**
+     * @return Whether this list decodes objects on iteration only and doesn't retain them
+     * @since 9.0
+     */
+    public boolean isForwardOnly() {
+        return forwardOnly;
+    }
+
+    /**
+     * @return The session objects are evicted from after they have been iterated in forward-only mode
+     * @since 9.0
+     */
+    public Session getEvictionSession() {
+        return evictionSession;
+    }
+
+    /**
+     * Sets the session objects are evicted from after they have been iterated. Only applies in forward-only mode.
+     *
+     * @param evictionSession The session or null to not evict objects
+     * @since 9.0
+     */
+    public void setEvictionSession(Session evictionSession) {
+        this.evictionSession = evictionSession;
+    }
 
     protected void initializeFully() {
         if (initialized) return;
+        if (forwardOnly) {
+            throw unsupportedInForwardOnlyMode();
+        }
 
         while (cursor.hasNext()) {
             convertObject();
@@ -75,6 +129,9 @@ public abstract class AbstractResultList extends AbstractList implements Closeab
     @SuppressWarnings("unchecked")
     @Override
     public Object get(int index) {
+        if (forwardOnly) {
+            throw unsupportedInForwardOnlyMode();
+        }
         final List initializedObjects = this.initializedObjects;
         final int initializedSize = initializedObjects.size();
         if (initializedSize > index) {
@@ -113,6 +170,9 @@ public abstract class AbstractResultList extends AbstractList implements Closeab
 
     @Override
     public Object set(int index, Object o) {
+        if (forwardOnly) {
+            throw unsupportedInForwardOnlyMode();
+        }
         Object previous = get(index);
         initializedObjects.set(index, o);
         return previous;
@@ -148,6 +208,9 @@ public abstract class AbstractResultList extends AbstractList implements Closeab
      */
     @Override
     public Iterator iterator() {
+        if (forwardOnly) {
+            return forwardOnlyIterator();
+        }
         if (initialized || !initializedObjects.isEmpty()) {
             if(!initialized) {
                 initializeFully();
@@ -197,8 +260,22 @@ public abstract class AbstractResultList extends AbstractList implements Closeab
         };
     }
 
+    @Override
+    public Spliterator spliterator() {
+        if (forwardOnly) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+        }
+        return super.spliterator();
+    }
+
     @Override
     public int size() {
+        if (forwardOnly) {
+            if (size == null) {
+                throw unsupportedInForwardOnlyMode();
+            }
+            return size;
+        }
         if (initialized) {
             return initializedObjects.size();
         }
@@ -209,5 +286,79 @@ public abstract class AbstractResultList extends AbstractList implements Closeab
         return size;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return forwardOnly ? this == o : super.equals(o);
+    }
 
+    @Override
+    public int hashCode() {
+        return forwardOnly ? System.identityHashCode(this) : super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return forwardOnly ? getClass().getSimpleName() + "[forward-only]" : super.toString();
+    }
+
+    private Iterator forwardOnlyIterator() {
+        if (iterated) {
+            throw new IllegalStateException("A forward-only result list can only be iterated once");
+        }
+        iterated = true;
+        final Set<Object> attached = Collections.newSetFromMap(new IdentityHashMap<>());
+        return new Iterator() {
+            Object current;
+            boolean currentAttached;
+
+            public boolean hasNext() {
+                if (initialized) {
+                    return false;
+                }
+                boolean hasMore = cursor.hasNext();
+                if (!hasMore) {
+                    initialized = true;
+                    evictCurrent();
+                }
+                return hasMore;
+            }
+
+            public Object next() {
+                if (initialized || !cursor.hasNext()) {
+                    initialized = true;
+                    evictCurrent();
+                    throw new NoSuchElementException();
+                }
+                evictCurrent();
+                if (evictionSession instanceof AbstractSession) {
+                    // only the instances the conversion attaches are evicted, those that were attached before stay
+                    AbstractSession session = (AbstractSession) evictionSession;
+                    Set<Object> previous = session.recordAttachedInstances(attached);
+                    try {
+                        current = convertObject(nextDecoded());
+                    } finally {
+                        session.recordAttachedInstances(previous);
+                    }
+                    currentAttached = attached.contains(current);
+                    attached.clear();
+                }
+                else {
+                    current = convertObject(nextDecoded());
+                    currentAttached = true;
+                }
+                return current;
+            }
+
+            private void evictCurrent() {
+                if (current != null && currentAttached && evictionSession != null && !evictionSession.isDirty(current)) {
+                    evictionSession.clear(current);
+                }
+                current = null;
+            }
+        };
+    }
+
+    private UnsupportedOperationException unsupportedInForwardOnlyMode() {
+        return new UnsupportedOperationException("Random access and modification are not supported by a forward-only result list");
+    }
 }
@@ -35,6 +35,7 @@ abstract class AbstractDetachedCriteria<T> implements Criteria, Cloneable {
     protected List<DynamicFinder> dynamicFinders
     protected Integer defaultOffset
     protected Integer defaultMax
+    protected Object[] afterValues
 
     protected List<Query.Junction> junctions = []
     protected PersistentEntity persistentEntity
@@ -44,6 +45,8 @@ abstract class AbstractDetachedCriteria<T> implements Criteria, Cloneable {
     protected String alias;
     protected String connectionName = ConnectionSource.DEFAULT
     protected Map<String, DetachedAssociationCriteria> associationCriteriaMap = [:]
+    protected CriteriaTemplate<T> criteriaTemplate
+    protected Object[] templateArguments
 
 
     ProjectionList projectionList = new DetachedProjections(projections)
@@ -193,6 +196,8 @@ abstract class AbstractDetachedCriteria<T> implements Criteria, Cloneable {
 
     void add(Query.Criterion criterion) {
         applyLazyCriteria()
+        criteriaTemplate = null
+        templateArguments = null
         if (criterion instanceof Query.PropertyCriterion) {
             if (criterion.value instanceof Closure) {
                 criterion.value = buildQueryableCriteria((Closure)criterion.value)
@@ -208,6 +213,21 @@ abstract class AbstractDetachedCriteria<T> implements Criteria, Cloneable {
 
     List<Query.Criterion> getCriteria() { criteria }
 
+    /**
+     * Obtains the template the criteria were bound from. The template only describes the criteria, orders and projections
+     * may have been added since.
+     *
+     * @return The template, or null if the criteria weren't bound from a template or were modified since
+     * @since 9.0
+     */
+    CriteriaTemplate<T> getCriteriaTemplate() { criteriaTemplate }
+
+    /**
+     * @return The arguments bound into the {@link #getCriteriaTemplate() template}
+     * @since 9.0
+     */
+    Object[] getTemplateArguments() { templateArguments }
+
     List<Query.Projection> getProjections() { projections }
 
     List<Query.Order> getOrders() { orders }
@@ -864,6 +884,9 @@ abstract class AbstractDetachedCriteria<T> implements Criteria, Cloneable {
         criteria.@orders = new ArrayList(this.orders)
         criteria.defaultMax = defaultMax
         criteria.defaultOffset = defaultOffset
+        criteria.afterValues = afterValues
+        criteria.criteriaTemplate = criteriaTemplate
+        criteria.templateArguments = templateArguments
         criteria.@fetchStrategies = new HashMap<>(this.fetchStrategies)
         criteria.@joinTypes = new HashMap<>(this.joinTypes)
         return criteria
@@ -895,6 +918,19 @@ abstract class AbstractDetachedCriteria<T> implements Criteria, Cloneable {
         return newCriteria
     }
 
+    /**
+     * Sets the values of the sort orders to continue after and returns a new criteria instance. This method does not mutate the original criteria!
+     *
+     * @param lastSortValues The values of the sorted properties of the last result of the previous page
+     * @return A new DetachedCriteria instance derived from this
+     * @see Query#after(Object...)
+     */
+    AbstractDetachedCriteria<T> after(Object... lastSortValues) {
+        AbstractDetachedCriteria newCriteria = this.clone()
+        newCriteria.afterValues = lastSortValues
+        return newCriteria
+    }
+
     /**
      * Adds a sort order to this criteria instance
      *
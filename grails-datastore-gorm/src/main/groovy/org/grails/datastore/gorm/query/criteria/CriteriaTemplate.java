@@ -0,0 +1,303 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.query.criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import grails.gorm.DetachedCriteria;
+import groovy.lang.Closure;
+import groovy.lang.DelegatesTo;
+import org.grails.datastore.mapping.query.Query;
+
+/**
+ * A pre-built, parameterized {@link DetachedCriteria}. The criteria closure is evaluated once with {@link Parameter}
+ * placeholders in place of the values that vary between calls and each call then binds its arguments into a copy of
+ * the resulting criteria, instead of evaluating the closure again.
+ *
+ * <p>Templates are created by the data service transformation for {@link grails.gorm.services.Where} queries whose
+ * closure only passes method arguments as the values of simple criteria (eq, ne, gt, between, like etc.), each argument
+ * being wrapped in a call to {@link #argument(int, Object)}. If the closure turns out not to be bindable every call
+ * falls back to evaluating the closure.</p>
+ *
+ * <p>Datastores that translate criteria into a native query can cache the translated form of the
+ * {@link #getPrototype() prototype} against the template with {@link #nativeQuery(Object, Function)}, the criteria
+ * returned by {@link #bind(Object[], Closure)} reference their template through
+ * {@link AbstractDetachedCriteria#getCriteriaTemplate()}.</p>
+ *
+ * @param <T> The entity type
+ * @since 9.0
+ */
+public class CriteriaTemplate<T> {
+
+    private static final ThreadLocal<Boolean> TEMPLATING = new ThreadLocal<>();
+
+    private final DetachedCriteria<T> criteria;
+    private final Map<Object, Object> nativeQueries = new ConcurrentHashMap<>();
+    private volatile DetachedCriteria<T> prototype;
+    private volatile boolean initialized;
+
+    /**
+     * @param criteria The empty criteria the template is built from
+     */
+    public CriteriaTemplate(DetachedCriteria<T> criteria) {
+        this.criteria = criteria;
+    }
+
+    /**
+     * Called by the criteria closure of a template for each value that is bound per call
+     *
+     * @param index The index of the argument
+     * @param value The value of the argument
+     * @return A {@link Parameter} if the template is being built, otherwise the value
+     */
+    public static Object argument(int index, Object value) {
+        return TEMPLATING.get() != null ? new Parameter(index) : value;
+    }
+
+    /**
+     * If the value is a {@link Parameter} of a template returns the argument bound to it
+     *
+     * @param value The value of a criterion of the {@link #getPrototype() prototype}
+     * @param arguments The arguments
+     * @return The resolved value
+     */
+    public static Object resolve(Object value, Object[] arguments) {
+        return value instanceof Parameter ? arguments[((Parameter) value).getIndex()] : value;
+    }
+
+    /**
+     * Binds the arguments into a copy of the template, building the template with the closure on first use
+     *
+     * @param arguments The arguments, in the order of their indices
+     * @param closure The criteria closure, evaluated if the template can't be bound
+     * @return The criteria
+     */
+    @SuppressWarnings("unchecked")
+    public DetachedCriteria<T> bind(Object[] arguments, @DelegatesTo(value = DetachedCriteria.class, strategy = Closure.DELEGATE_FIRST) Closure closure) {
+        if (!initialized) {
+            initialize(closure);
+        }
+        DetachedCriteria<T> template = prototype;
+        if (template != null) {
+            List<Query.Criterion> bound = bindAll(template.getCriteria(), arguments);
+            if (bound != null) {
+                AbstractDetachedCriteria<T> result = ((AbstractDetachedCriteria<T>) template).clone();
+                result.criteria = bound;
+                result.criteriaTemplate = this;
+                result.templateArguments = arguments;
+                return (DetachedCriteria<T>) result;
+            }
+        }
+        return (DetachedCriteria<T>) criteria.build(closure);
+    }
+
+    /**
+     * @return Whether arguments can be bound into the template. Only known once the template has been used.
+     */
+    public boolean isBindable() {
+        return prototype != null;
+    }
+
+    /**
+     * @return The criteria of the template, with {@link Parameter} placeholders as values. Must not be modified.
+     */
+    public DetachedCriteria<T> getPrototype() {
+        return prototype;
+    }
+
+    /**
+     * Obtains the native query cached against the template under the given key, translating the
+     * {@link #getPrototype() prototype} if absent
+     *
+     * @param key The key, typically identifying the datastore and the kind of query
+     * @param translator Translates the template into the native query
+     * @return The native query
+     */
+    @SuppressWarnings("unchecked")
+    public <N> N nativeQuery(Object key, Function<CriteriaTemplate<T>, N> translator) {
+        return (N) nativeQueries.computeIfAbsent(key, k -> translator.apply(this));
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void initialize(Closure closure) {
+        if (initialized) {
+            return;
+        }
+        TEMPLATING.set(Boolean.TRUE);
+        try {
+            DetachedCriteria<T> built = (DetachedCriteria<T>) criteria.build(closure);
+            if (isBindable(built.getCriteria())) {
+                prototype = built;
+            }
+        }
+        catch (RuntimeException e) {
+            // closures the template can't represent are evaluated on each call
+        }
+        finally {
+            TEMPLATING.remove();
+            initialized = true;
+        }
+    }
+
+    private static boolean isBindable(List<Query.Criterion> criteria) {
+        for (Query.Criterion criterion : criteria) {
+            if (criterion instanceof Query.Junction) {
+                if (junctionOf((Query.Junction) criterion) == null || !isBindable(((Query.Junction) criterion).getCriteria())) {
+                    return false;
+                }
+            }
+            else if (criterion instanceof Query.PropertyCriterion) {
+                if (bind((Query.PropertyCriterion) criterion, null) == null) {
+                    return false;
+                }
+            }
+            else if (!(criterion instanceof Query.PropertyNameCriterion)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Query.Criterion> bindAll(List<Query.Criterion> criteria, Object[] arguments) {
+        List<Query.Criterion> bound = new ArrayList<>(criteria.size());
+        for (Query.Criterion criterion : criteria) {
+            if (criterion instanceof Query.Junction) {
+                Query.Junction junction = junctionOf((Query.Junction) criterion);
+                List<Query.Criterion> nested = bindAll(((Query.Junction) criterion).getCriteria(), arguments);
+                if (nested == null) {
+                    return null;
+                }
+                for (Query.Criterion c : nested) {
+                    junction.add(c);
+                }
+                bound.add(junction);
+            }
+            else if (criterion instanceof Query.PropertyCriterion) {
+                // property criteria are copied even without parameters since queries resolve their values in place
+                Query.Criterion copy = bind((Query.PropertyCriterion) criterion, arguments);
+                if (copy == null) {
+                    return null;
+                }
+                bound.add(copy);
+            }
+            else {
+                bound.add(criterion);
+            }
+        }
+        return bound;
+    }
+
+    private static Query.Junction junctionOf(Query.Junction junction) {
+        Class<?> type = junction.getClass();
+        if (type == Query.Conjunction.class) {
+            return new Query.Conjunction();
+        }
+        if (type == Query.Disjunction.class) {
+            return new Query.Disjunction();
+        }
+        if (type == Query.Negation.class) {
+            return new Query.Negation();
+        }
+        return null;
+    }
+
+    /**
+     * Copies the criterion binding the arguments, or only checks whether it can be copied if the arguments are null
+     */
+    private static Query.Criterion bind(Query.PropertyCriterion criterion, Object[] arguments) {
+        Class<?> type = criterion.getClass();
+        String property = criterion.getProperty();
+        boolean check = arguments == null;
+        if (type == Query.Between.class) {
+            Query.Between between = (Query.Between) criterion;
+            return check ? criterion : new Query.Between(property, resolve(between.getFrom(), arguments), resolve(between.getTo(), arguments));
+        }
+        if (type == Query.Like.class || type == Query.ILike.class || type == Query.RLike.class) {
+            if (check) {
+                return criterion;
+            }
+            String pattern = Parameter.parse(criterion.getValue(), arguments);
+            if (type == Query.Like.class) {
+                return new Query.Like(property, pattern);
+            }
+            return type == Query.ILike.class ? new Query.ILike(property, pattern) : new Query.RLike(property, pattern);
+        }
+        Object value = check ? null : resolve(criterion.getValue(), arguments);
+        if (type == Query.IdEquals.class) {
+            return check ? criterion : new Query.IdEquals(value);
+        }
+        if (type == Query.Equals.class) {
+            return check ? criterion : new Query.Equals(property, value);
+        }
+        if (type == Query.NotEquals.class) {
+            return check ? criterion : new Query.NotEquals(property, value);
+        }
+        if (type == Query.GreaterThan.class) {
+            return check ? criterion : new Query.GreaterThan(property, value);
+        }
+        if (type == Query.GreaterThanEquals.class) {
+            return check ? criterion : new Query.GreaterThanEquals(property, value);
+        }
+        if (type == Query.LessThan.class) {
+            return check ? criterion : new Query.LessThan(property, value);
+        }
+        if (type == Query.LessThanEquals.class) {
+            return check ? criterion : new Query.LessThanEquals(property, value);
+        }
+        return null;
+    }
+
+    /**
+     * A placeholder for the value of a criterion that is bound per call
+     */
+    public static final class Parameter {
+
+        private static final String PREFIX = "${CriteriaTemplate.Parameter:";
+
+        private final int index;
+
+        Parameter(int index) {
+            this.index = index;
+        }
+
+        /**
+         * @return The index of the argument bound to the parameter
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Pattern criteria hold the string form of their value, so the placeholder is recognised by its string form
+         */
+        static String parse(Object pattern, Object[] arguments) {
+            String token = String.valueOf(pattern);
+            if (token.startsWith(PREFIX) && token.endsWith("}")) {
+                int index = Integer.parseInt(token.substring(PREFIX.length(), token.length() - 1));
+                return arguments[index].toString();
+            }
+            return token;
+        }
+
+        @Override
+        public String toString() {
+            return PREFIX + index + "}";
+        }
+    }
+}
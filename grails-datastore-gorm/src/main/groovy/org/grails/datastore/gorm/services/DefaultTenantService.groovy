@@ -39,6 +39,12 @@ class DefaultTenantService implements Service, TenantService {
         Tenants.eachTenant(multiTenantCapableDatastore, callable)
     }
 
+    @Override
+    void eachTenantParallel(int maxConcurrency, Closure callable) {
+        MultiTenantCapableDatastore multiTenantCapableDatastore = multiTenantDatastore()
+        Tenants.eachTenantParallel(multiTenantCapableDatastore, maxConcurrency, callable)
+    }
+
     @Override
     Serializable currentId() {
         MultiTenantCapableDatastore multiTenantCapableDatastore = multiTenantDatastore()
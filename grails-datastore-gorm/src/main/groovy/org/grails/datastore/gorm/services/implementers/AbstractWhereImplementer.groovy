@@ -4,15 +4,23 @@ import grails.gorm.DetachedCriteria
 import grails.gorm.services.Where
 import groovy.transform.CompileStatic
 import org.codehaus.groovy.ast.*
+import org.codehaus.groovy.ast.expr.ArgumentListExpression
 import org.codehaus.groovy.ast.expr.ClosureExpression
+import org.codehaus.groovy.ast.expr.ConstantExpression
 import org.codehaus.groovy.ast.expr.Expression
+import org.codehaus.groovy.ast.expr.MethodCallExpression
 import org.codehaus.groovy.ast.expr.VariableExpression
 import org.codehaus.groovy.ast.stmt.BlockStatement
+import org.codehaus.groovy.ast.stmt.ExpressionStatement
+import org.codehaus.groovy.ast.stmt.ReturnStatement
 import org.codehaus.groovy.ast.stmt.Statement
 import org.codehaus.groovy.control.SourceUnit
+import org.grails.datastore.gorm.query.criteria.CriteriaTemplate
 import org.grails.datastore.gorm.query.transform.DetachedCriteriaTransformer
 import org.grails.datastore.mapping.reflect.AstUtils
 
+import java.lang.reflect.Modifier
+
 import static org.codehaus.groovy.ast.tools.GeneralUtils.*
 import static org.grails.datastore.mapping.reflect.AstUtils.processVariableScopes
 
@@ -28,6 +36,21 @@ abstract class AbstractWhereImplementer extends AbstractReadOperationImplementer
 
     public static final int POSITION = FindAllByImplementer.POSITION - 100
 
+    /**
+     * Criteria methods whose first argument is the property name and whose remaining arguments can be bound by a {@link CriteriaTemplate}
+     */
+    protected static final Set<String> TEMPLATE_VALUE_METHODS = ['eq', 'ne', 'gt', 'ge', 'gte', 'lt', 'le', 'lte', 'like', 'ilike', 'rlike', 'between'] as Set<String>
+
+    /**
+     * Criteria methods that may appear in a {@link CriteriaTemplate} with constant arguments only
+     */
+    protected static final Set<String> TEMPLATE_CONSTANT_METHODS = ['isNull', 'isNotNull', 'isEmpty', 'isNotEmpty', 'eqProperty', 'neProperty', 'gtProperty', 'geProperty', 'ltProperty', 'leProperty'] as Set<String>
+
+    /**
+     * Junctions that may appear in a {@link CriteriaTemplate}
+     */
+    protected static final Set<String> TEMPLATE_JUNCTION_METHODS = ['and', 'or', 'not'] as Set<String>
+
     @Override
     int getOrder() {
         return POSITION
@@ -63,20 +86,45 @@ abstract class AbstractWhereImplementer extends AbstractReadOperationImplementer
 
             Expression argsExpression = findArgsExpression(newMethodNode)
             VariableExpression queryVar = varX('$query')
-            // def query = new DetachedCriteria(Foo)
-            body.addStatement(
-                    declS(queryVar, ctorX(getDetachedCriteriaType(domainClassNode), args(classX(domainClassNode.plainNodeReference))))
-            )
             Expression connectionId = findConnectionId(newMethodNode)
+            Map<String, Parameter> parameters = [:]
+            for (Parameter p in newMethodNode.parameters) {
+                parameters.put(p.name, p)
+            }
+            List<ArgumentListExpression> templateCalls = []
+            if (collectTemplateCalls(closureExpression, parameters, templateCalls)) {
+                // def query = this.$fooCriteriaTemplate.bind([arg1, arg2] as Object[], closure)
+                FieldNode templateField = addCriteriaTemplateField(domainClassNode, newMethodNode, targetClassNode)
+                List<Parameter> arguments = bindTemplateArguments(templateCalls, parameters)
+                ClassNode criteriaType = getDetachedCriteriaType(domainClassNode)
+                Expression bindCall = callX(fieldX(templateField), "bind", args(
+                        arrayX(ClassHelper.OBJECT_TYPE, arguments.collect { Parameter p -> (Expression) varX(p) }),
+                        closureExpression
+                ))
+                body.addStatement(
+                        declS(queryVar, castX(criteriaType, bindCall))
+                )
+                if(connectionId != null) {
+                    body.addStatement(
+                            assignS(queryVar, callX(queryVar, "withConnection", connectionId))
+                    )
+                }
+            }
+            else {
+                // def query = new DetachedCriteria(Foo)
+                body.addStatement(
+                        declS(queryVar, ctorX(getDetachedCriteriaType(domainClassNode), args(classX(domainClassNode.plainNodeReference))))
+                )
 
-            if(connectionId != null) {
+                if(connectionId != null) {
+                    body.addStatement(
+                            assignS(queryVar, callX(queryVar, "withConnection", connectionId))
+                    )
+                }
                 body.addStatement(
-                        assignS(queryVar, callX(queryVar, "withConnection", connectionId))
+                        assignS(queryVar, callX(queryVar, "build", closureExpression))
                 )
             }
-            body.addStatement(
-                    assignS(queryVar, callX(queryVar, "build", closureExpression))
-            )
             Expression queryExpression = callX(queryVar, getQueryMethodToExecute(domainClassNode, newMethodNode), argsExpression != null ? argsExpression : AstUtils.ZERO_ARGUMENTS)
             body.addStatement(
                 buildReturnStatement(domainClassNode, abstractMethodNode, newMethodNode, queryExpression)
@@ -93,6 +141,117 @@ abstract class AbstractWhereImplementer extends AbstractReadOperationImplementer
         ClassHelper.make(DetachedCriteria)
     }
 
+    /**
+     * Adds the field holding the {@link CriteriaTemplate} of the method to the implementation
+     */
+    protected FieldNode addCriteriaTemplateField(ClassNode domainClassNode, MethodNode newMethodNode, ClassNode targetClassNode) {
+        String fieldName = '$' + newMethodNode.name + 'CriteriaTemplate'
+        String name = fieldName
+        int i = 1
+        while (targetClassNode.getField(name) != null) {
+            name = fieldName + (i++)
+        }
+        Expression emptyCriteria = ctorX(getDetachedCriteriaType(domainClassNode), args(classX(domainClassNode.plainNodeReference)))
+        return targetClassNode.addField(name, Modifier.PRIVATE | Modifier.FINAL, ClassHelper.make(CriteriaTemplate), ctorX(ClassHelper.make(CriteriaTemplate), args(emptyCriteria)))
+    }
+
+    /**
+     * Checks whether the transformed closure can be turned into a {@link CriteriaTemplate}, which is the case if it only consists of
+     * criteria and junctions of {@link #TEMPLATE_VALUE_METHODS}, {@link #TEMPLATE_CONSTANT_METHODS} and {@link #TEMPLATE_JUNCTION_METHODS}
+     * whose values are either constants or method parameters. The arguments of the criteria that reference parameters are collected.
+     *
+     * @param closureExpression The transformed closure
+     * @param parameters The parameters of the method
+     * @param templateCalls The arguments of the criteria that reference parameters
+     * @return True if a template can be built
+     */
+    protected boolean collectTemplateCalls(ClosureExpression closureExpression, Map<String, Parameter> parameters, List<ArgumentListExpression> templateCalls) {
+        Statement code = closureExpression.code
+        if (!(code instanceof BlockStatement)) {
+            return false
+        }
+        List<Statement> statements = ((BlockStatement) code).statements
+        if (statements.isEmpty()) {
+            return false
+        }
+        for (Statement statement in statements) {
+            Expression expression
+            if (statement instanceof ExpressionStatement) {
+                expression = ((ExpressionStatement) statement).expression
+            }
+            else if (statement instanceof ReturnStatement) {
+                expression = ((ReturnStatement) statement).expression
+            }
+            if (!(expression instanceof MethodCallExpression)) {
+                return false
+            }
+            MethodCallExpression call = (MethodCallExpression) expression
+            Expression receiver = call.objectExpression
+            String methodName = call.methodAsString
+            if (!(receiver instanceof VariableExpression) || !(((VariableExpression) receiver).name in ['this', 'delegate']) || methodName == null || !(call.arguments instanceof ArgumentListExpression)) {
+                return false
+            }
+            List<Expression> arguments = ((ArgumentListExpression) call.arguments).expressions
+            if (methodName in TEMPLATE_JUNCTION_METHODS) {
+                if (arguments.size() != 1 || !(arguments[0] instanceof ClosureExpression) || !collectTemplateCalls((ClosureExpression) arguments[0], parameters, templateCalls)) {
+                    return false
+                }
+            }
+            else if (methodName in TEMPLATE_CONSTANT_METHODS) {
+                if (!arguments.every { Expression e -> e instanceof ConstantExpression }) {
+                    return false
+                }
+            }
+            else if (methodName in TEMPLATE_VALUE_METHODS || methodName == 'idEq') {
+                int first = methodName == 'idEq' ? 0 : 1
+                if (arguments.size() <= first || (first == 1 && !(arguments[0] instanceof ConstantExpression))) {
+                    return false
+                }
+                boolean referencesParameters = false
+                for (Expression value in arguments.subList(first, arguments.size())) {
+                    if (value instanceof VariableExpression && parameters.containsKey(((VariableExpression) value).name)) {
+                        referencesParameters = true
+                    }
+                    else if (!(value instanceof ConstantExpression)) {
+                        return false
+                    }
+                }
+                if (referencesParameters) {
+                    templateCalls.add((ArgumentListExpression) call.arguments)
+                }
+            }
+            else {
+                return false
+            }
+        }
+        return true
+    }
+
+    /**
+     * Wraps each reference to a parameter in a call to {@link CriteriaTemplate#argument(int, Object)}
+     *
+     * @return The parameters in the order of their argument index
+     */
+    protected List<Parameter> bindTemplateArguments(List<ArgumentListExpression> templateCalls, Map<String, Parameter> parameters) {
+        List<Parameter> arguments = []
+        for (ArgumentListExpression call in templateCalls) {
+            List<Expression> expressions = call.expressions
+            for (int i = 0; i < expressions.size(); i++) {
+                Expression value = expressions[i]
+                Parameter parameter = value instanceof VariableExpression ? parameters.get(((VariableExpression) value).name) : null
+                if (parameter != null) {
+                    int index = arguments.indexOf(parameter)
+                    if (index == -1) {
+                        index = arguments.size()
+                        arguments.add(parameter)
+                    }
+                    expressions.set(i, callX(classX(CriteriaTemplate), "argument", args(constX(index), value)))
+                }
+            }
+        }
+        return arguments
+    }
+
     protected Statement buildReturnStatement(ClassNode domainClass, MethodNode abstractMethodNode, MethodNode methodNode, Expression queryExpression) {
         returnS(queryExpression)
     }
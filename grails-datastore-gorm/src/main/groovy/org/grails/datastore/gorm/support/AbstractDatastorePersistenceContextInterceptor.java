@@ -18,9 +18,12 @@ import jakarta.persistence.FlushModeType;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.grails.datastore.gorm.multitenancy.TenantResolutionCache;
 import org.grails.datastore.mapping.core.Datastore;
 import org.grails.datastore.mapping.core.DatastoreUtils;
 import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.core.connections.ConnectionSourceSettings;
+import org.grails.datastore.mapping.core.connections.ConnectionSourcesProvider;
 import org.grails.datastore.mapping.transactions.SessionHolder;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
@@ -40,7 +43,6 @@ public abstract class AbstractDatastorePersistenceContextInterceptor  {
     }
 
     public void init() {
-
         final SessionHolder sessionHolder = (SessionHolder) TransactionSynchronizationManager.getResource(datastore);
         if (sessionHolder == null) {
             LOG.debug("Opening single Datastore session in DatastorePersistenceContextInterceptor");
@@ -52,6 +54,22 @@ public abstract class AbstractDatastorePersistenceContextInterceptor  {
                 // ignore, already bound
             }
         }
+
+        // opened last, so that a failed init doesn't leave the cached tenant id bound to the thread
+        if (isTenantResolutionCached()) {
+            TenantResolutionCache.open();
+        }
+    }
+
+    /**
+     * @return Whether the tenant is resolved once for the unit of work, see {@link org.grails.datastore.mapping.multitenancy.MultiTenancySettings#isCacheTenantResolution()}
+     */
+    protected boolean isTenantResolutionCached() {
+        if (datastore instanceof ConnectionSourcesProvider) {
+            ConnectionSourceSettings settings = ((ConnectionSourcesProvider<?, ?>) datastore).getConnectionSources().getDefaultConnectionSource().getSettings();
+            return settings.getMultiTenancy().isCacheTenantResolution();
+        }
+        return false;
     }
 
     protected Session getSession() {
@@ -59,6 +77,10 @@ public abstract class AbstractDatastorePersistenceContextInterceptor  {
     }
 
     public void destroy() {
+        if (isTenantResolutionCached()) {
+            TenantResolutionCache.close();
+        }
+
         // single session mode
         final SessionHolder sessionHolder = (SessionHolder) TransactionSynchronizationManager.getResource(datastore);
         if (sessionHolder != null && this == sessionHolder.getCreator()) {
@@ -59,17 +59,15 @@ class ClasspathEntityScanner {
         }
     }
     /**
-     * Scans the classpath for entities for the given packages
+     * Scans the classpath for entities for the given packages. Packages that the {@link EntityIndex} covers are read
+     * from the index, all other packages are scanned.
      *
      * @param packages The packages
      * @return The entities
      */
     Class[] scan(Package... packages) {
-        ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(false)
-        componentProvider.setMetadataReaderFactory(new AnnotationMetadataReaderFactory(classLoader))
-        for(ann in annotations) {
-            componentProvider.addIncludeFilter(new AnnotationTypeFilter(ann))
-        }
+        EntityIndex entityIndex = EntityIndex.load(classLoader)
+        ClassPathScanningCandidateComponentProvider componentProvider = null
         Collection<Class> classes = new HashSet<>()
         for(Package p in packages) {
             def packageName = p.name
@@ -77,12 +75,42 @@ class ClasspathEntityScanner {
                 log.error("Package [$packageName] will not be scanned as it is too generic and will slow down startup time. Use a more specific package")
             }
             else {
-                for (BeanDefinition candidate in componentProvider.findCandidateComponents(packageName)) {
-                    Class persistentEntity = Class.forName(candidate.beanClassName, false, classLoader )
-                    classes.add persistentEntity
+                if(entityIndex != null && entityIndex.covers(packageName, classLoader)) {
+                    for(Class persistentEntity in entityIndex.loadEntities(packageName, classLoader)) {
+                        if(isAnnotated(persistentEntity)) {
+                            classes.add persistentEntity
+                        }
+                    }
+                }
+                else {
+                    if(componentProvider == null) {
+                        componentProvider = createComponentProvider()
+                    }
+                    for (BeanDefinition candidate in componentProvider.findCandidateComponents(packageName)) {
+                        Class persistentEntity = Class.forName(candidate.beanClassName, false, classLoader )
+                        classes.add persistentEntity
+                    }
                 }
             }
         }
         return classes as Class[]
     }
+
+    protected ClassPathScanningCandidateComponentProvider createComponentProvider() {
+        ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(false)
+        componentProvider.setMetadataReaderFactory(new AnnotationMetadataReaderFactory(classLoader))
+        for(ann in annotations) {
+            componentProvider.addIncludeFilter(new AnnotationTypeFilter(ann))
+        }
+        return componentProvider
+    }
+
+    protected boolean isAnnotated(Class type) {
+        for(ann in annotations) {
+            if(type.isAnnotationPresent(ann)) {
+                return true
+            }
+        }
+        return false
+    }
 }
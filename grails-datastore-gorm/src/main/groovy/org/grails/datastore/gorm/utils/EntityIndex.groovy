@@ -0,0 +1,199 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.utils
+
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+
+/**
+ * An index of the entity classes of an application that is written to {@link #ENTITY_INDEX_RESOURCE} by
+ * {@link org.grails.compiler.gorm.GormEntityTransformation} at compile time.
+ *
+ * <p>Reading the index avoids parsing every class file below the packages to scan at startup. Entries of classes that
+ * no longer exist are ignored when loaded. Since an index is only written for classes compiled by the transformation,
+ * callers should only read a package from the index if it {@link #covers(String, ClassLoader) covers} the package and
+ * scan it otherwise.</p>
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@Slf4j
+class EntityIndex {
+
+    /**
+     * The location of the entity index on the classpath
+     */
+    public static final String ENTITY_INDEX_RESOURCE = "META-INF/grails/gorm.entities"
+
+    private final Set<String> entityNames
+    private final Set<String> roots
+
+    protected EntityIndex(Set<String> entityNames, Set<String> roots) {
+        this.entityNames = entityNames
+        this.roots = roots
+    }
+
+    /**
+     * Loads all of the entity indices visible to the given class loader
+     *
+     * @param classLoader The class loader
+     * @return The entity index or null if there is no index on the classpath
+     */
+    static EntityIndex load(ClassLoader classLoader) {
+        Enumeration<URL> resources
+        try {
+            resources = classLoader.getResources(ENTITY_INDEX_RESOURCE)
+        } catch (IOException e) {
+            log.warn("Unable to read entity index [$ENTITY_INDEX_RESOURCE]: ${e.message}", e)
+            return null
+        }
+        if (!resources.hasMoreElements()) {
+            return null
+        }
+        Set<String> entityNames = new LinkedHashSet<>()
+        Set<String> roots = new HashSet<>()
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement()
+            String location = url.toExternalForm()
+            roots.add(location.substring(0, location.length() - ENTITY_INDEX_RESOURCE.length()))
+            try {
+                for (String line in url.getText("UTF-8").readLines()) {
+                    line = line.trim()
+                    if (line && !line.startsWith('#')) {
+                        entityNames.add(line)
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Unable to read entity index [$url]: ${e.message}", e)
+                return null
+            }
+        }
+        return new EntityIndex(entityNames, roots)
+    }
+
+    /**
+     * @return The names of all the indexed entities
+     */
+    Set<String> getEntityNames() {
+        return Collections.unmodifiableSet(entityNames)
+    }
+
+    /**
+     * Whether the index covers the given package, which is the case if every classpath root that contains the package has an
+     * index. Classes of roots without an index, for example those compiled by javac or packaged in a jar without an index,
+     * are only found by scanning.
+     *
+     * @param packageName The package name
+     * @param classLoader The class loader
+     * @return True if the entities of the package can be read from the index
+     */
+    boolean covers(String packageName, ClassLoader classLoader) {
+        if (!packageName) {
+            return false
+        }
+        String path = packageName.replace('.', '/') + '/'
+        Enumeration<URL> resources
+        try {
+            resources = classLoader.getResources(path)
+        } catch (IOException e) {
+            log.debug("Unable to find the classpath roots of package [$packageName]: ${e.message}")
+            return false
+        }
+        boolean found = false
+        while (resources.hasMoreElements()) {
+            String location = resources.nextElement().toExternalForm()
+            String root
+            if (location.endsWith(path)) {
+                root = location.substring(0, location.length() - path.length())
+            }
+            else if (location.endsWith(path.substring(0, path.length() - 1))) {
+                root = location.substring(0, location.length() - path.length() + 1)
+            }
+            else {
+                return false
+            }
+            if (!roots.contains(root)) {
+                return false
+            }
+            found = true
+        }
+        return found
+    }
+
+    /**
+     * Finds the indexed entities of the given package and its sub packages
+     *
+     * @param packageName The package name. An empty name returns the entities of the default package only
+     * @return The entity names
+     */
+    Set<String> getEntityNames(String packageName) {
+        Set<String> result = new LinkedHashSet<>()
+        if (packageName) {
+            String prefix = packageName + '.'
+            for (String name in entityNames) {
+                if (name.startsWith(prefix)) {
+                    result.add(name)
+                }
+            }
+        }
+        else {
+            for (String name in entityNames) {
+                if (name.indexOf('.') == -1) {
+                    result.add(name)
+                }
+            }
+        }
+        return result
+    }
+
+    /**
+     * Loads the indexed entities of the given package and its sub packages. Entries that can't be loaded are skipped.
+     *
+     * @param packageName The package name
+     * @param classLoader The class loader
+     * @return The entity classes
+     */
+    List<Class> loadEntities(String packageName, ClassLoader classLoader) {
+        List<Class> classes = []
+        for (String name in getEntityNames(packageName)) {
+            try {
+                classes.add(Class.forName(name, false, classLoader))
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.debug("Ignoring entity [$name] of entity index that could not be loaded: ${e.message}")
+            }
+        }
+        return classes
+    }
+
+    /**
+     * Adds an entity to the index in the given output directory if it is not already present
+     *
+     * @param targetDirectory The root of the compilation output
+     * @param className The name of the entity class
+     */
+    static synchronized void addEntity(File targetDirectory, String className) {
+        File index = new File(targetDirectory, ENTITY_INDEX_RESOURCE)
+        index.parentFile.mkdirs()
+        if (index.exists()) {
+            List<String> entries = index.readLines("UTF-8")*.trim()
+            if (!entries.contains(className)) {
+                index.append("${className}${System.lineSeparator()}", "UTF-8")
+            }
+        }
+        else {
+            index.setText("${className}${System.lineSeparator()}", "UTF-8")
+        }
+    }
+}
@@ -4,6 +4,7 @@ import grails.gorm.DetachedCriteria
 import groovy.transform.CompileStatic
 import org.grails.datastore.gorm.GormEnhancer
 import org.grails.datastore.gorm.validation.constraints.AbstractConstraint
+import org.grails.datastore.mapping.core.Datastore
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
 import org.grails.datastore.mapping.model.MappingContext
 import org.grails.datastore.mapping.model.PersistentEntity
@@ -142,19 +143,17 @@ class UniqueConstraint extends AbstractConstraint {
             }.id()
 
             if (shouldValidate) {
-                def existingId = detachedCriteria.get()
+                // We are merely verifying that the object is not transient here
+                def targetId = resolveTargetId(target, reflector, proxyHandler)
+                def existingId = UniqueConstraintBatch.UNRESOLVED
+                UniqueConstraintBatch batch = findBatch(target)
+                if (batch != null) {
+                    existingId = batch.findExistingId(this, constraintClass, targetEntity, target, propertyValue, targetId)
+                }
+                if (existingId.is(UniqueConstraintBatch.UNRESOLVED)) {
+                    existingId = detachedCriteria.get()
+                }
                 if (existingId != null) {
-                    // We are merely verifying that the object is not transient here
-                    def targetId
-                    if (proxyHandler.isProxy(target)) {
-                        if (proxyHandler.isInitialized(target)) {
-                            targetId = reflector.getIdentifier(proxyHandler.unwrap(target))
-                        } else {
-                            targetId = proxyHandler.getIdentifier(target)
-                        }
-                    } else {
-                        targetId = reflector.getIdentifier(target)
-                    }
                     if (targetId != existingId) {
                         def args = [constraintPropertyName, constraintOwningClass, propertyValue] as Object[]
                         rejectValue(target, errors, "unique", args, getDefaultMessage("default.not.unique.message"))
@@ -165,6 +164,41 @@ class UniqueConstraint extends AbstractConstraint {
     }
 
 
+    /**
+     * @return The names of the properties of the unique group
+     */
+    List<String> getUniqueGroup() {
+        return (List<String>) group
+    }
+
+    /**
+     * Finds the {@link UniqueConstraintBatch} the object is validated with
+     *
+     * @param target The validated object
+     * @return The batch or null if the object is not part of one
+     */
+    protected UniqueConstraintBatch findBatch(Object target) {
+        try {
+            Datastore datastore = GormEnhancer.findDatastore(constraintOwningClass)
+            if (datastore.hasCurrentSession()) {
+                return UniqueConstraintBatch.find(datastore.currentSession, target)
+            }
+        } catch (IllegalStateException ignored) {
+            // no datastore, the query will report it
+        }
+        return null
+    }
+
+    private static Object resolveTargetId(Object target, EntityReflector reflector, ProxyHandler proxyHandler) {
+        if (proxyHandler.isProxy(target)) {
+            if (proxyHandler.isInitialized(target)) {
+                return reflector.getIdentifier(proxyHandler.unwrap(target))
+            }
+            return proxyHandler.getIdentifier(target)
+        }
+        return reflector.getIdentifier(target)
+    }
+
     @Override
     boolean supports(Class type) {
         return true
@@ -0,0 +1,314 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.validation.constraints.builtin
+
+import grails.gorm.DetachedCriteria
+import groovy.transform.CompileStatic
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.model.PersistentProperty
+import org.grails.datastore.mapping.model.types.Association
+import org.grails.datastore.mapping.reflect.EntityReflector
+
+/**
+ * Resolves the {@link UniqueConstraint unique constraints} of a batch of objects, such as the objects saved with
+ * {@link org.grails.datastore.gorm.GormStaticApi#saveAll(java.lang.Iterable)}, with one query per constraint instead of
+ * one query per object.
+ *
+ * <p>The batch is registered with the session for each of the objects until the session is flushed. When the first
+ * object of the batch is validated the values of the constraint property of all the objects are looked up with an
+ * {@code in} query, together with the values of the properties of the unique group, and every other object of the batch
+ * is validated against the result.
+ * Objects of the batch that share the same values with an object before them are reported as duplicates too. Values are
+ * compared by equality, so a datastore that compares them differently, for example case insensitively, may still
+ * report a duplicate when the object is saved.</p>
+ *
+ * <p>Each object is only validated against the batch once per constraint, later validations of the same object, for
+ * example after it was modified, query the datastore as usual. Constraints on associations or with associations in
+ * the unique group are always validated with a query per object.</p>
+ *
+ * @since 9.0
+ */
+@CompileStatic
+class UniqueConstraintBatch {
+
+    /**
+     * The name of the session attribute the batch is registered with
+     */
+    public static final String ATTRIBUTE = UniqueConstraintBatch.name
+
+    /**
+     * The default number of values looked up by one query
+     */
+    public static final int DEFAULT_QUERY_SIZE = 1000
+
+    /**
+     * Returned by {@link #findExistingId(UniqueConstraint, Class, PersistentEntity, Object, Object, Object)} for an object
+     * that duplicates another object of the batch
+     */
+    static final Object DUPLICATE_IN_BATCH = new Object()
+
+    /**
+     * Returned by {@link #findExistingId(UniqueConstraint, Class, PersistentEntity, Object, Object, Object)} when the batch
+     * can't validate the object and it has to be queried for
+     */
+    static final Object UNRESOLVED = new Object()
+
+    protected final List<Object> targets
+    protected final int querySize
+    private final Map<UniqueConstraint, Resolution> resolutions = [:]
+    private Set<Object> identities
+
+    UniqueConstraintBatch(Iterable<?> targets, int querySize = DEFAULT_QUERY_SIZE) {
+        this.targets = new ArrayList<Object>()
+        for (Object target in targets) {
+            if (target != null) {
+                this.targets.add(target)
+            }
+        }
+        this.querySize = querySize
+    }
+
+    /**
+     * Registers a batch for the given objects with the session
+     *
+     * @param session The session
+     * @param targets The objects
+     * @return The batch
+     */
+    static UniqueConstraintBatch register(Session session, Iterable<?> targets) {
+        UniqueConstraintBatch batch = new UniqueConstraintBatch(targets)
+        for (Object target in batch.targets) {
+            session.setAttribute(target, ATTRIBUTE, batch)
+        }
+        return batch
+    }
+
+    /**
+     * Removes the batch from the session again, so that it doesn't keep the objects and the query results reachable
+     *
+     * @param session The session
+     */
+    void unregister(Session session) {
+        for (Object target in targets) {
+            if (session.getAttribute(target, ATTRIBUTE).is(this)) {
+                session.setAttribute(target, ATTRIBUTE, null)
+            }
+        }
+    }
+
+    /**
+     * Removes the batch from the session once the pending inserts and updates of the session have been flushed, which is when
+     * the objects are validated. Sessions that don't buffer their writes have validated the objects already, so the batch is
+     * removed right away.
+     *
+     * @param session The session
+     */
+    void unregisterAfterFlush(Session session) {
+        if (session instanceof AbstractSession) {
+            ((AbstractSession) session).addPostFlushOperation({ unregister(session) } as Runnable)
+        }
+        else {
+            unregister(session)
+        }
+    }
+
+    /**
+     * @param session The session
+     * @param target The object
+     * @return The batch the object is part of or null if there is none
+     */
+    static UniqueConstraintBatch find(Session session, Object target) {
+        Object batch = session?.getAttribute(target, ATTRIBUTE)
+        return batch instanceof UniqueConstraintBatch ? (UniqueConstraintBatch) batch : null
+    }
+
+    /**
+     * Whether the constraint can be validated by a batch
+     *
+     * @param constraint The constraint
+     * @param entity The entity of the validated object
+     * @return True if it can
+     */
+    static boolean supports(UniqueConstraint constraint, PersistentEntity entity) {
+        PersistentProperty property = entity.getPropertyByName(constraint.propertyName)
+        if (property == null || property instanceof Association) {
+            return false
+        }
+        for (String propertyName in constraint.uniqueGroup) {
+            PersistentProperty groupProperty = entity.getPropertyByName(propertyName)
+            if (groupProperty == null || groupProperty instanceof Association) {
+                return false
+            }
+        }
+        return true
+    }
+
+    /**
+     * Finds the identifier of an object with the same values as the given object
+     *
+     * @param constraint The constraint
+     * @param constraintClass The class that defines the constrained property
+     * @param entity The entity of the validated object
+     * @param target The validated object
+     * @param propertyValue The value of the constrained property
+     * @param targetId The identifier of the validated object
+     * @return The identifier of the existing object, {@link #DUPLICATE_IN_BATCH} if another object of the batch has the same values,
+     * {@link #UNRESOLVED} if the batch can't tell or null if there is none
+     */
+    synchronized Object findExistingId(UniqueConstraint constraint, Class constraintClass, PersistentEntity entity, Object target, Object propertyValue, Object targetId) {
+        if (!supports(constraint, entity) || !containsTarget(target)) {
+            return UNRESOLVED
+        }
+        Resolution resolution = resolutions.get(constraint)
+        if (resolution == null) {
+            resolution = resolve(constraint, constraintClass, entity)
+            resolutions.put(constraint, resolution)
+        }
+        return resolution.findExistingId(target, propertyValue, targetId)
+    }
+
+    protected Resolution resolve(UniqueConstraint constraint, Class constraintClass, PersistentEntity entity) {
+        EntityReflector reflector = entity.reflector
+        String propertyName = constraint.propertyName
+        List<String> group = constraint.uniqueGroup
+        Resolution resolution = new Resolution(group.size())
+
+        Set<Object> values = new LinkedHashSet<>()
+        for (Object target in targets) {
+            if (!constraintClass.isInstance(target)) {
+                continue
+            }
+            if (target instanceof DirtyCheckable && !isChanged((DirtyCheckable) target, propertyName, group)) {
+                continue
+            }
+            Object value = reflector.getProperty(target, propertyName)
+            if (value == null) {
+                continue
+            }
+            values.add(value)
+            resolution.queried.add(value)
+            List<Object> key = [value]
+            for (String groupProperty in group) {
+                key.add(reflector.getProperty(target, groupProperty))
+            }
+            resolution.firstInBatch.putIfAbsent(key, target)
+        }
+
+        List<Object> valueList = new ArrayList<>(values)
+        for (int i = 0; i < valueList.size(); i += querySize) {
+            List<Object> chunk = valueList.subList(i, Math.min(i + querySize, valueList.size()))
+            List rows = new DetachedCriteria(constraintClass).build {
+                inList(propertyName, chunk)
+                projections {
+                    property(propertyName)
+                    for (String groupProperty in group) {
+                        property(groupProperty)
+                    }
+                    id()
+                }
+            }.list()
+            for (Object row in rows) {
+                Object[] columns = row instanceof Object[] ? (Object[]) row : ((Collection) row).toArray()
+                resolution.existing.computeIfAbsent(columns[0], { Object k -> new ArrayList<Object[]>() }).add(columns)
+            }
+        }
+        resolution.reflector = reflector
+        resolution.group = group
+        return resolution
+    }
+
+    private boolean containsTarget(Object target) {
+        if (identities == null) {
+            identities = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>())
+            identities.addAll(targets)
+        }
+        return identities.contains(target)
+    }
+
+    private static boolean isChanged(DirtyCheckable target, String propertyName, List<String> group) {
+        if (target.hasChanged(propertyName)) {
+            return true
+        }
+        for (String groupProperty in group) {
+            if (target.hasChanged(groupProperty)) {
+                return true
+            }
+        }
+        return false
+    }
+
+    @CompileStatic
+    protected static class Resolution {
+        final int groupSize
+        final Map<Object, List<Object[]>> existing = [:]
+        final Map<List<Object>, Object> firstInBatch = [:]
+        final Set<Object> queried = new HashSet<>()
+        final IdentityHashMap<Object, Boolean> validated = new IdentityHashMap<>()
+        EntityReflector reflector
+        List<String> group
+
+        Resolution(int groupSize) {
+            this.groupSize = groupSize
+        }
+
+        Object findExistingId(Object target, Object propertyValue, Object targetId) {
+            // objects validated before, or changed since the batch was resolved, are queried for
+            if (validated.put(target, Boolean.TRUE) != null || !queried.contains(propertyValue)) {
+                return UNRESOLVED
+            }
+            Object[] groupValues = new Object[groupSize]
+            for (int i = 0; i < groupSize; i++) {
+                groupValues[i] = reflector.getProperty(target, group.get(i))
+            }
+
+            List<Object[]> rows = existing.get(propertyValue)
+            if (rows != null) {
+                for (Object[] row in rows) {
+                    if (matches(row, groupValues)) {
+                        Object existingId = row[row.length - 1]
+                        if (existingId != targetId) {
+                            return existingId
+                        }
+                    }
+                }
+            }
+
+            List<Object> key = [propertyValue]
+            key.addAll(groupValues)
+            Object first = firstInBatch.get(key)
+            if (first != null && !first.is(target)) {
+                Object firstId = reflector.getIdentifier(first)
+                if (firstId == null || firstId != targetId) {
+                    return DUPLICATE_IN_BATCH
+                }
+            }
+            return null
+        }
+
+        private static boolean matches(Object[] row, Object[] groupValues) {
+            for (int i = 0; i < groupValues.length; i++) {
+                // like the query per object, a null value in the group matches any value
+                if (groupValues[i] != null && !DefaultTypeTransformation.compareEqual(row[i + 1], groupValues[i])) {
+                    return false
+                }
+            }
+            return true
+        }
+    }
+}
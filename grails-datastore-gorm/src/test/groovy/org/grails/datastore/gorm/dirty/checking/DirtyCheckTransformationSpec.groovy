@@ -2,7 +2,11 @@ package org.grails.datastore.gorm.dirty.checking
 
 import grails.gorm.annotation.Entity
 import grails.gorm.dirty.checking.DirtyCheck
+import grails.gorm.dirty.checking.DirtyCheckedProperty
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
+import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
 import spock.lang.Ignore
 import spock.lang.Specification
 import spock.lang.Issue
@@ -448,6 +452,92 @@ class Practice {
         child.hasChanged("name")
         child.hasChanged("parent")
     }
+
+    void "Test generated setters track changes with property ordinals"() {
+        given:"A book that is tracking changes"
+        def book = new Book(title: "The Stand", author: "Stephen King")
+        book.trackChanges()
+
+        expect:"The setters of the root class are assigned ordinals"
+        Book.getMethod("setTitle", String).getAnnotation(DirtyCheckedProperty).ordinal() == 0
+        Book.getMethod("setReleaseDate", Date).getAnnotation(DirtyCheckedProperty).ordinal() == 1
+        KidsBook.getMethod("setAge", int).getAnnotation(DirtyCheckedProperty).ordinal() == 3
+
+        and:"No changes are allocated until a property changes"
+        book.@org_grails_datastore_mapping_dirty_checking_DirtyCheckable__$changedProperties == null
+        !book.hasChanged()
+
+        when:"Properties are changed"
+        book.title = "The Shining"
+        book.title = "Carrie"
+        book.author = "Richard Bachman"
+
+        then:"The changes are tracked"
+        book.hasChanged("title")
+        book.hasChanged("author")
+        !book.hasChanged("releaseDate")
+        book.getOriginalValue("title") == "The Stand"
+        book.getOriginalValue("author") == "Stephen King"
+        book.listDirtyPropertyNames() == ["title", "author"]
+
+        and:"Only the properties with an ordinal are in the mask"
+        book.@org_grails_datastore_mapping_dirty_checking_DirtyCheckable__$dirtyPropertyMask == 1L
+
+        when:"Tracking is restarted"
+        book.trackChanges()
+
+        then:"There are no changes"
+        !book.hasChanged()
+        book.listDirtyPropertyNames().isEmpty()
+    }
+
+    void "Test property ordinals continue across the hierarchy and beyond 64 properties"() {
+        given:"An entity with 70 properties and a sub class that is declared first"
+        def gcl = new GroovyClassLoader()
+        gcl.parseClass("""
+package org.grails.datastore.gorm.dirty.checking
+
+import grails.gorm.annotation.Entity
+
+@Entity
+class WideSubEntity extends WideEntity {
+    String extra
+}
+
+@Entity
+class WideEntity {
+${(0..<70).collect { int i -> "    String p$i" }.join('\n')}
+}
+""")
+        Class wideClass = gcl.loadClass("org.grails.datastore.gorm.dirty.checking.WideEntity")
+        Class subClass = gcl.loadClass("org.grails.datastore.gorm.dirty.checking.WideSubEntity")
+        MappingContext mappingContext = new KeyValueMappingContext("test")
+        PersistentEntity entity = mappingContext.addPersistentEntity(subClass)
+
+        expect:"The ordinals of the sub class continue those of the super class"
+        wideClass.getMethod("setP69", String).getAnnotation(DirtyCheckedProperty).ordinal() == 69
+        subClass.getMethod("setExtra", String).getAnnotation(DirtyCheckedProperty).ordinal() == 70
+
+        when:"Properties below and beyond the first 64 ordinals change"
+        def instance = subClass.getDeclaredConstructor().newInstance()
+        instance.trackChanges()
+        instance.p1 = "one"
+        instance.p69 = "sixty nine"
+        instance.extra = "extra"
+        instance.p69 = "changed again"
+        long[] mask = mappingContext.getEntityReflector(entity).getDirtyPropertyMask(instance)
+
+        then:"The mask holds a word per 64 ordinals"
+        instance.listDirtyPropertyNames() == ["p1", "p69", "extra"]
+        mask == [1L << 1, (1L << 5) | (1L << 6)] as long[]
+
+        when:"Tracking is restarted"
+        instance.trackChanges()
+
+        then:
+        !instance.hasChanged()
+        mappingContext.getEntityReflector(entity).getDirtyPropertyMask(instance) == [0L] as long[]
+    }
 }
 
 @DirtyCheck
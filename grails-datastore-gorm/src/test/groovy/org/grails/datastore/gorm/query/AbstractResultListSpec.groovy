@@ -0,0 +1,200 @@
+package org.grails.datastore.gorm.query
+
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.Datastore
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.engine.Persister
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.transactions.Transaction
+import spock.lang.Specification
+
+class AbstractResultListSpec extends Specification {
+
+    void "test a result list retains the decoded objects"() {
+        given:
+        TestResultList list = new TestResultList(['a', 'b', 'c'].iterator(), false)
+
+        expect:
+        list.get(1) == 'b'
+        list.size() == 3
+        list.collect() == ['a', 'b', 'c']
+        list.collect() == ['a', 'b', 'c']
+    }
+
+    void "test a forward-only result list decodes objects on iteration without retaining them"() {
+        given:
+        TestResultList list = new TestResultList(['a', 'b', 'c'].iterator(), true)
+
+        expect:
+        !list.isEmpty()
+        list.decoded == 0
+
+        when:
+        Iterator iterator = list.iterator()
+
+        then:
+        iterator.next() == 'a'
+        list.decoded == 1
+        iterator.next() == 'b'
+        iterator.next() == 'c'
+        !iterator.hasNext()
+        list.initializedObjects.isEmpty()
+    }
+
+    void "test a forward-only result list fails fast on random access"() {
+        given:
+        TestResultList list = new TestResultList(['a', 'b'].iterator(), true)
+
+        when:
+        list.get(0)
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when:
+        list.size()
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when:
+        list.iterator()
+        list.iterator()
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    void "test a forward-only result list evicts consumed objects from the session"() {
+        given:
+        Session session = Mock(Session)
+        TestResultList list = new TestResultList(['a', 'b'].iterator(), true)
+        list.evictionSession = session
+
+        when:
+        Iterator iterator = list.iterator()
+        iterator.next()
+
+        then:
+        0 * session.clear(_)
+
+        when:
+        iterator.next()
+
+        then:
+        1 * session.clear('a')
+
+        when:
+        iterator.hasNext()
+
+        then:
+        1 * session.clear('b')
+    }
+
+    void "test a forward-only result list doesn't evict objects that were attached before the iteration"() {
+        given:
+        TestSession session = new TestSession(Mock(Datastore), Mock(MappingContext), ['b'])
+        TestResultList list = new TestResultList(['a', 'b', 'c'].iterator(), true)
+        list.evictionSession = session
+
+        when:
+        list.iterator().toList()
+
+        then:
+        session.cleared == ['a', 'c']
+    }
+
+    void "test a forward-only result list doesn't evict objects that were modified during the iteration"() {
+        given:
+        TestSession session = new TestSession(Mock(Datastore), Mock(MappingContext), [])
+        session.dirty << 'b'
+        TestResultList list = new TestResultList(['a', 'b', 'c'].iterator(), true)
+        list.evictionSession = session
+
+        when:
+        list.iterator().toList()
+
+        then:
+        session.cleared == ['a', 'c']
+    }
+
+    void "test a forward-only result list can be streamed"() {
+        given:
+        TestResultList list = new TestResultList(['a', 'b', 'c'].iterator(), true)
+
+        expect:
+        list.stream().map { it.toUpperCase() }.toList() == ['A', 'B', 'C']
+    }
+
+    static class TestSession extends AbstractSession {
+        final List<Object> attached
+        final List<Object> cleared = []
+        final List<Object> dirty = []
+        Set<Object> recorder
+
+        TestSession(Datastore datastore, MappingContext mappingContext, List<Object> attached) {
+            super(datastore, mappingContext, null)
+            this.attached = attached
+        }
+
+        void load(Object o) {
+            if (!attached.contains(o) && recorder != null) {
+                recorder.add(o)
+            }
+        }
+
+        @Override
+        Set<Object> recordAttachedInstances(Set<Object> attached) {
+            Set<Object> previous = recorder
+            recorder = attached
+            return previous
+        }
+
+        @Override
+        boolean isDirty(Object o) {
+            return dirty.contains(o)
+        }
+
+        @Override
+        void clear(Object o) {
+            cleared << o
+        }
+
+        @Override
+        protected Persister createPersister(Class cls, MappingContext mappingContext) {
+            return null
+        }
+
+        @Override
+        protected Transaction beginTransactionInternal() {
+            return null
+        }
+
+        @Override
+        Object getNativeInterface() {
+            return null
+        }
+    }
+
+    static class TestResultList extends AbstractResultList {
+        int decoded
+
+        TestResultList(Iterator<Object> cursor, boolean forwardOnly) {
+            super(0, -1, cursor, forwardOnly)
+        }
+
+        @Override
+        protected Object nextDecoded() {
+            decoded++
+            Object o = cursor.next()
+            if (evictionSession instanceof TestSession) {
+                ((TestSession) evictionSession).load(o)
+            }
+            return o
+        }
+
+        @Override
+        void close() throws IOException {
+        }
+    }
+}
@@ -2,12 +2,18 @@ package org.grails.datastore.gorm.utils
 
 import grails.gorm.annotation.Entity
 import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
 
 /**
  * Created by graemerocher on 18/11/16.
  */
 class ClasspathEntityScannerSpec extends Specification {
 
+    @TempDir
+    Path tempDir
+
     void "test classpath entity scanner"() {
         when:"the classpath is scanned"
         def scanner = new ClasspathEntityScanner()
@@ -17,6 +23,85 @@ class ClasspathEntityScannerSpec extends Specification {
         results.size() == 1
         results.first() == TestEntity
     }
+
+    void "test the entity index is read instead of scanning the package"() {
+        given:"an entity index that lists an entity, a class that no longer exists and a class that isn't an entity"
+        def scanner = new ClasspathEntityScanner(classLoader: indexClassLoader(true,
+                TestEntity.name,
+                "${ClasspathEntityScannerSpec.package.name}.RemovedEntity",
+                ClasspathEntityScannerSpec.name
+        ))
+
+        when:"the classpath is scanned"
+        def results = scanner.scan(ClasspathEntityScannerSpec.package)
+
+        then:"only the existing entities of the index are returned"
+        results as List == [TestEntity]
+    }
+
+    void "test packages in classpath roots without an entity index are scanned"() {
+        given:"an entity index in another classpath root than the package"
+        def scanner = new ClasspathEntityScanner(classLoader: indexClassLoader(false, "com.example.Book"))
+
+        when:"the classpath is scanned"
+        def results = scanner.scan(ClasspathEntityScannerSpec.package)
+
+        then:"the package is scanned"
+        results as List == [TestEntity]
+    }
+
+    void "test the entity index covers a package only if every classpath root of the package has an index"() {
+        given:
+        String packageName = ClasspathEntityScannerSpec.package.name
+
+        expect:
+        indexClassLoader(true, TestEntity.name).with { EntityIndex.load(it).covers(packageName, it) }
+        !indexClassLoader(false, TestEntity.name).with { EntityIndex.load(it).covers(packageName, it) }
+        !indexClassLoader(true, TestEntity.name).with { EntityIndex.load(it).covers('com.example.missing', it) }
+        !indexClassLoader(true, TestEntity.name).with { EntityIndex.load(it).covers('', it) }
+    }
+
+    void "test entity index package matching"() {
+        given:
+        def index = new EntityIndex(['com.example.Book', 'com.example.books.Author', 'com.examples.Other', 'Script'] as Set<String>, [] as Set<String>)
+
+        expect:
+        index.getEntityNames('com.example') == ['com.example.Book', 'com.example.books.Author'] as Set
+        index.getEntityNames('com.example.books') == ['com.example.books.Author'] as Set
+        index.getEntityNames('') == ['Script'] as Set
+    }
+
+    void "test entities are added to the entity index once"() {
+        when:"the same entity is indexed twice"
+        EntityIndex.addEntity(tempDir.toFile(), 'com.example.Book')
+        EntityIndex.addEntity(tempDir.toFile(), 'com.example.Author')
+        EntityIndex.addEntity(tempDir.toFile(), 'com.example.Book')
+        def loader = new URLClassLoader([tempDir.toUri().toURL()] as URL[], (ClassLoader) null)
+
+        then:"the index contains each entity once"
+        EntityIndex.load(loader).entityNames as List == ['com.example.Book', 'com.example.Author']
+    }
+
+    private ClassLoader indexClassLoader(boolean packageInIndexRoot, String... entityNames) {
+        def index = tempDir.resolve(EntityIndex.ENTITY_INDEX_RESOURCE).toFile()
+        index.parentFile.mkdirs()
+        index.text = entityNames.join(System.lineSeparator())
+        String packagePath = ClasspathEntityScannerSpec.package.name.replace('.', '/') + '/'
+        if (packageInIndexRoot) {
+            tempDir.resolve(packagePath).toFile().mkdirs()
+        }
+        // only resolve the index from the temporary directory so that indices of the test output are ignored. If the
+        // package is in the root of the index, the package directory of the test output is hidden too
+        return new URLClassLoader([tempDir.toUri().toURL()] as URL[], getClass().classLoader) {
+            @Override
+            Enumeration<URL> getResources(String name) throws IOException {
+                if (name == EntityIndex.ENTITY_INDEX_RESOURCE || (packageInIndexRoot && name == packagePath)) {
+                    return findResources(name)
+                }
+                return super.getResources(name)
+            }
+        }
+    }
 }
 
 @Entity